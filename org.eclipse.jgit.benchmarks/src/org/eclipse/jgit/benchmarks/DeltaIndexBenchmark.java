@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package org.eclipse.jgit.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.internal.storage.pack.DeltaIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+@State(Scope.Thread)
+public class DeltaIndexBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		/** Size of the source in KiB. */
+		@Param({ "4", "64", "1024" })
+		int size;
+
+		/** One line in this many is changed in the result. */
+		@Param({ "10", "100", "1000" })
+		int editEvery;
+
+		byte[] src;
+
+		byte[] res;
+
+		DeltaIndex index;
+
+		@Setup
+		public void setupBenchmark() {
+			// Source-code like text: lines of words with indentation, and a
+			// result editing some lines, as in successive file revisions.
+			Random rnd = new Random(42);
+			StringBuilder a = new StringBuilder();
+			StringBuilder b = new StringBuilder();
+			while (a.length() < size * 1024) {
+				String line = line(rnd);
+				a.append(line);
+				if (rnd.nextInt(editEvery) == 0) {
+					b.append(line(rnd));
+				} else {
+					b.append(line);
+				}
+			}
+			src = a.toString().getBytes(StandardCharsets.UTF_8);
+			res = b.toString().getBytes(StandardCharsets.UTF_8);
+			index = new DeltaIndex(src);
+		}
+
+		private static String line(Random rnd) {
+			StringBuilder line = new StringBuilder();
+			for (int i = rnd.nextInt(4); i > 0; i--) {
+				line.append('\t');
+			}
+			for (int i = 1 + rnd.nextInt(8); i > 0; i--) {
+				for (int c = 1 + rnd.nextInt(10); c > 0; c--) {
+					line.append((char) ('a' + rnd.nextInt(26)));
+				}
+				line.append(' ');
+			}
+			line.append('\n');
+			return line.toString();
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode({ Mode.AverageTime })
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@Warmup(iterations = 2, time = 100, timeUnit = TimeUnit.MILLISECONDS)
+	@Measurement(iterations = 2, time = 5, timeUnit = TimeUnit.SECONDS)
+	@Fork(1)
+	public void testCreateIndex(Blackhole blackhole, BenchmarkState state) {
+		blackhole.consume(new DeltaIndex(state.src));
+	}
+
+	@Benchmark
+	@BenchmarkMode({ Mode.AverageTime })
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@Warmup(iterations = 2, time = 100, timeUnit = TimeUnit.MILLISECONDS)
+	@Measurement(iterations = 2, time = 5, timeUnit = TimeUnit.SECONDS)
+	@Fork(1)
+	public void testEncode(Blackhole blackhole, BenchmarkState state)
+			throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		state.index.encode(out, state.res);
+		blackhole.consume(out.size());
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(DeltaIndexBenchmark.class.getSimpleName())
+				.forks(1).jvmArgs("-ea").build();
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.http.server;
+
+import static jakarta.servlet.http.HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+import static jakarta.servlet.http.HttpServletResponse.SC_SERVICE_UNAVAILABLE;
+import static org.eclipse.jgit.http.server.ServletUtils.ATTRIBUTE_REPOSITORY;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import org.eclipse.jgit.annotations.Nullable;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Serves a request on an executor instead of the container thread.
+ * <p>
+ * The request is put in asynchronous mode and the container thread returns
+ * immediately. The response output is written through a
+ * {@link FlowControlledOutputStream}. The attributes of the request, such as
+ * the repository and the {@link ServletUtils#ATTRIBUTE_HANDLER}, keep their
+ * values after the filters which set them returned, and the repository is
+ * kept open until the task finished.
+ */
+final class AsyncSession {
+	/** Work done for a request. */
+	interface Task {
+		/**
+		 * Serve the request.
+		 *
+		 * @param req
+		 *            the request.
+		 * @param rsp
+		 *            the response.
+		 * @throws IOException
+		 *             if an IO error occurred.
+		 */
+		void run(HttpServletRequest req, HttpServletResponse rsp)
+				throws IOException;
+	}
+
+	/**
+	 * Start serving a request asynchronously, if possible.
+	 *
+	 * @param req
+	 *            the request.
+	 * @param rsp
+	 *            the response.
+	 * @param executor
+	 *            executor to run the task on; if {@code null} the request is
+	 *            not served asynchronously.
+	 * @param task
+	 *            serves the request.
+	 * @return {@code true} if the request is served asynchronously;
+	 *         {@code false} if the caller has to serve it.
+	 * @throws IOException
+	 *             if the executor rejected the task and the error could not
+	 *             be sent.
+	 */
+	static boolean start(HttpServletRequest req, HttpServletResponse rsp,
+			@Nullable Executor executor, Task task) throws IOException {
+		if (executor == null || !req.isAsyncSupported()) {
+			return false;
+		}
+		Repository db = (Repository) req.getAttribute(ATTRIBUTE_REPOSITORY);
+		HttpServletRequest areq = new AttributesRequest(req);
+		HttpServletResponse arsp = new FlowControlledResponse(rsp);
+		AsyncContext ctx = req.startAsync(areq, arsp);
+		// UploadPack and ReceivePack enforce their own timeouts.
+		ctx.setTimeout(0);
+		if (db != null) {
+			db.incrementOpen();
+		}
+		try {
+			executor.execute(() -> {
+				try {
+					task.run(areq, arsp);
+				} catch (IOException | RuntimeException e) {
+					req.getServletContext().log(
+							HttpServerText.get().internalServerError, e);
+					sendInternalServerError(rsp);
+				} finally {
+					if (db != null) {
+						db.close();
+					}
+					ctx.complete();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			if (db != null) {
+				db.close();
+			}
+			try {
+				rsp.sendError(SC_SERVICE_UNAVAILABLE);
+			} finally {
+				ctx.complete();
+			}
+		}
+		return true;
+	}
+
+	private static void sendInternalServerError(HttpServletResponse rsp) {
+		if (!rsp.isCommitted()) {
+			try {
+				rsp.reset();
+				rsp.sendError(SC_INTERNAL_SERVER_ERROR);
+			} catch (IOException | IllegalStateException e) {
+				// Logged already, the client sees the connection closed.
+			}
+		}
+	}
+
+	private AsyncSession() {
+		// Static methods only.
+	}
+
+	private static class AttributesRequest extends HttpServletRequestWrapper {
+		private final Map<String, Object> attributes = new HashMap<>();
+
+		AttributesRequest(HttpServletRequest req) {
+			super(req);
+			for (String name : Collections.list(req.getAttributeNames())) {
+				attributes.put(name, req.getAttribute(name));
+			}
+		}
+
+		@Override
+		public Object getAttribute(String name) {
+			Object value = attributes.get(name);
+			return value != null ? value : super.getAttribute(name);
+		}
+
+		@Override
+		public void setAttribute(String name, Object o) {
+			if (o == null) {
+				removeAttribute(name);
+				return;
+			}
+			attributes.put(name, o);
+			super.setAttribute(name, o);
+		}
+
+		@Override
+		public void removeAttribute(String name) {
+			attributes.remove(name);
+			super.removeAttribute(name);
+		}
+	}
+
+	private static class FlowControlledResponse
+			extends HttpServletResponseWrapper {
+		private FlowControlledOutputStream out;
+
+		FlowControlledResponse(HttpServletResponse rsp) {
+			super(rsp);
+		}
+
+		@Override
+		public synchronized ServletOutputStream getOutputStream()
+				throws IOException {
+			if (out == null) {
+				out = new FlowControlledOutputStream(super.getOutputStream());
+			}
+			return out;
+		}
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.http.server;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+/**
+ * Blocking stream over the non-blocking output of an asynchronous request.
+ * <p>
+ * Each write waits until the container is ready to accept more data, as
+ * signalled to the {@link WriteListener}. The writing thread is blocked while
+ * a slow client drains the response, but no container thread is.
+ */
+final class FlowControlledOutputStream extends ServletOutputStream
+		implements WriteListener {
+	private final ServletOutputStream out;
+
+	private Throwable error;
+
+	FlowControlledOutputStream(ServletOutputStream out) {
+		this.out = out;
+		out.setWriteListener(this);
+	}
+
+	@Override
+	public synchronized void onWritePossible() {
+		notifyAll();
+	}
+
+	@Override
+	public synchronized void onError(Throwable t) {
+		error = t;
+		notifyAll();
+	}
+
+	private void awaitReady() throws IOException {
+		// Called holding the lock, so onWritePossible cannot run between
+		// isReady returning false and wait.
+		while (error == null && !out.isReady()) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException();
+			}
+		}
+		if (error != null) {
+			throw new IOException(error.getMessage(), error);
+		}
+	}
+
+	@Override
+	public synchronized void write(int b) throws IOException {
+		awaitReady();
+		out.write(b);
+	}
+
+	@Override
+	public synchronized void write(byte[] b, int off, int len)
+			throws IOException {
+		awaitReady();
+		out.write(b, off, len);
+	}
+
+	@Override
+	public synchronized void flush() throws IOException {
+		awaitReady();
+		out.flush();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		awaitReady();
+		out.close();
+	}
+
+	@Override
+	public boolean isReady() {
+		return out.isReady();
+	}
+
+	@Override
+	public void setWriteListener(WriteListener listener) {
+		throw new IllegalStateException();
+	}
+}
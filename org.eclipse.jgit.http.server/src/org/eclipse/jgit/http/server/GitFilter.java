@@ -14,6 +14,7 @@
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterConfig;
@@ -21,6 +22,7 @@
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import org.eclipse.jgit.annotations.Nullable;
 import org.eclipse.jgit.http.server.glue.ErrorServlet;
 import org.eclipse.jgit.http.server.glue.MetaFilter;
 import org.eclipse.jgit.http.server.glue.RegexGroupFilter;
@@ -65,6 +67,8 @@ public class GitFilter extends MetaFilter {
 
 	private ReceivePackErrorHandler receivePackErrorHandler;
 
+	private Executor asyncExecutor;
+
 	private final List<Filter> uploadPackFilters = new ArrayList<>();
 
 	private final List<Filter> receivePackFilters = new ArrayList<>();
@@ -186,6 +190,33 @@ public void addReceivePackFilter(Filter filter) {
 		receivePackFilters.add(filter);
 	}
 
+	/**
+	 * Set the executor serving git-upload-pack and git-receive-pack requests
+	 * asynchronously.
+	 * <p>
+	 * If set, and the filter is registered with asynchronous support, these
+	 * requests are served on the executor instead of the container thread,
+	 * which is released as soon as the request was started. The response is
+	 * written as the client is ready to receive it, so a slow client blocks
+	 * an executor thread but no container thread. Requests rejected by the
+	 * executor are answered with {@code 503 Service Unavailable}; a bounded
+	 * executor thus also limits the number of concurrent requests.
+	 * <p>
+	 * Every request holds one executor thread until its response is
+	 * completely written, also while waiting for a slow client. Size the
+	 * executor for the number of requests to serve concurrently, not for the
+	 * number of processors.
+	 *
+	 * @param executor
+	 *            the executor; if {@code null} requests are served on the
+	 *            container thread.
+	 * @since 7.3
+	 */
+	public void setAsyncExecutor(@Nullable Executor executor) {
+		assertNotInitialized();
+		this.asyncExecutor = executor;
+	}
+
 	private void assertNotInitialized() {
 		if (initialized)
 			throw new IllegalStateException(HttpServerText.get().alreadyInitializedByContainer);
@@ -208,7 +239,8 @@ public void init(FilterConfig filterConfig) throws ServletException {
 			b = b.through(new UploadPackServlet.Factory(uploadPackFactory));
 			for (Filter f : uploadPackFilters)
 				b = b.through(f);
-			b.with(new UploadPackServlet(uploadPackErrorHandler));
+			b.with(new UploadPackServlet(uploadPackErrorHandler,
+					asyncExecutor));
 		}
 
 		if (receivePackFactory != ReceivePackFactory.DISABLED) {
@@ -216,7 +248,8 @@ public void init(FilterConfig filterConfig) throws ServletException {
 			b = b.through(new ReceivePackServlet.Factory(receivePackFactory));
 			for (Filter f : receivePackFilters)
 				b = b.through(f);
-			b.with(new ReceivePackServlet(receivePackErrorHandler));
+			b.with(new ReceivePackServlet(receivePackErrorHandler,
+					asyncExecutor));
 		}
 
 		ServletBinder refs = serve("*/" + Constants.INFO_REFS);
@@ -11,6 +11,7 @@
 package org.eclipse.jgit.http.server;
 
 import java.util.Enumeration;
+import java.util.concurrent.Executor;
 
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterConfig;
@@ -19,6 +20,7 @@
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 
+import org.eclipse.jgit.annotations.Nullable;
 import org.eclipse.jgit.http.server.glue.MetaServlet;
 import org.eclipse.jgit.http.server.resolver.AsIsFileService;
 import org.eclipse.jgit.transport.resolver.ReceivePackFactory;
@@ -136,6 +138,24 @@ public void addUploadPackFilter(Filter filter) {
 		gitFilter.addUploadPackFilter(filter);
 	}
 
+	/**
+	 * Set the executor serving git-upload-pack and git-receive-pack requests
+	 * asynchronously.
+	 * <p>
+	 * Every request holds one executor thread until its response is
+	 * completely written, also while waiting for a slow client. Size the
+	 * executor for the number of requests to serve concurrently.
+	 *
+	 * @param executor
+	 *            the executor; if {@code null} requests are served on the
+	 *            container thread.
+	 * @see GitFilter#setAsyncExecutor(Executor)
+	 * @since 7.3
+	 */
+	public void setAsyncExecutor(@Nullable Executor executor) {
+		gitFilter.setAsyncExecutor(executor);
+	}
+
 	/**
 	 * Set receive-pack factory
 	 *
@@ -27,6 +27,7 @@
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
@@ -132,8 +133,13 @@ public void destroy() {
 	@Nullable
 	private final ReceivePackErrorHandler handler;
 
-	ReceivePackServlet(@Nullable ReceivePackErrorHandler handler) {
+	@Nullable
+	private final Executor executor;
+
+	ReceivePackServlet(@Nullable ReceivePackErrorHandler handler,
+			@Nullable Executor executor) {
 		this.handler = handler;
+		this.executor = executor;
 	}
 
 	@Override
@@ -143,7 +149,13 @@ public void doPost(final HttpServletRequest req,
 			rsp.sendError(SC_UNSUPPORTED_MEDIA_TYPE);
 			return;
 		}
+		if (!AsyncSession.start(req, rsp, executor, this::receive)) {
+			receive(req, rsp);
+		}
+	}
 
+	private void receive(HttpServletRequest req, HttpServletResponse rsp)
+			throws IOException {
 		SmartOutputStream out = new SmartOutputStream(req, rsp, false) {
 			@Override
 			public void flush() throws IOException {
@@ -11,6 +11,7 @@
 package org.eclipse.jgit.http.server;
 
 import static org.eclipse.jgit.http.server.ServletUtils.acceptsGzipEncoding;
+import static org.eclipse.jgit.lib.Constants.PACK_SIGNATURE;
 import static org.eclipse.jgit.util.HttpSupport.ENCODING_GZIP;
 import static org.eclipse.jgit.util.HttpSupport.HDR_CONTENT_ENCODING;
 
@@ -21,6 +22,7 @@
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import org.eclipse.jgit.util.RawParseUtils;
 import org.eclipse.jgit.util.TemporaryBuffer;
 
 /**
@@ -32,6 +34,11 @@
  * smaller payloads are primarily pure text that compresses well, while much
  * larger payloads are heavily compressed binary data. {@link UploadPackServlet}
  * is one such servlet.
+ * <p>
+ * The buffer is kept in memory only; once it overflows the response is
+ * committed to the client and nothing is buffered anymore. A response which
+ * fits into the buffer is only compressed if it does not contain pack data,
+ * which would not get smaller.
  */
 class SmartOutputStream extends TemporaryBuffer {
 	private static final int LIMIT = 32 * 1024;
@@ -70,8 +77,11 @@ public void close() throws IOException {
 			// If output hasn't started yet, the entire thing fit into our
 			// buffer. Try to use a proper Content-Length header, and also
 			// deflate the response with gzip if it will be smaller.
-			if (256 < this.length() && acceptsGzipEncoding(req)) {
-				TemporaryBuffer gzbuf = new TemporaryBuffer.Heap(LIMIT);
+			if (256 < this.length() && acceptsGzipEncoding(req)
+					&& !containsPack(toByteArray())) {
+				// Compressing stops as soon as it is not smaller anymore.
+				TemporaryBuffer gzbuf = new TemporaryBuffer.Heap(
+						(int) this.length());
 				try {
 					try (GZIPOutputStream gzip = new GZIPOutputStream(gzbuf)) {
 						this.writeTo(gzip, null);
@@ -91,6 +101,57 @@ public void close() throws IOException {
 		}
 	}
 
+	/**
+	 * Check whether a response contains pack data.
+	 * <p>
+	 * The pkt-lines of the response are skipped until the pack signature is
+	 * found, either after them or at the start of a pkt-line, possibly on side
+	 * band 1.
+	 *
+	 * @param buf
+	 *            the response.
+	 * @return {@code true} if the response contains pack data.
+	 */
+	static boolean containsPack(byte[] buf) {
+		int ptr = 0;
+		while (ptr + 4 <= buf.length) {
+			if (isPackSignature(buf, ptr)) {
+				return true;
+			}
+			int len;
+			try {
+				len = RawParseUtils.parseHexInt16(buf, ptr);
+			} catch (ArrayIndexOutOfBoundsException e) {
+				return false;
+			}
+			if (0 <= len && len <= 2) {
+				// flush-pkt, delim-pkt or response-end-pkt
+				ptr += 4;
+				continue;
+			} else if (len < 4) {
+				return false;
+			}
+			if (isPackSignature(buf, ptr + 4) || (ptr + 5 <= buf.length
+					&& buf[ptr + 4] == 1 && isPackSignature(buf, ptr + 5))) {
+				return true;
+			}
+			ptr += len;
+		}
+		return false;
+	}
+
+	private static boolean isPackSignature(byte[] buf, int ptr) {
+		if (buf.length < ptr + PACK_SIGNATURE.length) {
+			return false;
+		}
+		for (int i = 0; i < PACK_SIGNATURE.length; i++) {
+			if (buf[ptr + i] != PACK_SIGNATURE[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	private void writeResponse(TemporaryBuffer out) throws IOException {
 		// The Content-Length cannot overflow when cast to an int, our
 		// hardcoded LIMIT constant above assures us we wouldn't store
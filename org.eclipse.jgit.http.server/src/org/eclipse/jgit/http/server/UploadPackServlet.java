@@ -27,6 +27,7 @@
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
@@ -153,9 +154,14 @@ public void destroy() {
 
 	private final UploadPackErrorHandler handler;
 
-	UploadPackServlet(@Nullable UploadPackErrorHandler handler) {
+	@Nullable
+	private final Executor executor;
+
+	UploadPackServlet(@Nullable UploadPackErrorHandler handler,
+			@Nullable Executor executor) {
 		this.handler = handler != null ? handler
 				: this::defaultUploadPackHandler;
+		this.executor = executor;
 	}
 
 	@Override
@@ -166,6 +172,11 @@ public void doPost(HttpServletRequest req, HttpServletResponse rsp)
 			return;
 		}
 
+		if (AsyncSession.start(req, rsp, executor, (areq, arsp) -> handler
+				.upload(areq, arsp, () -> upload(areq, arsp)))) {
+			return;
+		}
+
 		UploadPackRunnable r = () -> {
 			upload(req, rsp);
 		};
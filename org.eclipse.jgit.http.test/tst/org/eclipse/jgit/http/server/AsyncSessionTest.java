@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.http.server;
+
+import static jakarta.servlet.http.HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+import static jakarta.servlet.http.HttpServletResponse.SC_SERVICE_UNAVAILABLE;
+import static org.eclipse.jgit.http.server.ServletUtils.ATTRIBUTE_REPOSITORY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.eclipse.jgit.lib.Repository;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncSessionTest {
+	private HttpServletRequest req;
+
+	private HttpServletResponse rsp;
+
+	private AsyncContext ctx;
+
+	private Repository db;
+
+	private final List<Runnable> tasks = new ArrayList<>();
+
+	@Before
+	public void setUp() {
+		req = mock(HttpServletRequest.class);
+		rsp = mock(HttpServletResponse.class);
+		ctx = mock(AsyncContext.class);
+		db = mock(Repository.class);
+		when(req.isAsyncSupported()).thenReturn(true);
+		when(req.getAttributeNames()).thenReturn(Collections
+				.enumeration(Collections.singleton(ATTRIBUTE_REPOSITORY)));
+		when(req.getAttribute(ATTRIBUTE_REPOSITORY)).thenReturn(db);
+		when(req.startAsync(any(), any())).thenReturn(ctx);
+		when(req.getServletContext()).thenReturn(mock(ServletContext.class));
+	}
+
+	@Test
+	public void testNotStarted() throws IOException {
+		assertFalse(AsyncSession.start(req, rsp, null, (r, s) -> {
+			// Not run.
+		}));
+		when(req.isAsyncSupported()).thenReturn(false);
+		assertFalse(AsyncSession.start(req, rsp, tasks::add, (r, s) -> {
+			// Not run.
+		}));
+		assertTrue(tasks.isEmpty());
+		verify(req, never()).startAsync(any(), any());
+	}
+
+	@Test
+	public void testTaskKeepsAttributes() throws IOException {
+		AtomicReference<Object> seen = new AtomicReference<>();
+		assertTrue(AsyncSession.start(req, rsp, tasks::add,
+				(r, s) -> seen.set(r.getAttribute(ATTRIBUTE_REPOSITORY))));
+		verify(ctx).setTimeout(0);
+		verify(db).incrementOpen();
+
+		// The filter which set the attribute returned and removed it.
+		when(req.getAttribute(ATTRIBUTE_REPOSITORY)).thenReturn(null);
+		assertEquals(1, tasks.size());
+		tasks.get(0).run();
+		assertSame(db, seen.get());
+		verify(db).close();
+		verify(ctx).complete();
+		verify(rsp, never()).sendError(anyInt());
+	}
+
+	@Test
+	public void testTaskFailureSendsError() throws IOException {
+		assertTrue(AsyncSession.start(req, rsp, tasks::add, (r, s) -> {
+			throw new IOException("broken");
+		}));
+		tasks.get(0).run();
+		verify(rsp).reset();
+		verify(rsp).sendError(SC_INTERNAL_SERVER_ERROR);
+		verify(db).close();
+		verify(ctx).complete();
+	}
+
+	@Test
+	public void testTaskFailureAfterCommit() throws IOException {
+		when(rsp.isCommitted()).thenReturn(true);
+		assertTrue(AsyncSession.start(req, rsp, tasks::add, (r, s) -> {
+			throw new IllegalStateException("broken");
+		}));
+		tasks.get(0).run();
+		verify(rsp, never()).sendError(anyInt());
+		verify(db).close();
+		verify(ctx).complete();
+	}
+
+	@Test
+	public void testRejected() throws IOException {
+		assertTrue(AsyncSession.start(req, rsp, task -> {
+			throw new RejectedExecutionException();
+		}, (r, s) -> {
+			// Not run.
+		}));
+		verify(rsp).sendError(SC_SERVICE_UNAVAILABLE);
+		verify(db).close();
+		verify(ctx).complete();
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.http.server;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class FlowControlledOutputStreamTest {
+	private final byte[] data = { 1, 2, 3 };
+
+	private ServletOutputStream out;
+
+	private FlowControlledOutputStream stream;
+
+	@Before
+	public void setUp() {
+		out = mock(ServletOutputStream.class);
+		stream = new FlowControlledOutputStream(out);
+	}
+
+	@Test
+	public void testWriteWhenReady() throws IOException {
+		verify(out).setWriteListener(stream);
+		when(out.isReady()).thenReturn(true);
+		stream.write(data, 0, data.length);
+		stream.write(4);
+		stream.flush();
+		stream.close();
+		verify(out).write(data, 0, data.length);
+		verify(out).write(4);
+		verify(out).flush();
+		verify(out).close();
+	}
+
+	@Test
+	public void testWriteAwaitsWritePossible() throws Exception {
+		when(out.isReady()).thenReturn(false, true);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		Thread writer = startWrite(failure);
+
+		verify(out, never()).write(any(byte[].class), anyInt(), anyInt());
+		stream.onWritePossible();
+		writer.join(TimeUnit.SECONDS.toMillis(10));
+		if (failure.get() != null) {
+			throw new AssertionError(failure.get());
+		}
+		verify(out).write(data, 0, data.length);
+	}
+
+	@Test
+	public void testOnErrorFailsWrites() throws Exception {
+		when(out.isReady()).thenReturn(false);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		Thread writer = startWrite(failure);
+
+		EOFException error = new EOFException("client gone");
+		stream.onError(error);
+		writer.join(TimeUnit.SECONDS.toMillis(10));
+		assertTrue(failure.get() instanceof IOException);
+		assertSame(error, failure.get().getCause());
+
+		IOException e = assertThrows(IOException.class, () -> stream.write(4));
+		assertSame(error, e.getCause());
+		verify(out, never()).write(anyInt());
+		verify(out, never()).write(any(byte[].class), anyInt(), anyInt());
+	}
+
+	@Test
+	public void testSetWriteListener() {
+		assertThrows(IllegalStateException.class,
+				() -> stream.setWriteListener(mock(WriteListener.class)));
+	}
+
+	private Thread startWrite(AtomicReference<Throwable> failure)
+			throws InterruptedException {
+		Thread writer = new Thread(() -> {
+			try {
+				stream.write(data, 0, data.length);
+			} catch (Throwable t) {
+				failure.set(t);
+			}
+		});
+		writer.start();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (writer.getState() != Thread.State.WAITING) {
+			if (System.nanoTime() > deadline) {
+				fail("writer did not wait");
+			}
+			Thread.sleep(1);
+		}
+		return writer;
+	}
+}
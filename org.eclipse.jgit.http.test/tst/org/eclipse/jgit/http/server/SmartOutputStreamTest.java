@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.http.server;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.eclipse.jgit.util.HttpSupport.ENCODING_GZIP;
+import static org.eclipse.jgit.util.HttpSupport.HDR_ACCEPT_ENCODING;
+import static org.eclipse.jgit.util.HttpSupport.HDR_CONTENT_ENCODING;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.eclipse.jgit.transport.PacketLineOut;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SmartOutputStreamTest {
+	private HttpServletRequest req;
+
+	private HttpServletResponse rsp;
+
+	private ByteArrayOutputStream body;
+
+	@Before
+	public void setUp() throws IOException {
+		req = mock(HttpServletRequest.class);
+		when(req.getHeader(HDR_ACCEPT_ENCODING)).thenReturn(ENCODING_GZIP);
+		rsp = mock(HttpServletResponse.class);
+		body = new ByteArrayOutputStream();
+		when(rsp.getOutputStream()).thenReturn(new ServletOutputStream() {
+			@Override
+			public void write(int b) {
+				body.write(b);
+			}
+
+			@Override
+			public boolean isReady() {
+				return true;
+			}
+
+			@Override
+			public void setWriteListener(WriteListener listener) {
+				// Not used.
+			}
+		});
+	}
+
+	@Test
+	public void testContainsPack() throws IOException {
+		assertFalse(SmartOutputStream.containsPack(new byte[0]));
+		assertFalse(SmartOutputStream.containsPack(refs()));
+		assertFalse(SmartOutputStream
+				.containsPack("not pkt-lines".getBytes(UTF_8)));
+
+		ByteArrayOutputStream b = new ByteArrayOutputStream();
+		PacketLineOut pckOut = new PacketLineOut(b);
+		pckOut.writeString("NAK\n");
+		b.write("PACK".getBytes(UTF_8));
+		assertTrue(SmartOutputStream.containsPack(b.toByteArray()));
+
+		b.reset();
+		pckOut.writeString("acknowledgments\n");
+		pckOut.writeString("ready\n");
+		pckOut.writeDelim();
+		pckOut.writeString("packfile\n");
+		pckOut.writeString("\001PACK");
+		assertTrue(SmartOutputStream.containsPack(b.toByteArray()));
+
+		b.reset();
+		pckOut.writeString("\002Counting objects\n");
+		assertFalse(SmartOutputStream.containsPack(b.toByteArray()));
+	}
+
+	@Test
+	public void testSmallRefsCompressed() throws IOException {
+		try (SmartOutputStream out = new SmartOutputStream(req, rsp, false)) {
+			out.write(refs());
+		}
+		verify(rsp).setHeader(HDR_CONTENT_ENCODING, ENCODING_GZIP);
+	}
+
+	@Test
+	public void testSmallPackNotCompressed() throws IOException {
+		ByteArrayOutputStream b = new ByteArrayOutputStream();
+		PacketLineOut pckOut = new PacketLineOut(b);
+		pckOut.writeString("NAK\n");
+		byte[] pack = new byte[1024];
+		System.arraycopy("PACK".getBytes(UTF_8), 0, pack, 0, 4);
+		pckOut.writePacket(new byte[] { 1 });
+		b.write(pack);
+		byte[] expected = b.toByteArray();
+
+		try (SmartOutputStream out = new SmartOutputStream(req, rsp, false)) {
+			out.write(expected);
+		}
+		verify(rsp, never()).setHeader(anyString(), anyString());
+		verify(rsp).setContentLength(expected.length);
+		assertArrayEquals(expected, body.toByteArray());
+	}
+
+	@Test
+	public void testLargeResponseStreamed() throws IOException {
+		byte[] data = new byte[64 * 1024];
+		try (SmartOutputStream out = new SmartOutputStream(req, rsp, false)) {
+			out.write(data);
+		}
+		verify(rsp, never()).setHeader(anyString(), anyString());
+		verify(rsp, never()).setContentLength(anyInt());
+		assertArrayEquals(data, body.toByteArray());
+	}
+
+	private static byte[] refs() throws IOException {
+		ByteArrayOutputStream b = new ByteArrayOutputStream();
+		PacketLineOut pckOut = new PacketLineOut(b);
+		for (int i = 0; i < 20; i++) {
+			pckOut.writeString(
+					"0123456789012345678901234567890123456789 refs/heads/b" + i
+							+ "\n");
+		}
+		pckOut.end();
+		return b.toByteArray();
+	}
+}
@@ -55,6 +55,21 @@ public void testWithoutParentsFlag() throws Exception {
 		assertEquals(expect, result);
 	}
 
+	@Test
+	public void testCount() throws Exception {
+		List<RevCommit> commits = createCommitsForParentsFlag(git);
+
+		assertEquals("4", toString(execute("git rev-list HEAD --count")));
+		assertEquals("2", toString(execute("git rev-list "
+				+ commits.get(1).name() + "..HEAD --count")));
+		assertEquals("2",
+				toString(execute("git rev-list HEAD --count -- Test1.txt")));
+		assertEquals("4",
+				toString(execute("git rev-list HEAD --count --objects")));
+		assertEquals("2", toString(execute(
+				"git rev-list HEAD --count --parents -- Test.txt")));
+	}
+
 	private List<RevCommit> createCommitsForParentsFlag(Git repo)
 			throws Exception {
 		List<RevCommit> commits = new ArrayList<>();
@@ -15,9 +15,30 @@
 import org.eclipse.jgit.revwalk.RevFlag;
 import org.eclipse.jgit.revwalk.RevObject;
 import org.eclipse.jgit.revwalk.RevTree;
+import org.eclipse.jgit.revwalk.RevWalkUtils;
+import org.kohsuke.args4j.Option;
 
 @Command(usage = "usage_RevList")
 class RevList extends RevWalkTextBuiltin {
+	@Option(name = "--count")
+	boolean countOnly = false;
+
+	@Override
+	protected int walkLoop() throws Exception {
+		if (!countOnly) {
+			return super.walkLoop();
+		}
+		// Like C git only commits are counted, also with --objects or
+		// --parents. Uses bitmaps when the repository has them and no filter
+		// is set.
+		int n = RevWalkUtils.count(walk, starts, uninteresting);
+		if (maxCount >= 0 && n > maxCount) {
+			n = maxCount;
+		}
+		outw.println(Integer.toString(n));
+		return n;
+	}
+
 	@Override
 	protected void show(RevCommit c) throws Exception {
 		if (c.has(RevFlag.UNINTERESTING))
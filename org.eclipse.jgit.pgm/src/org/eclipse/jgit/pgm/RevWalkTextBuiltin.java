@@ -112,7 +112,11 @@ void addCMessageRevFilter(String msg) {
 	}
 
 	@Option(name = "--max-count", aliases = "-n", metaVar = "metaVar_n")
-	private int maxCount = -1;
+	int maxCount = -1;
+
+	final List<RevCommit> starts = new ArrayList<>();
+
+	final List<RevCommit> uninteresting = new ArrayList<>();
 
 	@Override
 	protected void run() throws Exception {
@@ -158,10 +162,13 @@ else if (revLimiter.size() > 1)
 		}
 		for (RevCommit c : commits) {
 			final RevCommit real = argWalk == walk ? c : walk.parseCommit(c);
-			if (c.has(RevFlag.UNINTERESTING))
+			if (c.has(RevFlag.UNINTERESTING)) {
 				walk.markUninteresting(real);
-			else
+				uninteresting.add(real);
+			} else {
 				walk.markStart(real);
+				starts.add(real);
+			}
 		}
 
 		final long start = System.currentTimeMillis();
@@ -19,7 +19,9 @@
 import static org.junit.Assert.fail;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URISyntaxException;
 import java.time.Instant;
 import java.util.Collections;
@@ -39,6 +41,7 @@
 import org.eclipse.jgit.lib.BranchConfig.BranchRebaseMode;
 import org.eclipse.jgit.lib.ConfigConstants;
 import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.NullProgressMonitor;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.RefUpdate;
@@ -50,6 +53,8 @@
 import org.eclipse.jgit.submodule.SubmoduleStatus;
 import org.eclipse.jgit.submodule.SubmoduleStatusType;
 import org.eclipse.jgit.submodule.SubmoduleWalk;
+import org.eclipse.jgit.transport.BundleUriFetcher;
+import org.eclipse.jgit.transport.BundleWriter;
 import org.eclipse.jgit.transport.RefSpec;
 import org.eclipse.jgit.transport.RemoteConfig;
 import org.eclipse.jgit.transport.TagOpt;
@@ -122,6 +127,46 @@ public void testCloneRepository() throws IOException,
 		assertTagOption(git2.getRepository(), TagOpt.AUTO_FOLLOW);
 	}
 
+	@Test
+	public void testCloneRepositoryWithBundle() throws Exception {
+		ObjectId initial = db.resolve("master");
+		File bundle = new File(createTempDirectory("bundles"), "b.bundle");
+		try (OutputStream out = new FileOutputStream(bundle)) {
+			BundleWriter bw = new BundleWriter(db);
+			bw.include("refs/heads/master", initial);
+			bw.writeBundle(NullProgressMonitor.INSTANCE, out);
+		}
+
+		File directory = createTempDirectory("testCloneRepositoryWithBundle");
+		CloneCommand command = Git.cloneRepository();
+		command.setDirectory(directory);
+		command.setURI(fileUri());
+		command.setBundleUri(bundle.toURI().toString());
+		try (Git git2 = command.call()) {
+			Repository clonedRepo = git2.getRepository();
+			assertEquals(initial, clonedRepo
+					.exactRef(BundleUriFetcher.R_BUNDLES + "master")
+					.getObjectId());
+			assertEquals(db.resolve("test"),
+					clonedRepo.resolve("refs/remotes/origin/test"));
+		}
+	}
+
+	@Test
+	public void testCloneRepositoryWithMissingBundle() throws Exception {
+		File directory = createTempDirectory(
+				"testCloneRepositoryWithMissingBundle");
+		CloneCommand command = Git.cloneRepository();
+		command.setDirectory(directory);
+		command.setURI(fileUri());
+		command.setBundleUri(
+				new File(directory, "missing.bundle").toURI().toString());
+		try (Git git2 = command.call()) {
+			assertEquals(db.resolve("test"),
+					git2.getRepository().resolve("refs/remotes/origin/test"));
+		}
+	}
+
 	@Test
 	public void testCloneRepositoryNoCheckout()
 			throws IOException, JGitInternalException, GitAPIException {
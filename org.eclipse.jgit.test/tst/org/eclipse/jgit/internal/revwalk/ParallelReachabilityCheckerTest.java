@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package org.eclipse.jgit.internal.revwalk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.internal.storage.file.GC;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.revwalk.ReachabilityChecker;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Test;
+
+public class ParallelReachabilityCheckerTest
+		extends ReachabilityCheckerTestCase {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+	@Override
+	@After
+	public void tearDown() throws Exception {
+		executor.shutdownNow();
+		super.tearDown();
+	}
+
+	@Override
+	protected ReachabilityChecker getChecker(
+			TestRepository<FileRepository> repository) throws Exception {
+		return new ParallelReachabilityChecker(repository.getRevWalk(), 3,
+				executor);
+	}
+
+	@Test
+	public void manyTargets() throws Exception {
+		List<RevCommit> history = new ArrayList<>();
+		RevCommit tip = repo.commit().create();
+		history.add(tip);
+		for (int i = 0; i < 20; i++) {
+			tip = repo.commit(tip);
+			history.add(tip);
+		}
+		RevCommit side = repo.commit(history.get(3));
+		repo.update("refs/heads/main", tip);
+		repo.update("refs/heads/side", side);
+
+		GC gc = new GC(repo.getRepository());
+		gc.setAuto(false);
+		gc.gc().get();
+
+		ReachabilityChecker checker = getChecker(repo);
+		assertFalse(checker.areAllReachable(history, Stream.of(tip))
+				.isPresent());
+
+		List<RevCommit> targets = new ArrayList<>(history);
+		targets.add(side);
+		Optional<RevCommit> unreachable = checker.areAllReachable(targets,
+				Stream.of(tip));
+		assertTrue(unreachable.isPresent());
+		assertSame(side, unreachable.get());
+	}
+
+	@Test
+	public void manyStarters() throws Exception {
+		RevCommit root = repo.commit().create();
+		List<RevCommit> tips = new ArrayList<>();
+		List<RevCommit> targets = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			RevCommit c = repo.commit(root);
+			targets.add(c);
+			c = repo.commit(c);
+			repo.update("refs/heads/b" + i, c);
+			tips.add(c);
+		}
+		RevCommit orphan = repo.commit().create();
+		repo.update("refs/heads/orphan", orphan);
+
+		GC gc = new GC(repo.getRepository());
+		gc.setAuto(false);
+		gc.gc().get();
+
+		ReachabilityChecker checker = getChecker(repo);
+		assertFalse(checker.areAllReachable(targets, tips.stream())
+				.isPresent());
+
+		// The tip reaching the last target is in another partition.
+		targets.add(0, orphan);
+		Optional<RevCommit> unreachable = checker.areAllReachable(targets,
+				tips.stream());
+		assertTrue(unreachable.isPresent());
+		assertSame(orphan, unreachable.get());
+
+		List<RevCommit> few = tips.subList(0, 4);
+		unreachable = checker.areAllReachable(targets.subList(1, 9),
+				few.stream());
+		assertTrue(unreachable.isPresent());
+		assertEquals(targets.get(5), unreachable.get());
+	}
+}
@@ -40,6 +40,7 @@
 import org.eclipse.jgit.lib.ProgressMonitor;
 import org.eclipse.jgit.revwalk.RevBlob;
 import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevTree;
 import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.storage.file.FileBasedConfig;
 import org.eclipse.jgit.util.NB;
@@ -418,6 +419,68 @@ public void testReuseBloomFilters() throws Exception {
 				"119,69,63,-8,0,"));
 	}
 
+	@Test
+	public void testReuseBloomFiltersOfCommitsParsedWithoutGraph()
+			throws Exception {
+		RevBlob emptyBlob = tr.blob(new byte[] {});
+		RevCommit root = tr.commit(tr.tree(tr.file("foo.txt", emptyBlob),
+				tr.file("onedir/twodir/bar.txt", emptyBlob)));
+		tr.branch("master").update(root);
+		// Parsed before there is a commit-graph, so not backed by one.
+		walk.parseCommit(root);
+
+		db.getConfig().setBoolean(ConfigConstants.CONFIG_CORE_SECTION, null,
+				ConfigConstants.CONFIG_COMMIT_GRAPH, true);
+		db.getConfig().setBoolean(ConfigConstants.CONFIG_GC_SECTION, null,
+				ConfigConstants.CONFIG_KEY_WRITE_COMMIT_GRAPH, true);
+		db.getConfig().setBoolean(ConfigConstants.CONFIG_GC_SECTION, null,
+				ConfigConstants.CONFIG_KEY_WRITE_CHANGED_PATHS, true);
+		GC gc = new GC(db);
+		gc.gc().get();
+
+		RevCommit tip = tr.commit(tr.tree(tr.file("foo-new.txt", emptyBlob),
+				tr.file("onedir/twodir/bar-new.txt", emptyBlob)), root);
+
+		Set<ObjectId> wants = Collections.singleton(tip);
+		NullProgressMonitor m = NullProgressMonitor.INSTANCE;
+		GraphCommits graphCommits = GraphCommits.fromWalk(m, wants, walk);
+		writer = new CommitGraphWriter(graphCommits, true);
+		CommitGraphWriter.Stats stats = writer.write(m, os);
+
+		assertEquals(1, stats.getChangedPathFiltersReused());
+		assertEquals(1, stats.getChangedPathFiltersComputed());
+		HashSet<String> changedPaths = changedPathStrings(os.toByteArray());
+		assertThat(changedPaths, containsInAnyOrder(
+				"109,-33,2,60,20,79,-11,116,",
+				"119,69,63,-8,0,"));
+	}
+
+	@Test
+	public void testChangedPathFiltersInParallel() throws Exception {
+		RevCommit tip = null;
+		for (int i = 0; i < 600; i++) {
+			RevBlob blob = tr.blob("content " + i);
+			RevTree tree = tr.tree(tr.file("dir" + (i % 7) + "/f" + i, blob));
+			tip = tip == null ? tr.commit(tree) : tr.commit(tree, tip);
+		}
+
+		Set<ObjectId> wants = Collections.singleton(tip);
+		NullProgressMonitor m = NullProgressMonitor.INSTANCE;
+		GraphCommits graphCommits = GraphCommits.fromWalk(m, wants, walk);
+		writer = new CommitGraphWriter(graphCommits, true);
+		writer.write(m, os);
+		byte[] serial = os.toByteArray();
+
+		ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+		writer = new CommitGraphWriter(graphCommits, true);
+		writer.setThreads(4);
+		CommitGraphWriter.Stats stats = writer.write(m, parallel);
+
+		assertEquals(600, stats.getChangedPathFiltersComputed());
+		assertEquals(0, stats.getChangedPathFiltersReused());
+		assertArrayEquals(serial, parallel.toByteArray());
+	}
+
 	@Test
 	public void testPathDiffCalculator_skipUnchangedTree() throws Exception {
 		RevCommit root = tr.commit(tr.tree(
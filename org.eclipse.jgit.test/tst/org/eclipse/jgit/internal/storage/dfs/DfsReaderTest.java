@@ -15,17 +15,21 @@
 import static org.eclipse.jgit.lib.Constants.OBJ_COMMIT;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import org.eclipse.jgit.errors.MissingObjectException;
 import org.eclipse.jgit.internal.storage.dfs.DfsObjDatabase.PackSource;
 import org.eclipse.jgit.internal.storage.dfs.DfsReader.PackLoadListener;
 import org.eclipse.jgit.internal.storage.pack.PackExt;
 import org.eclipse.jgit.junit.JGitTestUtil;
 import org.eclipse.jgit.junit.TestRng;
+import org.eclipse.jgit.lib.AsyncObjectSizeQueue;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectInserter;
 import org.junit.Before;
@@ -90,6 +94,38 @@ public void getObjectSize_index_commit() throws IOException {
 		}
 	}
 
+	@Test
+	public void getObjectSize_batch_index() throws IOException {
+		setObjectSizeIndexMinBytes(100);
+		ObjectId big = insertBlobWithSize(200);
+		ObjectId small = insertBlobWithSize(50);
+		try (DfsReader ctx = db.getObjectDatabase().newReader()) {
+			Map<ObjectId, Long> sizes = new HashMap<>();
+			AsyncObjectSizeQueue<ObjectId> q = ctx
+					.getObjectSize(List.of(big, small), true);
+			while (q.next()) {
+				sizes.put(q.getObjectId(), Long.valueOf(q.getSize()));
+			}
+			q.release();
+			assertEquals(Long.valueOf(200), sizes.get(big));
+			assertEquals(Long.valueOf(50), sizes.get(small));
+			assertEquals(1, ctx.stats.objectSizeIndexHit);
+			assertEquals(1, ctx.stats.objectSizeIndexMiss);
+		}
+	}
+
+	@Test
+	public void getObjectType() throws IOException {
+		ObjectId blob = insertBlobWithSize(100);
+		ObjectId commit = insertObjectWithSize(OBJ_COMMIT, 110);
+		try (DfsReader ctx = db.getObjectDatabase().newReader()) {
+			assertEquals(OBJ_BLOB, ctx.getObjectType(blob));
+			assertEquals(OBJ_COMMIT, ctx.getObjectType(commit));
+			assertThrows(MissingObjectException.class,
+					() -> ctx.getObjectType(ObjectId.zeroId()));
+		}
+	}
+
 	@Test
 	public void isNotLargerThan_objAboveThreshold() throws IOException {
 		setObjectSizeIndexMinBytes(100);
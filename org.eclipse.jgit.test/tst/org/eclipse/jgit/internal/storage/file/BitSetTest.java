@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.internal.storage.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.googlecode.javaewah.EWAHCompressedBitmap;
+
+public class BitSetTest {
+
+	@Test
+	public void testSetRange() {
+		int[][] ranges = { { 0, 1 }, { 3, 3 }, { 5, 64 }, { 63, 65 },
+				{ 100, 128 }, { 128, 300 }, { 310, 311 } };
+		BitSet bits = new BitSet(8);
+		java.util.BitSet expected = new java.util.BitSet();
+		for (int[] r : ranges) {
+			bits.set(r[0], r[1]);
+			expected.set(r[0], r[1]);
+		}
+		for (int i = 0; i < 400; i++) {
+			assertEquals(Integer.toString(i), expected.get(i), bits.get(i));
+		}
+
+		EWAHCompressedBitmap compressed = bits.toEWAHCompressedBitmap();
+		assertEquals(expected.cardinality(), compressed.cardinality());
+	}
+
+	@Test
+	public void testNextSetBit() {
+		BitSet bits = new BitSet(256);
+		assertEquals(-1, bits.nextSetBit(0));
+		bits.set(5);
+		bits.set(64);
+		bits.set(200);
+		assertEquals(5, bits.nextSetBit(0));
+		assertEquals(5, bits.nextSetBit(5));
+		assertEquals(64, bits.nextSetBit(6));
+		assertEquals(200, bits.nextSetBit(65));
+		assertEquals(-1, bits.nextSetBit(201));
+		assertEquals(-1, bits.nextSetBit(1000));
+		assertTrue(bits.get(200));
+		assertFalse(bits.get(199));
+	}
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.internal.storage.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.jgit.internal.storage.file.BitmapIndexImpl.CompressedBitmap;
+import org.eclipse.jgit.internal.storage.pack.PackExt;
+import org.eclipse.jgit.junit.TestRepository.BranchBuilder;
+import org.eclipse.jgit.lib.BitmapIndex;
+import org.eclipse.jgit.lib.BitmapIndex.BitmapBuilder;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.revwalk.BitmapWalker;
+import org.eclipse.jgit.revwalk.ObjectWalk;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevObject;
+import org.eclipse.jgit.storage.pack.PackConfig;
+import org.eclipse.jgit.util.NB;
+import org.junit.Test;
+
+import com.googlecode.javaewah.EWAHCompressedBitmap;
+
+public class GcPseudoMergeBitmapTest extends GcTestCase {
+
+	private List<RevCommit> changes;
+
+	private void createChanges(int count) throws Exception {
+		BranchBuilder main = tr.branch("refs/heads/main");
+		RevCommit base = main.commit().add("a", "a").create();
+		changes = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			RevCommit c = tr.commit().parent(base).add("c" + i, "c" + i)
+					.create();
+			tr.update("refs/changes/" + i + "/1", c);
+			changes.add(c);
+		}
+	}
+
+	private void gc(int pseudoMergeSize) throws Exception {
+		PackConfig config = new PackConfig(repo);
+		config.setSinglePack(true);
+		config.setBitmapExcludedRefsPrefixes(new String[] { "refs/changes/" });
+		config.setBitmapPseudoMergeSize(pseudoMergeSize);
+		gc.setPackConfig(config);
+		gc.setExpireAgeMillis(0);
+		gc.gc().get();
+	}
+
+	private PackBitmapIndex bitmapIndex() throws Exception {
+		Collection<Pack> packs = repo.getObjectDatabase().getPacks();
+		assertEquals(1, packs.size());
+		return packs.iterator().next().getBitmapIndex();
+	}
+
+	private static void assertReachable(ObjectReader reader,
+			Collection<? extends ObjectId> start, BitmapBuilder actual)
+			throws Exception {
+		int expected = 0;
+		try (ObjectWalk ow = new ObjectWalk(reader)) {
+			for (ObjectId id : start) {
+				ow.markStart(ow.parseCommit(id));
+			}
+			for (RevObject o; (o = ow.next()) != null;) {
+				assertTrue(o.name(), actual.contains(o));
+				expected++;
+			}
+			for (RevObject o; (o = ow.nextObject()) != null;) {
+				assertTrue(o.name(), actual.contains(o));
+				expected++;
+			}
+		}
+		assertEquals(expected, actual.cardinality());
+	}
+
+	@Test
+	public void testPseudoMergesGroupExcludedTips() throws Exception {
+		createChanges(10);
+		gc(4);
+
+		PackBitmapIndex index = bitmapIndex();
+		List<PseudoMergeBitmap> merges = index.getPseudoMerges();
+		// The last group takes the remaining two commits.
+		assertEquals(3, merges.size());
+		int commits = 0;
+		BitmapIndexImpl bitmaps = new BitmapIndexImpl(index);
+		try (ObjectReader reader = repo.newObjectReader()) {
+			for (PseudoMergeBitmap m : merges) {
+				List<ObjectId> group = new ArrayList<>();
+				for (int pos : m.getCommits().toArray()) {
+					ObjectId id = index.getObject(pos);
+					assertTrue(changes.contains(id));
+					group.add(id);
+				}
+				commits += group.size();
+				BitmapBuilder actual = bitmaps.newBitmapBuilder();
+				actual.or(new CompressedBitmap(m.getBitmap(), bitmaps));
+				assertReachable(reader, group, actual);
+			}
+		}
+		assertEquals(changes.size(), commits);
+	}
+
+	@Test
+	public void testNoPseudoMergesByDefault() throws Exception {
+		createChanges(10);
+		gc(0);
+		assertTrue(bitmapIndex().getPseudoMerges().isEmpty());
+	}
+
+	@Test
+	public void testBitmapWalkerUsesPseudoMerges() throws Exception {
+		createChanges(10);
+		gc(4);
+
+		try (ObjectReader reader = repo.newObjectReader()) {
+			BitmapIndex index = reader.getBitmapIndex();
+			BitmapBuilder tips = index.newBitmapBuilder();
+			assertEquals(3, index.addPseudoMerges(changes, tips));
+
+			try (ObjectWalk ow = new ObjectWalk(reader)) {
+				BitmapWalker walker = new BitmapWalker(ow, index,
+						NullProgressMonitor.INSTANCE);
+				BitmapBuilder all = walker.findObjects(changes, null, false);
+				assertEquals(0, walker.getCountOfBitmapIndexMisses());
+				assertReachable(reader, changes, all);
+			}
+
+			// A group with a missing commit does not apply.
+			List<RevCommit> some = changes.subList(1, changes.size());
+			assertEquals(2, index.addPseudoMerges(some,
+					index.newBitmapBuilder()));
+			try (ObjectWalk ow = new ObjectWalk(reader)) {
+				BitmapWalker walker = new BitmapWalker(ow, index,
+						NullProgressMonitor.INSTANCE);
+				assertReachable(reader, some,
+						walker.findObjects(some, null, false));
+				// Only the other commits of the first group are walked.
+				assertEquals(3, walker.getCountOfBitmapIndexMisses());
+			}
+		}
+	}
+
+	@Test
+	public void testPseudoMergesBeforeCGitExtensions() throws Exception {
+		createChanges(10);
+		gc(4);
+		Pack pack = repo.getObjectDatabase().getPacks().iterator().next();
+		PackBitmapIndex expected = pack.getBitmapIndex();
+		PackIndex idx = pack.getIndex();
+
+		// C git stores its lookup table and name-hash cache after the
+		// pseudo-merges, right before the checksum.
+		byte[] file = Files.readAllBytes(
+				pack.getPackFile().create(PackExt.BITMAP_INDEX).toPath());
+		int end = file.length - Constants.OBJECT_ID_LENGTH;
+		int lookupTable = 16 * expected.getBitmapCount();
+		int hashCache = 4 * (int) idx.getObjectCount();
+		byte[] buf = Arrays.copyOf(file, end + lookupTable + hashCache
+				+ Constants.OBJECT_ID_LENGTH);
+		Arrays.fill(buf, end, end + lookupTable + hashCache, (byte) 0xa5);
+		NB.encodeInt16(buf, 6, NB.decodeUInt16(buf, 6)
+				| PackBitmapIndexV1.OPT_LOOKUP_TABLE
+				| PackBitmapIndexV1.OPT_HASH_CACHE);
+		MessageDigest md = Constants.newMessageDigest();
+		md.update(buf, 0, end + lookupTable + hashCache);
+		md.digest(buf, end + lookupTable + hashCache,
+				Constants.OBJECT_ID_LENGTH);
+
+		PackBitmapIndex actual = PackBitmapIndex.read(
+				new ByteArrayInputStream(buf), idx,
+				PackReverseIndexFactory.computeFromIndex(idx));
+		assertEquals(expected.getBitmapCount(), actual.getBitmapCount());
+		List<PseudoMergeBitmap> merges = expected.getPseudoMerges();
+		assertEquals(3, merges.size());
+		assertEquals(merges.size(), actual.getPseudoMerges().size());
+		for (int i = 0; i < merges.size(); i++) {
+			PseudoMergeBitmap m = actual.getPseudoMerges().get(i);
+			assertEquals(merges.get(i).getCommits(), m.getCommits());
+			assertEquals(merges.get(i).getBitmap(), m.getBitmap());
+		}
+	}
+
+	@Test
+	public void testNoSingleCommitGroup() throws Exception {
+		createChanges(3);
+		gc(2);
+		List<PseudoMergeBitmap> merges = bitmapIndex().getPseudoMerges();
+		assertEquals(1, merges.size());
+		EWAHCompressedBitmap commits = merges.get(0).getCommits();
+		assertEquals(3, commits.cardinality());
+	}
+}
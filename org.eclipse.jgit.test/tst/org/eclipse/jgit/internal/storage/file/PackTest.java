@@ -15,6 +15,7 @@
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -32,6 +33,7 @@
 import java.util.zip.Deflater;
 
 import org.eclipse.jgit.errors.LargeObjectException;
+import org.eclipse.jgit.errors.MissingObjectException;
 import org.eclipse.jgit.internal.JGitText;
 import org.eclipse.jgit.internal.storage.pack.DeltaEncoder;
 import org.eclipse.jgit.internal.storage.pack.PackExt;
@@ -47,6 +49,7 @@
 import org.eclipse.jgit.lib.ObjectStream;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevBlob;
+import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.storage.file.WindowCacheConfig;
 import org.eclipse.jgit.transport.PackParser;
 import org.eclipse.jgit.transport.PackedObjectInfo;
@@ -158,6 +161,23 @@ public void testWhole_LargeObject() throws Exception {
 		}
 	}
 
+	@Test
+	public void testGetObjectType() throws Exception {
+		RevBlob blob = tr.blob("a");
+		RevCommit commit = tr.branch("master").commit().add("A", blob)
+				.create();
+		tr.packAndPrune();
+		RevBlob loose = tr.blob("loose");
+
+		assertEquals(Constants.OBJ_COMMIT, wc.getObjectType(commit));
+		assertEquals(Constants.OBJ_TREE,
+				wc.getObjectType(tr.parseBody(commit).getTree()));
+		assertEquals(Constants.OBJ_BLOB, wc.getObjectType(blob));
+		assertEquals(Constants.OBJ_BLOB, wc.getObjectType(loose));
+		assertThrows(MissingObjectException.class,
+				() -> wc.getObjectType(ObjectId.zeroId()));
+	}
+
 	@Test
 	public void testDelta_SmallObjectChain() throws Exception {
 		try (ObjectInserter.Formatter fmt = new ObjectInserter.Formatter()) {
@@ -201,6 +221,7 @@ public void testDelta_SmallObjectChain() throws Exception {
 			ObjectLoader ol = wc.open(id3);
 			assertNotNull("created loader", ol);
 			assertEquals(Constants.OBJ_BLOB, ol.getType());
+			assertEquals(Constants.OBJ_BLOB, wc.getObjectType(id3));
 			assertEquals(data3.length, ol.getSize());
 			assertFalse("is large", ol.isLarge());
 			assertNotNull(ol.getCachedBytes());
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.internal.storage.file;
+
+import static org.eclipse.jgit.internal.storage.pack.PackWriter.NONE;
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.jgit.internal.storage.pack.PackWriter;
+import org.eclipse.jgit.junit.LocalDiskRepositoryTestCase;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.junit.Test;
+
+public class WindowCursorTest extends LocalDiskRepositoryTestCase {
+	@Test
+	public void testCopyRegionsAsIs() throws Exception {
+		// TestRepository will close repo
+		FileRepository repo = createBareRepository();
+		ObjectId first = null;
+		ObjectId tip = null;
+		try (TestRepository<FileRepository> testRepo = new TestRepository<>(
+				repo)) {
+			TestRepository<FileRepository>.BranchBuilder main = testRepo
+					.branch("main");
+			Random rnd = new Random(3);
+			String content = "";
+			for (int i = 0; i < 10; i++) {
+				content += randomLines(rnd, 10);
+				tip = main.commit().add("a", content)
+						.add("b" + i, randomLines(rnd, 5)).create();
+				if (first == null) {
+					first = tip;
+				}
+			}
+		}
+		GC gc = new GC(repo);
+		gc.gc().get();
+
+		// Without validation runs of the GC pack are copied verbatim, which
+		// must not change the result.
+		for (Set<ObjectId> have : List.of(NONE, Set.of(first))) {
+			Set<ObjectId> want = Set.of(tip);
+			assertArrayEquals(writePack(repo, want, have, true),
+					writePack(repo, want, have, false));
+		}
+	}
+
+	private static byte[] writePack(FileRepository repo, Set<ObjectId> want,
+			Set<ObjectId> have, boolean validate) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (PackWriter pw = new PackWriter(repo)) {
+			NullProgressMonitor m = NullProgressMonitor.INSTANCE;
+			pw.setDeltaBaseAsOffset(true);
+			pw.setReuseValidatingObjects(validate);
+			pw.preparePack(m, want, have);
+			pw.writePack(m, m, out);
+		}
+		return out.toByteArray();
+	}
+
+	private static String randomLines(Random rnd, int lines) {
+		StringBuilder b = new StringBuilder();
+		for (int i = 0; i < lines; i++) {
+			b.append(String.format("%016x", Long.valueOf(rnd.nextLong())));
+			b.append('\n');
+		}
+		return b.toString();
+	}
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.internal.storage.pack;
+
+import static org.eclipse.jgit.internal.storage.pack.PackWriter.NONE;
+import static org.eclipse.jgit.lib.Constants.OBJ_BLOB;
+import static org.eclipse.jgit.lib.Constants.OBJ_TREE;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.junit.LocalDiskRepositoryTestCase;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.Config;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.storage.pack.PackConfig;
+import org.eclipse.jgit.util.io.NullOutputStream;
+import org.junit.Test;
+
+public class CompressionPolicyTest extends LocalDiskRepositoryTestCase {
+	private static final byte[] CHUNK = new byte[4 << 20];
+
+	@Test
+	public void testLevelsByTypeAndSize() {
+		PackConfig pc = new PackConfig();
+		pc.setCompressionLevel(OBJ_TREE, Deflater.BEST_COMPRESSION);
+		pc.setBigFileCompressionLevel(Deflater.BEST_SPEED);
+		CompressionPolicy policy = new CompressionPolicy(pc);
+		assertEquals(Deflater.DEFAULT_COMPRESSION, policy.level(OBJ_BLOB, 10));
+		assertEquals(Deflater.BEST_COMPRESSION, policy.level(OBJ_TREE, 10));
+		assertEquals(Deflater.BEST_SPEED,
+				policy.level(OBJ_BLOB, pc.getBigFileThreshold()));
+	}
+
+	@Test
+	public void testNotAdaptive() throws IOException {
+		CompressionPolicy policy = new CompressionPolicy(new PackConfig());
+		OutputStream out = NullOutputStream.INSTANCE;
+		assertSame(out, policy.wrap(out));
+	}
+
+	@Test
+	public void testAdaptsToOutput() throws Exception {
+		PackConfig pc = new PackConfig();
+		pc.setCompressionLevel(Deflater.BEST_COMPRESSION);
+		pc.setAdaptiveCompression(true);
+		CompressionPolicy policy = new CompressionPolicy(pc);
+
+		// Writes return at once while the writer is busy compressing.
+		OutputStream fast = policy.wrap(NullOutputStream.INSTANCE);
+		for (int i = 0; i < 3; i++) {
+			Thread.sleep(20);
+			fast.write(CHUNK);
+		}
+		assertEquals(Deflater.BEST_COMPRESSION - 3, policy.level(OBJ_BLOB, 10));
+
+		// The writer waits for a slow output.
+		OutputStream slow = policy.wrap(new OutputStream() {
+			@Override
+			public void write(int b) {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				try {
+					Thread.sleep(20);
+				} catch (InterruptedException e) {
+					throw new IOException(e);
+				}
+			}
+		});
+		slow.write(CHUNK);
+		assertEquals(Deflater.BEST_COMPRESSION - 2, policy.level(OBJ_BLOB, 10));
+		assertTrue(policy.getTimeBlocked() >= 20);
+	}
+
+	@Test
+	public void testNotBelowBestSpeed() throws Exception {
+		PackConfig pc = new PackConfig();
+		pc.setCompressionLevel(2);
+		pc.setCompressionLevel(OBJ_TREE, Deflater.NO_COMPRESSION);
+		pc.setAdaptiveCompression(true);
+		CompressionPolicy policy = new CompressionPolicy(pc);
+		OutputStream out = policy.wrap(NullOutputStream.INSTANCE);
+		for (int i = 0; i < 3; i++) {
+			Thread.sleep(20);
+			out.write(CHUNK);
+		}
+		assertEquals(Deflater.BEST_SPEED, policy.level(OBJ_BLOB, 10));
+		assertEquals(Deflater.NO_COMPRESSION, policy.level(OBJ_TREE, 10));
+	}
+
+	@Test
+	public void testCompressionLevelByType() throws Exception {
+		// TestRepository will close repo
+		FileRepository repo = createBareRepository();
+		Set<ObjectId> want = new HashSet<>();
+		try (TestRepository<FileRepository> testRepo = new TestRepository<>(
+				repo)) {
+			TestRepository<FileRepository>.BranchBuilder main = testRepo
+					.branch("main");
+			for (int i = 0; i < 10; i++) {
+				want.add(main.commit().add("f" + i, genDeltableData(1000 + i))
+						.create());
+			}
+		}
+		PackConfig pc = new PackConfig(repo);
+		pc.setReuseObjects(false);
+		pc.setReuseDeltas(false);
+		pc.setDeltaCompress(false);
+
+		byte[] deflated = writePack(repo, pc, want);
+		pc.setCompressionLevel(OBJ_BLOB, Deflater.NO_COMPRESSION);
+		byte[] storedBlobs = writePack(repo, pc, want);
+		assertTrue(storedBlobs.length > deflated.length + 5 * 1000);
+		try (ObjectInserter ins = createBareRepository()
+				.newObjectInserter()) {
+			ins.newPackParser(new ByteArrayInputStream(storedBlobs))
+					.parse(NullProgressMonitor.INSTANCE);
+		}
+
+		pc.setCompressionLevel(OBJ_BLOB, Deflater.BEST_COMPRESSION);
+		pc.setBigFileCompressionLevel(Deflater.NO_COMPRESSION);
+		pc.setBigFileThreshold(1000);
+		assertArrayEquals(storedBlobs, writePack(repo, pc, want));
+	}
+
+	@Test
+	public void testCompressionLevelsFromConfig() {
+		Config c = new Config();
+		c.setInt("pack", null, "compression", 5);
+		c.setInt("pack", null, "treeCompression", 9);
+		c.setInt("pack", null, "bigFileCompression", 1);
+		c.setBoolean("pack", null, "adaptiveCompression", true);
+		PackConfig pc = new PackConfig(c);
+		assertEquals(5, pc.getCompressionLevel(OBJ_BLOB));
+		assertEquals(9, pc.getCompressionLevel(OBJ_TREE));
+		assertEquals(9, pc.getCompressionLevel(OBJ_TREE, 100));
+		assertEquals(1, pc.getCompressionLevel(OBJ_TREE,
+				pc.getBigFileThreshold()));
+		assertTrue(pc.isAdaptiveCompression());
+
+		PackConfig copy = new PackConfig(pc);
+		pc.setCompressionLevel(OBJ_TREE, 1);
+		assertEquals(9, copy.getCompressionLevel(OBJ_TREE));
+		assertThrows(IllegalArgumentException.class,
+				() -> pc.setCompressionLevel(Constants.OBJ_OFS_DELTA, 1));
+	}
+
+	private static byte[] writePack(FileRepository repo, PackConfig pc,
+			Set<ObjectId> want) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (PackWriter pw = new PackWriter(pc, repo.newObjectReader())) {
+			NullProgressMonitor m = NullProgressMonitor.INSTANCE;
+			pw.preparePack(m, want, NONE);
+			pw.writePack(m, m, out);
+		}
+		return out.toByteArray();
+	}
+
+	// Generate consistent junk data for building files that delta well
+	private static String genDeltableData(int length) {
+		assertTrue("Generated data must have a length > 0", length > 0);
+		char[] data = {'a', 'b', 'c', '\n'};
+		StringBuilder builder = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			builder.append(data[i % 4]);
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.internal.storage.pack;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.junit.LocalDiskRepositoryTestCase;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.revwalk.RevObject;
+import org.eclipse.jgit.storage.pack.PackConfig;
+import org.junit.Test;
+
+public class DeflatePipelineTest extends LocalDiskRepositoryTestCase {
+	@Test
+	public void testParallelDeflateWritesIdenticalPack() throws Exception {
+		// TestRepository will close repo
+		FileRepository repo = createBareRepository();
+		List<RevObject> objects = new ArrayList<>();
+		try (TestRepository<FileRepository> testRepo = new TestRepository<>(
+				repo)) {
+			for (int i = 0; i < 100; i++) {
+				objects.add(testRepo.blob(genDeltableData(1000 + i)));
+				objects.add(testRepo.blob("unique content " + i));
+			}
+		}
+		PackConfig pc = new PackConfig(repo);
+		pc.setReuseObjects(false);
+		pc.setReuseDeltas(false);
+		// Leave the deltas to be computed and deflated while writing.
+		pc.setDeltaCacheSize(0);
+
+		pc.setThreads(1);
+		byte[] serial = writePack(repo, pc, objects);
+		pc.setThreads(4);
+		assertArrayEquals(serial, writePack(repo, pc, objects));
+		// Only one object fits, the writer deflates the others itself.
+		pc.setDeflateBufferLimit(1);
+		assertArrayEquals(serial, writePack(repo, pc, objects));
+		pc.setDeflateBufferLimit(PackConfig.DEFAULT_DEFLATE_BUFFER_LIMIT);
+		pc.setExecutor(Runnable::run);
+		assertArrayEquals(serial, writePack(repo, pc, objects));
+	}
+
+	private static byte[] writePack(FileRepository repo, PackConfig pc,
+			List<RevObject> objects) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (PackWriter pw = new PackWriter(pc, repo.newObjectReader())) {
+			NullProgressMonitor m = NullProgressMonitor.INSTANCE;
+			pw.preparePack(objects.iterator());
+			pw.writePack(m, m, out);
+			assertTrue(pw.getStatistics().getTotalDeltas() > 0);
+		}
+		return out.toByteArray();
+	}
+
+	// Generate consistent junk data for building files that delta well
+	private static String genDeltableData(int length) {
+		assertTrue("Generated data must have a length > 0", length > 0);
+		char[] data = {'a', 'b', 'c', '\n'};
+		StringBuilder builder = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			builder.append(data[i % 4]);
+		}
+		return builder.toString();
+	}
+}
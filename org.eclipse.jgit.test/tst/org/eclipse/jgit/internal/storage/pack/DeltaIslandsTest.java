@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.internal.storage.pack;
+
+import static org.eclipse.jgit.internal.storage.pack.PackWriter.NONE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.internal.storage.file.GC;
+import org.eclipse.jgit.junit.LocalDiskRepositoryTestCase;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.storage.pack.PackConfig;
+import org.junit.Test;
+
+public class DeltaIslandsTest extends LocalDiskRepositoryTestCase {
+	@Test
+	public void testDeltaIslands() throws Exception {
+		// TestRepository will close repo
+		FileRepository repo = createBareRepository();
+		PackConfig pc = new PackConfig(repo);
+		try (TestRepository<FileRepository> testRepo = new TestRepository<>(
+				repo)) {
+			createForks(testRepo);
+
+			assertTrue(countDeltas(repo, pc, true) > 0);
+			pc.setDeltaIslands(new String[] { "^refs/virtual/([0-9]+)/" });
+			assertEquals(0, countDeltas(repo, pc, true));
+
+			// Stored deltas crossing islands must not be reused either.
+			GC gc = new GC(repo);
+			gc.setPackConfig(new PackConfig(repo));
+			gc.repack();
+			assertEquals(0, countDeltas(repo, pc, true));
+		}
+	}
+
+	@Test
+	public void testDeltaIslandsSharedHistory() throws Exception {
+		// TestRepository will close repo
+		FileRepository repo = createBareRepository();
+		PackConfig pc = new PackConfig(repo);
+		pc.setDeltaIslands(new String[] { "^refs/virtual/([0-9]+)/" });
+		try (TestRepository<FileRepository> testRepo = new TestRepository<>(
+				repo)) {
+			RevCommit base = testRepo.commit().add("a", genDeltableData(1000))
+					.create();
+			RevCommit tip = testRepo.commit().parent(base)
+					.add("b", genDeltableData(1005)).create();
+			testRepo.update("refs/virtual/1/heads/main", tip);
+			testRepo.update("refs/virtual/2/heads/main", base);
+
+			// The base is in both islands, so it can be used by either.
+			assertEquals(1, countDeltas(repo, pc, true));
+		}
+	}
+
+	@Test
+	public void testDeltaIslandsGc() throws Exception {
+		FileRepository repo = createBareRepository();
+		try (TestRepository<FileRepository> testRepo = new TestRepository<>(
+				repo)) {
+			createForks(testRepo);
+			PackConfig reuseOnly = new PackConfig(repo);
+			reuseOnly.setDeltaCompress(false);
+
+			GC gc = new GC(repo);
+			gc.setPackConfig(new PackConfig(repo));
+			gc.repack();
+			assertEquals(1, countDeltas(repo, reuseOnly, false));
+
+			PackConfig islands = new PackConfig(repo);
+			islands.setDeltaIslands(
+					new String[] { "^refs/virtual/([0-9]+)/" });
+			gc.setPackConfig(islands);
+			gc.repack();
+			assertEquals(0, countDeltas(repo, reuseOnly, false));
+		}
+	}
+
+	private void createForks(TestRepository<FileRepository> testRepo)
+			throws Exception {
+		testRepo.branch("refs/virtual/1/heads/main").commit()
+				.add("a", genDeltableData(1000)).create();
+		testRepo.branch("refs/virtual/2/heads/main").commit()
+				.add("a", genDeltableData(1005)).create();
+	}
+
+	private static long countDeltas(FileRepository repo, PackConfig pc,
+			boolean islands) throws IOException {
+		List<Ref> refs = repo.getRefDatabase().getRefs();
+		Set<ObjectId> want = new HashSet<>();
+		for (Ref r : refs) {
+			want.add(r.getObjectId());
+		}
+		try (PackWriter pw = new PackWriter(pc, repo.newObjectReader())) {
+			if (islands) {
+				pw.setDeltaIslandRefs(refs);
+			}
+			NullProgressMonitor m = NullProgressMonitor.INSTANCE;
+			pw.preparePack(m, want, NONE);
+			pw.writePack(m, m, new ByteArrayOutputStream());
+			return pw.getStatistics().getTotalDeltas();
+		}
+	}
+
+	// Generate consistent junk data for building files that delta well
+	private static String genDeltableData(int length) {
+		assertTrue("Generated data must have a length > 0", length > 0);
+		char[] data = {'a', 'b', 'c', '\n'};
+		StringBuilder builder = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			builder.append(data[i % 4]);
+		}
+		return builder.toString();
+	}
+}
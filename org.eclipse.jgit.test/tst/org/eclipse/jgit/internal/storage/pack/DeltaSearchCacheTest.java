@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.internal.storage.pack;
+
+import static org.eclipse.jgit.internal.storage.pack.PackWriter.NONE;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.internal.storage.file.GC;
+import org.eclipse.jgit.junit.LocalDiskRepositoryTestCase;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.storage.pack.PackConfig;
+import org.junit.Test;
+
+public class DeltaSearchCacheTest extends LocalDiskRepositoryTestCase {
+	@Test
+	public void testDeltaSearchCache() throws Exception {
+		// TestRepository will close repo
+		FileRepository repo = createBareRepository();
+		Set<ObjectId> want = new HashSet<>();
+		try (TestRepository<FileRepository> testRepo = new TestRepository<>(
+				repo)) {
+			TestRepository<FileRepository>.BranchBuilder main = testRepo
+					.branch("main");
+			Random rnd = new Random(2);
+			String content = "";
+			for (int i = 0; i < 4; i++) {
+				content += randomLines(rnd, 200);
+				want.add(main.commit().add("a", content)
+						.add("b" + i, randomLines(rnd, 600)).create());
+			}
+		}
+		PackConfig pc = new PackConfig(repo);
+		pc.setReuseDeltas(false);
+		pc.setReuseObjects(false);
+
+		int limit = PackConfig.DEFAULT_DELTA_SEARCH_CACHE_LIMIT;
+		DeltaSearchCache cache = new DeltaSearchCache(limit);
+		byte[] pack = writePack(repo, pc, want, cache);
+		assertTrue(cache.size() > 1);
+
+		ByteArrayOutputStream buf = new ByteArrayOutputStream();
+		cache.write(buf);
+		DeltaSearchCache read = DeltaSearchCache
+				.read(new ByteArrayInputStream(buf.toByteArray()), limit);
+		assertArrayEquals(pack, writePack(repo, pc, want, read));
+		assertEquals(cache.size(), read.size());
+
+		DeltaSearchCache small = new DeltaSearchCache(1);
+		assertArrayEquals(pack, writePack(repo, pc, want, small));
+		assertEquals(1, small.size());
+		small = DeltaSearchCache
+				.read(new ByteArrayInputStream(buf.toByteArray()), 1);
+		assertArrayEquals(pack, writePack(repo, pc, want, small));
+		assertEquals(1, small.size());
+
+		byte[] corrupt = buf.toByteArray();
+		corrupt[corrupt.length / 2] ^= 1;
+		assertThrows(IOException.class, () -> DeltaSearchCache
+				.read(new ByteArrayInputStream(corrupt), limit));
+	}
+
+	@Test
+	public void testDeltaSearchCacheGc() throws Exception {
+		// TestRepository will close repo
+		FileRepository repo = createBareRepository();
+		try (TestRepository<FileRepository> testRepo = new TestRepository<>(
+				repo)) {
+			Random rnd = new Random(4);
+			testRepo.branch("main").commit().add("a", randomLines(rnd, 600))
+					.create();
+			testRepo.branch("main").commit().add("a", randomLines(rnd, 600))
+					.create();
+		}
+		File file = new File(repo.getObjectsDirectory(),
+				Constants.INFO_DELTA_SEARCH_CACHE);
+		PackConfig pc = new PackConfig(repo);
+		pc.setReuseDeltas(false);
+		pc.setReuseObjects(false);
+		GC gc = new GC(repo);
+		gc.setPackConfig(pc);
+		gc.gc().get();
+		assertFalse(file.exists());
+
+		pc.setDeltaSearchCache(true);
+		gc.setPackConfig(pc);
+		gc.gc().get();
+		ByteArrayOutputStream empty = new ByteArrayOutputStream();
+		new DeltaSearchCache(1).write(empty);
+		assertTrue(file.length() > empty.size());
+		try (InputStream in = new FileInputStream(file)) {
+			assertNotNull(DeltaSearchCache.read(in,
+					PackConfig.DEFAULT_DELTA_SEARCH_CACHE_LIMIT));
+		}
+	}
+
+	private static String randomLines(Random rnd, int lines) {
+		StringBuilder b = new StringBuilder();
+		for (int i = 0; i < lines; i++) {
+			b.append(String.format("%016x", Long.valueOf(rnd.nextLong())));
+			b.append('\n');
+		}
+		return b.toString();
+	}
+
+	private static byte[] writePack(FileRepository repo, PackConfig pc,
+			Set<ObjectId> want, DeltaSearchCache cache) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (PackWriter pw = new PackWriter(pc, repo.newObjectReader())) {
+			pw.setDeltaSearchCache(cache);
+			NullProgressMonitor m = NullProgressMonitor.INSTANCE;
+			pw.preparePack(m, want, NONE);
+			pw.writePack(m, m, out);
+		}
+		return out.toByteArray();
+	}
+}
@@ -25,10 +25,17 @@
 import org.eclipse.jgit.internal.storage.file.PackBitmapIndexBuilder;
 import org.eclipse.jgit.junit.TestRepository.BranchBuilder;
 import org.eclipse.jgit.junit.TestRepository.CommitBuilder;
+import org.eclipse.jgit.lib.BitmapIndex;
+import org.eclipse.jgit.lib.BitmapIndex.Bitmap;
+import org.eclipse.jgit.lib.BitmapIndex.BitmapBuilder;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.NullProgressMonitor;
 import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.revwalk.ObjectWalk;
 import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevObject;
+import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.storage.pack.PackConfig;
 import org.junit.Test;
 
@@ -82,6 +89,58 @@ private void testBitmapSpansNoMerges(boolean withTags) throws Exception {
 		}
 	}
 
+	@Test
+	public void testReusedBitmapsMatchWalk() throws Exception {
+		PackConfig config = new PackConfig(repo);
+		config.setBitmapContiguousCommitCount(5);
+		config.setBitmapRecentCommitCount(10);
+		config.setBitmapRecentCommitSpan(5);
+		config.setBitmapDistantCommitSpan(20);
+		gc.setPackConfig(config);
+		gc.setPackExpireAgeMillis(0);
+		gc.setExpireAgeMillis(0);
+
+		BranchBuilder bb = tr.branch("refs/heads/main");
+		RevCommit tip = null;
+		for (int round = 0; round < 3; round++) {
+			for (int i = 0; i < 100; i++) {
+				String str = "A" + round + "-" + i;
+				tip = bb.commit().message(str).add(str, str).create();
+			}
+			// Later rounds remap the bitmaps of the previous pack.
+			gc.gc().get();
+		}
+
+		int checked = 0;
+		try (ObjectReader reader = repo.newObjectReader();
+				RevWalk rw = new RevWalk(reader)) {
+			BitmapIndex index = reader.getBitmapIndex();
+			rw.markStart(tip);
+			for (RevCommit c; (c = rw.next()) != null;) {
+				Bitmap bitmap = index.getBitmap(c);
+				if (bitmap == null) {
+					continue;
+				}
+				BitmapBuilder actual = index.newBitmapBuilder().or(bitmap);
+				int expected = 0;
+				try (ObjectWalk ow = new ObjectWalk(reader)) {
+					ow.markStart(ow.parseCommit(c));
+					for (RevObject o; (o = ow.next()) != null;) {
+						assertTrue(actual.contains(o));
+						expected++;
+					}
+					for (RevObject o; (o = ow.nextObject()) != null;) {
+						assertTrue(actual.contains(o));
+						expected++;
+					}
+				}
+				assertEquals(c.name(), expected, actual.cardinality());
+				checked++;
+			}
+		}
+		assertTrue(checked > 10);
+	}
+
 	@Test
 	public void testBitmapDoesNotIncludeAnnotatedTags() throws Exception {
 		/*
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.internal.storage.pack;
+
+import static org.eclipse.jgit.internal.storage.pack.PackWriter.NONE;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.junit.LocalDiskRepositoryTestCase;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.storage.pack.PackConfig;
+import org.junit.Test;
+
+public class PackWriterNameHashTest extends LocalDiskRepositoryTestCase {
+	@Test
+	public void testNameHashVersion2GroupsByFullPath() throws Exception {
+		// TestRepository will close repo
+		FileRepository repo = createBareRepository();
+		int files = 4;
+		Set<ObjectId> want = new HashSet<>();
+		try (TestRepository<FileRepository> testRepo = new TestRepository<>(
+				repo)) {
+			TestRepository<FileRepository>.BranchBuilder main = testRepo
+					.branch("main");
+			Random rnd = new Random(1);
+			String[] content = new String[files];
+			Arrays.fill(content, "");
+			for (int i = 0; i < 4; i++) {
+				TestRepository<FileRepository>.CommitBuilder c = main.commit();
+				for (int f = 0; f < files; f++) {
+					// Unrelated files of the same name and size, which
+					// version 1 of the name hash sorts next to each other.
+					content[f] += randomLines(rnd, 20);
+					c.add("project-" + f + "/src/main/resources/BUILD",
+							content[f]);
+				}
+				want.add(c.create());
+			}
+		}
+		PackConfig pc = new PackConfig(repo);
+		pc.setReuseDeltas(false);
+		pc.setReuseObjects(false);
+		pc.setDeltaSearchWindowSize(files - 1);
+
+		int v1 = writePack(repo, pc, want).length;
+		pc.setNameHashVersion(2);
+		int v2 = writePack(repo, pc, want).length;
+		assertTrue(v2 < v1);
+	}
+
+	private static String randomLines(Random rnd, int lines) {
+		StringBuilder b = new StringBuilder();
+		for (int i = 0; i < lines; i++) {
+			b.append(String.format("%016x", Long.valueOf(rnd.nextLong())));
+			b.append('\n');
+		}
+		return b.toString();
+	}
+
+	private static byte[] writePack(FileRepository repo, PackConfig pc,
+			Set<ObjectId> want) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (PackWriter pw = new PackWriter(pc, repo.newObjectReader())) {
+			NullProgressMonitor m = NullProgressMonitor.INSTANCE;
+			pw.preparePack(m, want, NONE);
+			pw.writePack(m, m, out);
+		}
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.internal.transport.connectivity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.internal.storage.dfs.DfsRepositoryDescription;
+import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectIdSubclassMap;
+import org.eclipse.jgit.revwalk.RevBlob;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevObject;
+import org.eclipse.jgit.revwalk.RevTree;
+import org.eclipse.jgit.transport.ConnectivityChecker.ConnectivityCheckInfo;
+import org.eclipse.jgit.transport.PackParser;
+import org.eclipse.jgit.transport.ReceiveCommand;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class ParallelConnectivityCheckerTest {
+	@Rule
+	public MockitoRule rule = MockitoJUnit.rule();
+
+	@Mock
+	private PackParser parser;
+
+	private TestRepository<InMemoryRepository> tr;
+
+	private RevBlob oldBlob;
+
+	private RevCommit base;
+
+	private ObjectIdSubclassMap<ObjectId> baseObjectIds;
+
+	private ConnectivityCheckInfo info;
+
+	private ExecutorService executor;
+
+	private ParallelConnectivityChecker checker;
+
+	@Before
+	public void setUp() throws Exception {
+		tr = new TestRepository<>(
+				new InMemoryRepository(new DfsRepositoryDescription("test")));
+		oldBlob = tr.blob("old");
+		base = tr.commit().add("a", oldBlob).add("dir/b", "b").create();
+
+		info = new ConnectivityCheckInfo();
+		baseObjectIds = new ObjectIdSubclassMap<>();
+		when(parser.getBaseObjectIds()).thenReturn(baseObjectIds);
+		info.setParser(parser);
+		info.setRepository(tr.getRepository());
+		info.setWalk(tr.getRevWalk());
+		executor = Executors.newFixedThreadPool(3);
+		checker = new ParallelConnectivityChecker(4, executor);
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdown();
+	}
+
+	@Test
+	public void testSuccessful() throws Exception {
+		List<RevObject> received = new ArrayList<>();
+		RevCommit tip = newCommits(8, received);
+		check(tip, received, false);
+		check(tip, received, true);
+	}
+
+	@Test
+	public void testMissingBlob() throws Exception {
+		RevBlob missing = tr.getRevWalk().lookupBlob(ObjectId
+				.fromString("deadbeefdeadbeefdeadbeefdeadbeefdeadbeef"));
+		RevCommit tip = tr.commit().parent(base).add("a", oldBlob)
+				.add("dir/c", missing).create();
+
+		MissingObjectException e = assertThrows(
+				MissingObjectException.class,
+				() -> check(tip, Collections.emptyList(), false));
+		assertEquals(missing, e.getObjectId());
+	}
+
+	@Test
+	public void testCheckObjectsRequiresReceivedObjects() throws Exception {
+		List<RevObject> received = new ArrayList<>();
+		RevCommit tip = newCommits(4, received);
+		RevObject notReceived = received.remove(received.size() - 1);
+
+		MissingObjectException e = assertThrows(
+				MissingObjectException.class,
+				() -> check(tip, received, true));
+		assertEquals(notReceived, e.getObjectId());
+	}
+
+	@Test
+	public void testCheckObjectsBaseObjects() throws Exception {
+		List<RevObject> received = new ArrayList<>();
+		RevCommit tip = newCommits(2, received);
+
+		// A delta base the client has.
+		baseObjectIds.add(oldBlob.copy());
+		check(tip, received, true);
+
+		// A delta base the client did not get from us.
+		RevBlob other = tr.blob("other");
+		baseObjectIds.add(other.copy());
+		MissingObjectException e = assertThrows(
+				MissingObjectException.class,
+				() -> check(tip, received, true));
+		assertEquals(other, e.getObjectId());
+	}
+
+	private RevCommit newCommits(int count, List<RevObject> received)
+			throws Exception {
+		RevCommit c = base;
+		for (int i = 0; i < count; i++) {
+			RevBlob blob = tr.blob("new " + i);
+			c = tr.commit().parent(c).add("a", oldBlob)
+					.add("dir/b" + i, blob).create();
+			RevTree dir = (RevTree) tr.get(c.getTree(), "dir");
+			received.add(c);
+			received.add(c.getTree());
+			received.add(dir);
+			received.add(blob);
+		}
+		return c;
+	}
+
+	private void check(RevCommit tip, List<RevObject> received,
+			boolean checkObjects) throws Exception {
+		ObjectIdSubclassMap<ObjectId> newObjectIds;
+		newObjectIds = new ObjectIdSubclassMap<>();
+		for (RevObject o : received) {
+			newObjectIds.add(o.copy());
+		}
+		when(parser.getNewObjectIds()).thenReturn(newObjectIds);
+		info.setCheckObjects(checkObjects);
+		info.setCommands(Collections.singletonList(new ReceiveCommand(
+				base, tip, "refs/heads/master")));
+		checker.checkConnectivity(info, Set.of(base.copy()),
+				NullProgressMonitor.INSTANCE);
+	}
+}
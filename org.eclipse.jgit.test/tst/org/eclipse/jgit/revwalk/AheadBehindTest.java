@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package org.eclipse.jgit.revwalk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class AheadBehindTest extends RevWalkTestCase {
+
+	@Test
+	public void shouldCountSingleTip() throws Exception {
+		final RevCommit a = commit();
+		final RevCommit b1 = commit(a);
+		final RevCommit b2 = commit(b1);
+		final RevCommit c1 = commit(a);
+
+		List<AheadBehind> counts = AheadBehind.of(rw, b2, List.of(c1));
+		assertEquals(1, counts.size());
+		assertSame(c1, counts.get(0).getTip());
+		assertEquals(1, counts.get(0).getAhead());
+		assertEquals(2, counts.get(0).getBehind());
+	}
+
+	@Test
+	public void shouldCountSameAndMergedTips() throws Exception {
+		final RevCommit a = commit();
+		final RevCommit b = commit(a);
+		final RevCommit c = commit(a);
+		final RevCommit m = commit(b, c);
+
+		List<AheadBehind> counts = AheadBehind.of(rw, b,
+				List.of(b, a, m, c));
+		assertCounts(counts.get(0), 0, 0);
+		assertCounts(counts.get(1), 0, 1);
+		assertCounts(counts.get(2), 2, 0);
+		assertCounts(counts.get(3), 1, 1);
+	}
+
+	@Test
+	public void shouldCountUnrelatedHistory() throws Exception {
+		final RevCommit a = commit(commit());
+		final RevCommit b = commit(commit(commit()));
+
+		List<AheadBehind> counts = AheadBehind.of(rw, a, List.of(b));
+		assertCounts(counts.get(0), 3, 2);
+	}
+
+	@Test
+	public void shouldMatchIndividualCountsForManyTips() throws Exception {
+		RevCommit base = commit();
+		List<RevCommit> mainline = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			base = commit(base);
+			mainline.add(base);
+		}
+		List<RevCommit> tips = new ArrayList<>();
+		for (int i = 0; i < 60; i++) {
+			RevCommit tip = mainline.get(i % mainline.size());
+			for (int j = 0; j <= i % 4; j++) {
+				tip = commit(tip);
+			}
+			if (i % 7 == 0) {
+				tip = commit(tip, mainline.get((i + 3) % mainline.size()));
+			}
+			tips.add(tip);
+		}
+
+		List<AheadBehind> counts = AheadBehind.of(rw, base, tips);
+		assertEquals(tips.size(), counts.size());
+		for (int i = 0; i < tips.size(); i++) {
+			RevCommit tip = tips.get(i);
+			assertSame(tip, counts.get(i).getTip());
+			assertCounts(counts.get(i),
+					RevWalkUtils.count(rw, List.of(tip), List.of(base)),
+					RevWalkUtils.count(rw, List.of(base), List.of(tip)));
+		}
+	}
+
+	private static void assertCounts(AheadBehind actual, int ahead,
+			int behind) {
+		assertEquals(ahead, actual.getAhead());
+		assertEquals(behind, actual.getBehind());
+	}
+}
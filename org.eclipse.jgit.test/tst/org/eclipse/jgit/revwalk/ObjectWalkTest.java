@@ -10,10 +10,15 @@
 
 package org.eclipse.jgit.revwalk;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.eclipse.jgit.lib.FileMode;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectInserter;
@@ -217,6 +222,41 @@ public void testEmptyTreeCorruption() throws Exception {
 		assertNull(objw.nextObject());
 	}
 
+	@Test
+	public void testFullPathHashCode() throws Exception {
+		final RevBlob f1 = blob("1");
+		final RevBlob f2 = blob("2");
+		final RevBlob f3 = blob("3");
+		final RevCommit a = commit(tree(
+				file("pom.xml", f1),
+				file("project-one/src/main/resources/pom.xml", f2),
+				file("project-two/src/main/resources/pom.xml", f3)));
+		markStart(a);
+		assertCommit(a, objw.next());
+		assertNull(objw.next());
+
+		Map<String, Integer> v1 = new HashMap<>();
+		Map<String, Integer> v2 = new HashMap<>();
+		RevObject o;
+		while ((o = objw.nextObject()) != null) {
+			String path = objw.getPathString();
+			v1.put(path, Integer.valueOf(objw.getPathHashCode()));
+			v2.put(path, Integer.valueOf(objw.getFullPathHashCode()));
+		}
+		assertEquals(Integer.valueOf(0), v2.get(null));
+
+		String one = "project-one/src/main/resources/pom.xml";
+		String two = "project-two/src/main/resources/pom.xml";
+		// The last 16 bytes of both paths are the same.
+		assertEquals(v1.get(one), v1.get(two));
+		assertNotEquals(v2.get(one), v2.get(two));
+		// The file name alone determines the most significant bits.
+		assertEquals(v2.get("pom.xml").intValue() >>> 26,
+				v2.get(one).intValue() >>> 26);
+		assertEquals(v2.get("pom.xml").intValue() >>> 26,
+				v2.get(two).intValue() >>> 26);
+	}
+
 	@Test
 	public void testSkipTreeWhenStartFromBlob() throws Exception {
 		final RevBlob f1 = blob("1");
@@ -11,7 +11,13 @@
 package org.eclipse.jgit.revwalk;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 
+import java.util.List;
+
+import org.eclipse.jgit.internal.storage.file.GC;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.Repository;
 import org.junit.Test;
 
 public class RevWalkUtilsCountTest extends RevWalkTestCase {
@@ -64,6 +70,73 @@ public void shouldWorkWithZeroAsEnd() throws Exception {
 		assertEquals(2, count(c, null));
 	}
 
+	@Test
+	public void shouldCountCollections() throws Exception {
+		final RevCommit a = commit();
+		final RevCommit b1 = commit(a);
+		final RevCommit b2 = commit(b1);
+		final RevCommit c1 = commit(a);
+		final RevCommit c2 = commit(c1);
+		final RevCommit m = commit(b2, c2);
+
+		assertEquals(5, RevWalkUtils.count(rw, List.of(m), List.of(a)));
+		assertEquals(2, RevWalkUtils.count(rw, List.of(b2, c1), List.of(c2)));
+		assertEquals(6, RevWalkUtils.count(rw, List.of(m), List.of()));
+		assertEquals(0, RevWalkUtils.count(rw, List.of(a), List.of(m)));
+	}
+
+	@Test
+	public void shouldCountCollectionsWithBitmaps() throws Exception {
+		TestRepository<Repository> repo = new TestRepository<>(db);
+		final RevCommit a = repo.commit().create();
+		final RevCommit b1 = repo.commit(a);
+		final RevCommit b2 = repo.commit(b1);
+		final RevCommit c1 = repo.commit(a);
+		final RevCommit c2 = repo.commit(c1);
+		repo.update("refs/heads/b", b2);
+		repo.update("refs/heads/c", c2);
+
+		GC gc = new GC(db);
+		gc.setAuto(false);
+		gc.gc().get();
+
+		// Not covered by the bitmap index.
+		final RevCommit m = repo.commit(b2, c2);
+		final RevCommit n = repo.commit(m);
+
+		try (RevWalk walk = new RevWalk(db)) {
+			assertNotNull(walk.getObjectReader().getBitmapIndex());
+			assertEquals(6, RevWalkUtils.count(walk, List.of(n), List.of(a)));
+			assertEquals(7, RevWalkUtils.count(walk, List.of(n), List.of()));
+			assertEquals(2,
+					RevWalkUtils.count(walk, List.of(b2, c1), List.of(c2)));
+			assertEquals(2, RevWalkUtils.count(walk, List.of(c2), List.of(b2)));
+			assertEquals(0, RevWalkUtils.count(walk, List.of(b1), List.of(n)));
+		}
+	}
+
+	@Test
+	public void shouldCountFirstParentsWithBitmaps() throws Exception {
+		TestRepository<Repository> repo = new TestRepository<>(db);
+		final RevCommit a = repo.commit().create();
+		final RevCommit b1 = repo.commit(a);
+		final RevCommit c1 = repo.commit(a);
+		final RevCommit c2 = repo.commit(c1);
+		final RevCommit m = repo.commit(b1, c2);
+		repo.update("refs/heads/m", m);
+
+		GC gc = new GC(db);
+		gc.setAuto(false);
+		gc.gc().get();
+
+		try (RevWalk walk = new RevWalk(db)) {
+			walk.setFirstParent(true);
+			assertNotNull(walk.getObjectReader().getBitmapIndex());
+			assertEquals(2, RevWalkUtils.count(walk, List.of(m), List.of(a)));
+			assertEquals(3, RevWalkUtils.count(walk, List.of(m), List.of()));
+		}
+	}
+
 	private int count(RevCommit start, RevCommit end) throws Exception {
 		return RevWalkUtils.count(rw, start, end);
 	}
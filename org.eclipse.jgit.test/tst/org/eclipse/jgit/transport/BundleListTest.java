@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.eclipse.jgit.errors.PackProtocolException;
+import org.junit.Test;
+
+public class BundleListTest {
+	@Test
+	public void testParse() throws Exception {
+		BundleList list = BundleList.parse(List.of("bundle.version=1",
+				"bundle.mode=any", "bundle.heuristic=creationToken",
+				"bundle.new.uri=https://example.com/new.bundle",
+				"bundle.new.creationToken=20",
+				"bundle.old.with.dots.URI=https://example.com/old.bundle",
+				"bundle.old.with.dots.creationtoken=10",
+				"bundle.nouri.creationToken=30", "bundle.new.filter=blob:none",
+				"other.key=ignored"));
+		assertEquals(BundleList.MODE_ANY, list.getMode());
+		assertTrue(list.isCreationTokenHeuristic());
+		assertEquals(2, list.getBundles().size());
+		BundleList.Bundle first = list.getBundles().get(0);
+		assertEquals("old.with.dots", first.getId());
+		assertEquals("https://example.com/old.bundle", first.getUri());
+		assertEquals(10, first.getCreationToken());
+		assertEquals("new", list.getBundles().get(1).getId());
+	}
+
+	@Test
+	public void testParseKeepsOrderWithoutHeuristic() throws Exception {
+		BundleList list = BundleList.parse(List.of("bundle.b.uri=file:/b",
+				"bundle.b.creationToken=2", "bundle.a.uri=file:/a",
+				"bundle.a.creationToken=1"));
+		assertEquals(BundleList.MODE_ALL, list.getMode());
+		assertEquals("b", list.getBundles().get(0).getId());
+		assertFalse(list.isCreationTokenHeuristic());
+		assertEquals(0, list.getBundles().get(0).getCreationToken());
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		BundleList list = new BundleList(BundleList.MODE_ALL,
+				List.of(new BundleList.Bundle("base", "file:/base", 1),
+						new BundleList.Bundle("inc", "file:/inc", 2)));
+		BundleList parsed = BundleList.parse(list.toLines());
+		assertEquals(list.getMode(), parsed.getMode());
+		assertEquals(2, parsed.getBundles().size());
+		for (int i = 0; i < 2; i++) {
+			BundleList.Bundle b = list.getBundles().get(i);
+			BundleList.Bundle p = parsed.getBundles().get(i);
+			assertEquals(b.getId(), p.getId());
+			assertEquals(b.getUri(), p.getUri());
+			assertEquals(b.getCreationToken(), p.getCreationToken());
+		}
+	}
+
+	@Test
+	public void testEmpty() throws Exception {
+		assertTrue(BundleList.parse(List.of("bundle.version=1",
+				"bundle.mode=all")).isEmpty());
+	}
+
+	@Test
+	public void testInvalidLine() {
+		assertThrows(PackProtocolException.class,
+				() -> BundleList.parse(List.of("bundle.version")));
+		assertThrows(PackProtocolException.class, () -> BundleList
+				.parse(List.of("bundle.a.uri=x", "bundle.a.creationToken=x")));
+	}
+}
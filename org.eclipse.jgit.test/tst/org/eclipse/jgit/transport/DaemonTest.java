@@ -11,10 +11,21 @@
 package org.eclipse.jgit.transport;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.eclipse.jgit.internal.storage.dfs.DfsRepositoryDescription;
+import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.revwalk.RevCommit;
 import org.junit.Test;
 
 /**
@@ -60,4 +71,86 @@ public void testDaemonRestart() throws Exception {
 		Thread.sleep(1000);
 		d.stopAndWait();
 	}
+
+	private static Daemon newDaemon() throws Exception {
+		InMemoryRepository repo = new InMemoryRepository(
+				new DfsRepositoryDescription("repo"));
+		try (TestRepository<InMemoryRepository> t = new TestRepository<>(
+				repo)) {
+			RevCommit tip = t.commit().create();
+			t.update("master", tip);
+		}
+		Daemon d = new Daemon();
+		d.setRepositoryResolver((DaemonClient req, String name) -> {
+			repo.incrementOpen();
+			return repo;
+		});
+		return d;
+	}
+
+	private static Socket connect(Daemon d) throws IOException {
+		Socket s = new Socket();
+		s.connect(d.getAddress());
+		s.setSoTimeout(10000);
+		return s;
+	}
+
+	private static String request(Socket s) throws IOException {
+		PacketLineOut out = new PacketLineOut(s.getOutputStream());
+		out.writeString("git-upload-pack /repo\0host=localhost\0");
+		out.flush();
+		return new PacketLineIn(s.getInputStream()).readString();
+	}
+
+	@Test
+	public void testDaemonExecutor() throws Exception {
+		Daemon d = newDaemon();
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		AtomicInteger sessions = new AtomicInteger();
+		d.setExecutor(r -> {
+			sessions.incrementAndGet();
+			pool.execute(r);
+		});
+		d.start();
+		try (Socket s = connect(d)) {
+			assertTrue(request(s).contains(" refs/heads/master"));
+		} finally {
+			d.stopAndWait();
+			pool.shutdown();
+		}
+		assertEquals(1, sessions.get());
+	}
+
+	@Test
+	public void testDaemonMaxConnections() throws Exception {
+		Daemon d = newDaemon();
+		d.setMaxConnections(1);
+		d.start();
+		try (Socket first = connect(d); Socket second = connect(d)) {
+			// The first connection is served, the second waits.
+			assertTrue(request(first).contains(" refs/heads/master"));
+			second.setSoTimeout(500);
+			assertThrows(SocketTimeoutException.class, () -> request(second));
+			first.close();
+			second.setSoTimeout(10000);
+			assertTrue(new PacketLineIn(second.getInputStream()).readString()
+					.contains(" refs/heads/master"));
+		} finally {
+			d.stopAndWait();
+		}
+	}
+
+	@Test
+	public void testDaemonServiceMaxSessions() throws Exception {
+		Daemon d = newDaemon();
+		d.getService("upload-pack").setMaxSessions(1);
+		d.start();
+		try (Socket first = connect(d); Socket second = connect(d)) {
+			assertTrue(request(first).contains(" refs/heads/master"));
+			assertEquals("ERR Too many git-upload-pack sessions, try again later",
+					request(second));
+		} finally {
+			d.stopAndWait();
+		}
+	}
 }
@@ -24,6 +24,7 @@
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.List;
 
 import org.eclipse.jgit.errors.PackProtocolException;
 import org.eclipse.jgit.internal.storage.dfs.DfsRepositoryDescription;
@@ -385,4 +386,45 @@ public void testLsRefsWithSessionID() throws IOException {
 
 		assertEquals("the.client.sid", req.getClientSID());
 	}
+
+	@Test
+	public void testObjectInfoAttributes() throws IOException {
+		PacketLineIn pckIn = formatAsPacketLine(PacketLineIn.delimiter(),
+				"type", "size",
+				"oid 4624442d68ee402a94364191085b77137618633e",
+				PacketLineIn.end());
+
+		ProtocolV2Parser parser = new ProtocolV2Parser(
+				ConfigBuilder.getDefault());
+		ObjectInfoRequest req = parser.parseObjectInfoRequest(pckIn);
+
+		assertEquals(List.of("type", "size"), req.getAttributes());
+		assertThat(req.getObjectIDs(),
+				hasOnlyObjectIds("4624442d68ee402a94364191085b77137618633e"));
+	}
+
+	@Test
+	public void testObjectInfoUnknownAttribute() throws IOException {
+		PacketLineIn pckIn = formatAsPacketLine(PacketLineIn.delimiter(),
+				"size", "mtime",
+				"oid 4624442d68ee402a94364191085b77137618633e",
+				PacketLineIn.end());
+
+		ProtocolV2Parser parser = new ProtocolV2Parser(
+				ConfigBuilder.getDefault());
+		assertThrows(PackProtocolException.class,
+				() -> parser.parseObjectInfoRequest(pckIn));
+	}
+
+	@Test
+	public void testObjectInfoAttributeAfterOid() throws IOException {
+		PacketLineIn pckIn = formatAsPacketLine(PacketLineIn.delimiter(),
+				"size", "oid 4624442d68ee402a94364191085b77137618633e",
+				"type", PacketLineIn.end());
+
+		ProtocolV2Parser parser = new ProtocolV2Parser(
+				ConfigBuilder.getDefault());
+		assertThrows(PackProtocolException.class,
+				() -> parser.parseObjectInfoRequest(pckIn));
+	}
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jgit.internal.storage.dfs.DfsRepositoryDescription;
+import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository;
+import org.eclipse.jgit.internal.transport.connectivity.FullConnectivityChecker;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReceivePackConnectivityCheckTest {
+	private URIish uri;
+	private TestProtocol<Object> testProtocol;
+	private Object ctx = new Object();
+	private InMemoryRepository server;
+	private InMemoryRepository client;
+	private RevCommit tip;
+	private ExecutorService pool;
+	private AtomicInteger executed = new AtomicInteger();
+	private AtomicInteger customChecks = new AtomicInteger();
+	private boolean customChecker;
+
+	@Before
+	public void setUp() throws Exception {
+		server = newRepo("server");
+		client = newRepo("client");
+		pool = Executors.newFixedThreadPool(3);
+		testProtocol = new TestProtocol<>(null,
+				(Object req, Repository db) -> newReceivePack(db));
+		uri = testProtocol.register(ctx, server);
+
+		try (TestRepository<?> clientRepo = new TestRepository<>(client)) {
+			RevCommit c = clientRepo.commit().add("a", "a").create();
+			for (int i = 0; i < 4; i++) {
+				c = clientRepo.commit().parent(c).add("dir/b" + i, "b" + i)
+						.create();
+			}
+			tip = c;
+		}
+	}
+
+	@After
+	public void tearDown() {
+		Transport.unregister(testProtocol);
+		pool.shutdown();
+	}
+
+	private static InMemoryRepository newRepo(String name) {
+		return new InMemoryRepository(new DfsRepositoryDescription(name));
+	}
+
+	private ReceivePack newReceivePack(Repository db) {
+		ReceivePack rp = new ReceivePack(db);
+		rp.setCheckReferencedObjectsAreReachable(true);
+		if (customChecker) {
+			rp.connectivityChecker = (info, haves, pm) -> {
+				customChecks.incrementAndGet();
+				new FullConnectivityChecker().checkConnectivity(info, haves,
+						pm);
+			};
+		}
+		rp.setConnectivityCheckExecutor(r -> {
+			executed.incrementAndGet();
+			pool.execute(r);
+		});
+		return rp;
+	}
+
+	private void push() throws Exception {
+		PushResult r;
+		try (Transport tn = testProtocol.open(uri, client, "server")) {
+			r = tn.push(NullProgressMonitor.INSTANCE,
+					Collections.singletonList(new RemoteRefUpdate(null, null,
+							tip, "refs/heads/master", false, null,
+							ObjectId.zeroId())));
+		}
+		assertSame(RemoteRefUpdate.Status.OK,
+				r.getRemoteUpdate("refs/heads/master").getStatus());
+		assertEquals(tip, server.exactRef("refs/heads/master").getObjectId());
+	}
+
+	@Test
+	public void testExecutorChecksConnectivity() throws Exception {
+		server.getConfig().setInt("receive", null, "connectivitycheckthreads",
+				4);
+		push();
+		assertTrue(executed.get() > 0);
+	}
+
+	@Test
+	public void testSingleThreadChecksOnCallingThread() throws Exception {
+		server.getConfig().setInt("receive", null, "connectivitycheckthreads",
+				1);
+		push();
+		assertEquals(0, executed.get());
+	}
+
+	@Test
+	public void testCustomCheckerKept() throws Exception {
+		customChecker = true;
+		push();
+		assertEquals(1, customChecks.get());
+		assertEquals(0, executed.get());
+	}
+}
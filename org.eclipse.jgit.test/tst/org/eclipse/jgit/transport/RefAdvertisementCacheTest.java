@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.util.Map;
+
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.junit.LocalDiskRepositoryTestCase;
+import org.eclipse.jgit.junit.RepositoryTestCase;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RefAdvertisementCacheTest extends LocalDiskRepositoryTestCase {
+	private FileRepository repo;
+
+	private TestRepository<FileRepository> tr;
+
+	private RevCommit tip;
+
+	@Before
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		repo = createBareRepository();
+		tr = new TestRepository<>(repo);
+		tip = tr.commit().message("tip").create();
+		tr.update("master", tip);
+	}
+
+	@Test
+	public void testSnapshotKept() throws Exception {
+		try (RefAdvertisementCache cache = new RefAdvertisementCache(10)) {
+			cacheRefs(cache);
+			assertEquals(1, cache.size());
+		}
+	}
+
+	@Test
+	public void testOtherRepositoryChanged() throws Exception {
+		try (RefAdvertisementCache cache = new RefAdvertisementCache(10)) {
+			cacheRefs(cache);
+			RefAdvertisementCache.Snapshot s = cache.get(repo);
+
+			FileRepository other = createBareRepository();
+			try (TestRepository<FileRepository> otherTr = new TestRepository<>(
+					other)) {
+				otherTr.branch("master").commit().create();
+				cache.get(other);
+				cache.invalidate(other);
+			}
+			assertSame(s, cache.get(repo));
+		}
+	}
+
+	@Test
+	public void testLooseRefWrittenByOtherProcess() throws Exception {
+		try (RefAdvertisementCache cache = new RefAdvertisementCache(10)) {
+			cacheRefs(cache);
+			assertEquals(tip, master(cache));
+
+			RevCommit next = tr.commit().message("next").parent(tip)
+					.create();
+			write(new File(repo.getDirectory(), "refs/heads/master"),
+					next.name() + "\n");
+			assertEquals(next, master(cache));
+
+			write(new File(repo.getDirectory(), "refs/heads/a/b/c"),
+					next.name() + "\n");
+			assertEquals(next, cache.get(repo).getRefs()
+					.get("refs/heads/a/b/c").getObjectId());
+		}
+	}
+
+	@Test
+	public void testPackedRefsWrittenByOtherProcess() throws Exception {
+		try (RefAdvertisementCache cache = new RefAdvertisementCache(10)) {
+			cacheRefs(cache);
+			assertNull(cache.get(repo).getRefs().get("refs/heads/packed"));
+
+			write(new File(repo.getDirectory(), "packed-refs"),
+					tip.name() + " refs/heads/packed\n");
+			Map<String, Ref> refs = cache.get(repo).getRefs();
+			assertEquals(tip, refs.get("refs/heads/packed").getObjectId());
+		}
+	}
+
+	private void cacheRefs(RefAdvertisementCache cache) throws Exception {
+		cache.get(repo);
+		// Wait until the snapshot is no longer racily clean.
+		RepositoryTestCase.fsTick(
+				new File(repo.getDirectory(), "refs/heads/master"));
+		RefAdvertisementCache.Snapshot s = cache.get(repo);
+		assertSame(s, cache.get(repo));
+	}
+
+	private RevCommit master(RefAdvertisementCache cache) throws Exception {
+		return tr.getRevWalk().parseCommit(cache.get(repo).getRefs()
+				.get("refs/heads/master").getObjectId());
+	}
+}
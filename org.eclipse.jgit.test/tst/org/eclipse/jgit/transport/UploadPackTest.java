@@ -7,18 +7,23 @@
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringWriter;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -43,6 +48,7 @@
 import org.eclipse.jgit.internal.storage.pack.CachedPack;
 import org.eclipse.jgit.internal.storage.pack.CachedPackUriProvider;
 import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.Config;
 import org.eclipse.jgit.lib.ConfigConstants;
 import org.eclipse.jgit.lib.NullProgressMonitor;
 import org.eclipse.jgit.lib.ObjectId;
@@ -60,11 +66,14 @@
 import org.eclipse.jgit.revwalk.RevTree;
 import org.eclipse.jgit.storage.pack.PackStatistics;
 import org.eclipse.jgit.transport.BasePackFetchConnection.FetchConfig;
+import org.eclipse.jgit.transport.BasePackFetchConnection.NegotiationAlgorithm;
 import org.eclipse.jgit.transport.UploadPack.RequestPolicy;
 import org.eclipse.jgit.util.io.NullOutputStream;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 /**
  * Tests for server upload-pack utilities.
@@ -86,6 +95,9 @@ public class UploadPackTest {
 
 	private PackStatistics stats;
 
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
 	@Before
 	public void setUp() throws Exception {
 		server = newRepo("server");
@@ -766,6 +778,72 @@ public void testV2LsRefsRefPrefix() throws Exception {
 		assertTrue(PacketLineIn.isEnd(pckIn.readString()));
 	}
 
+	@Test
+	public void testV2LsRefsRefAdvertisementCache() throws Exception {
+		RevCommit tip = remote.commit().message("message").create();
+		remote.update("master", tip);
+		remote.update("other", tip);
+		remote.update("yetAnother", tip);
+
+		try (RefAdvertisementCache cache = new RefAdvertisementCache(10)) {
+			ByteArrayInputStream recvStream = uploadPackV2(
+					(UploadPack up) -> up.setRefAdvertisementCache(cache),
+					"command=ls-refs\n", PacketLineIn.delimiter(),
+					"ref-prefix refs/heads/maste", "ref-prefix refs/heads/other",
+					"ref-prefix refs/heads/m", PacketLineIn.end());
+			PacketLineIn pckIn = new PacketLineIn(recvStream);
+			assertThat(pckIn.readString(),
+					is(tip.name() + " refs/heads/master"));
+			assertThat(pckIn.readString(),
+					is(tip.name() + " refs/heads/other"));
+			assertTrue(PacketLineIn.isEnd(pckIn.readString()));
+			assertEquals(1, cache.size());
+
+			// Updating a ref drops the cached refs.
+			RevCommit next = remote.commit().message("next").parent(tip)
+					.create();
+			remote.update("other", next);
+			assertEquals(0, cache.size());
+			recvStream = uploadPackV2(
+					(UploadPack up) -> up.setRefAdvertisementCache(cache),
+					"command=ls-refs\n", PacketLineIn.delimiter(),
+					"ref-prefix refs/heads/o", PacketLineIn.end());
+			pckIn = new PacketLineIn(recvStream);
+			assertThat(pckIn.readString(),
+					is(next.name() + " refs/heads/other"));
+			assertTrue(PacketLineIn.isEnd(pckIn.readString()));
+		}
+	}
+
+	@Test
+	public void testV0AdvertisementRefAdvertisementCache() throws Exception {
+		RevCommit tip = remote.commit().message("message").create();
+		RevTag tag = remote.tag("v1", tip);
+		remote.update("master", tip);
+		remote.update("hidden", tip);
+		remote.update("refs/tags/v1", tag);
+		server.getConfig().setString("uploadpack", null, "hiderefs",
+				"refs/heads/hidden");
+
+		try (RefAdvertisementCache cache = new RefAdvertisementCache(10)) {
+			for (int i = 0; i < 2; i++) {
+				ByteArrayInputStream recvStream = uploadPackSetup(
+						TransferConfig.ProtocolVersion.V0.version(),
+						(UploadPack up) -> up.setRefAdvertisementCache(cache),
+						PacketLineIn.end());
+				PacketLineIn pckIn = new PacketLineIn(recvStream);
+				assertThat(pckIn.readString(),
+						containsString(tip.name() + " refs/heads/master\0"));
+				assertThat(pckIn.readString(),
+						is(tag.name() + " refs/tags/v1"));
+				assertThat(pckIn.readString(),
+						is(tip.name() + " refs/tags/v1^{}"));
+				assertTrue(PacketLineIn.isEnd(pckIn.readString()));
+				assertEquals(1, cache.size());
+			}
+		}
+	}
+
 	@Test
 	public void testV2LsRefsRefPrefixNoSlash() throws Exception {
 		RevCommit tip = remote.commit().message("message").create();
@@ -1157,6 +1235,180 @@ public void testV2FetchWithWaitForDoneOnlyDoesNegotiationAndNothingToAck()
 		assertTrue(PacketLineIn.isEnd(pckIn.readString()));
 	}
 
+	private ByteArrayInputStream statelessFetchV2(NegotiationCache cache,
+			String... inputLines) throws Exception {
+		return uploadPackSetup(TransferConfig.ProtocolVersion.V2.version(),
+				(UploadPack up) -> {
+					up.setBiDirectionalPipe(false);
+					up.setNegotiationCache(cache);
+				}, inputLines);
+	}
+
+	@Test
+	public void testV2FetchNegotiationCache() throws Exception {
+		RevCommit base = remote.commit().add("a", "a").create();
+		RevCommit tip = remote.commit().parent(base).add("b", "b").create();
+		remote.update("master", tip);
+		NegotiationCache cache = new NegotiationCache(10,
+				Duration.ofMinutes(1));
+
+		// The first round finds the common commit without sending a pack.
+		ByteArrayInputStream recvStream = statelessFetchV2(cache,
+				"command=fetch\n", "session-id=client-1\n",
+				PacketLineIn.delimiter(), "wait-for-done\n",
+				"want " + tip.name() + "\n", "have " + base.name() + "\n",
+				PacketLineIn.end());
+		PacketLineIn pckIn = new PacketLineIn(recvStream);
+		assertThat(pckIn.readString(), is("acknowledgments"));
+		assertThat(pckIn.readString(), is("ACK " + base.name()));
+		assertTrue(PacketLineIn.isEnd(pckIn.readString()));
+		assertEquals(1, cache.size());
+
+		// The last round does not repeat the have, the cache knows it.
+		recvStream = statelessFetchV2(cache, "command=fetch\n",
+				"session-id=client-1\n", PacketLineIn.delimiter(),
+				"want " + tip.name() + "\n", "done\n", PacketLineIn.end());
+		pckIn = new PacketLineIn(recvStream);
+		assertThat(pckIn.readString(), is("packfile"));
+		parsePack(recvStream);
+		// The commit, its tree and the new blob.
+		assertEquals(3, stats.getTotalObjects());
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testV2FetchNegotiationCacheNeedsSessionId() throws Exception {
+		RevCommit base = remote.commit().add("a", "a").create();
+		RevCommit tip = remote.commit().parent(base).add("b", "b").create();
+		remote.update("master", tip);
+		NegotiationCache cache = new NegotiationCache(10,
+				Duration.ofMinutes(1));
+
+		statelessFetchV2(cache, "command=fetch\n", PacketLineIn.delimiter(),
+				"wait-for-done\n", "want " + tip.name() + "\n",
+				"have " + base.name() + "\n", PacketLineIn.end());
+		assertEquals(0, cache.size());
+
+		// Other sessions do not see the state of a session.
+		statelessFetchV2(cache, "command=fetch\n", "session-id=client-1\n",
+				PacketLineIn.delimiter(), "wait-for-done\n",
+				"want " + tip.name() + "\n", "have " + base.name() + "\n",
+				PacketLineIn.end());
+		assertEquals(1, cache.size());
+		ByteArrayInputStream recvStream = statelessFetchV2(cache,
+				"command=fetch\n", "session-id=client-2\n",
+				PacketLineIn.delimiter(), "want " + tip.name() + "\n",
+				"done\n", PacketLineIn.end());
+		PacketLineIn pckIn = new PacketLineIn(recvStream);
+		assertThat(pckIn.readString(), is("packfile"));
+		parsePack(recvStream);
+		assertEquals(6, stats.getTotalObjects());
+		assertEquals(1, cache.size());
+	}
+
+	private ByteArrayInputStream fetchV2(FetchResponseCache cache,
+			String... inputLines) throws Exception {
+		return uploadPackV2(
+				(UploadPack up) -> up.setFetchResponseCache(cache),
+				inputLines);
+	}
+
+	@Test
+	public void testV2FetchResponseCache() throws Exception {
+		RevCommit base = remote.commit().add("a", "a").create();
+		RevCommit tip = remote.commit().parent(base).add("b", "b").create();
+		remote.update("master", tip);
+		FetchResponseCache cache = new FetchResponseCache(tmp.newFolder(),
+				1024 * 1024);
+
+		for (int i = 1; i <= 2; i++) {
+			ByteArrayInputStream recvStream = fetchV2(cache,
+					"command=fetch\n", PacketLineIn.delimiter(),
+					"want " + tip.name() + "\n", "done\n",
+					PacketLineIn.end());
+			PacketLineIn pckIn = new PacketLineIn(recvStream);
+			assertThat(pckIn.readString(), is("packfile"));
+			parsePack(recvStream);
+			assertEquals(6, stats.getTotalObjects());
+			assertEquals(1, cache.size());
+		}
+		assertEquals(1, cache.getMissCount());
+		assertEquals(1, cache.getHitCount());
+		assertTrue(client.getObjectDatabase().has(tip.toObjectId()));
+
+		// Other haves make another request.
+		ByteArrayInputStream recvStream = fetchV2(cache, "command=fetch\n",
+				PacketLineIn.delimiter(), "want " + tip.name() + "\n",
+				"have " + base.name() + "\n", "done\n", PacketLineIn.end());
+		PacketLineIn pckIn = new PacketLineIn(recvStream);
+		assertThat(pckIn.readString(), is("packfile"));
+		parsePack(recvStream);
+		assertEquals(3, stats.getTotalObjects());
+		assertEquals(2, cache.getMissCount());
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void testV2FetchResponseCacheIncludeTag() throws Exception {
+		RevCommit tip = remote.commit().add("a", "a").create();
+		remote.update("master", tip);
+		FetchResponseCache cache = new FetchResponseCache(tmp.newFolder(),
+				1024 * 1024);
+
+		fetchV2(cache, "command=fetch\n", PacketLineIn.delimiter(),
+				"want " + tip.name() + "\n", "include-tag\n", "done\n",
+				PacketLineIn.end());
+		assertEquals(1, cache.getMissCount());
+
+		// A new tag changes the response.
+		RevTag tag = remote.tag("v1", tip);
+		remote.update("refs/tags/v1", tag);
+		ByteArrayInputStream recvStream = fetchV2(cache, "command=fetch\n",
+				PacketLineIn.delimiter(), "want " + tip.name() + "\n",
+				"include-tag\n", "done\n", PacketLineIn.end());
+		PacketLineIn pckIn = new PacketLineIn(recvStream);
+		assertThat(pckIn.readString(), is("packfile"));
+		parsePack(recvStream);
+		assertEquals(2, cache.getMissCount());
+		assertEquals(0, cache.getHitCount());
+		assertTrue(client.getObjectDatabase().has(tag.toObjectId()));
+	}
+
+	@Test
+	public void testV2FetchResponseCacheMaxBytes() throws Exception {
+		RevCommit tip = remote.commit().add("a", "a").create();
+		remote.update("master", tip);
+		FetchResponseCache cache = new FetchResponseCache(tmp.newFolder(),
+				10);
+
+		ByteArrayInputStream recvStream = fetchV2(cache, "command=fetch\n",
+				PacketLineIn.delimiter(), "want " + tip.name() + "\n",
+				"done\n", PacketLineIn.end());
+		PacketLineIn pckIn = new PacketLineIn(recvStream);
+		assertThat(pckIn.readString(), is("packfile"));
+		parsePack(recvStream);
+		assertTrue(client.getObjectDatabase().has(tip.toObjectId()));
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getCachedBytes());
+	}
+
+	@Test
+	public void testV2FetchResponseCacheKeepsOtherFiles() throws Exception {
+		RevCommit tip = remote.commit().add("a", "a").create();
+		remote.update("master", tip);
+		File dir = tmp.newFolder();
+		File other = new File(dir, "other.pack");
+		assertTrue(other.createNewFile());
+		FetchResponseCache cache = new FetchResponseCache(dir, 1024 * 1024);
+		fetchV2(cache, "command=fetch\n", PacketLineIn.delimiter(),
+				"want " + tip.name() + "\n", "done\n", PacketLineIn.end());
+		assertEquals(1, cache.size());
+
+		// Only the packs of the previous cache are deleted.
+		new FetchResponseCache(dir, 1024 * 1024);
+		assertArrayEquals(new String[] { "other.pack" }, dir.list());
+	}
+
 	@Test
 	public void testV2FetchServerStopsNegotiationForRefWithoutParents()
 			throws Exception {
@@ -2484,6 +2736,75 @@ public void testNegotiationTipDoesNotDoFullClone() throws Exception {
 		assertTrue(countHavesHook.havesSentDuringNegotiation.isEmpty());
 	}
 
+	private long fetchHavesWithLocalHistory(
+			NegotiationAlgorithm algorithm) throws Exception {
+		RevCommit base = remote.commit().message("base").create();
+		remote.update("master", base);
+		AtomicReference<UploadPack> uploadPack = new AtomicReference<>();
+		testProtocol = new TestProtocol<>((Object req, Repository db) -> {
+			UploadPack up = new UploadPack(db);
+			uploadPack.set(up);
+			return up;
+		}, null);
+		uri = testProtocol.register(ctx, server);
+		TestProtocol.setFetchConfig(
+				new FetchConfig(true, Integer.MAX_VALUE, false, algorithm));
+		List<RefSpec> spec = Collections.singletonList(
+				new RefSpec("refs/heads/master:refs/remotes/origin/master"));
+		try (Transport tn = testProtocol.open(uri, client, "server")) {
+			tn.fetch(NullProgressMonitor.INSTANCE, spec);
+		}
+
+		// The client builds a long history the server does not know.
+		try (TestRepository<InMemoryRepository> clientRepo = new TestRepository<>(
+				client)) {
+			RevCommit local = base;
+			for (int i = 0; i < 4 * MAX_HAVES; i++) {
+				local = clientRepo.commit().message("local-" + i).parent(local)
+						.create();
+			}
+			clientRepo.update("local", local);
+		}
+		RevCommit tip = remote.commit().message("tip").parent(base).create();
+		remote.update("master", tip);
+		try (Transport tn = testProtocol.open(uri, client, "server")) {
+			tn.fetch(NullProgressMonitor.INSTANCE, spec);
+		}
+		assertTrue(client.getObjectDatabase().has(tip));
+		return uploadPack.get().getStatistics().getHaves();
+	}
+
+	@Test
+	public void testConsecutiveNegotiation() throws Exception {
+		assertTrue(fetchHavesWithLocalHistory(
+				NegotiationAlgorithm.CONSECUTIVE) > 4 * MAX_HAVES);
+	}
+
+	@Test
+	public void testSkippingNegotiation() throws Exception {
+		assertTrue(fetchHavesWithLocalHistory(
+				NegotiationAlgorithm.SKIPPING) < MAX_HAVES / 4);
+	}
+
+	@Test
+	public void testNoopNegotiation() throws Exception {
+		assertEquals(0,
+				fetchHavesWithLocalHistory(NegotiationAlgorithm.NOOP));
+	}
+
+	@Test
+	public void testNegotiationAlgorithmConfig() {
+		Config c = new Config();
+		assertEquals(NegotiationAlgorithm.CONSECUTIVE,
+				new FetchConfig(c).negotiationAlgorithm);
+		c.setString("fetch", null, "negotiationAlgorithm", "skipping");
+		assertEquals(NegotiationAlgorithm.SKIPPING,
+				new FetchConfig(c).negotiationAlgorithm);
+		c.setString("fetch", null, "negotiationAlgorithm", "default");
+		assertEquals(NegotiationAlgorithm.CONSECUTIVE,
+				new FetchConfig(c).negotiationAlgorithm);
+	}
+
 	private static class CountHavesPreUploadHook implements PreUploadHook {
 		Set<ObjectId> havesSentDuringNegotiation = new HashSet<>();
 
@@ -3312,6 +3633,64 @@ public void testObjectInfo() throws Exception {
 		assertTrue(PacketLineIn.isEnd(pckIn.readString()));
 	}
 
+	@Test
+	public void testObjectInfoSizeAndType() throws Exception {
+		server.getConfig().setBoolean("uploadpack", null, "advertiseobjectinfo",
+				true);
+
+		RevBlob blob = remote.blob("foobar");
+		RevTree tree = remote.tree(remote.file("1", blob));
+		RevCommit commit = remote.commit(tree);
+		remote.update("master", commit);
+		// Sizes of packed objects are looked up in pack order.
+		generateBitmaps(server);
+
+		ByteArrayInputStream recvStream = uploadPackV2(
+				"command=object-info\n", PacketLineIn.delimiter(), "size",
+				"type", "oid " + blob.name(), "oid " + commit.name(),
+				"oid " + tree.name(), "oid " + blob.name(), PacketLineIn.end());
+		PacketLineIn pckIn = new PacketLineIn(recvStream);
+
+		assertThat(pckIn.readString(), is("size type"));
+		assertThat(pckIn.readString(), is(blob.name() + " 6 blob"));
+		assertThat(pckIn.readString(), is(commit.name() + " "
+				+ server.open(commit).getSize() + " commit"));
+		assertThat(pckIn.readString(), is(tree.name() + " "
+				+ server.open(tree).getSize() + " tree"));
+		assertThat(pckIn.readString(), is(blob.name() + " 6 blob"));
+		assertTrue(PacketLineIn.isEnd(pckIn.readString()));
+	}
+
+	@Test
+	public void testObjectInfoTypeOnly() throws Exception {
+		server.getConfig().setBoolean("uploadpack", null, "advertiseobjectinfo",
+				true);
+
+		RevBlob blob = remote.blob("foobar");
+		RevTree tree = remote.tree(remote.file("1", blob));
+
+		ByteArrayInputStream recvStream = uploadPackV2(
+				"command=object-info\n", PacketLineIn.delimiter(), "type",
+				"oid " + tree.name(), "oid " + blob.name(), PacketLineIn.end());
+		PacketLineIn pckIn = new PacketLineIn(recvStream);
+
+		assertThat(pckIn.readString(), is("type"));
+		assertThat(pckIn.readString(), is(tree.name() + " tree"));
+		assertThat(pckIn.readString(), is(blob.name() + " blob"));
+		assertTrue(PacketLineIn.isEnd(pckIn.readString()));
+	}
+
+	@Test
+	public void testObjectInfo_missingObject() throws Exception {
+		server.getConfig().setBoolean("uploadpack", null, "advertiseobjectinfo",
+				true);
+
+		assertThrows(UploadPackInternalServerErrorException.class,
+				() -> uploadPackV2("command=object-info\n",
+						PacketLineIn.delimiter(), "size",
+						"oid " + ObjectId.zeroId().name(), PacketLineIn.end()));
+	}
+
 	@Test
 	public void testObjectInfo_invalidOid() throws Exception {
 		server.getConfig().setBoolean("uploadpack", null, "advertiseobjectinfo",
@@ -3322,4 +3701,167 @@ public void testObjectInfo_invalidOid() throws Exception {
 						"oid invalid",
 						PacketLineIn.end()));
 	}
+
+	@Test
+	public void testV2BundleUriNotAdvertisedWithoutProvider() throws Exception {
+		ByteArrayInputStream recvStream = uploadPackSetup(
+				TransferConfig.ProtocolVersion.V2.version(), null,
+				PacketLineIn.end());
+		PacketLineIn pckIn = new PacketLineIn(recvStream);
+		String line;
+		while (!PacketLineIn.isEnd(line = pckIn.readString())) {
+			assertFalse(line.startsWith("bundle-uri"));
+		}
+		assertThrows(UploadPackInternalServerErrorException.class,
+				() -> uploadPackV2("command=bundle-uri\n", PacketLineIn.end()));
+	}
+
+	@Test
+	public void testV2BundleUri() throws Exception {
+		BundleList list = new BundleList(BundleList.MODE_ALL,
+				List.of(new BundleList.Bundle("base", "https://b/base", 1),
+						new BundleList.Bundle("inc", "https://b/inc", 2)));
+		ByteArrayInputStream recvStream = uploadPackSetup(
+				TransferConfig.ProtocolVersion.V2.version(),
+				(UploadPack up) -> up.setBundleUriProvider(db -> list),
+				"command=bundle-uri\n", "agent=test\n", PacketLineIn.end());
+		PacketLineIn pckIn = new PacketLineIn(recvStream);
+		List<String> caps = new ArrayList<>();
+		String line;
+		while (!PacketLineIn.isEnd(line = pckIn.readString())) {
+			caps.add(line);
+		}
+		assertThat(caps, hasItems("bundle-uri"));
+
+		List<String> lines = new ArrayList<>();
+		while (!PacketLineIn.isEnd(line = pckIn.readString())) {
+			lines.add(line);
+		}
+		assertEquals(list.toLines(), lines);
+		BundleList parsed = BundleList.parse(lines);
+		assertEquals(2, parsed.getBundles().size());
+		assertEquals("https://b/inc", parsed.getBundles().get(1).getUri());
+	}
+
+	@Test
+	public void testV2FetchAfterBundle() throws Exception {
+		RevCommit base = remote.commit().add("a", "a").create();
+		RevCommit tip = remote.commit().parent(base).add("b", "b").create();
+		remote.update("master", tip);
+
+		File dir = tmp.newFolder("bundles");
+		try (FileOutputStream out = new FileOutputStream(
+				new File(dir, "base.bundle"))) {
+			BundleWriter bw = new BundleWriter(server);
+			bw.include("refs/heads/master", base);
+			bw.writeBundle(NullProgressMonitor.INSTANCE, out);
+		}
+
+		AtomicReference<UploadPack> served = new AtomicReference<>();
+		testProtocol = new TestProtocol<>((Object req, Repository db) -> {
+			UploadPack up = new UploadPack(db);
+			up.setBundleUriProvider(new DirectoryBundleUriProvider(dir));
+			up.setExtraParameters(Sets.of("version=2"));
+			served.set(up);
+			return up;
+		}, null);
+		uri = testProtocol.register(ctx, server);
+
+		try (Transport tn = testProtocol.open(uri, client, "server")) {
+			tn.setBundleUri(true);
+			tn.fetch(NullProgressMonitor.INSTANCE, Collections.singletonList(
+					new RefSpec("refs/heads/master:refs/heads/master")));
+		}
+		assertEquals(base,
+				client.exactRef("refs/bundles/master").getObjectId());
+		assertEquals(tip, client.exactRef("refs/heads/master").getObjectId());
+		// Only the tip commit, its tree and the new blob came from the server.
+		assertEquals(3, served.get().getStatistics().getTotalObjects());
+	}
+
+	@Test
+	public void testV2FetchSkipsBundlesFetchedBefore() throws Exception {
+		RevCommit base = remote.commit().add("a", "a").create();
+		RevCommit next = remote.commit().parent(base).add("b", "b").create();
+		remote.update("master", next);
+
+		File dir = tmp.newFolder("bundles");
+		File baseBundle = new File(dir, "base.bundle");
+		writeBundle(baseBundle, "refs/heads/master", base);
+		AtomicReference<BundleList> list = new AtomicReference<>(
+				new BundleList(BundleList.MODE_ALL,
+						List.of(new BundleList.Bundle("base",
+								baseBundle.toURI().toString(), 1))));
+		testProtocol = new TestProtocol<>((Object req, Repository db) -> {
+			UploadPack up = new UploadPack(db);
+			up.setBundleUriProvider(db2 -> list.get());
+			up.setExtraParameters(Sets.of("version=2"));
+			return up;
+		}, null);
+		uri = testProtocol.register(ctx, server);
+
+		fetchWithBundles();
+		assertEquals(base,
+				client.exactRef("refs/bundles/master").getObjectId());
+		assertEquals(1, client.getConfig().getLong("fetch", null,
+				"bundleCreationToken", 0));
+
+		// A bundle fetched before is not fetched again.
+		RevCommit tip = remote.commit().parent(next).add("c", "c").create();
+		remote.update("master", tip);
+		writeBundle(baseBundle, "refs/heads/other", base);
+		File incBundle = new File(dir, "inc.bundle");
+		writeBundle(incBundle, "refs/heads/master", tip);
+		list.set(new BundleList(BundleList.MODE_ALL, List.of(
+				new BundleList.Bundle("base", baseBundle.toURI().toString(),
+						1),
+				new BundleList.Bundle("inc", incBundle.toURI().toString(),
+						2))));
+
+		fetchWithBundles();
+		assertEquals(tip,
+				client.exactRef("refs/bundles/master").getObjectId());
+		assertNull(client.exactRef("refs/bundles/other"));
+		assertEquals(2, client.getConfig().getLong("fetch", null,
+				"bundleCreationToken", 0));
+	}
+
+	@Test
+	public void testFileBundleOfRemoteServerSkipped() throws Exception {
+		RevCommit base = remote.commit().add("a", "a").create();
+		File bundle = new File(tmp.newFolder("bundles"), "base.bundle");
+		writeBundle(bundle, "refs/heads/master", base);
+		BundleList list = new BundleList(BundleList.MODE_ALL, List.of(
+				new BundleList.Bundle("base", bundle.toURI().toString(), 0)));
+
+		try (Transport tn = Transport.open(client,
+				new URIish("https://example.com/server.git"))) {
+			assertEquals(0, new BundleUriFetcher(tn).fetch(list,
+					NullProgressMonitor.INSTANCE));
+		}
+		assertNull(client.exactRef("refs/bundles/master"));
+
+		// A bundle given by the user may be a local file.
+		assertEquals(1, new BundleUriFetcher(client).fetch(list,
+				NullProgressMonitor.INSTANCE));
+		assertEquals(base,
+				client.exactRef("refs/bundles/master").getObjectId());
+	}
+
+	private void writeBundle(File file, String ref, RevCommit tip)
+			throws IOException {
+		try (FileOutputStream out = new FileOutputStream(file)) {
+			BundleWriter bw = new BundleWriter(server);
+			bw.include(ref, tip);
+			bw.writeBundle(NullProgressMonitor.INSTANCE, out);
+		}
+	}
+
+	private void fetchWithBundles() throws Exception {
+		try (Transport tn = testProtocol.open(uri, client, "server")) {
+			tn.setBundleUri(true);
+			tn.fetch(NullProgressMonitor.INSTANCE, Collections.singletonList(
+					new RefSpec("refs/heads/master:refs/heads/master")));
+		}
+	}
 }
@@ -43,6 +43,8 @@
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.submodule.SubmoduleWalk;
+import org.eclipse.jgit.transport.BundleList;
+import org.eclipse.jgit.transport.BundleUriFetcher;
 import org.eclipse.jgit.transport.FetchResult;
 import org.eclipse.jgit.transport.RefSpec;
 import org.eclipse.jgit.transport.RemoteConfig;
@@ -103,6 +105,8 @@ public class CloneCommand extends TransportCommand<CloneCommand, Git> {
 
 	private List<String> shallowExcludes = new ArrayList<>();
 
+	private String bundleUri;
+
 	private ShutdownHook.Listener shutdownListener = this::cleanup;
 
 	private enum FETCH_TYPE {
@@ -299,6 +303,13 @@ private FetchResult fetch(Repository clonedRepo, URIish u)
 
 		clonedRepo.getConfig().save();
 
+		if (bundleUri != null) {
+			new BundleUriFetcher(clonedRepo).fetch(new BundleList(
+					BundleList.MODE_ALL,
+					List.of(new BundleList.Bundle("clone", bundleUri, 0))), //$NON-NLS-1$
+					monitor);
+		}
+
 		// run the fetch command
 		FetchCommand command = new FetchCommand(clonedRepo);
 		command.setRemote(remote);
@@ -838,6 +849,25 @@ public CloneCommand addShallowExclude(@NonNull ObjectId shallowExclude) {
 		return this;
 	}
 
+	/**
+	 * Set a bundle to fetch before fetching from the remote.
+	 * <p>
+	 * The branches of the bundle are stored below
+	 * {@link BundleUriFetcher#R_BUNDLES}, so that the following fetch only
+	 * transfers what the bundle did not provide. If the bundle cannot be
+	 * fetched the clone fetches everything from the remote.
+	 *
+	 * @param uri
+	 *            {@code file}, {@code http} or {@code https} URI of the bundle,
+	 *            or {@code null} to not fetch a bundle
+	 * @return {@code this}
+	 * @since 7.3
+	 */
+	public CloneCommand setBundleUri(@Nullable String uri) {
+		this.bundleUri = uri;
+		return this;
+	}
+
 	private static void validateDirs(File directory, File gitDir, boolean bare)
 			throws IllegalStateException {
 		if (directory != null) {
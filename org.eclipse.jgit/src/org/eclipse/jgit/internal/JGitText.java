@@ -94,6 +94,7 @@ public static JGitText get() {
 	/***/ public String binaryHunkInvalidLength;
 	/***/ public String binaryHunkLineTooShort;
 	/***/ public String binaryHunkMissingNewline;
+	/***/ public String bitmapCommitNotInPack;
 	/***/ public String bitmapMissingObject;
 	/***/ public String bitmapsMustBePrepared;
 	/***/ public String bitmapUseNoopNoListener;
@@ -284,6 +285,7 @@ public static JGitText get() {
 	/***/ public String credentialPassphrase;
 	/***/ public String credentialUsername;
 	/***/ public String daemonAlreadyRunning;
+	/***/ public String daemonServiceBusy;
 	/***/ public String daysAgo;
 	/***/ public String deepenNotWithDeepen;
 	/***/ public String deepenSinceWithDeepen;
@@ -294,6 +296,7 @@ public static JGitText get() {
 	/***/ public String deleteTagUnexpectedResult;
 	/***/ public String deletingBranches;
 	/***/ public String deletingNotSupported;
+	/***/ public String deltaSearchCacheCorrupt;
 	/***/ public String deprecatedTrustFolderStat;
 	/***/ public String depthMustBeAt1;
 	/***/ public String depthWithUnshallow;
@@ -440,6 +443,7 @@ public static JGitText get() {
 	/***/ public String invalidAncestryLength;
 	/***/ public String invalidAwsApiSignatureVersion;
 	/***/ public String invalidBooleanValue;
+	/***/ public String invalidBundleListLine;
 	/***/ public String invalidChannel;
 	/***/ public String invalidCommitParentNumber;
 	/***/ public String invalidCoreAbbrev;
@@ -655,6 +659,7 @@ public static JGitText get() {
 	/***/ public String propertyIsAlreadyNonNull;
 	/***/ public String pruneLoosePackedObjects;
 	/***/ public String pruneLooseUnreferencedObjects;
+	/***/ public String pseudoMergeBitmapsCorrupt;
 	/***/ public String pullTaskName;
 	/***/ public String pushCancelled;
 	/***/ public String pushCertificateInvalidField;
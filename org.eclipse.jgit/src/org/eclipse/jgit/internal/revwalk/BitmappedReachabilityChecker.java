@@ -19,6 +19,7 @@
 
 import org.eclipse.jgit.errors.IncorrectObjectTypeException;
 import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.AnyObjectId;
 import org.eclipse.jgit.lib.BitmapIndex;
 import org.eclipse.jgit.lib.BitmapIndex.Bitmap;
 import org.eclipse.jgit.lib.BitmapIndex.BitmapBuilder;
@@ -101,9 +102,9 @@ public Optional<RevCommit> areAllReachable(Collection<RevCommit> targets,
 	 * visited before. Or in other words, commits that add something (themselves
 	 * or their bitmap) to the "reached" bitmap.
 	 *
-	 * Current progress can be queried via {@link #isReachable(RevCommit)}.
+	 * Current progress can be queried via {@link #isReachable(AnyObjectId)}.
 	 */
-	private static class ReachedFilter extends RevFilter {
+	static class ReachedFilter extends RevFilter {
 
 		private final BitmapIndex repoBitmaps;
 		private final BitmapBuilder reached;
@@ -114,7 +115,7 @@ private static class ReachedFilter extends RevFilter {
 		 * @param repoBitmaps
 		 *            bitmap index of the repo
 		 */
-		public ReachedFilter(BitmapIndex repoBitmaps) {
+		ReachedFilter(BitmapIndex repoBitmaps) {
 			this.repoBitmaps = repoBitmaps;
 			this.reached = repoBitmaps.newBitmapBuilder();
 		}
@@ -158,7 +159,7 @@ public final boolean requiresCommitBody() {
 			return false;
 		}
 
-		boolean isReachable(RevCommit commit) {
+		boolean isReachable(AnyObjectId commit) {
 			return reached.contains(commit);
 		}
 	}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package org.eclipse.jgit.internal.revwalk;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.jgit.errors.IncorrectObjectTypeException;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.internal.revwalk.BitmappedReachabilityChecker.ReachedFilter;
+import org.eclipse.jgit.lib.BitmapIndex;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.revwalk.ReachabilityChecker;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevSort;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+/**
+ * Checks the reachability using bitmaps, splitting the starters across
+ * several threads.
+ * <p>
+ * Each starter is walked once, by the partition it belongs to, with its own
+ * {@link RevWalk} over a reader obtained from
+ * {@link ObjectReader#newReader()}. Readers of the same repository share the
+ * loaded pack bitmap indexes, so the bitmaps are read only once. Every
+ * partition removes the targets it reaches from a shared set, and all of them
+ * stop once the set is empty.
+ * <p>
+ * Repositories without bitmaps are checked by a single
+ * {@link PedestrianReachabilityChecker} walk on the calling thread, as the
+ * walk from all starters cannot be split without repeating shared history.
+ */
+public class ParallelReachabilityChecker implements ReachabilityChecker {
+
+	private final RevWalk walk;
+
+	private final int threads;
+
+	private final Executor executor;
+
+	/**
+	 * New instance of the parallel reachability checker.
+	 *
+	 * @param walk
+	 *            walk on the repository. Its reader is used to create one
+	 *            private reader per partition. Caller retains ownership.
+	 * @param threads
+	 *            maximum number of partitions walked concurrently. If
+	 *            &lt;= 0 the number of available processors is used.
+	 * @param executor
+	 *            executor running the partitions. Its threads may block on
+	 *            I/O, so it should be dedicated to such work.
+	 */
+	public ParallelReachabilityChecker(RevWalk walk, int threads,
+			Executor executor) {
+		this.walk = walk;
+		this.threads = threads > 0 ? threads
+				: Runtime.getRuntime().availableProcessors();
+		this.executor = Objects.requireNonNull(executor);
+	}
+
+	@Override
+	public Optional<RevCommit> areAllReachable(Collection<RevCommit> targets,
+			Stream<RevCommit> starters) throws MissingObjectException,
+			IncorrectObjectTypeException, IOException {
+		if (targets.isEmpty()) {
+			return Optional.empty();
+		}
+		if (walk.getObjectReader().getBitmapIndex() == null) {
+			return new PedestrianReachabilityChecker(true, walk)
+					.areAllReachable(targets, starters);
+		}
+
+		List<RevCommit> starterCommits = starters
+				.collect(Collectors.toList());
+		List<List<ObjectId>> partitions = partition(starterCommits,
+				Math.min(threads, starterCommits.size()));
+		if (partitions.size() <= 1) {
+			return new BitmappedReachabilityChecker(walk)
+					.areAllReachable(targets, starterCommits.stream());
+		}
+
+		Set<ObjectId> remaining = ConcurrentHashMap.newKeySet();
+		for (RevCommit c : targets) {
+			remaining.add(c.copy());
+		}
+		AtomicBoolean failed = new AtomicBoolean();
+		CompletionService<Void> service = new ExecutorCompletionService<>(
+				executor);
+		List<Future<Void>> futures = new ArrayList<>(partitions.size());
+		for (List<ObjectId> part : partitions) {
+			futures.add(service.submit(() -> {
+				try {
+					reach(part, remaining, failed);
+				} catch (IOException e) {
+					failed.set(true);
+					// Some executors wrap checked exceptions.
+					throw new UncheckedIOException(e);
+				} catch (RuntimeException | Error e) {
+					failed.set(true);
+					throw e;
+				}
+				return null;
+			}));
+		}
+
+		try {
+			for (int i = 0; i < futures.size(); i++) {
+				service.take().get();
+			}
+		} catch (InterruptedException e) {
+			failed.set(true);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof UncheckedIOException) {
+				throw ((UncheckedIOException) cause).getCause();
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		} finally {
+			// Partitions poll the flag instead of being interrupted, which
+			// would close the channels of the pack files they read.
+			failed.set(true);
+		}
+
+		// Report the caller's instance of the first unreachable target.
+		for (RevCommit c : targets) {
+			if (remaining.contains(c)) {
+				return Optional.of(c);
+			}
+		}
+		return Optional.empty();
+	}
+
+	private void reach(List<ObjectId> part, Set<ObjectId> remaining,
+			AtomicBoolean failed) throws IOException {
+		try (ObjectReader reader = walk.getObjectReader().newReader();
+				RevWalk rw = new RevWalk(reader)) {
+			rw.setRetainBody(false);
+			rw.sort(RevSort.TOPO);
+			BitmapIndex bitmaps = reader.getBitmapIndex();
+			ReachedFilter reached = new ReachedFilter(bitmaps);
+			rw.setRevFilter(reached);
+			for (ObjectId id : part) {
+				rw.markStart(rw.parseCommit(id));
+				while (rw.next() != null) {
+					remaining.removeIf(reached::isReachable);
+					if (remaining.isEmpty() || failed.get()) {
+						return;
+					}
+				}
+				rw.reset();
+			}
+		}
+	}
+
+	private static List<List<ObjectId>> partition(
+			Collection<RevCommit> starters, int count) {
+		List<List<ObjectId>> parts = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			parts.add(new ArrayList<>(starters.size() / count + 1));
+		}
+		// Starters come most important first, spread them across partitions.
+		int i = 0;
+		for (RevCommit c : starters) {
+			parts.get(i++ % count).add(c.copy());
+		}
+		return parts;
+	}
+}
@@ -37,6 +37,14 @@
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.jgit.annotations.NonNull;
 import org.eclipse.jgit.annotations.Nullable;
@@ -49,7 +57,6 @@
 import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.ProgressMonitor;
 import org.eclipse.jgit.revwalk.RevCommit;
-import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.treewalk.EmptyTreeIterator;
 import org.eclipse.jgit.treewalk.TreeWalk;
 import org.eclipse.jgit.treewalk.filter.TreeFilter;
@@ -72,6 +79,9 @@ public class CommitGraphWriter {
 
 	private static final int MAX_CHANGED_PATHS = 512;
 
+	/** Number of commits whose filters one task computes. */
+	private static final int FILTER_BATCH_SIZE = 256;
+
 	private static final PathDiffCalculator PATH_DIFF_CALCULATOR
 			= new PathDiffCalculator();
 
@@ -81,6 +91,10 @@ public class CommitGraphWriter {
 
 	private final boolean generateChangedPathFilters;
 
+	private int threads = 1;
+
+	private Executor executor;
+
 	/**
 	 * Create commit-graph writer for these commits.
 	 *
@@ -106,6 +120,38 @@ public CommitGraphWriter(@NonNull GraphCommits graphCommits,
 		this.generateChangedPathFilters = generateChangedPathFilters;
 	}
 
+	/**
+	 * Set the number of threads computing changed path filters.
+	 * <p>
+	 * Each filter needs a tree diff of its commit against the first parent;
+	 * these diffs are independent and are spread over the threads in small
+	 * batches, so idle threads pick up the remaining work. The resulting file
+	 * is identical to the one written by a single thread.
+	 * <p>
+	 * Default setting: 1 (compute on the calling thread)
+	 *
+	 * @param threads
+	 *            number of threads to use. If &lt;= 0 the number of available
+	 *            processors for this JVM is used.
+	 * @since 7.3
+	 */
+	public void setThreads(int threads) {
+		this.threads = threads > 0 ? threads
+				: Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * Set the executor computing changed path filters when using threads.
+	 *
+	 * @param executor
+	 *            executor to use for threads. Set to null to create a
+	 *            temporary executor just for the writer.
+	 * @since 7.3
+	 */
+	public void setExecutor(@Nullable Executor executor) {
+		this.executor = executor;
+	}
+
 	/**
 	 * Write commit-graph to the supplied stream.
 	 *
@@ -399,31 +445,133 @@ private BloomFilterChunks computeBloomFilterChunks(ProgressMonitor monitor)
 		data.write(scratch);
 		int dataHeaderSize = data.size();
 
-		try (RevWalk rw = new RevWalk(graphCommits.getObjectReader())) {
-			monitor.beginTask(JGitText.get().computingPathBloomFilters,
-					graphCommits.size());
+		// Filters of commits already in the current commit-graph are copied
+		// by object id. Looking them up in one snapshot of the graph keeps
+		// the copy correct even if the graph the commits were parsed from
+		// has been replaced since.
+		CommitGraph previous = graphCommits.getObjectReader().getCommitGraph()
+				.orElse(CommitGraph.EMPTY);
+
+		monitor.beginTask(JGitText.get().computingPathBloomFilters,
+				graphCommits.size());
+		if (threads > 1 && graphCommits.size() > FILTER_BATCH_SIZE) {
+			ComputedFilters computed = computeFiltersInParallel(monitor,
+					previous);
+			for (ChangedPathFilter cpf : computed.filters) {
+				cpf.writeTo(data);
+				NB.encodeInt32(scratch, 0, data.size() - dataHeaderSize);
+				index.write(scratch);
+			}
+			filtersReused = computed.reused.get();
+			filtersComputed = computed.computed.get();
+		} else {
 			for (RevCommit cmit : graphCommits) {
-				ChangedPathFilter cpf = cmit.getChangedPathFilter(rw);
+				ChangedPathFilter cpf = previousFilter(previous, cmit);
 				if (cpf != null) {
 					filtersReused++;
 				} else {
 					filtersComputed++;
-					Optional<HashSet<ByteBuffer>> paths = PATH_DIFF_CALCULATOR
-							.changedPaths(graphCommits.getObjectReader(), cmit);
-					if (paths.isEmpty()) {
-						cpf = ChangedPathFilter.FULL;
-					} else {
-						cpf = ChangedPathFilter.fromPaths(paths.get());
-					}
+					cpf = computeFilter(PATH_DIFF_CALCULATOR,
+							graphCommits.getObjectReader(), cmit);
 				}
 				cpf.writeTo(data);
 				NB.encodeInt32(scratch, 0, data.size() - dataHeaderSize);
 				index.write(scratch);
 				monitor.update(1);
 			}
-			monitor.endTask();
-			return new BloomFilterChunks(index, data, filtersReused, filtersComputed);
 		}
+		monitor.endTask();
+		return new BloomFilterChunks(index, data, filtersReused,
+				filtersComputed);
+	}
+
+	@Nullable
+	private static ChangedPathFilter previousFilter(CommitGraph previous,
+			RevCommit cmit) {
+		int graphPos = previous.findGraphPosition(cmit);
+		if (graphPos < 0) {
+			return null;
+		}
+		return previous.getChangedPathFilter(graphPos);
+	}
+
+	private static ChangedPathFilter computeFilter(
+			PathDiffCalculator calculator, ObjectReader or, RevCommit cmit)
+			throws MissingObjectException, IncorrectObjectTypeException,
+			CorruptObjectException, IOException {
+		Optional<HashSet<ByteBuffer>> paths = calculator.changedPaths(or,
+				cmit);
+		if (paths.isEmpty()) {
+			return ChangedPathFilter.FULL;
+		}
+		return ChangedPathFilter.fromPaths(paths.get());
+	}
+
+	private ComputedFilters computeFiltersInParallel(ProgressMonitor monitor,
+			CommitGraph previous) throws IOException {
+		ComputedFilters result = new ComputedFilters(graphCommits.size());
+		ExecutorService pool = null;
+		Executor exec = executor;
+		if (exec == null) {
+			pool = Executors.newFixedThreadPool(threads);
+			exec = pool;
+		}
+		CompletionService<Integer> service = new ExecutorCompletionService<>(
+				exec);
+		List<Future<Integer>> futures = new ArrayList<>();
+		try {
+			for (int i = 0; i < graphCommits.size(); i += FILTER_BATCH_SIZE) {
+				int from = i;
+				int to = Math.min(i + FILTER_BATCH_SIZE, graphCommits.size());
+				futures.add(service.submit(
+						() -> computeFilters(result, previous, from, to)));
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				monitor.update(service.take().get().intValue());
+			}
+			return result;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause.getMessage(), cause);
+		} finally {
+			for (Future<Integer> f : futures) {
+				f.cancel(true);
+			}
+			if (pool != null) {
+				pool.shutdownNow();
+			}
+		}
+	}
+
+	private Integer computeFilters(ComputedFilters result,
+			CommitGraph previous, int from, int to) throws IOException {
+		PathDiffCalculator calculator = new PathDiffCalculator();
+		try (ObjectReader or = graphCommits.getObjectReader().newReader()) {
+			for (int i = from; i < to; i++) {
+				RevCommit cmit = graphCommits.get(i);
+				ChangedPathFilter cpf = previousFilter(previous, cmit);
+				if (cpf != null) {
+					result.reused.incrementAndGet();
+				} else {
+					result.computed.incrementAndGet();
+					cpf = computeFilter(calculator, or, cmit);
+				}
+				result.filters[i] = cpf;
+			}
+		}
+		return Integer.valueOf(to - from);
 	}
 
 	private void writeExtraEdges(CancellableDigestOutputStream out)
@@ -504,6 +652,18 @@ public ChunkHeader(int id, long size) {
 		}
 	}
 
+	private static class ComputedFilters {
+		final ChangedPathFilter[] filters;
+
+		final AtomicLong reused = new AtomicLong();
+
+		final AtomicLong computed = new AtomicLong();
+
+		ComputedFilters(int size) {
+			filters = new ChangedPathFilter[size];
+		}
+	}
+
 	private static class BloomFilterChunks {
 		final ByteArrayOutputStream index;
 
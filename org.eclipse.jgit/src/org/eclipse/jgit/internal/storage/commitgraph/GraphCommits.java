@@ -131,6 +131,10 @@ int size() {
 		return sortedCommits.size();
 	}
 
+	RevCommit get(int position) {
+		return sortedCommits.get(position);
+	}
+
 	ObjectReader getObjectReader() {
 		return objectReader;
 	}
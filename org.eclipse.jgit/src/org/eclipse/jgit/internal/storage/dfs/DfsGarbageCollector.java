@@ -668,6 +668,7 @@ private PackWriter newPackWriter() {
 		PackWriter pw = new PackWriter(packConfig, ctx);
 		pw.setDeltaBaseAsOffset(true);
 		pw.setReuseDeltaCommits(false);
+		pw.setDeltaIslandRefs(refsBefore);
 		return pw;
 	}
 
@@ -795,6 +796,8 @@ private void writeCommitGraph(DfsPackDescription pack, ProgressMonitor pm)
 			CountingOutputStream cnt = new CountingOutputStream(out);
 			CommitGraphWriter writer = new CommitGraphWriter(gcs,
 					writeBloomFilter);
+			writer.setThreads(packConfig.getThreads());
+			writer.setExecutor(packConfig.getExecutor());
 			CommitGraphWriter.Stats stats = writer.write(pm, cnt);
 			pack.addFileExt(COMMIT_GRAPH);
 			pack.setFileSize(COMMIT_GRAPH, cnt.getCount());
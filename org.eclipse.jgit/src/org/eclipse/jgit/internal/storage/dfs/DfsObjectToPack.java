@@ -24,9 +24,6 @@ class DfsObjectToPack extends ObjectToPack {
 	/** Offset of the object's header in {@link #pack}. */
 	long offset;
 
-	/** Length of the data section of the object. */
-	long length;
-
 	DfsObjectToPack(AnyObjectId src, int type) {
 		super(src, type);
 	}
@@ -50,6 +47,5 @@ public void select(StoredObjectRepresentation ref) {
 		DfsObjectRepresentation ptr = (DfsObjectRepresentation) ref;
 		this.pack = ptr.pack;
 		this.offset = ptr.offset;
-		this.length = ptr.length;
 	}
 }
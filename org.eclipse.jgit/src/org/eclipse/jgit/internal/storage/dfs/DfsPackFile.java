@@ -588,8 +588,11 @@ void copyAsIs(PackOutputStream out, DfsObjectToPack src,
 
 		// Rip apart the header so we can discover the size.
 		//
+		long endOffset;
 		try {
 			readFully(src.offset, buf, 0, 20, ctx);
+			endOffset = getReverseIdx(ctx).findNextOffset(src.offset,
+					length - 20);
 		} catch (IOException ioError) {
 			throw new StoredObjectRepresentationNotAvailableException(ioError);
 		}
@@ -634,7 +637,7 @@ void copyAsIs(PackOutputStream out, DfsObjectToPack src,
 		}
 
 		final long dataOffset = src.offset + headerCnt;
-		final long dataLength = src.length;
+		final long dataLength = endOffset - dataOffset;
 		final long expectedCRC;
 		final DfsBlock quickCopy;
 
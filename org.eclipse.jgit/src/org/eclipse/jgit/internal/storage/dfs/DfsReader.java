@@ -462,7 +462,15 @@ public boolean next() throws MissingObjectException, IOException {
 					if (cur.pack == null)
 						throw new MissingObjectException(cur.id,
 								JGitText.get().unknownObjectType2);
-					sz = cur.pack.getObjectSize(DfsReader.this, cur.offset);
+					sz = -1;
+					if (safeHasObjectSizeIndex(cur.pack)) {
+						sz = safeGetIndexedObjectSize(cur.pack, cur.id)
+								.orElse(-1L).longValue();
+					}
+					if (sz < 0) {
+						sz = cur.pack.getObjectSize(DfsReader.this,
+								cur.offset);
+					}
 					return true;
 				} else if (findAllError != null) {
 					throw findAllError;
@@ -523,6 +531,16 @@ public long getObjectSize(AnyObjectId objectId, int typeHint)
 		return pack.getObjectSize(this, objectId);
 	}
 
+	@Override
+	public int getObjectType(AnyObjectId objectId)
+			throws MissingObjectException, IOException {
+		DfsPackFile pack = findPackWithObject(objectId);
+		if (pack == null) {
+			throw new MissingObjectException(objectId.copy(),
+					JGitText.get().unknownObjectType2);
+		}
+		return pack.getObjectType(this, pack.findOffset(this, objectId));
+	}
 
 	@Override
 	public boolean isNotLargerThan(AnyObjectId objectId, int typeHint,
@@ -10,6 +10,7 @@
 
 package org.eclipse.jgit.internal.storage.dfs;
 
+import org.eclipse.jgit.events.RefsChangedEvent;
 import org.eclipse.jgit.internal.storage.dfs.DfsObjDatabase.PackSource;
 import org.eclipse.jgit.internal.storage.io.BlockSource;
 import org.eclipse.jgit.internal.storage.pack.PackExt;
@@ -89,6 +90,7 @@ && canCompactTopOfStack(cfg)) {
 		odb.commitPack(Collections.singleton(pack), prune);
 		odb.addReftable(pack, prune);
 		refdb.clearCache();
+		refdb.getRepository().fireEvent(new RefsChangedEvent());
 	}
 
 	private boolean canCompactTopOfStack(ReftableConfig cfg)
@@ -40,6 +40,56 @@ final void set(int position) {
 		words[block] |= mask(position);
 	}
 
+	/**
+	 * Set all positions from {@code from} (inclusive) to {@code to}
+	 * (exclusive).
+	 *
+	 * @param from
+	 *            first position to set.
+	 * @param to
+	 *            position after the last one to set.
+	 */
+	final void set(int from, int to) {
+		if (to <= from)
+			return;
+		int first = block(from);
+		int last = block(to - 1);
+		if (last >= words.length) {
+			long[] buf = new long[Math.max(2 * last, last + 1)];
+			System.arraycopy(words, 0, buf, 0, words.length);
+			words = buf;
+		}
+		long firstMask = -1L << from;
+		long lastMask = -1L >>> -to;
+		if (first == last) {
+			words[first] |= firstMask & lastMask;
+			return;
+		}
+		words[first] |= firstMask;
+		Arrays.fill(words, first + 1, last, -1L);
+		words[last] |= lastMask;
+	}
+
+	/**
+	 * Find the next set position.
+	 *
+	 * @param from
+	 *            position to start searching at.
+	 * @return the first set position at or after {@code from}, or -1.
+	 */
+	final int nextSetBit(int from) {
+		int block = block(from);
+		if (block >= words.length)
+			return -1;
+		long word = words[block] & (-1L << from);
+		while (word == 0) {
+			if (++block == words.length)
+				return -1;
+			word = words[block];
+		}
+		return block * 64 + Long.numberOfTrailingZeros(word);
+	}
+
 	final void clear(int position) {
 		int block = block(position);
 		if (block < words.length)
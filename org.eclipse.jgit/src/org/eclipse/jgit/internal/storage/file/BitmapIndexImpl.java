@@ -12,6 +12,7 @@
 
 import java.text.MessageFormat;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 import org.eclipse.jgit.internal.JGitText;
@@ -72,6 +73,45 @@ public CompressedBitmapBuilder newBitmapBuilder() {
 		return new CompressedBitmapBuilder(this);
 	}
 
+	@Override
+	public int addPseudoMerges(Iterable<? extends AnyObjectId> objectIds,
+			BitmapBuilder reachable) {
+		List<PseudoMergeBitmap> merges = packIndex.getPseudoMerges();
+		if (merges.isEmpty()) {
+			return 0;
+		}
+		BitSet start = new BitSet(indexObjectCount);
+		for (AnyObjectId id : objectIds) {
+			int pos = packIndex.findPosition(id);
+			if (pos >= 0) {
+				start.set(pos);
+			}
+		}
+		EWAHCompressedBitmap covered = reachable.retrieveCompressed()
+				.or(start.toEWAHCompressedBitmap());
+
+		// A pseudo-merge may complete the commits of another one, repeat
+		// until none applies.
+		boolean[] added = new boolean[merges.size()];
+		int cnt = 0;
+		boolean progress = true;
+		while (progress) {
+			progress = false;
+			for (int i = 0; i < added.length; i++) {
+				PseudoMergeBitmap m = merges.get(i);
+				if (!added[i]
+						&& m.getCommits().andNotCardinality(covered) == 0) {
+					added[i] = true;
+					covered = covered.or(m.getBitmap());
+					reachable.or(new CompressedBitmap(m.getBitmap(), this));
+					cnt++;
+					progress = true;
+				}
+			}
+		}
+		return cnt;
+	}
+
 	@Override
 	public void addBitmapLookupListener(BitmapLookupListener l) {
 		if (l == null) {
@@ -252,6 +292,11 @@ public int cardinality() {
 			return bitset.combine().cardinality();
 		}
 
+		@Override
+		public int cardinality(int type) {
+			return build().cardinality(type);
+		}
+
 		@Override
 		public boolean removeAllOrNone(PackBitmapIndex index) {
 			if (!bitmapIndex.packIndex.equals(index))
@@ -339,6 +384,21 @@ private final IntIterator ofObjectType(int type) {
 			return bitmapIndex.packIndex.ofObjectType(bitmap, type).intIterator();
 		}
 
+		@Override
+		public int cardinality(int type) {
+			int count = bitmapIndex.packIndex.ofObjectType(bitmap, type)
+					.cardinality();
+			IntIterator dynamic = bitmap
+					.andNot(ones(bitmapIndex.indexObjectCount)).intIterator();
+			while (dynamic.hasNext()) {
+				int position = dynamic.next() - bitmapIndex.indexObjectCount;
+				if (bitmapIndex.mutableIndex.getObject(position).type == type) {
+					count++;
+				}
+			}
+			return count;
+		}
+
 		@Override
 		public Iterator<BitmapObject> iterator() {
 			final IntIterator dynamic = bitmap.andNot(ones(bitmapIndex.indexObjectCount))
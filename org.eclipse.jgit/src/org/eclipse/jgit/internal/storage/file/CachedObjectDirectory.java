@@ -212,6 +212,12 @@ long getObjectSize(WindowCursor curs, AnyObjectId objectId)
 		return wrapped.getObjectSize(curs, objectId);
 	}
 
+	@Override
+	int getObjectType(WindowCursor curs, AnyObjectId objectId)
+			throws IOException {
+		return wrapped.getObjectType(curs, objectId);
+	}
+
 	@Override
 	ObjectLoader openLooseObject(WindowCursor curs, AnyObjectId id)
 			throws IOException {
@@ -63,6 +63,9 @@ abstract ObjectLoader openObject(WindowCursor curs, AnyObjectId objectId)
 	abstract long getObjectSize(WindowCursor curs, AnyObjectId objectId)
 			throws IOException;
 
+	abstract int getObjectType(WindowCursor curs, AnyObjectId objectId)
+			throws IOException;
+
 	abstract ObjectLoader openLooseObject(WindowCursor curs, AnyObjectId id)
 			throws IOException;
 
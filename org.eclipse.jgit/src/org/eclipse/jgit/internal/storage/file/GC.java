@@ -17,9 +17,14 @@
 import static org.eclipse.jgit.internal.storage.pack.PackExt.PACK;
 import static org.eclipse.jgit.internal.storage.pack.PackExt.REVERSE_INDEX;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.RandomAccessFile;
@@ -74,6 +79,7 @@
 import org.eclipse.jgit.internal.JGitText;
 import org.eclipse.jgit.internal.storage.commitgraph.CommitGraphWriter;
 import org.eclipse.jgit.internal.storage.commitgraph.GraphCommits;
+import org.eclipse.jgit.internal.storage.pack.DeltaSearchCache;
 import org.eclipse.jgit.internal.storage.pack.PackExt;
 import org.eclipse.jgit.internal.storage.pack.PackWriter;
 import org.eclipse.jgit.internal.util.ShutdownHook;
@@ -861,11 +867,13 @@ public Collection<Pack> repack() throws IOException {
 			nonHeads.clear();
 		}
 
+		DeltaSearchCache searchCache = readDeltaSearchCache();
 		List<Pack> ret = new ArrayList<>(2);
 		Pack heads = null;
 		if (!allHeadsAndTags.isEmpty()) {
 			heads = writePack(allHeadsAndTags, PackWriter.NONE, allTags,
-					refsToExcludeFromBitmap, tagTargets, excluded, true);
+					refsToExcludeFromBitmap, tagTargets, excluded, refsBefore,
+					searchCache, true);
 			if (heads != null) {
 				ret.add(heads);
 				excluded.add(0, heads.getIndex());
@@ -873,10 +881,12 @@ public Collection<Pack> repack() throws IOException {
 		}
 		if (!nonHeads.isEmpty()) {
 			Pack rest = writePack(nonHeads, allHeadsAndTags, PackWriter.NONE,
-					PackWriter.NONE, tagTargets, excluded, false);
+					PackWriter.NONE, tagTargets, excluded, refsBefore,
+					searchCache, false);
 			if (rest != null)
 				ret.add(rest);
 		}
+		writeDeltaSearchCache(searchCache);
 		try {
 			deleteOldPacks(toBeDeleted, ret);
 		} catch (ParseException e) {
@@ -941,6 +951,8 @@ void writeCommitGraph(@NonNull Set<? extends ObjectId> wants)
 			CommitGraphWriter writer = new CommitGraphWriter(
 					GraphCommits.fromWalk(pm, wants, walk),
 					shouldWriteBloomFilter());
+			writer.setThreads(pconfig.getThreads());
+			writer.setExecutor(pconfig.getExecutor());
 			tmpFile = File.createTempFile("commit_", //$NON-NLS-1$
 					COMMIT_GRAPH.getTmpExtension(),
 					repo.getObjectDatabase().getInfoDirectory());
@@ -1266,10 +1278,56 @@ private Set<ObjectId> listNonHEADIndexObjects()
 		}
 	}
 
+	private DeltaSearchCache readDeltaSearchCache() {
+		if (!pconfig.isDeltaSearchCache()) {
+			return null;
+		}
+		File file = new File(repo.getObjectsDirectory(),
+				Constants.INFO_DELTA_SEARCH_CACHE);
+		try (InputStream in = new BufferedInputStream(
+				new FileInputStream(file))) {
+			return DeltaSearchCache.read(in,
+					pconfig.getDeltaSearchCacheLimit());
+		} catch (FileNotFoundException e) {
+			return new DeltaSearchCache(pconfig.getDeltaSearchCacheLimit());
+		} catch (IOException e) {
+			// The cache only saves work, search from scratch instead.
+			LOG.warn(e.getMessage(), e);
+			return new DeltaSearchCache(pconfig.getDeltaSearchCacheLimit());
+		}
+	}
+
+	private void writeDeltaSearchCache(DeltaSearchCache cache)
+			throws IOException {
+		if (cache == null) {
+			return;
+		}
+		checkCancelled();
+		File file = new File(repo.getObjectsDirectory(),
+				Constants.INFO_DELTA_SEARCH_CACHE);
+		FileUtils.mkdirs(file.getParentFile(), true);
+		LockFile lock = new LockFile(file);
+		if (!lock.lock()) {
+			// Another repack is updating the cache.
+			return;
+		}
+		try {
+			try (OutputStream out = new BufferedOutputStream(
+					lock.getOutputStream())) {
+				cache.write(out);
+			}
+			lock.commit();
+		} finally {
+			lock.unlock();
+		}
+	}
+
 	private Pack writePack(@NonNull Set<? extends ObjectId> want,
 			@NonNull Set<? extends ObjectId> have, @NonNull Set<ObjectId> tags,
 			@NonNull Set<ObjectId> excludedRefsTips,
-			Set<ObjectId> tagTargets, List<ObjectIdSet> excludeObjects, boolean createBitmap)
+			Set<ObjectId> tagTargets, List<ObjectIdSet> excludeObjects,
+			Collection<Ref> refs, DeltaSearchCache searchCache,
+			boolean createBitmap)
 			throws IOException {
 		checkCancelled();
 		File tmpPack = null;
@@ -1301,6 +1359,8 @@ private Pack writePack(@NonNull Set<? extends ObjectId> want,
 				for (ObjectIdSet idx : excludeObjects)
 					pw.excludeObjects(idx);
 			pw.setCreateBitmaps(createBitmap);
+			pw.setDeltaIslandRefs(refs);
+			pw.setDeltaSearchCache(searchCache);
 			pw.preparePack(pm, want, have, PackWriter.NONE,
 					union(tags, excludedRefsTips));
 			if (pw.getObjectCount() == 0)
@@ -19,12 +19,12 @@ class LocalObjectToPack extends ObjectToPack {
 	/** Pack to reuse compressed data from, otherwise null. */
 	Pack pack;
 
-	/** Offset of the object's header in {@link #pack}. */
+	/**
+	 * Offset of the object's header in {@link #pack}. The length of the data
+	 * is not kept, {@link Pack#copyAsIs} finds it from the reverse index.
+	 */
 	long offset;
 
-	/** Length of the data section of the object. */
-	long length;
-
 	LocalObjectToPack(AnyObjectId src, int type) {
 		super(src, type);
 	}
@@ -40,6 +40,5 @@ public void select(StoredObjectRepresentation ref) {
 		LocalObjectRepresentation ptr = (LocalObjectRepresentation) ref;
 		this.pack = ptr.pack;
 		this.offset = ptr.offset;
-		this.length = ptr.length;
 	}
 }
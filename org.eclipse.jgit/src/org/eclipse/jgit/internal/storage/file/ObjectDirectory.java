@@ -479,6 +479,36 @@ private long getLooseSizeFromSelfOrAlternate(WindowCursor curs,
 		return -1;
 	}
 
+	@Override
+	int getObjectType(WindowCursor curs, AnyObjectId id) throws IOException {
+		int type = getPackedTypeFromSelfOrAlternate(curs, id, null);
+		if (0 < type) {
+			return type;
+		}
+		// Loose objects have to be inflated to read their header anyway.
+		ObjectLoader ldr = openObject(curs, id);
+		return ldr != null ? ldr.getType() : -1;
+	}
+
+	private int getPackedTypeFromSelfOrAlternate(WindowCursor curs,
+			AnyObjectId id, Set<AlternateHandle.Id> skips)
+			throws PackMismatchException {
+		int type = packed.getType(curs, id);
+		if (0 < type) {
+			return type;
+		}
+		skips = addMe(skips);
+		for (AlternateHandle alt : myAlternates()) {
+			if (!skips.contains(alt.getId())) {
+				type = alt.db.getPackedTypeFromSelfOrAlternate(curs, id, skips);
+				if (0 < type) {
+					return type;
+				}
+			}
+		}
+		return -1;
+	}
+
 	@Override
 	void selectObjectRepresentation(PackWriter packer, ObjectToPack otp,
 			WindowCursor curs) throws IOException {
@@ -34,6 +34,7 @@
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -408,6 +409,42 @@ void copyPackAsIs(PackOutputStream out, WindowCursor curs)
 		curs.copyPackAsIs(this, length, out);
 	}
 
+	/**
+	 * Copy objects stored back to back, including their headers.
+	 *
+	 * @param out
+	 *            stream to copy the objects to.
+	 * @param region
+	 *            the objects in the order stored, each of them starting where
+	 *            the previous one ends.
+	 * @param end
+	 *            offset of the end of the last object.
+	 * @param curs
+	 *            cursor to read the pack with.
+	 * @throws StoredObjectRepresentationNotAvailableException
+	 *             the pack is no longer available; nothing was written.
+	 * @throws IOException
+	 *             the pack cannot be read, or the stream not be written.
+	 */
+	final void copyRegionAsIs(PackOutputStream out,
+			List<LocalObjectToPack> region, long end, WindowCursor curs)
+			throws IOException,
+			StoredObjectRepresentationNotAvailableException {
+		beginCopyAsIs();
+		try {
+			for (int i = 0; i < region.size(); i++) {
+				LocalObjectToPack otp = region.get(i);
+				long next = i + 1 < region.size() ? region.get(i + 1).offset
+						: end;
+				out.beginRegionObject(otp);
+				curs.copyRaw(this, otp.offset, next - otp.offset, out);
+				out.endRegionObject(otp);
+			}
+		} finally {
+			endCopyAsIs();
+		}
+	}
+
 	final void copyAsIs(PackOutputStream out, LocalObjectToPack src,
 			boolean validate, WindowCursor curs) throws IOException,
 			StoredObjectRepresentationNotAvailableException {
@@ -473,7 +510,7 @@ private void copyAsIs2(PackOutputStream out, LocalObjectToPack src,
 			}
 
 			final long dataOffset = src.offset + headerCnt;
-			final long dataLength = src.length;
+			final long dataLength = findEndOffset(src.offset) - dataOffset;
 			final long expectedCRC;
 			final ByteArrayWindow quickCopy;
 
@@ -1025,6 +1062,11 @@ byte[] getDeltaHeader(WindowCursor wc, long pos)
 		return hdr;
 	}
 
+	int getObjectType(WindowCursor curs, AnyObjectId id) throws IOException {
+		final long offset = idx().findOffset(id);
+		return 0 < offset ? getObjectType(curs, offset) : -1;
+	}
+
 	int getObjectType(WindowCursor curs, long pos) throws IOException {
 		final byte[] ib = curs.tempId;
 		for (;;) {
@@ -1176,7 +1218,7 @@ LocalObjectRepresentation representation(final WindowCursor curs,
 		}
 	}
 
-	private long findEndOffset(long startOffset)
+	long findEndOffset(long startOffset)
 			throws IOException, CorruptObjectException {
 		final long maxOffset = length - 20;
 		return getReverseIdx().findNextOffset(startOffset, maxOffset);
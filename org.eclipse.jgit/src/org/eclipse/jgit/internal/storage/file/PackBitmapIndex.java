@@ -14,6 +14,8 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.List;
 import java.util.function.Supplier;
 
 import org.eclipse.jgit.errors.CorruptObjectException;
@@ -141,6 +143,15 @@ default byte[] getPackChecksum() {
 		return null;
 	}
 
+	/**
+	 * Get the pseudo-merge bitmaps stored in the index.
+	 *
+	 * @return the pseudo-merge bitmaps, empty if the index has none.
+	 */
+	default List<PseudoMergeBitmap> getPseudoMerges() {
+		return Collections.emptyList();
+	}
+
 	/**
 	 * Finds the position in the bitmap of the object.
 	 *
@@ -13,6 +13,8 @@
 import java.text.MessageFormat;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -45,6 +47,8 @@ public class PackBitmapIndexBuilder extends BasePackBitmapIndex {
 
 	private List<StoredEntry> bitmapsToWrite = new ArrayList<>();
 
+	private final List<PseudoMergeBitmap> pseudoMerges = new ArrayList<>();
+
 	final ObjectIdOwnerMap<PositionEntry>
 			positionEntries = new ObjectIdOwnerMap<>();
 
@@ -187,7 +191,9 @@ private StoredEntry generateStoredEntry(StoredBitmap bitmapToWrite) {
 
 		PositionEntry entry = positionEntries.get(bitmapToWrite);
 		if (entry == null) {
-			throw new IllegalStateException();
+			throw new IllegalStateException(MessageFormat.format(
+					JGitText.get().bitmapCommitNotInPack,
+					bitmapToWrite.name()));
 		}
 		bestBitmap.trim();
 		StoredEntry result = new StoredEntry(entry, entry.idxPosition,
@@ -213,6 +219,38 @@ public void addBitmap(
 		getBitmaps().add(result);
 	}
 
+	/**
+	 * Stores a pseudo-merge bitmap for a group of commits.
+	 *
+	 * @param commits
+	 *            the commits of the group.
+	 * @param bitmap
+	 *            the objects reachable from the commits.
+	 */
+	public void addPseudoMerge(Collection<? extends AnyObjectId> commits,
+			Bitmap bitmap) {
+		int[] positions = new int[commits.size()];
+		int n = 0;
+		for (AnyObjectId c : commits) {
+			int pos = findPosition(c);
+			if (pos < 0) {
+				throw new IllegalStateException(MessageFormat.format(
+						JGitText.get().bitmapCommitNotInPack, c.name()));
+			}
+			positions[n++] = pos;
+		}
+		Arrays.sort(positions);
+		EWAHCompressedBitmap compressed = bitmap.retrieveCompressed();
+		compressed.trim();
+		pseudoMerges.add(new PseudoMergeBitmap(
+				EWAHCompressedBitmap.bitmapOf(positions), compressed));
+	}
+
+	@Override
+	public List<PseudoMergeBitmap> getPseudoMerges() {
+		return pseudoMerges;
+	}
+
 	@Override
 	public EWAHCompressedBitmap ofObjectType(
 			EWAHCompressedBitmap bitmap, int type) {
@@ -287,6 +325,10 @@ public EWAHCompressedBitmap getTags() {
 	 * @return the index storage options.
 	 */
 	public int getOptions() {
+		if (!pseudoMerges.isEmpty()) {
+			return PackBitmapIndexV1.OPT_FULL
+					| PackBitmapIndexV1.OPT_PSEUDO_MERGES;
+		}
 		return PackBitmapIndexV1.OPT_FULL;
 	}
 
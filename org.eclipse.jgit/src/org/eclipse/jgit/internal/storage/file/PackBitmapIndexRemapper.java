@@ -10,8 +10,10 @@
 
 package org.eclipse.jgit.internal.storage.file;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 import org.eclipse.jgit.internal.storage.file.BasePackBitmapIndex.StoredBitmap;
@@ -19,8 +21,8 @@
 import org.eclipse.jgit.lib.BitmapIndex;
 import org.eclipse.jgit.lib.ObjectId;
 
+import com.googlecode.javaewah.ChunkIterator;
 import com.googlecode.javaewah.EWAHCompressedBitmap;
-import com.googlecode.javaewah.IntIterator;
 
 /**
  * A PackBitmapIndex that remaps the bitmaps in the previous index to the
@@ -36,6 +38,12 @@
 	private final BitSet inflated;
 	private final int[] prevToNewMapping;
 
+	/**
+	 * Old positions whose new position does not directly follow the new
+	 * position of the previous old position.
+	 */
+	private final BitSet mappingBreaks;
+
 	/**
 	 * A PackBitmapIndex that maps the positions in the prevBitmapIndex to the
 	 * ones in the newIndex.
@@ -65,6 +73,7 @@ private PackBitmapIndexRemapper(PackBitmapIndex newPackIndex) {
 		this.newPackIndex = newPackIndex;
 		this.inflated = null;
 		this.prevToNewMapping = null;
+		this.mappingBreaks = null;
 	}
 
 	private PackBitmapIndexRemapper(
@@ -74,9 +83,72 @@ private PackBitmapIndexRemapper(
 		inflated = new BitSet(newPackIndex.getObjectCount());
 
 		prevToNewMapping = new int[oldPackIndex.getObjectCount()];
-		for (int pos = 0; pos < prevToNewMapping.length; pos++)
+		mappingBreaks = new BitSet(prevToNewMapping.length);
+		for (int pos = 0; pos < prevToNewMapping.length; pos++) {
 			prevToNewMapping[pos] = newPackIndex.findPosition(
 					oldPackIndex.getObject(pos));
+			if (pos == 0 || prevToNewMapping[pos] != prevToNewMapping[pos - 1]
+					+ 1) {
+				mappingBreaks.set(pos);
+			}
+		}
+	}
+
+	/**
+	 * Get the union of bitmaps of the previous index, restricted to one
+	 * object type and mapped to the positions of the new index.
+	 * <p>
+	 * Mapping the union once is much cheaper than mapping every bitmap, when
+	 * only the combined set of objects is of interest.
+	 *
+	 * @param objectIds
+	 *            objects whose bitmaps to combine. Objects without a bitmap
+	 *            in the previous index are ignored.
+	 * @param type
+	 *            the type of objects to keep.
+	 * @return the union in the positions of the new index.
+	 */
+	public EWAHCompressedBitmap getBitmapUnion(
+			Iterable<? extends AnyObjectId> objectIds, int type) {
+		if (oldPackIndex == null)
+			return new EWAHCompressedBitmap();
+
+		List<EWAHCompressedBitmap> bitmaps = new ArrayList<>();
+		for (AnyObjectId objectId : objectIds) {
+			StoredBitmap oldBitmap = oldPackIndex.getBitmaps().get(objectId);
+			if (oldBitmap != null)
+				bitmaps.add(oldBitmap.getBitmapWithoutCaching());
+		}
+		if (bitmaps.isEmpty())
+			return new EWAHCompressedBitmap();
+
+		EWAHCompressedBitmap union = EWAHCompressedBitmap
+				.or(bitmaps.toArray(new EWAHCompressedBitmap[0]));
+		return remap(oldPackIndex.ofObjectType(union, type));
+	}
+
+	private EWAHCompressedBitmap remap(EWAHCompressedBitmap oldBitmap) {
+		inflated.clear();
+		int pos = 0;
+		for (ChunkIterator c = oldBitmap.chunkIterator(); c.hasNext(); c
+				.move()) {
+			int end = pos + c.nextLength();
+			if (c.nextBit()) {
+				// Objects typically keep their relative order in the new
+				// pack, map each run of consecutive positions at once.
+				while (pos < end) {
+					int next = mappingBreaks.nextSetBit(pos + 1);
+					int runEnd = next < 0 ? end : Math.min(next, end);
+					int newPos = prevToNewMapping[pos];
+					inflated.set(newPos, newPos + (runEnd - pos));
+					pos = runEnd;
+				}
+			}
+			pos = end;
+		}
+		EWAHCompressedBitmap bitmap = inflated.toEWAHCompressedBitmap();
+		bitmap.trim();
+		return bitmap;
 	}
 
 	@Override
@@ -169,13 +241,7 @@ public EWAHCompressedBitmap getBitmap(AnyObjectId objectId) {
 		if (newPackIndex.findPosition(objectId) == -1)
 			return null;
 
-		inflated.clear();
-		for (IntIterator i = oldBitmap.getBitmapWithoutCaching()
-				.intIterator(); i.hasNext();)
-			inflated.set(prevToNewMapping[i.next()]);
-		bitmap = inflated.toEWAHCompressedBitmap();
-		bitmap.trim();
-		return bitmap;
+		return remap(oldBitmap.getBitmapWithoutCaching());
 	}
 
 	/** An entry in the old PackBitmapIndex. */
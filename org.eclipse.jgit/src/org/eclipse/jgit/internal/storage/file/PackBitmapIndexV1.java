@@ -10,12 +10,15 @@
 
 package org.eclipse.jgit.internal.storage.file;
 
+import java.io.ByteArrayInputStream;
 import java.io.DataInput;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -44,6 +47,23 @@ class PackBitmapIndexV1 extends BasePackBitmapIndex {
 	static final byte[] MAGIC = { 'B', 'I', 'T', 'M' };
 	static final int OPT_FULL = 1;
 
+	/** Name-hash cache of C git, stored after the pseudo-merges. */
+	static final int OPT_HASH_CACHE = 4;
+
+	/** Lookup table of C git, stored after the pseudo-merges. */
+	static final int OPT_LOOKUP_TABLE = 16;
+
+	static final int OPT_PSEUDO_MERGES = 32;
+
+	/**
+	 * Size of the trailer of the pseudo-merges: their number, the number of
+	 * commits in them, the offset of the commit table and the total size.
+	 */
+	static final int PSEUDO_MERGE_TRAILER_LENGTH = 4 + 4 + 8 + 8;
+
+	/** Size of an entry of the lookup table of C git. */
+	private static final int LOOKUP_TABLE_ENTRY_LENGTH = 4 + 8 + 4;
+
 	private static final int MAX_XOR_OFFSET = 126;
 
 	private byte[] packChecksum;
@@ -74,6 +94,8 @@ public Thread newThread(Runnable runnable) {
 
 	private final ObjectIdOwnerMap<StoredBitmap> bitmaps;
 
+	private final List<PseudoMergeBitmap> pseudoMerges;
+
 	PackBitmapIndexV1(final InputStream fd, PackIndex packIndex,
 			PackReverseIndex reverseIndex) throws IOException {
 		this(fd, () -> packIndex, () -> reverseIndex, false);
@@ -139,6 +161,9 @@ public Thread newThread(Runnable runnable) {
 		this.trees = readBitmap(dataInput);
 		this.blobs = readBitmap(dataInput);
 		this.tags = readBitmap(dataInput);
+		long offset = scratch.length + commits.serializedSizeInBytes()
+				+ trees.serializedSizeInBytes() + blobs.serializedSizeInBytes()
+				+ tags.serializedSizeInBytes();
 
 		// Read full bitmap from storage first.
 		List<IdxPositionBitmap> idxPositionBitmapList = new ArrayList<>();
@@ -150,6 +175,7 @@ public Thread newThread(Runnable runnable) {
 			int xorOffset = scratch[4];
 			int flags = scratch[5];
 			EWAHCompressedBitmap bitmap = readBitmap(dataInput);
+			offset += 6 + bitmap.serializedSizeInBytes();
 
 			if (nthObjectId < 0) {
 				throw new IOException(MessageFormat.format(
@@ -188,6 +214,12 @@ public Thread newThread(Runnable runnable) {
 		}
 
 		this.packIndex = packIndexSupplier.get();
+		if ((opts & OPT_PSEUDO_MERGES) != 0) {
+			this.pseudoMerges = readPseudoMerges(fd, offset, opts,
+					(int) numEntries, packIndex.getObjectCount());
+		} else {
+			this.pseudoMerges = Collections.emptyList();
+		}
 		for (int i = 0; i < idxPositionBitmapList.size(); ++i) {
 			IdxPositionBitmap idxPositionBitmap = idxPositionBitmapList.get(i);
 			ObjectId objectId = packIndex
@@ -258,6 +290,11 @@ public int getBitmapCount() {
 		return bitmaps.size();
 	}
 
+	@Override
+	public List<PseudoMergeBitmap> getPseudoMerges() {
+		return pseudoMerges;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		// TODO(cranger): compare the pack checksum?
@@ -287,6 +324,57 @@ private static EWAHCompressedBitmap readBitmap(DataInput dataInput)
 		return bitmap;
 	}
 
+	/**
+	 * Read the pseudo-merges following the bitmap entries.
+	 * <p>
+	 * The pseudo-merges are laid out as by C git: the bitmaps of the commits
+	 * and of the objects reachable from them for each pseudo-merge, a table of
+	 * the commits in any pseudo-merge, the offsets of the pseudo-merges in the
+	 * file, and a trailer. The extensions C git stores after them have a fixed
+	 * size, so the trailer can be found from the end of the file.
+	 */
+	private static List<PseudoMergeBitmap> readPseudoMerges(InputStream fd,
+			long start, int opts, int numEntries, long objectCount)
+			throws IOException {
+		byte[] rest = fd.readAllBytes();
+		long end = rest.length - Constants.OBJECT_ID_LENGTH;
+		if ((opts & OPT_HASH_CACHE) != 0) {
+			end -= 4 * objectCount;
+		}
+		if ((opts & OPT_LOOKUP_TABLE) != 0) {
+			end -= (long) LOOKUP_TABLE_ENTRY_LENGTH * numEntries;
+		}
+		if (end < PSEUDO_MERGE_TRAILER_LENGTH) {
+			throw new IOException(JGitText.get().pseudoMergeBitmapsCorrupt);
+		}
+		int trailer = (int) end - PSEUDO_MERGE_TRAILER_LENGTH;
+		long count = NB.decodeUInt32(rest, trailer);
+		if (NB.decodeInt64(rest, trailer + 16) != end
+				|| count * 8 > trailer) {
+			throw new IOException(JGitText.get().pseudoMergeBitmapsCorrupt);
+		}
+
+		List<PseudoMergeBitmap> merges = new ArrayList<>((int) count);
+		int positions = trailer - (int) count * 8;
+		for (int i = 0; i < count; i++) {
+			long pos = NB.decodeInt64(rest, positions + i * 8) - start;
+			if (pos < 0 || pos >= positions) {
+				throw new IOException(
+						JGitText.get().pseudoMergeBitmapsCorrupt);
+			}
+			SimpleDataInput in = new SimpleDataInput(new ByteArrayInputStream(
+					rest, (int) pos, positions - (int) pos));
+			try {
+				EWAHCompressedBitmap commits = readBitmap(in);
+				merges.add(new PseudoMergeBitmap(commits, readBitmap(in)));
+			} catch (EOFException e) {
+				throw new IOException(
+						JGitText.get().pseudoMergeBitmapsCorrupt, e);
+			}
+		}
+		return merges;
+	}
+
 	/**
 	 * Temporary holder of object position in pack index and other metadata for
 	 * {@code StoredBitmap}.
@@ -16,13 +16,19 @@
 import java.io.OutputStream;
 import java.security.DigestOutputStream;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import org.eclipse.jgit.internal.JGitText;
 import org.eclipse.jgit.internal.storage.file.PackBitmapIndexBuilder.StoredEntry;
 import org.eclipse.jgit.internal.storage.pack.PackBitmapIndexWriter;
 import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.util.io.CountingOutputStream;
 
 import com.googlecode.javaewah.EWAHCompressedBitmap;
+import com.googlecode.javaewah.IntIterator;
 
 /**
  * Creates the version 1 pack bitmap index files.
@@ -30,6 +36,7 @@
  * @see PackBitmapIndexV1
  */
 public class PackBitmapIndexWriterV1 implements PackBitmapIndexWriter {
+	private final CountingOutputStream count;
 	private final DigestOutputStream out;
 	private final DataOutput dataOutput;
 
@@ -40,9 +47,10 @@ public class PackBitmapIndexWriterV1 implements PackBitmapIndexWriter {
 	 *            the output stream to which the index will be written.
 	 */
 	public PackBitmapIndexWriterV1(final OutputStream dst) {
-		out = new DigestOutputStream(dst instanceof BufferedOutputStream ? dst
-				: new BufferedOutputStream(dst),
-				Constants.newMessageDigest());
+		count = new CountingOutputStream(dst instanceof BufferedOutputStream
+				? dst
+				: new BufferedOutputStream(dst));
+		out = new DigestOutputStream(count, Constants.newMessageDigest());
 		dataOutput = new SimpleDataOutput(out);
 	}
 
@@ -70,6 +78,9 @@ public void write(PackBitmapIndexBuilder bitmaps, byte[] packDataChecksum)
 		writeHeader(bitmaps.getOptions(), bitmaps.getBitmapCount(),
 				packDataChecksum);
 		writeBody(bitmaps);
+		if ((bitmaps.getOptions() & PackBitmapIndexV1.OPT_PSEUDO_MERGES) != 0) {
+			writePseudoMerges(bitmaps.getPseudoMerges());
+		}
 		writeFooter();
 
 		out.flush();
@@ -121,6 +132,55 @@ private void writeBitmapEntry(StoredEntry entry) throws IOException {
 		writeBitmap(entry.getBitmap());
 	}
 
+	private void writePseudoMerges(List<PseudoMergeBitmap> merges)
+			throws IOException {
+		long start = count.getCount();
+		long[] offsets = new long[merges.size()];
+		Map<Integer, List<Long>> byCommit = new TreeMap<>();
+		for (int i = 0; i < merges.size(); i++) {
+			PseudoMergeBitmap m = merges.get(i);
+			offsets[i] = count.getCount();
+			writeBitmap(m.getCommits());
+			writeBitmap(m.getBitmap());
+			IntIterator commits = m.getCommits().intIterator();
+			while (commits.hasNext()) {
+				byCommit.computeIfAbsent(Integer.valueOf(commits.next()),
+						c -> new ArrayList<>()).add(Long.valueOf(offsets[i]));
+			}
+		}
+
+		// Commits in a single pseudo-merge point to its bitmaps, the others
+		// to the list of their pseudo-merges in the extended table.
+		long table = count.getCount();
+		long extended = table + 12L * byCommit.size();
+		for (Map.Entry<Integer, List<Long>> e : byCommit.entrySet()) {
+			dataOutput.writeInt(e.getKey().intValue());
+			List<Long> in = e.getValue();
+			if (in.size() == 1) {
+				dataOutput.writeLong(in.get(0).longValue());
+			} else {
+				dataOutput.writeLong(extended | (1L << 63));
+				extended += 4 + 8L * in.size();
+			}
+		}
+		for (List<Long> in : byCommit.values()) {
+			if (in.size() > 1) {
+				dataOutput.writeInt(in.size());
+				for (Long offset : in) {
+					dataOutput.writeLong(offset.longValue());
+				}
+			}
+		}
+
+		for (long offset : offsets) {
+			dataOutput.writeLong(offset);
+		}
+		dataOutput.writeInt(merges.size());
+		dataOutput.writeInt(byCommit.size());
+		dataOutput.writeLong(table - start);
+		dataOutput.writeLong(count.getCount() + 8 - start);
+	}
+
 	private void writeFooter() throws IOException {
 		out.on(false);
 		out.write(out.getMessageDigest().digest());
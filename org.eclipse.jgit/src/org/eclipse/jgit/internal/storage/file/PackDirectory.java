@@ -270,6 +270,36 @@ long getSize(WindowCursor curs, AnyObjectId id)
 		return -1;
 	}
 
+	int getType(WindowCursor curs, AnyObjectId id)
+			throws PackMismatchException {
+		PackList pList;
+		do {
+			int retries = 0;
+			SEARCH: for (;;) {
+				pList = packList.get();
+				for (Pack p : pList.packs) {
+					try {
+						int type = p.getObjectType(curs, id);
+						p.resetTransientErrorCount();
+						if (0 < type) {
+							return type;
+						}
+					} catch (PackMismatchException e) {
+						// Pack was modified; refresh the entire pack list.
+						if (searchPacksAgain(pList)) {
+							retries = checkRescanPackThreshold(retries, e);
+							continue SEARCH;
+						}
+					} catch (IOException e) {
+						handlePackError(e, p);
+					}
+				}
+				break SEARCH;
+			}
+		} while (searchPacksAgain(pList));
+		return -1;
+	}
+
 	void selectRepresentation(PackWriter packer, ObjectToPack otp,
 			WindowCursor curs) throws PackMismatchException {
 		PackList pList = packList.get();
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.internal.storage.file;
+
+import com.googlecode.javaewah.EWAHCompressedBitmap;
+
+/**
+ * Bitmap of the objects reachable from a group of commits.
+ * <p>
+ * A pseudo-merge behaves like a merge commit of the commits in the group which
+ * is not part of the history. Ref tips without a bitmap of their own are
+ * grouped into pseudo-merges, so the objects reachable from many refs can be
+ * computed by a few bitmap operations instead of a walk from each tip.
+ * <p>
+ * A pseudo-merge bitmap applies to a set of objects once all commits of the
+ * group are in the set, or reachable from it.
+ */
+public final class PseudoMergeBitmap {
+	private final EWAHCompressedBitmap commits;
+
+	private final EWAHCompressedBitmap bitmap;
+
+	/**
+	 * Create a pseudo-merge bitmap.
+	 *
+	 * @param commits
+	 *            positions of the commits of the group.
+	 * @param bitmap
+	 *            positions of the objects reachable from the commits.
+	 */
+	public PseudoMergeBitmap(EWAHCompressedBitmap commits,
+			EWAHCompressedBitmap bitmap) {
+		this.commits = commits;
+		this.bitmap = bitmap;
+	}
+
+	/**
+	 * Get the commits of the group.
+	 *
+	 * @return positions of the commits of the group.
+	 */
+	public EWAHCompressedBitmap getCommits() {
+		return commits;
+	}
+
+	/**
+	 * Get the objects reachable from the group.
+	 *
+	 * @return positions of the objects reachable from the commits.
+	 */
+	public EWAHCompressedBitmap getBitmap() {
+		return bitmap;
+	}
+}
@@ -12,6 +12,7 @@
 package org.eclipse.jgit.internal.storage.file;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -46,6 +47,9 @@
 
 /** Active handle to a ByteWindow. */
 final class WindowCursor extends ObjectReader implements ObjectReuseAsIs {
+	/** Shortest run of objects worth copying as one region. */
+	private static final int MIN_REGION = 2;
+
 	/** Temporary buffer large enough for at least one raw object id. */
 	final byte[] tempId = new byte[Constants.OBJECT_ID_LENGTH];
 
@@ -161,6 +165,17 @@ public long getObjectSize(AnyObjectId objectId, int typeHint)
 		return sz;
 	}
 
+	@Override
+	public int getObjectType(AnyObjectId objectId)
+			throws MissingObjectException, IOException {
+		int type = db.getObjectType(this, objectId);
+		if (type < 0) {
+			throw new MissingObjectException(objectId.copy(),
+					JGitText.get().unknownObjectType2);
+		}
+		return type;
+	}
+
 	@Override
 	public LocalObjectToPack newObjectToPack(AnyObjectId objectId, int type) {
 		return new LocalObjectToPack(objectId, type);
@@ -187,8 +202,89 @@ public void copyObjectAsIs(PackOutputStream out, ObjectToPack otp,
 	@Override
 	public void writeObjects(PackOutputStream out, List<ObjectToPack> list)
 			throws IOException {
-		for (ObjectToPack otp : list)
-			out.writeObject(otp);
+		if (!out.isRegionCopyAllowed()) {
+			for (ObjectToPack otp : list)
+				out.writeObject(otp);
+			return;
+		}
+
+		// Runs of objects stored back to back, typically a clone served
+		// from a pack written in the same order, are copied verbatim.
+		List<LocalObjectToPack> region = new ArrayList<>();
+		for (int i = 0; i < list.size();) {
+			long end = findRegion(list, i, region);
+			if (region.size() < MIN_REGION) {
+				out.writeObject(list.get(i++));
+				continue;
+			}
+			Pack pack = region.get(0).pack;
+			try {
+				pack.copyRegionAsIs(out, region, end, this);
+			} catch (StoredObjectRepresentationNotAvailableException gone) {
+				// Let the writer select another representation.
+				for (LocalObjectToPack otp : region)
+					out.writeObject(otp);
+			}
+			i += region.size();
+		}
+	}
+
+	/**
+	 * Collect the objects at the start of a list which can be copied with
+	 * their stored headers.
+	 *
+	 * @param list
+	 *            objects to write.
+	 * @param start
+	 *            index of the first object to consider.
+	 * @param region
+	 *            receives the objects stored back to back in one pack, whose
+	 *            delta bases are stored earlier in the region.
+	 * @return end offset of the last object of the region, if it has at
+	 *         least {@link #MIN_REGION} objects.
+	 * @throws IOException
+	 *             the reverse index of the pack cannot be read.
+	 */
+	private static long findRegion(List<ObjectToPack> list, int start,
+			List<LocalObjectToPack> region) throws IOException {
+		region.clear();
+		ObjectToPack o = list.get(start);
+		if (!isRegionCandidate(o) || o.isDeltaRepresentation())
+			return 0;
+		LocalObjectToPack first = (LocalObjectToPack) o;
+		Pack pack = first.pack;
+		region.add(first);
+
+		long prev = first.offset;
+		for (int i = start + 1; i < list.size(); i++) {
+			o = list.get(i);
+			if (!isRegionCandidate(o))
+				break;
+			LocalObjectToPack otp = (LocalObjectToPack) o;
+			if (otp.pack != pack || otp.offset <= prev
+					|| (otp.isDeltaRepresentation()
+							&& !isBaseInRegion(otp, first))
+					|| pack.findEndOffset(prev) != otp.offset)
+				break;
+			region.add(otp);
+			prev = otp.offset;
+		}
+		return region.size() < MIN_REGION ? 0 : pack.findEndOffset(prev);
+	}
+
+	private static boolean isRegionCandidate(ObjectToPack otp) {
+		return otp instanceof LocalObjectToPack && otp.isReuseAsIs()
+				&& !otp.isWritten();
+	}
+
+	private static boolean isBaseInRegion(LocalObjectToPack otp,
+			LocalObjectToPack first) {
+		ObjectToPack b = otp.getDeltaBase();
+		if (!(b instanceof LocalObjectToPack))
+			return false;
+		LocalObjectToPack base = (LocalObjectToPack) b;
+		return base.pack == otp.pack && base.isReuseAsIs()
+				&& first.offset <= base.offset && base.offset < otp.offset;
 	}
 
 	/**
@@ -235,8 +331,11 @@ public void copyPackAsIs(PackOutputStream out, CachedPack pack)
 
 	void copyPackAsIs(final Pack pack, final long length,
 			final PackOutputStream out) throws IOException {
-		long position = 12;
-		long remaining = length - (12 + 20);
+		copyRaw(pack, 12, length - (12 + 20), out);
+	}
+
+	void copyRaw(Pack pack, long position, long remaining,
+			PackOutputStream out) throws IOException {
 		while (0 < remaining) {
 			pin(pack, position);
 
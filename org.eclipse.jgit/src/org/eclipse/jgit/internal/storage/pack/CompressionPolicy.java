@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.internal.storage.pack;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+import org.eclipse.jgit.storage.pack.PackConfig;
+
+/**
+ * Chooses the compression level of the objects written to a pack.
+ * <p>
+ * The levels are configured by object type and size in {@link PackConfig}. If
+ * {@link PackConfig#isAdaptiveCompression()} is set the output stream of the
+ * writer is {@link #wrap(OutputStream) wrapped} to measure how long writes
+ * block. While the writer hardly waits for the output, compressing limits the
+ * speed of writing and the levels are lowered one step at a time, down to
+ * {@link Deflater#BEST_SPEED}. Once the writer waits for the output again the
+ * levels are raised, since a smaller pack is then sent faster.
+ * <p>
+ * Levels may be requested from any thread, the output stream must only be
+ * used by the writer.
+ */
+final class CompressionPolicy {
+	/** Bytes written between adjustments of the levels. */
+	private static final long WINDOW_BYTES = 4 << 20;
+
+	/** Lower the levels if writes blocked for less of the time. */
+	private static final double LOWER_BELOW = 0.1;
+
+	/** Raise the levels if writes blocked for more of the time. */
+	private static final double RAISE_ABOVE = 0.5;
+
+	/** Level used by {@link Deflater#DEFAULT_COMPRESSION}. */
+	private static final int DEFAULT_LEVEL = 6;
+
+	private final PackConfig config;
+
+	/** Steps the configured levels are currently lowered by. */
+	private volatile int reduction;
+
+	private long blockedNanos;
+
+	private long windowStart;
+
+	private long windowBlocked;
+
+	private long windowBytes;
+
+	CompressionPolicy(PackConfig config) {
+		this.config = config;
+	}
+
+	/**
+	 * Get the compression level of an object.
+	 *
+	 * @param type
+	 *            type of the object.
+	 * @param size
+	 *            inflated size of the object, or of its delta.
+	 * @return level to deflate the object with.
+	 */
+	int level(int type, long size) {
+		int level = config.getCompressionLevel(type, size);
+		int r = reduction;
+		if (r == 0 || level == Deflater.NO_COMPRESSION) {
+			return level;
+		}
+		if (level == Deflater.DEFAULT_COMPRESSION) {
+			level = DEFAULT_LEVEL;
+		}
+		return Math.max(Deflater.BEST_SPEED, level - r);
+	}
+
+	/**
+	 * Wrap the output stream of the writer to measure it, if adaptive.
+	 *
+	 * @param out
+	 *            stream the pack is written to.
+	 * @return stream to write the pack to.
+	 */
+	OutputStream wrap(OutputStream out) {
+		if (!config.isAdaptiveCompression()) {
+			return out;
+		}
+		windowStart = System.nanoTime();
+		return new FilterOutputStream(out) {
+			@Override
+			public void write(int b) throws IOException {
+				long start = System.nanoTime();
+				out.write(b);
+				written(1, start);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				long start = System.nanoTime();
+				out.write(b, off, len);
+				written(len, start);
+			}
+
+			@Override
+			public void flush() throws IOException {
+				long start = System.nanoTime();
+				out.flush();
+				written(0, start);
+			}
+		};
+	}
+
+	/**
+	 * Get the time writes blocked.
+	 *
+	 * @return time in milliseconds writes to the wrapped stream blocked.
+	 */
+	long getTimeBlocked() {
+		return TimeUnit.NANOSECONDS.toMillis(blockedNanos);
+	}
+
+	private void written(int len, long start) {
+		long now = System.nanoTime();
+		blockedNanos += now - start;
+		windowBlocked += now - start;
+		windowBytes += len;
+		if (windowBytes < WINDOW_BYTES) {
+			return;
+		}
+
+		double blocked = (double) windowBlocked
+				/ Math.max(1, now - windowStart);
+		int r = reduction;
+		if (blocked < LOWER_BELOW && r < Deflater.BEST_COMPRESSION) {
+			reduction = r + 1;
+		} else if (blocked > RAISE_ABOVE && r > 0) {
+			reduction = r - 1;
+		}
+		windowStart = now;
+		windowBlocked = 0;
+		windowBytes = 0;
+	}
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.internal.storage.pack;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import org.eclipse.jgit.internal.JGitText;
+import org.eclipse.jgit.lib.ObjectLoader;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.storage.pack.PackConfig;
+import org.eclipse.jgit.util.TemporaryBuffer;
+
+/**
+ * Deflates the objects of a list ahead of the writer on worker threads.
+ * <p>
+ * Workers claim the objects which have to be deflated in the order of the
+ * list, never more than a bounded number ahead of the writer. The writer
+ * {@link #take(ObjectToPack) takes} the compressed data when it reaches an
+ * object, waiting if a worker is still busy with it, and deflates the object
+ * itself if no worker got to it. Every object is deflated the same way as by
+ * the writer, so the pack is identical to one written by a single thread.
+ * <p>
+ * Before loading an object a worker reserves the memory it needs to deflate
+ * it from {@link PackConfig#getDeflateBufferLimit()}. The reservation is
+ * reduced to the size of the deflated data once it is done, and released when
+ * the writer takes the data. An object not fitting into the limit is left to
+ * the writer.
+ * <p>
+ * Workers are only scheduled while there is room ahead of the writer and end
+ * when it is exhausted, so an executor running tasks on the calling thread
+ * degrades to deflating a few objects ahead on the writer's thread.
+ */
+final class DeflatePipeline implements AutoCloseable {
+	/** Objects each worker may deflate ahead of the writer. */
+	private static final int AHEAD_PER_THREAD = 4;
+
+	/** Deflated form of an object. */
+	static final class Deflated {
+		/** Inflated size of the object or delta. */
+		final long size;
+
+		final byte[] data;
+
+		Deflated(long size, byte[] data) {
+			this.size = size;
+			this.data = data;
+		}
+	}
+
+	private static final Deflated IN_PROGRESS = new Deflated(0, null);
+
+	private final PackConfig config;
+
+	private final CompressionPolicy compression;
+
+	private final ObjectReader templateReader;
+
+	private Executor executor;
+
+	private final int threads;
+
+	private final int maxAhead;
+
+	private final long maxBuffered;
+
+	private final ObjectToPack[] todo;
+
+	/** State of the claimed objects, guarded by this. */
+	private final Map<ObjectToPack, Deflated> state = new HashMap<>();
+
+	private int next;
+
+	private int ahead;
+
+	/** Bytes reserved by workers and deflated bytes waiting for the writer. */
+	private long buffered;
+
+	private int active;
+
+	private boolean closed;
+
+	/**
+	 * Create a pipeline for the objects of a list which need deflating.
+	 *
+	 * @param config
+	 *            configuration of the writer.
+	 * @param compression
+	 *            compression levels of the writer.
+	 * @param deltaCache
+	 *            deltas cached by the delta search, null if there was none.
+	 * @param reader
+	 *            reader of the writer, workers use readers created by
+	 *            {@link ObjectReader#newReader()}.
+	 * @param threads
+	 *            maximum number of concurrent workers.
+	 * @param list
+	 *            objects about to be written.
+	 * @return the pipeline, to be started by {@link #start(Executor)}; or null
+	 *         if less than two objects of the list need to be deflated.
+	 */
+	static DeflatePipeline create(PackConfig config,
+			CompressionPolicy compression, DeltaCache deltaCache,
+			ObjectReader reader, int threads, List<ObjectToPack> list) {
+		List<ObjectToPack> todo = new ArrayList<>();
+		for (ObjectToPack otp : list) {
+			if (!otp.isReuseAsIs() && !otp.isWritten()
+					&& (deltaCache == null || !deltaCache.contains(otp))) {
+				todo.add(otp);
+			}
+		}
+		if (todo.size() < 2) {
+			return null;
+		}
+		return new DeflatePipeline(config, compression, reader, threads,
+				todo.toArray(new ObjectToPack[0]));
+	}
+
+	private DeflatePipeline(PackConfig config, CompressionPolicy compression,
+			ObjectReader reader, int threads, ObjectToPack[] todo) {
+		this.config = config;
+		this.compression = compression;
+		this.templateReader = reader;
+		this.threads = threads;
+		this.maxAhead = threads * AHEAD_PER_THREAD;
+		this.maxBuffered = config.getDeflateBufferLimit();
+		this.todo = todo;
+	}
+
+	/**
+	 * Start deflating on the workers.
+	 *
+	 * @param exec
+	 *            executor to run the workers.
+	 */
+	void start(Executor exec) {
+		executor = exec;
+		schedule();
+	}
+
+	/**
+	 * Take the deflated form of an object the writer is about to write.
+	 *
+	 * @param otp
+	 *            the object.
+	 * @return the deflated object, or null if the writer has to deflate it.
+	 * @throws IOException
+	 *             the writer was interrupted while waiting for a worker.
+	 */
+	Deflated take(ObjectToPack otp) throws IOException {
+		Deflated d;
+		synchronized (this) {
+			while ((d = state.get(otp)) == IN_PROGRESS) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					InterruptedIOException err = new InterruptedIOException(
+							JGitText.get().packingCancelledDuringObjectsWriting);
+					err.initCause(e);
+					throw err;
+				}
+			}
+			if (d == null) {
+				// Workers skip the object as it is marked written already.
+				return null;
+			}
+			state.remove(otp);
+			ahead--;
+			buffered -= d.data.length;
+		}
+		schedule();
+		return d;
+	}
+
+	@Override
+	public void close() {
+		synchronized (this) {
+			closed = true;
+			while (active > 0) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+			state.clear();
+		}
+	}
+
+	private void schedule() {
+		int n;
+		synchronized (this) {
+			if (closed || next >= todo.length || ahead > maxAhead / 2) {
+				return;
+			}
+			n = threads - active;
+			active += n;
+		}
+		for (int i = 0; i < n; i++) {
+			try {
+				executor.execute(this::run);
+			} catch (RejectedExecutionException e) {
+				synchronized (this) {
+					active--;
+					notifyAll();
+				}
+			}
+		}
+	}
+
+	private void run() {
+		Deflater deflater = null;
+		try (ObjectReader or = templateReader.newReader()) {
+			ObjectToPack otp;
+			while ((otp = claim()) != null) {
+				long reserved;
+				try {
+					reserved = estimate(or, otp);
+				} catch (IOException | RuntimeException e) {
+					reserved = -1;
+				}
+				if (reserved < 0) {
+					complete(otp, 0, null);
+					continue;
+				}
+				if (!reserve(otp, reserved)) {
+					// Wait for the writer to release memory.
+					break;
+				}
+				if (deflater == null) {
+					deflater = new Deflater();
+				}
+				Deflated d;
+				try {
+					d = deflate(or, deflater, otp);
+				} catch (IOException | RuntimeException e) {
+					// Leave it to the writer, which reports the failure.
+					d = null;
+				}
+				complete(otp, reserved, d);
+			}
+		} finally {
+			if (deflater != null) {
+				deflater.end();
+			}
+			synchronized (this) {
+				active--;
+				notifyAll();
+			}
+		}
+	}
+
+	private synchronized ObjectToPack claim() {
+		while (!closed && next < todo.length && ahead < maxAhead
+				&& buffered < maxBuffered) {
+			ObjectToPack otp = todo[next++];
+			if (otp.isWritten()) {
+				// The writer got to it first.
+				continue;
+			}
+			state.put(otp, IN_PROGRESS);
+			ahead++;
+			return otp;
+		}
+		return null;
+	}
+
+	/**
+	 * Reserve the memory needed to deflate a claimed object.
+	 *
+	 * @return true if reserved, false if the object was handed back to the
+	 *         writer because it does not fit.
+	 */
+	private synchronized boolean reserve(ObjectToPack otp, long bytes) {
+		if (buffered == 0 || buffered + bytes <= maxBuffered) {
+			buffered += bytes;
+			return true;
+		}
+		state.remove(otp);
+		ahead--;
+		notifyAll();
+		return false;
+	}
+
+	private synchronized void complete(ObjectToPack otp, long reserved,
+			Deflated d) {
+		buffered -= reserved;
+		if (d == null) {
+			state.remove(otp);
+			ahead--;
+		} else {
+			state.put(otp, d);
+			buffered += d.data.length;
+		}
+		notifyAll();
+	}
+
+	/**
+	 * Estimate the memory needed to deflate an object, from the headers of
+	 * the objects only.
+	 *
+	 * @return bytes needed, or -1 if the object is left to the writer.
+	 */
+	private long estimate(ObjectReader or, ObjectToPack otp)
+			throws IOException {
+		long size = or.getObjectSize(otp, otp.getType());
+		if (!otp.isDeltaRepresentation()) {
+			if (size >= config.getBigFileThreshold()) {
+				// Streamed by the writer, do not hold it in memory.
+				return -1;
+			}
+			// The object and its deflated form.
+			return 2 * size;
+		}
+		long baseSize = or.getObjectSize(otp.getDeltaBaseId(), otp.getType());
+		// Both objects, the index of the base, the delta and its deflated
+		// form; the delta is never larger than the object.
+		return baseSize + DeltaIndex.estimateIndexSize((int) baseSize)
+				+ 3 * size;
+	}
+
+	private Deflated deflate(ObjectReader or, Deflater deflater,
+			ObjectToPack otp) throws IOException {
+		ByteArrayOutputStream buf;
+		long size;
+		deflater.reset();
+		if (otp.isDeltaRepresentation()) {
+			try (TemporaryBuffer.Heap delta = PackWriter.delta(config, or,
+					otp)) {
+				size = delta.length();
+				deflater.setLevel(compression.level(otp.getType(), size));
+				buf = new ByteArrayOutputStream((int) (size >>> 1) + 64);
+				DeflaterOutputStream dst = new DeflaterOutputStream(buf,
+						deflater);
+				delta.writeTo(dst, null);
+				dst.finish();
+			}
+		} else {
+			ObjectLoader ldr = or.open(otp, otp.getType());
+			if (ldr.isLarge()) {
+				// Streamed by the writer, do not hold it in memory.
+				return null;
+			}
+			size = ldr.getSize();
+			deflater.setLevel(compression.level(otp.getType(), size));
+			buf = new ByteArrayOutputStream((int) (size >>> 1) + 64);
+			DeflaterOutputStream dst = new DeflaterOutputStream(buf, deflater);
+			ldr.copyTo(dst);
+			dst.finish();
+		}
+		return new Deflated(size, buf.toByteArray());
+	}
+}
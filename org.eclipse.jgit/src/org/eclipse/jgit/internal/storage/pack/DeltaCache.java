@@ -12,6 +12,8 @@
 
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.jgit.storage.pack.PackConfig;
 
@@ -22,6 +24,12 @@ class DeltaCache {
 
 	private final ReferenceQueue<byte[]> queue;
 
+	/**
+	 * Cached deltas by the object they encode. Only few objects have one, so
+	 * they are kept here rather than in every {@link ObjectToPack}.
+	 */
+	private final Map<ObjectToPack, Ref> deltas = new ConcurrentHashMap<>();
+
 	private long used;
 
 	DeltaCache(PackConfig pc) {
@@ -77,6 +85,26 @@ Ref cache(byte[] data, int actLen, int reservedSize) {
 		return new Ref(data, queue);
 	}
 
+	void put(ObjectToPack otp, Ref ref) {
+		deltas.put(otp, ref);
+	}
+
+	boolean contains(ObjectToPack otp) {
+		return deltas.containsKey(otp);
+	}
+
+	Ref take(ObjectToPack otp) {
+		return deltas.remove(otp);
+	}
+
+	void drop(ObjectToPack otp) {
+		Ref r = deltas.remove(otp);
+		if (r != null) {
+			r.clear();
+			r.enqueue();
+		}
+	}
+
 	byte[] resize(byte[] data, int actLen) {
 		if (data.length != actLen) {
 			byte[] nbuf = new byte[actLen];
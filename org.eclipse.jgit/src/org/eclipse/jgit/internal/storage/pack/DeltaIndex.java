@@ -12,6 +12,7 @@
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Arrays;
 
 /**
  * Index of blocks in a source file.
@@ -368,12 +369,11 @@ private DeltaEncoder newEncoder(OutputStream out, long resSize, int limit)
 	}
 
 	private static int fwdmatch(byte[] res, int resPtr, byte[] src, int srcPtr) {
-		int start = resPtr;
-		for (; resPtr < res.length && srcPtr < src.length; resPtr++, srcPtr++) {
-			if (res[resPtr] != src[srcPtr])
-				break;
-		}
-		return resPtr - start;
+		// Arrays.mismatch is an intrinsic comparing many bytes per
+		// instruction, much faster than a byte-by-byte loop on long copies.
+		int n = Arrays.mismatch(res, resPtr, res.length, src, srcPtr,
+				src.length);
+		return n < 0 ? res.length - resPtr : n;
 	}
 
 	private static int negmatch(byte[] res, int resPtr, byte[] src, int srcPtr,
@@ -0,0 +1,299 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.internal.storage.pack;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.MutableObjectId;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectIdOwnerMap;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevObject;
+import org.eclipse.jgit.revwalk.RevSort;
+import org.eclipse.jgit.revwalk.RevTag;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+
+/**
+ * Groups refs into delta islands and marks the objects reachable from each.
+ * <p>
+ * An object may only be delta compressed against a base that belongs to all
+ * of the islands of the object, so a pack serving any one island never
+ * references a delta base the island cannot reach.
+ */
+final class DeltaIslands {
+	private final List<List<ObjectId>> islands;
+
+	/**
+	 * Assign refs to islands.
+	 *
+	 * @param patterns
+	 *            regular expressions searched for in the ref names; the
+	 *            values of the capturing groups name the island.
+	 * @param refs
+	 *            refs to assign.
+	 * @return the islands, or null if no ref matched any pattern.
+	 */
+	static DeltaIslands fromRefs(String[] patterns, Collection<Ref> refs) {
+		Pattern[] compiled = new Pattern[patterns.length];
+		for (int i = 0; i < patterns.length; i++) {
+			compiled[i] = Pattern.compile(patterns[i]);
+		}
+
+		Map<String, List<ObjectId>> byName = new TreeMap<>();
+		for (Ref ref : refs) {
+			ObjectId id = ref.getObjectId();
+			if (id == null) {
+				continue;
+			}
+			String name = islandName(compiled, ref.getName());
+			if (name != null) {
+				byName.computeIfAbsent(name, n -> new ArrayList<>()).add(id);
+			}
+		}
+		if (byName.isEmpty()) {
+			return null;
+		}
+		return new DeltaIslands(new ArrayList<>(byName.values()));
+	}
+
+	private static String islandName(Pattern[] patterns, String refName) {
+		// The last matching pattern wins.
+		for (int i = patterns.length - 1; i >= 0; i--) {
+			Matcher m = patterns[i].matcher(refName);
+			if (!m.find()) {
+				continue;
+			}
+			StringBuilder name = new StringBuilder();
+			for (int g = 1; g <= m.groupCount(); g++) {
+				if (g > 1) {
+					name.append('-');
+				}
+				String v = m.group(g);
+				if (v != null) {
+					name.append(v);
+				}
+			}
+			return name.toString();
+		}
+		return null;
+	}
+
+	/**
+	 * Whether {@code base} may be used as delta base for {@code obj}.
+	 *
+	 * @param obj
+	 *            the object to delta compress.
+	 * @param base
+	 *            the candidate delta base.
+	 * @return true if every island containing {@code obj} also contains
+	 *         {@code base}.
+	 */
+	static boolean canUseAsBase(ObjectToPack obj, ObjectToPack base) {
+		BitSet o = obj.getIslands();
+		if (o == null || base.isEdge()) {
+			return true;
+		}
+		BitSet b = base.getIslands();
+		if (b == null) {
+			return false;
+		}
+		if (o == b) {
+			return true;
+		}
+		for (int i = o.nextSetBit(0); i >= 0; i = o.nextSetBit(i + 1)) {
+			if (!b.get(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private DeltaIslands(List<List<ObjectId>> islands) {
+		this.islands = islands;
+	}
+
+	/**
+	 * Mark the objects of the pack with the islands they are reachable from.
+	 * <p>
+	 * Like C git, the islands are marked in a single walk: commits are walked
+	 * in topological order, so the islands of a commit are complete before
+	 * they are passed on to its parents, and each commit passes its islands
+	 * down into its tree. A tree is only entered again when it gains an
+	 * island.
+	 *
+	 * @param reader
+	 *            reader to walk the islands with.
+	 * @param objects
+	 *            the objects of the pack.
+	 * @throws IOException
+	 *             an island could not be walked.
+	 */
+	void mark(ObjectReader reader, ObjectIdOwnerMap<ObjectToPack> objects)
+			throws IOException {
+		new Marker(reader, objects).mark();
+	}
+
+	private final class Marker {
+		private final ObjectReader reader;
+
+		private final ObjectIdOwnerMap<ObjectToPack> objects;
+
+		/** Objects sharing a set of islands share one BitSet instance. */
+		private final Map<BitSet, BitSet> sets = new HashMap<>();
+
+		/** Islands of the commits and tips not handled yet. */
+		private final Map<RevObject, BitSet> pending = new IdentityHashMap<>();
+
+		private final CanonicalTreeParser parser = new CanonicalTreeParser();
+
+		private final MutableObjectId idBuf = new MutableObjectId();
+
+		private final Deque<ObjectToPack> trees = new ArrayDeque<>();
+
+		Marker(ObjectReader reader, ObjectIdOwnerMap<ObjectToPack> objects) {
+			this.reader = reader;
+			this.objects = objects;
+		}
+
+		void mark() throws IOException {
+			try (RevWalk rw = new RevWalk(reader)) {
+				rw.setRetainBody(false);
+				rw.sort(RevSort.TOPO);
+				for (int island = 0; island < islands.size(); island++) {
+					BitSet only = new BitSet();
+					only.set(island);
+					only = intern(only);
+					for (ObjectId tip : islands.get(island)) {
+						RevObject o;
+						try {
+							o = rw.parseAny(tip);
+							while (o instanceof RevTag) {
+								add(objects.get(o), only);
+								o = rw.parseAny(((RevTag) o).getObject());
+							}
+						} catch (MissingObjectException notFound) {
+							// Dangling ref, it does not contribute to the
+							// island.
+							continue;
+						}
+						if (!pending.containsKey(o) && o instanceof RevCommit) {
+							rw.markStart((RevCommit) o);
+						}
+						pending.merge(o, only, this::union);
+					}
+				}
+
+				RevCommit c;
+				while ((c = rw.next()) != null) {
+					BitSet bits = pending.remove(c);
+					for (RevCommit p : c.getParents()) {
+						pending.merge(p, bits, this::union);
+					}
+					add(objects.get(c), bits);
+					markTree(c.getTree(), bits);
+				}
+				// Trees and blobs refs point to directly.
+				for (Map.Entry<RevObject, BitSet> e : pending.entrySet()) {
+					markTree(e.getKey(), e.getValue());
+				}
+			}
+		}
+
+		private void markTree(AnyObjectId root, BitSet bits)
+				throws IOException {
+			ObjectToPack otp = objects.get(root);
+			if (!add(otp, bits) || otp.getType() != Constants.OBJ_TREE) {
+				// Trees not packed are known to the receiver, and so are
+				// the objects they contain.
+				return;
+			}
+			trees.push(otp);
+			while (!trees.isEmpty()) {
+				ObjectToPack tree = trees.pop();
+				BitSet treeBits = tree.getIslands();
+				parser.reset(reader, tree);
+				for (; !parser.eof(); parser.next()) {
+					int mode = parser.getEntryRawMode();
+					if (FileMode.GITLINK.equals(mode)) {
+						continue;
+					}
+					parser.getEntryObjectId(idBuf);
+					ObjectToPack entry = objects.get(idBuf);
+					if (add(entry, treeBits)
+							&& FileMode.TREE.equals(mode)) {
+						trees.push(entry);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Add islands to an object.
+		 *
+		 * @return whether the object gained an island.
+		 */
+		private boolean add(ObjectToPack otp, BitSet bits) {
+			if (otp == null) {
+				return false;
+			}
+			BitSet cur = otp.getIslands();
+			if (cur == null) {
+				otp.setIslands(bits);
+				return true;
+			}
+			BitSet u = union(cur, bits);
+			if (u == cur) {
+				return false;
+			}
+			otp.setIslands(u);
+			return true;
+		}
+
+		private BitSet union(BitSet a, BitSet b) {
+			if (a == b) {
+				return a;
+			}
+			BitSet u = (BitSet) a.clone();
+			u.or(b);
+			if (u.equals(a)) {
+				return a;
+			}
+			if (u.equals(b)) {
+				return b;
+			}
+			return intern(u);
+		}
+
+		private BitSet intern(BitSet s) {
+			BitSet r = sets.putIfAbsent(s, s);
+			return r != null ? r : s;
+		}
+	}
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.internal.storage.pack;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jgit.internal.JGitText;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+
+/**
+ * Results of earlier delta searches, to skip pairs known not to delta well.
+ * <p>
+ * For a pair of target and base object the cache remembers that their delta
+ * is larger than some limit. This only depends on the content of the objects,
+ * so it stays valid as long as the objects exist. {@link DeltaWindow} consults
+ * the cache before loading the base and building its {@link DeltaIndex}, and
+ * skips the pair if the delta is known to exceed the current size limit.
+ * <p>
+ * Only pairs of objects large enough to be expensive to compare are recorded,
+ * and at most a fixed number of pairs is kept. Only pairs looked up or
+ * recorded since the cache was read are written back, which drops pairs of
+ * objects that are no longer packed.
+ * <p>
+ * The cache is safe for use by concurrent delta search threads.
+ */
+public class DeltaSearchCache {
+	private static final byte[] MAGIC = { 'D', 'S', 'C', 'H' };
+
+	private static final int VERSION = 1;
+
+	/** Minimum combined size of a pair worth remembering. */
+	private static final long MIN_PAIR_SIZE = 16 << 10;
+
+	/**
+	 * Read a cache written by {@link #write(OutputStream)}.
+	 *
+	 * @param in
+	 *            stream to read from, positioned at the start of the cache.
+	 * @param maxEntries
+	 *            maximum number of pairs to keep.
+	 * @return the cache.
+	 * @throws IOException
+	 *             the stream could not be read or the cache is corrupt.
+	 */
+	public static DeltaSearchCache read(InputStream in, int maxEntries)
+			throws IOException {
+		MessageDigest md = Constants.newMessageDigest();
+		DataInputStream data = new DataInputStream(
+				new DigestInputStream(in, md));
+		DeltaSearchCache cache = new DeltaSearchCache(maxEntries);
+		try {
+			byte[] magic = new byte[MAGIC.length];
+			data.readFully(magic);
+			if (!Arrays.equals(MAGIC, magic) || data.readInt() != VERSION) {
+				throw new IOException(JGitText.get().deltaSearchCacheCorrupt);
+			}
+			int cnt = data.readInt();
+			byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+			for (int i = 0; i < cnt; i++) {
+				data.readFully(raw);
+				ObjectId target = ObjectId.fromRaw(raw);
+				data.readFully(raw);
+				ObjectId base = ObjectId.fromRaw(raw);
+				int limit = data.readInt();
+				if (i < maxEntries) {
+					cache.previous.put(new Key().set(target, base),
+							Integer.valueOf(limit));
+				}
+			}
+			byte[] actual = md.digest();
+			byte[] expected = new byte[actual.length];
+			data.readFully(expected);
+			if (!Arrays.equals(actual, expected)) {
+				throw new IOException(JGitText.get().deltaSearchCacheCorrupt);
+			}
+		} catch (EOFException e) {
+			throw new IOException(JGitText.get().deltaSearchCacheCorrupt, e);
+		}
+		return cache;
+	}
+
+	/**
+	 * Whether the outcome of comparing two objects is worth remembering.
+	 *
+	 * @param targetSize
+	 *            size of the object to delta compress.
+	 * @param baseSize
+	 *            size of the candidate delta base.
+	 * @return true if the pair may be looked up or recorded.
+	 */
+	static boolean isCacheable(long targetSize, long baseSize) {
+		return targetSize + baseSize >= MIN_PAIR_SIZE;
+	}
+
+	private final int maxEntries;
+
+	/** Limits the deltas of pairs read from disk are known to exceed. */
+	private final Map<Key, Integer> previous = new ConcurrentHashMap<>();
+
+	/** Limits of the pairs used since the cache was read. */
+	private final Map<Key, Integer> current = new ConcurrentHashMap<>();
+
+	/**
+	 * Create an empty cache.
+	 *
+	 * @param maxEntries
+	 *            maximum number of pairs to keep.
+	 */
+	public DeltaSearchCache(int maxEntries) {
+		this.maxEntries = maxEntries;
+	}
+
+	/**
+	 * Write the pairs used since the cache was read.
+	 *
+	 * @param out
+	 *            stream to write to.
+	 * @throws IOException
+	 *             the stream could not be written.
+	 */
+	public void write(OutputStream out) throws IOException {
+		MessageDigest md = Constants.newMessageDigest();
+		DataOutputStream data = new DataOutputStream(
+				new DigestOutputStream(out, md));
+		data.write(MAGIC);
+		data.writeInt(VERSION);
+		Map<Key, Integer> snapshot = Map.copyOf(current);
+		data.writeInt(snapshot.size());
+		byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+		for (Map.Entry<Key, Integer> e : snapshot.entrySet()) {
+			e.getKey().target.copyRawTo(raw, 0);
+			data.write(raw);
+			e.getKey().base.copyRawTo(raw, 0);
+			data.write(raw);
+			data.writeInt(e.getValue().intValue());
+		}
+		data.flush();
+		out.write(md.digest());
+		out.flush();
+	}
+
+	/**
+	 * Get number of pairs which will be written.
+	 *
+	 * @return number of pairs used since the cache was read.
+	 */
+	public int size() {
+		return current.size();
+	}
+
+	/**
+	 * Whether the delta of a pair is known to be larger than {@code limit}.
+	 *
+	 * @param key
+	 *            the pair; it is not retained and can be reused.
+	 * @param limit
+	 *            maximum acceptable size of the delta.
+	 * @return true if the pair can be skipped.
+	 */
+	boolean exceeds(Key key, int limit) {
+		Integer v = current.get(key);
+		if (v == null) {
+			v = previous.remove(key);
+			if (v == null) {
+				return false;
+			}
+			// Keep it for the next search.
+			put(key, v);
+		}
+		return v.intValue() >= limit;
+	}
+
+	/**
+	 * Record that the delta of a pair exceeded {@code limit}.
+	 *
+	 * @param key
+	 *            the pair; it is not retained and can be reused.
+	 * @param limit
+	 *            the size limit the delta was encoded with.
+	 */
+	void recordTooLarge(Key key, int limit) {
+		put(key, Integer.valueOf(limit));
+	}
+
+	private void put(Key key, Integer limit) {
+		if (current.size() >= maxEntries) {
+			current.computeIfPresent(key, (k, v) -> max(v, limit));
+			return;
+		}
+		current.merge(key.copy(), limit, DeltaSearchCache::max);
+	}
+
+	private static Integer max(Integer a, Integer b) {
+		return a.intValue() >= b.intValue() ? a : b;
+	}
+
+	/**
+	 * A pair of target and base object.
+	 * <p>
+	 * Lookups set the objects of a reused instance, the cache only stores
+	 * copies.
+	 */
+	static final class Key {
+		AnyObjectId target;
+
+		AnyObjectId base;
+
+		Key set(AnyObjectId t, AnyObjectId b) {
+			target = t;
+			base = b;
+			return this;
+		}
+
+		Key copy() {
+			return new Key().set(target.copy(), base.copy());
+		}
+
+		@Override
+		public int hashCode() {
+			return target.hashCode() * 31 + base.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key k = (Key) o;
+			return AnyObjectId.isEqual(target, k.target)
+					&& AnyObjectId.isEqual(base, k.base);
+		}
+	}
+}
@@ -31,8 +31,10 @@ static final class Block {
 		final List<DeltaTask> tasks;
 		final int threads;
 		final PackConfig config;
+		final CompressionPolicy compression;
 		final ObjectReader templateReader;
 		final DeltaCache dc;
+		final DeltaSearchCache searchCache;
 		final ThreadSafeProgressMonitor pm;
 		final ObjectToPack[] list;
 		final int beginIndex;
@@ -41,14 +43,17 @@ static final class Block {
 		private long totalWeight;
 		long bytesPerUnit;
 
-		Block(int threads, PackConfig config, ObjectReader reader,
-				DeltaCache dc, ThreadSafeProgressMonitor pm,
+		Block(int threads, PackConfig config, CompressionPolicy compression,
+				ObjectReader reader, DeltaCache dc,
+				DeltaSearchCache searchCache, ThreadSafeProgressMonitor pm,
 				ObjectToPack[] list, int begin, int end) {
 			this.tasks = new ArrayList<>(threads);
 			this.threads = threads;
 			this.config = config;
+			this.compression = compression;
 			this.templateReader = reader;
 			this.dc = dc;
+			this.searchCache = searchCache;
 			this.pm = pm;
 			this.list = list;
 			this.beginIndex = begin;
@@ -281,8 +286,8 @@ public Object call() throws Exception {
 	}
 
 	DeltaWindow initWindow(Slice s) {
-		DeltaWindow w = new DeltaWindow(block.config, block.dc,
-				or, block.pm, block.bytesPerUnit,
+		DeltaWindow w = new DeltaWindow(block.config, block.compression,
+				block.dc, block.searchCache, or, block.pm, block.bytesPerUnit,
 				block.list, s.beginIndex, s.endIndex);
 		synchronized (this) {
 			dw = w;
@@ -28,7 +28,10 @@ final class DeltaWindow {
 	private static final boolean NEXT_SRC = true;
 
 	private final PackConfig config;
+	private final CompressionPolicy compression;
 	private final DeltaCache deltaCache;
+	private final DeltaSearchCache searchCache;
+	private final DeltaSearchCache.Key searchKey = new DeltaSearchCache.Key();
 	private final ObjectReader reader;
 	private final ProgressMonitor monitor;
 	private final long bytesPerUnit;
@@ -60,11 +63,13 @@ final class DeltaWindow {
 	/** Used to compress cached deltas. */
 	private Deflater deflater;
 
-	DeltaWindow(PackConfig pc, DeltaCache dc, ObjectReader or,
-			ProgressMonitor pm, long bpu,
+	DeltaWindow(PackConfig pc, CompressionPolicy cp, DeltaCache dc,
+			DeltaSearchCache sc, ObjectReader or, ProgressMonitor pm, long bpu,
 			ObjectToPack[] in, int beginIndex, int endIndex) {
 		config = pc;
+		compression = cp;
 		deltaCache = dc;
+		searchCache = sc;
 		reader = or;
 		monitor = pm;
 		bytesPerUnit = bpu;
@@ -239,6 +244,10 @@ private boolean delta(DeltaWindowEntry src)
 		if (res.size() < src.size() >>> 4)
 			return NEXT_SRC;
 
+		// The base must be reachable from every island the object is in.
+		if (!DeltaIslands.canUseAsBase(res.object, src.object))
+			return NEXT_SRC;
+
 		int msz = deltaSizeLimit(src);
 		if (msz <= 8) // Nearly impossible to fit useful delta.
 			return NEXT_SRC;
@@ -247,6 +256,13 @@ private boolean delta(DeltaWindowEntry src)
 		if (res.size() - src.size() > msz)
 			return NEXT_SRC;
 
+		// An earlier search may already know the delta is too large.
+		boolean cacheable = searchCache != null
+				&& DeltaSearchCache.isCacheable(res.size(), src.size());
+		if (cacheable && searchCache
+				.exceeds(searchKey.set(res.object, src.object), msz))
+			return NEXT_SRC;
+
 		DeltaIndex srcIndex;
 		try {
 			srcIndex = index(src);
@@ -271,8 +287,12 @@ private boolean delta(DeltaWindowEntry src)
 			OutputStream delta = msz <= (8 << 10)
 				? new ArrayStream(msz)
 				: new TemporaryBuffer.Heap(msz);
-			if (srcIndex.encode(delta, resBuf, msz))
+			if (srcIndex.encode(delta, resBuf, msz)) {
 				selectDeltaBase(src, delta);
+			} else if (cacheable) {
+				searchCache.recordTooLarge(
+						searchKey.set(res.object, src.object), msz);
+			}
 		} catch (IOException deltaTooBig) {
 			// Unlikely, encoder should see limit and return false.
 		}
@@ -322,7 +342,8 @@ private void cacheDelta(ObjectToPack srcObj, ObjectToPack resObj) {
 		if (deltaCache.canCache(deltaLen, srcObj, resObj)) {
 			try {
 				byte[] zbuf = new byte[deflateBound(deltaLen)];
-				ZipStream zs = new ZipStream(deflater(), zbuf);
+				ZipStream zs = new ZipStream(
+						deflater(resObj.getType(), deltaLen), zbuf);
 				if (deltaBuf instanceof byte[])
 					zs.write((byte[]) deltaBuf, 0, deltaLen);
 				else
@@ -330,7 +351,7 @@ private void cacheDelta(ObjectToPack srcObj, ObjectToPack resObj) {
 				deltaBuf = null;
 				int len = zs.finish();
 
-				resObj.setCachedDelta(deltaCache.cache(zbuf, len, deltaLen));
+				deltaCache.put(resObj, deltaCache.cache(zbuf, len, deltaLen));
 				resObj.setCachedSize(deltaLen);
 			} catch (IOException | OutOfMemoryError err) {
 				deltaCache.credit(deltaLen);
@@ -395,11 +416,12 @@ private void checkLoadable(DeltaWindowEntry ent, long need) {
 		}
 	}
 
-	private Deflater deflater() {
+	private Deflater deflater(int type, long size) {
 		if (deflater == null)
-			deflater = new Deflater(config.getCompressionLevel());
+			deflater = new Deflater();
 		else
 			deflater.reset();
+		deflater.setLevel(compression.level(type, size));
 		return deflater;
 	}
 
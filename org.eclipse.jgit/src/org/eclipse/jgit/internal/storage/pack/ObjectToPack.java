@@ -11,6 +11,8 @@
 
 package org.eclipse.jgit.internal.storage.pack;
 
+import java.util.BitSet;
+
 import org.eclipse.jgit.lib.AnyObjectId;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
@@ -59,8 +61,11 @@ public class ObjectToPack extends PackedObjectInfo {
 	/** Hash of the object's tree path. */
 	private int pathHash;
 
-	/** If present, deflated delta instruction stream for this object. */
-	private DeltaCache.Ref cachedDelta;
+	/**
+	 * Delta islands this object is reachable from, null if none. Instances are
+	 * shared among objects and must not be modified.
+	 */
+	private BitSet islands;
 
 	/**
 	 * Construct for the specified object id.
@@ -116,25 +121,16 @@ final void setDeltaBase(ObjectId deltaBase) {
 		this.deltaBase = deltaBase;
 	}
 
-	final void setCachedDelta(DeltaCache.Ref data) {
-		cachedDelta = data;
+	final BitSet getIslands() {
+		return islands;
 	}
 
-	final DeltaCache.Ref popCachedDelta() {
-		DeltaCache.Ref r = cachedDelta;
-		if (r != null)
-			cachedDelta = null;
-		return r;
+	final void setIslands(BitSet islands) {
+		this.islands = islands;
 	}
 
 	final void clearDeltaBase() {
 		this.deltaBase = null;
-
-		if (cachedDelta != null) {
-			cachedDelta.clear();
-			cachedDelta.enqueue();
-			cachedDelta = null;
-		}
 	}
 
 	/**
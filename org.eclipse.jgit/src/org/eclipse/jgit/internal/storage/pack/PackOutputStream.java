@@ -146,6 +146,47 @@ private static final int ofsDeltaVarIntLength(long v) {
 		return n;
 	}
 
+	/**
+	 * Whether objects may be copied with their stored header.
+	 * <p>
+	 * Readers can copy a run of objects stored back to back as-is, if every
+	 * delta of the run has its base earlier in the same run. The delta base
+	 * offsets of such objects stay the same in the output. Each object of the
+	 * run must be written between {@link #beginRegionObject(ObjectToPack)}
+	 * and {@link #endRegionObject(ObjectToPack)}.
+	 *
+	 * @return true if the writer does not validate reused objects and
+	 *         accepts delta base offsets.
+	 * @since 7.3
+	 */
+	public final boolean isRegionCopyAllowed() {
+		return ofsDelta && packWriter.isRegionCopyAllowed();
+	}
+
+	/**
+	 * Start an object copied with its stored header.
+	 *
+	 * @param otp
+	 *            the object about to be copied.
+	 * @see #isRegionCopyAllowed()
+	 * @since 7.3
+	 */
+	public final void beginRegionObject(ObjectToPack otp) {
+		packWriter.beginRegionObject(this, otp);
+	}
+
+	/**
+	 * Finish an object copied with its stored header.
+	 *
+	 * @param otp
+	 *            the object that was copied.
+	 * @see #isRegionCopyAllowed()
+	 * @since 7.3
+	 */
+	public final void endRegionObject(ObjectToPack otp) {
+		packWriter.endRegionObject(this, otp);
+	}
+
 	/**
 	 * Get a temporary buffer writers can use to copy data with.
 	 *
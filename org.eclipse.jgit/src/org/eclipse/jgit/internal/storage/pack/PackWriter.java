@@ -76,6 +76,7 @@
 import org.eclipse.jgit.lib.ObjectLoader;
 import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.ProgressMonitor;
+import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.lib.ThreadSafeProgressMonitor;
 import org.eclipse.jgit.revwalk.AsyncRevObjectQueue;
@@ -231,6 +232,8 @@ public static Iterable<PackWriter> getInstances() {
 
 	final PackConfig config;
 
+	private final CompressionPolicy compression;
+
 	private final PackStatistics.Accumulator stats;
 
 	private final MutableState state;
@@ -289,6 +292,17 @@ public static Iterable<PackWriter> getInstances() {
 
 	private PackfileUriConfig packfileUriConfig;
 
+	private Collection<Ref> deltaIslandRefs;
+
+	private ExecutorService deflatePool;
+
+	private DeflatePipeline deflatePipeline;
+
+	/** Deltas computed by the delta search, null before the search. */
+	private DeltaCache deltaCache;
+
+	private DeltaSearchCache deltaSearchCache;
+
 	/**
 	 * Create writer for specified repository.
 	 * <p>
@@ -348,6 +362,7 @@ public PackWriter(PackConfig config, ObjectReader reader) {
 	public PackWriter(PackConfig config, final ObjectReader reader,
 			@Nullable PackStatistics.Accumulator statsAccumulator) {
 		this.config = config;
+		this.compression = new CompressionPolicy(config);
 		this.reader = reader;
 		if (reader instanceof ObjectReuseAsIs)
 			reuseSupport = ((ObjectReuseAsIs) reader);
@@ -688,6 +703,35 @@ public void setPackfileUriConfig(PackfileUriConfig config) {
 		packfileUriConfig = config;
 	}
 
+	/**
+	 * Set the refs to group into delta islands.
+	 * <p>
+	 * Has no effect unless {@link PackConfig#getDeltaIslands()} defines at
+	 * least one island pattern. Objects reachable from the refs of an island
+	 * are only delta compressed against bases also reachable from that island,
+	 * both when reusing stored deltas and when searching for new ones.
+	 *
+	 * @param refs
+	 *            the refs of the repository, typically all of them.
+	 */
+	public void setDeltaIslandRefs(Collection<Ref> refs) {
+		deltaIslandRefs = refs;
+	}
+
+	/**
+	 * Set the cache of earlier delta search results.
+	 * <p>
+	 * The delta search skips pairs of objects the cache knows to produce a
+	 * delta too large to be chosen, and records the outcome of every pair it
+	 * compares. The caller is responsible for persisting the cache.
+	 *
+	 * @param cache
+	 *            the cache, or null to search without one.
+	 */
+	public void setDeltaSearchCache(DeltaSearchCache cache) {
+		deltaSearchCache = cache;
+	}
+
 	/**
 	 * Returns objects number in a pack file that was created by this writer.
 	 *
@@ -1325,6 +1369,12 @@ public void writePack(ProgressMonitor compressMonitor,
 					TimeUnit.MILLISECONDS);
 		}
 
+		if (deltaIslandRefs != null && config.getDeltaIslands().length > 0) {
+			DeltaIslands islands = DeltaIslands
+					.fromRefs(config.getDeltaIslands(), deltaIslandRefs);
+			if (islands != null)
+				islands.mark(reader, objectsMap);
+		}
 		if (needSearchForReuse)
 			searchForReuse(compressMonitor);
 		if (config.isDeltaCompress())
@@ -1334,8 +1384,9 @@ public void writePack(ProgressMonitor compressMonitor,
 		final PackOutputStream out = new PackOutputStream(
 			writeMonitor,
 			isIndexDisabled()
-				? packStream
-				: new CheckedOutputStream(packStream, crc32),
+				? compression.wrap(packStream)
+				: new CheckedOutputStream(compression.wrap(packStream),
+						crc32),
 			this);
 
 		long objCnt = packfileUriConfig == null ? getObjectCount() :
@@ -1396,6 +1447,7 @@ public void writePack(ProgressMonitor compressMonitor,
 			out.flush();
 		} finally {
 			stats.timeWriting = System.currentTimeMillis() - writeStart;
+			stats.timeOutputBlocked = compression.getTimeBlocked();
 			stats.depth = depth;
 
 			for (PackStatistics.ObjectType.Accumulator typeStat : stats.objectTypes) {
@@ -1669,6 +1721,8 @@ private int findObjectsNeedingDelta(ObjectToPack[] list, int cnt, int type) {
 
 	private void reselectNonDelta(ObjectToPack otp) throws IOException {
 		otp.clearDeltaBase();
+		if (deltaCache != null)
+			deltaCache.drop(otp);
 		otp.clearReuseAsIs();
 		boolean old = reuseDeltas;
 		reuseDeltas = false;
@@ -1707,8 +1761,9 @@ private void singleThreadDeltaSearch(ProgressMonitor monitor,
 			cost++;
 
 		beginPhase(PackingPhase.COMPRESSING, monitor, cost);
-		new DeltaWindow(config, new DeltaCache(config), reader,
-				monitor, bytesPerUnit,
+		deltaCache = new DeltaCache(config);
+		new DeltaWindow(config, compression, deltaCache, deltaSearchCache,
+				reader, monitor, bytesPerUnit,
 				list, 0, cnt).search();
 		endPhase(monitor);
 	}
@@ -1717,9 +1772,10 @@ private void singleThreadDeltaSearch(ProgressMonitor monitor,
 	private void parallelDeltaSearch(ProgressMonitor monitor,
 			ObjectToPack[] list, int cnt, int threads) throws IOException {
 		DeltaCache dc = new ThreadSafeDeltaCache(config);
+		deltaCache = dc;
 		ThreadSafeProgressMonitor pm = new ThreadSafeProgressMonitor(monitor);
 		DeltaTask.Block taskBlock = new DeltaTask.Block(threads, config,
-				reader, dc, pm,
+				compression, reader, dc, deltaSearchCache, pm,
 				list, 0, cnt);
 		taskBlock.partitionTasks();
 		beginPhase(PackingPhase.COMPRESSING, monitor, taskBlock.cost());
@@ -1828,10 +1884,17 @@ private static void runTasks(ExecutorService pool,
 	}
 
 	private void writeObjects(PackOutputStream out) throws IOException {
-		writeObjects(out, objectsLists[OBJ_COMMIT]);
-		writeObjects(out, objectsLists[OBJ_TAG]);
-		writeObjects(out, objectsLists[OBJ_TREE]);
-		writeObjects(out, objectsLists[OBJ_BLOB]);
+		try {
+			writeObjects(out, objectsLists[OBJ_COMMIT]);
+			writeObjects(out, objectsLists[OBJ_TAG]);
+			writeObjects(out, objectsLists[OBJ_TREE]);
+			writeObjects(out, objectsLists[OBJ_BLOB]);
+		} finally {
+			if (deflatePool != null) {
+				deflatePool.shutdown();
+				deflatePool = null;
+			}
+		}
 	}
 
 	private void writeObjects(PackOutputStream out, List<ObjectToPack> list)
@@ -1842,22 +1905,79 @@ private void writeObjects(PackOutputStream out, List<ObjectToPack> list)
 		typeStats = stats.objectTypes[list.get(0).getType()];
 		long beginOffset = out.length();
 
-		if (reuseSupport != null) {
-			reuseSupport.writeObjects(out, list);
-		} else {
-			for (ObjectToPack otp : list)
-				out.writeObject(otp);
+		deflatePipeline = newDeflatePipeline(list);
+		try {
+			if (reuseSupport != null) {
+				reuseSupport.writeObjects(out, list);
+			} else {
+				for (ObjectToPack otp : list)
+					out.writeObject(otp);
+			}
+		} finally {
+			if (deflatePipeline != null) {
+				deflatePipeline.close();
+				deflatePipeline = null;
+			}
 		}
 
 		typeStats.bytes += out.length() - beginOffset;
 		typeStats.cntObjects = list.size();
 	}
 
+	/**
+	 * Deflate the objects of the list which cannot be copied as-is on worker
+	 * threads ahead of the writer, if an executor or more than one thread is
+	 * configured.
+	 */
+	private DeflatePipeline newDeflatePipeline(List<ObjectToPack> list) {
+		int threads = config.getThreads();
+		Executor executor = config.getExecutor();
+		if (threads <= 0) {
+			if (executor == null)
+				return null;
+			threads = Runtime.getRuntime().availableProcessors();
+		}
+		if (threads <= 1)
+			return null;
+
+		DeflatePipeline p = DeflatePipeline.create(config, compression,
+				deltaCache, reader, threads, list);
+		if (p == null)
+			return null;
+		if (executor == null) {
+			if (deflatePool == null)
+				deflatePool = Executors.newFixedThreadPool(threads);
+			executor = deflatePool;
+		}
+		p.start(executor);
+		return p;
+	}
+
 	void writeObject(PackOutputStream out, ObjectToPack otp) throws IOException {
 		if (!otp.isWritten())
 			writeObjectImpl(out, otp);
 	}
 
+	boolean isRegionCopyAllowed() {
+		return !reuseValidate;
+	}
+
+	void beginRegionObject(PackOutputStream out, ObjectToPack otp) {
+		otp.markWantWrite();
+		crc32.reset();
+		otp.setOffset(out.length());
+	}
+
+	void endRegionObject(PackOutputStream out, ObjectToPack otp) {
+		out.endObject();
+		otp.setCRC((int) crc32.getValue());
+		typeStats.reusedObjects++;
+		if (otp.isDeltaRepresentation()) {
+			typeStats.reusedDeltas++;
+			typeStats.deltaBytes += out.length() - otp.getOffset();
+		}
+	}
+
 	private void writeObjectImpl(PackOutputStream out, ObjectToPack otp)
 			throws IOException {
 		if (otp.wantWrite()) {
@@ -1925,14 +2045,17 @@ private void writeBase(PackOutputStream out, ObjectToPack base)
 
 	private void writeWholeObjectDeflate(PackOutputStream out,
 			final ObjectToPack otp) throws IOException {
-		final Deflater deflater = deflater();
-		final ObjectLoader ldr = reader.open(otp, otp.getType());
-
 		crc32.reset();
 		otp.setOffset(out.length());
+		if (writeDeflated(out, otp))
+			return;
+
+		final Deflater deflater = deflater();
+		final ObjectLoader ldr = reader.open(otp, otp.getType());
 		out.writeHeader(otp, ldr.getSize());
 
 		deflater.reset();
+		deflater.setLevel(compression.level(otp.getType(), ldr.getSize()));
 		DeflaterOutputStream dst = new DeflaterOutputStream(out, deflater);
 		ldr.copyTo(dst);
 		dst.finish();
@@ -1945,7 +2068,7 @@ private void writeDeltaObjectDeflate(PackOutputStream out,
 		crc32.reset();
 		otp.setOffset(out.length());
 
-		DeltaCache.Ref ref = otp.popCachedDelta();
+		DeltaCache.Ref ref = deltaCache != null ? deltaCache.take(otp) : null;
 		if (ref != null) {
 			byte[] zbuf = ref.get();
 			if (zbuf != null) {
@@ -1957,11 +2080,18 @@ private void writeDeltaObjectDeflate(PackOutputStream out,
 			}
 		}
 
+		if (writeDeflated(out, otp)) {
+			typeStats.cntDeltas++;
+			typeStats.deltaBytes += out.length() - otp.getOffset();
+			return;
+		}
+
 		try (TemporaryBuffer.Heap delta = delta(otp)) {
 			out.writeHeader(otp, delta.length());
 
 			Deflater deflater = deflater();
 			deflater.reset();
+			deflater.setLevel(compression.level(otp.getType(), delta.length()));
 			DeflaterOutputStream dst = new DeflaterOutputStream(out, deflater);
 			delta.writeTo(dst, null);
 			dst.finish();
@@ -1970,10 +2100,33 @@ private void writeDeltaObjectDeflate(PackOutputStream out,
 		typeStats.deltaBytes += out.length() - otp.getOffset();
 	}
 
+	/*
+	 * The offset of the object must be set already, it tells the workers of
+	 * the pipeline that the writer got to the object.
+	 */
+	private boolean writeDeflated(PackOutputStream out, ObjectToPack otp)
+			throws IOException {
+		if (deflatePipeline == null)
+			return false;
+		DeflatePipeline.Deflated d = deflatePipeline.take(otp);
+		if (d == null)
+			return false;
+
+		out.writeHeader(otp, d.size);
+		out.write(d.data);
+		return true;
+	}
+
 	private TemporaryBuffer.Heap delta(ObjectToPack otp)
 			throws IOException {
-		DeltaIndex index = new DeltaIndex(buffer(otp.getDeltaBaseId()));
-		byte[] res = buffer(otp);
+		return delta(config, reader, otp);
+	}
+
+	static TemporaryBuffer.Heap delta(PackConfig config, ObjectReader or,
+			ObjectToPack otp) throws IOException {
+		DeltaIndex index = new DeltaIndex(
+				buffer(config, or, otp.getDeltaBaseId()));
+		byte[] res = buffer(config, or, otp);
 
 		// We never would have proposed this pair if the delta would be
 		// larger than the unpacked version of the object. So using it
@@ -2205,7 +2358,7 @@ private void findObjectsToPack(@NonNull ProgressMonitor countingMonitor,
 				if (exclude(o))
 					continue;
 
-				int pathHash = walker.getPathHashCode();
+				int pathHash = pathHashCode(walker);
 				byte[] pathBuf = walker.getPathBuffer();
 				int pathLen = walker.getPathLength();
 				bases.addBase(o.getType(), pathBuf, pathLen, pathHash);
@@ -2222,7 +2375,7 @@ private void findObjectsToPack(@NonNull ProgressMonitor countingMonitor,
 				if (exclude(o))
 					continue;
 				if (!depthSkip(o, walker)) {
-					filterAndAddObject(o, o.getType(), walker.getPathHashCode(),
+					filterAndAddObject(o, o.getType(), pathHashCode(walker),
 									   want);
 				}
 				countingMonitor.update(1);
@@ -2236,6 +2389,12 @@ private void findObjectsToPack(@NonNull ProgressMonitor countingMonitor,
 		stats.bitmapIndexMisses = -1;
 	}
 
+	private int pathHashCode(ObjectWalk walker) {
+		if (config.getNameHashVersion() == 2)
+			return walker.getFullPathHashCode();
+		return walker.getPathHashCode();
+	}
+
 	private void findObjectsToPackUsingBitmaps(
 			BitmapWalker bitmapWalker, Set<? extends ObjectId> want,
 			Set<? extends ObjectId> have)
@@ -2421,7 +2580,8 @@ public void select(ObjectToPack otp, StoredObjectRepresentation next) {
 		if (nFmt == PACK_DELTA && reuseDeltas && reuseDeltaFor(otp)) {
 			ObjectId baseId = next.getDeltaBase();
 			ObjectToPack ptr = objectsMap.get(baseId);
-			if (ptr != null && !ptr.isEdge()) {
+			if (ptr != null && !ptr.isEdge()
+					&& DeltaIslands.canUseAsBase(otp, ptr)) {
 				otp.setDeltaBase(ptr);
 				otp.setReuseAsIs();
 			} else if (thin && have(ptr, baseId)) {
@@ -2502,8 +2662,11 @@ public boolean prepareBitmapIndex(ProgressMonitor pm) throws IOException {
 
 		Collection<BitmapCommit> selectedCommits = bitmapPreparer
 				.selectCommits(numCommits, excludeFromBitmapSelection);
+		List<List<RevCommit>> pseudoMerges = bitmapPreparer
+				.selectPseudoMerges(selectedCommits);
 
-		beginPhase(PackingPhase.BUILDING_BITMAPS, pm, selectedCommits.size());
+		beginPhase(PackingPhase.BUILDING_BITMAPS, pm,
+				selectedCommits.size() + pseudoMerges.size());
 
 		BitmapWalker walker = bitmapPreparer.newBitmapWalker();
 		AnyObjectId last = null;
@@ -2530,6 +2693,13 @@ public boolean prepareBitmapIndex(ProgressMonitor pm) throws IOException {
 			pm.update(1);
 		}
 
+		for (List<RevCommit> commits : pseudoMerges) {
+			BitmapBuilder bitmap = bitmapPreparer.newBitmapWalker()
+					.findObjects(commits, null, false);
+			writeBitmaps.addPseudoMerge(commits, bitmap.build());
+			pm.update(1);
+		}
+
 		endPhase(pm);
 		return true;
 	}
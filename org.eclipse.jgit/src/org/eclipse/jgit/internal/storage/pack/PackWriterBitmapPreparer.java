@@ -80,6 +80,7 @@ class PackWriterBitmapPreparer {
 	private final int excessiveBranchCount;
 	private final int excessiveBranchTipCount;
 	private final long inactiveBranchTimestamp;
+	private final int pseudoMergeSize;
 
 	PackWriterBitmapPreparer(ObjectReader reader,
 			PackBitmapIndexBuilder writeBitmaps, ProgressMonitor pm,
@@ -104,6 +105,7 @@ class PackWriterBitmapPreparer {
 		long ageInSeconds = (long) config.getBitmapInactiveBranchAgeInDays()
 				* DAY_IN_SECONDS;
 		this.inactiveBranchTimestamp = now.getEpochSecond() - ageInSeconds;
+		this.pseudoMergeSize = config.getBitmapPseudoMergeSize();
 	}
 
 	/**
@@ -322,6 +324,61 @@ Collection<BitmapCommit> selectCommits(int expectedCommitCount,
 		}
 	}
 
+	/**
+	 * Groups the wanted commits which have no bitmap of their own into
+	 * pseudo-merges.
+	 * <p>
+	 * The commits are grouped oldest first, so the groups of old refs which
+	 * no longer move stay the same from one pack to the next.
+	 *
+	 * @param selectedCommits
+	 *            the commits selected for bitmaps by
+	 *            {@link #selectCommits(int, Set)}.
+	 * @return the commits of each pseudo-merge, empty if pseudo-merges are
+	 *         disabled.
+	 * @throws IOException
+	 *             on errors reading pack or index files
+	 */
+	List<List<RevCommit>> selectPseudoMerges(
+			Collection<BitmapCommit> selectedCommits) throws IOException {
+		if (pseudoMergeSize < 2) {
+			return Collections.emptyList();
+		}
+		Set<ObjectId> selected = new HashSet<>(selectedCommits);
+		List<RevCommit> tips = new ArrayList<>();
+		try (RevWalk rw = new RevWalk(reader)) {
+			rw.setRetainBody(false);
+			for (ObjectId id : want) {
+				RevObject ro = rw.peel(rw.parseAny(id));
+				if (!(ro instanceof RevCommit) || ro.has(SEEN)
+						|| selected.contains(ro)
+						|| writeBitmaps.findPosition(ro) < 0) {
+					continue;
+				}
+				ro.add(SEEN);
+				tips.add((RevCommit) ro);
+			}
+		}
+		if (tips.size() < 2) {
+			return Collections.emptyList();
+		}
+
+		tips.sort(Comparator.comparingInt(RevCommit::getCommitTime)
+				.thenComparing(Comparator.naturalOrder()));
+		List<List<RevCommit>> merges = new ArrayList<>();
+		int start = 0;
+		while (start < tips.size()) {
+			int end = Math.min(start + pseudoMergeSize, tips.size());
+			if (tips.size() - end == 1) {
+				// Don't leave a single commit for the last group.
+				end++;
+			}
+			merges.add(tips.subList(start, end));
+			start = end;
+		}
+		return merges;
+	}
+
 	private boolean isRecentCommit(RevCommit revCommit) {
 		return revCommit.getCommitTime() > inactiveBranchTimestamp;
 	}
@@ -406,12 +463,12 @@ private CommitSelectionHelper captureOldAndNewCommits(RevWalk rw,
 
 			RevCommit rc = (RevCommit) ro;
 			reuseCommits.add(new BitmapCommit(rc, false, entry.getFlags()));
-			if (!reuse.contains(rc)) {
-				EWAHCompressedBitmap bitmap = bitmapRemapper.ofObjectType(
-						bitmapRemapper.getBitmap(rc), Constants.OBJ_COMMIT);
-				reuse.or(new CompressedBitmap(bitmap, commitBitmapIndex));
-			}
 		}
+		// Each reused bitmap is remapped when it is written, only remap
+		// their union here.
+		EWAHCompressedBitmap reuseBitmap = bitmapRemapper
+				.getBitmapUnion(reuseCommits, Constants.OBJ_COMMIT);
+		reuse.or(new CompressedBitmap(reuseBitmap, commitBitmapIndex));
 
 		// Add branch tips that are not represented in a previous pack's bitmap
 		// indices. Set up a RevWalk to find new commits not in the old packs.
@@ -0,0 +1,396 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.internal.transport.connectivity;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.internal.JGitText;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectIdSubclassMap;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.ProgressMonitor;
+import org.eclipse.jgit.lib.ThreadSafeProgressMonitor;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevFlag;
+import org.eclipse.jgit.revwalk.RevObject;
+import org.eclipse.jgit.revwalk.RevSort;
+import org.eclipse.jgit.revwalk.RevTag;
+import org.eclipse.jgit.revwalk.RevTree;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.transport.ConnectivityChecker;
+import org.eclipse.jgit.transport.ReceiveCommand;
+import org.eclipse.jgit.transport.ReceiveCommand.Result;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+
+/**
+ * A connectivity checker walking the trees of the new commits on several
+ * threads.
+ * <p>
+ * Checks the same as {@link FullConnectivityChecker}. The new commits are
+ * found by a single {@link RevWalk}, which is cheap compared to walking their
+ * trees. The trees of the boundary commits, which the client already has, are
+ * then walked in parallel to mark their content as uninteresting, followed by
+ * the trees of the new commits, partitioned across threads. Each thread reads
+ * objects through its own reader; the sets of uninteresting and already seen
+ * objects are shared, so each object is checked once.
+ */
+public final class ParallelConnectivityChecker implements ConnectivityChecker {
+	private final int threads;
+
+	private final Executor executor;
+
+	/**
+	 * New instance of the parallel connectivity checker.
+	 *
+	 * @param threads
+	 *            maximum number of threads walking trees concurrently. If
+	 *            &lt;= 0 the number of available processors is used.
+	 * @param executor
+	 *            executor walking the trees. Its threads may block on I/O, so
+	 *            it should be dedicated to such work.
+	 */
+	public ParallelConnectivityChecker(int threads, Executor executor) {
+		this.threads = threads > 0 ? threads
+				: Runtime.getRuntime().availableProcessors();
+		this.executor = Objects.requireNonNull(executor);
+	}
+
+	@Override
+	public void checkConnectivity(ConnectivityCheckInfo connectivityCheckInfo,
+			Set<ObjectId> haves, ProgressMonitor pm)
+			throws MissingObjectException, IOException {
+		pm.beginTask(JGitText.get().countingObjects,
+				ProgressMonitor.UNKNOWN);
+		try (RevWalk rw = new RevWalk(connectivityCheckInfo.getRepository())) {
+			new Check(connectivityCheckInfo, rw, pm).run(haves);
+		} finally {
+			pm.endTask();
+		}
+	}
+
+	private class Check {
+		private final ConnectivityCheckInfo info;
+
+		private final RevWalk rw;
+
+		private final ThreadSafeProgressMonitor pm;
+
+		private final boolean checkObjects;
+
+		private final ObjectIdSubclassMap<ObjectId> newObjectIds;
+
+		/** Trees and blobs reachable from what the client has. */
+		private final Set<ObjectId> uninteresting = ConcurrentHashMap
+				.newKeySet();
+
+		/** Trees and blobs checked, or being checked. */
+		private final Set<ObjectId> seen = ConcurrentHashMap.newKeySet();
+
+		/** Set once a partition failed, to stop the others. */
+		private final AtomicBoolean stopped = new AtomicBoolean();
+
+		Check(ConnectivityCheckInfo info, RevWalk rw, ProgressMonitor pm) {
+			this.info = info;
+			this.rw = rw;
+			this.pm = new ThreadSafeProgressMonitor(pm);
+			this.checkObjects = info.isCheckObjects();
+			this.newObjectIds = info.getParser().getNewObjectIds();
+		}
+
+		void run(Set<ObjectId> haves) throws IOException {
+			List<ObjectId> newTrees = new ArrayList<>();
+			List<ObjectId> newBlobs = new ArrayList<>();
+			if (!markStart(haves, newTrees, newBlobs)) {
+				return;
+			}
+
+			List<ObjectId> oldTrees = new ArrayList<>();
+			markUninteresting(haves, oldTrees);
+			walkCommits(newTrees, oldTrees);
+			pm.pollForUpdates();
+
+			parallel(oldTrees, this::markTreesUninteresting);
+			for (ObjectId blob : newBlobs) {
+				checkBlob(blob, rw.getObjectReader());
+			}
+			parallel(newTrees, this::checkTrees);
+
+			if (checkObjects) {
+				for (ObjectId id : info.getParser().getBaseObjectIds()) {
+					RevObject o = rw.lookupOrNull(id);
+					if (!uninteresting.contains(id)
+							&& (o == null || !o.has(RevFlag.UNINTERESTING))) {
+						o = rw.parseAny(id);
+						throw new MissingObjectException(o, o.getType());
+					}
+				}
+			}
+		}
+
+		private boolean markStart(Set<ObjectId> haves, List<ObjectId> newTrees,
+				List<ObjectId> newBlobs) throws IOException {
+			boolean hasInteresting = false;
+			for (ReceiveCommand cmd : info.getCommands()) {
+				if (cmd.getResult() != Result.NOT_ATTEMPTED
+						|| cmd.getType() == ReceiveCommand.Type.DELETE
+						|| haves.contains(cmd.getNewId())) {
+					continue;
+				}
+				RevObject o = rw.parseAny(cmd.getNewId());
+				while (o instanceof RevTag) {
+					checkNew(o);
+					o = ((RevTag) o).getObject();
+					rw.parseHeaders(o);
+				}
+				if (o instanceof RevCommit) {
+					rw.markStart((RevCommit) o);
+				} else if (o instanceof RevTree) {
+					newTrees.add(o);
+				} else {
+					newBlobs.add(o);
+				}
+				pm.update(1);
+				hasInteresting = true;
+			}
+			return hasInteresting;
+		}
+
+		private void markUninteresting(Set<ObjectId> haves,
+				List<ObjectId> oldTrees) throws IOException {
+			boolean markTrees = checkObjects
+					&& !info.getParser().getBaseObjectIds().isEmpty();
+			for (ObjectId have : haves) {
+				RevObject o = rw.parseAny(have);
+				while (o instanceof RevTag) {
+					o.add(RevFlag.UNINTERESTING);
+					o = ((RevTag) o).getObject();
+					rw.parseHeaders(o);
+				}
+				if (o instanceof RevCommit) {
+					rw.markUninteresting((RevCommit) o);
+					if (markTrees) {
+						oldTrees.add(((RevCommit) o).getTree());
+					}
+				} else if (o instanceof RevTree) {
+					oldTrees.add(o);
+				} else {
+					uninteresting.add(o.copy());
+				}
+				pm.update(1);
+			}
+		}
+
+		private void walkCommits(List<ObjectId> newTrees,
+				List<ObjectId> oldTrees) throws IOException {
+			rw.sort(RevSort.BOUNDARY);
+			RevCommit c;
+			while ((c = rw.next()) != null) {
+				pm.update(1);
+				if (c.has(RevFlag.UNINTERESTING)) {
+					oldTrees.add(c.getTree());
+				} else {
+					checkNew(c);
+					newTrees.add(c.getTree());
+				}
+			}
+		}
+
+		private void checkNew(RevObject o) throws MissingObjectException {
+			if (checkObjects && !newObjectIds.contains(o)) {
+				throw new MissingObjectException(o, o.getType());
+			}
+		}
+
+		private void markTreesUninteresting(List<ObjectId> trees,
+				ObjectReader reader) throws IOException {
+			CanonicalTreeParser p = new CanonicalTreeParser();
+			Deque<ObjectId> pending = new ArrayDeque<>(trees);
+			while (!pending.isEmpty()) {
+				ObjectId tree = pending.pop();
+				if (!uninteresting.add(tree.copy())) {
+					continue;
+				}
+				checkStopped();
+				p.reset(reader, tree);
+				for (; !p.eof(); p.next()) {
+					int mode = p.getEntryRawMode();
+					if (FileMode.TREE.equals(mode)) {
+						pending.push(p.getEntryObjectId());
+					} else if (!FileMode.GITLINK.equals(mode)) {
+						uninteresting.add(p.getEntryObjectId());
+					}
+				}
+			}
+		}
+
+		private void checkTrees(List<ObjectId> trees, ObjectReader reader)
+				throws IOException {
+			CanonicalTreeParser p = new CanonicalTreeParser();
+			Deque<ObjectId> pending = new ArrayDeque<>(trees);
+			while (!pending.isEmpty()) {
+				ObjectId tree = pending.pop();
+				if (uninteresting.contains(tree) || !seen.add(tree.copy())) {
+					continue;
+				}
+				checkStopped();
+				pm.update(1);
+				if (checkObjects && !newObjectIds.contains(tree)) {
+					throw new MissingObjectException(tree,
+							Constants.TYPE_TREE);
+				}
+				p.reset(reader, tree);
+				for (; !p.eof(); p.next()) {
+					int mode = p.getEntryRawMode();
+					if (FileMode.TREE.equals(mode)) {
+						pending.push(p.getEntryObjectId());
+					} else if (!FileMode.GITLINK.equals(mode)) {
+						checkBlob(p.getEntryObjectId(), reader);
+					}
+				}
+			}
+		}
+
+		private void checkBlob(ObjectId blob, ObjectReader reader)
+				throws IOException {
+			if (uninteresting.contains(blob) || !seen.add(blob)) {
+				return;
+			}
+			pm.update(1);
+			if (checkObjects ? !newObjectIds.contains(blob)
+					: !reader.has(blob)) {
+				throw new MissingObjectException(blob, Constants.TYPE_BLOB);
+			}
+		}
+
+		private void checkStopped() throws InterruptedIOException {
+			if (stopped.get() || Thread.currentThread().isInterrupted()) {
+				throw new InterruptedIOException();
+			}
+		}
+
+		/**
+		 * Run a task for partitions of the trees, each with its own reader.
+		 *
+		 * @param trees
+		 *            the trees.
+		 * @param task
+		 *            work to do for each partition.
+		 * @throws IOException
+		 *             if a task failed.
+		 */
+		private void parallel(List<ObjectId> trees, Task task)
+				throws IOException {
+			if (trees.isEmpty()) {
+				return;
+			}
+			List<List<ObjectId>> partitions = partition(trees,
+					Math.min(threads, trees.size()));
+			if (partitions.size() == 1) {
+				task.run(trees, rw.getObjectReader());
+				pm.pollForUpdates();
+				return;
+			}
+
+			CompletionService<Void> service = new ExecutorCompletionService<>(
+					executor);
+			List<Future<Void>> futures = new ArrayList<>(partitions.size());
+			for (List<ObjectId> part : partitions) {
+				futures.add(service.submit(() -> {
+					try (ObjectReader reader = rw.getObjectReader()
+							.newReader()) {
+						task.run(part, reader);
+					} catch (IOException e) {
+						// Some executors wrap checked exceptions.
+						throw new UncheckedIOException(e);
+					}
+					return null;
+				}));
+			}
+
+			boolean completed = false;
+			try {
+				for (int done = 0; done < futures.size();) {
+					Future<Void> f = service.poll(100, TimeUnit.MILLISECONDS);
+					pm.pollForUpdates();
+					if (f != null) {
+						f.get();
+						done++;
+					}
+				}
+				completed = true;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException();
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof UncheckedIOException) {
+					throw ((UncheckedIOException) cause).getCause();
+				}
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new IOException(cause);
+			} finally {
+				if (!completed) {
+					// Partitions poll the flag instead of being interrupted,
+					// which would close the channels of the pack files they
+					// read.
+					stopped.set(true);
+					for (Future<Void> f : futures) {
+						f.cancel(false);
+					}
+				}
+			}
+		}
+	}
+
+	@FunctionalInterface
+	private interface Task {
+		void run(List<ObjectId> trees, ObjectReader reader)
+				throws IOException;
+	}
+
+	private static List<List<ObjectId>> partition(Collection<ObjectId> trees,
+			int count) {
+		List<List<ObjectId>> parts = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			parts.add(new ArrayList<>(trees.size() / count + 1));
+		}
+		int i = 0;
+		for (ObjectId id : trees) {
+			parts.get(i++ % count).add(id);
+		}
+		return parts;
+	}
+}
@@ -39,6 +39,28 @@ public interface BitmapIndex {
 	 */
 	BitmapBuilder newBitmapBuilder();
 
+	/**
+	 * Add the objects of the pseudo-merge bitmaps which apply to a set of
+	 * objects.
+	 * <p>
+	 * A pseudo-merge bitmap stores the objects reachable from a group of
+	 * commits, such as the tips of many refs. It applies once all commits of
+	 * the group are in {@code objectIds} or reachable from them.
+	 *
+	 * @param objectIds
+	 *            the objects to find the reachable objects of.
+	 * @param reachable
+	 *            objects known to be reachable from {@code objectIds}, built
+	 *            by this index. The objects of the pseudo-merge bitmaps which
+	 *            apply are added to it.
+	 * @return number of pseudo-merge bitmaps added.
+	 * @since 7.3
+	 */
+	default int addPseudoMerges(Iterable<? extends AnyObjectId> objectIds,
+			BitmapBuilder reachable) {
+		return 0;
+	}
+
 	/**
 	 * Report the results of {@link #getBitmap(AnyObjectId)}
 	 *
@@ -143,6 +165,29 @@ public interface Bitmap extends Iterable<BitmapObject> {
 		 * @since 5.8
 		 */
 		EWAHCompressedBitmap retrieveCompressed();
+
+		/**
+		 * Count the objects of one type in the bitmap.
+		 * <p>
+		 * Implementations backed by per-type bitmaps answer this without
+		 * iterating the objects.
+		 *
+		 * @param type
+		 *            the type of the objects to count, one of
+		 *            {@link Constants#OBJ_COMMIT}, {@link Constants#OBJ_TREE},
+		 *            {@link Constants#OBJ_BLOB} or {@link Constants#OBJ_TAG}.
+		 * @return the number of objects of {@code type} in the bitmap.
+		 * @since 7.3
+		 */
+		default int cardinality(int type) {
+			int count = 0;
+			for (BitmapObject obj : this) {
+				if (obj.getType() == type) {
+					count++;
+				}
+			}
+			return count;
+		}
 	}
 
 	/**
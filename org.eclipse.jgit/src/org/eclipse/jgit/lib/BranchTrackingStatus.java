@@ -12,11 +12,11 @@
 package org.eclipse.jgit.lib;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.revwalk.RevWalkUtils;
-import org.eclipse.jgit.revwalk.filter.RevFilter;
 
 /**
  * Status of a branch's relation to its remote-tracking branch.
@@ -60,16 +60,10 @@ public static BranchTrackingStatus of(Repository repository, String branchName)
 			RevCommit localCommit = walk.parseCommit(local.getObjectId());
 			RevCommit trackingCommit = walk.parseCommit(tracking.getObjectId());
 
-			walk.setRevFilter(RevFilter.MERGE_BASE);
-			walk.markStart(localCommit);
-			walk.markStart(trackingCommit);
-			RevCommit mergeBase = walk.next();
-
-			walk.reset();
-			walk.setRevFilter(RevFilter.ALL);
-			int aheadCount = RevWalkUtils.count(walk, localCommit, mergeBase);
-			int behindCount = RevWalkUtils.count(walk, trackingCommit,
-					mergeBase);
+			int aheadCount = RevWalkUtils.count(walk, List.of(localCommit),
+					List.of(trackingCommit));
+			int behindCount = RevWalkUtils.count(walk,
+					List.of(trackingCommit), List.of(localCommit));
 
 			return new BranchTrackingStatus(trackingBranch, aheadCount,
 					behindCount);
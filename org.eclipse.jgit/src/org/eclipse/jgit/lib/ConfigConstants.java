@@ -817,6 +817,62 @@ public final class ConfigConstants {
 	 */
 	public static final String CONFIG_KEY_BITMAP_EXCLUDED_REFS_PREFIXES = "bitmapexcludedrefsprefixes";
 
+	/**
+	 * The "pack.bitmapPseudoMergeSize" key
+	 *
+	 * @since 7.3
+	 */
+	public static final String CONFIG_KEY_BITMAP_PSEUDO_MERGE_SIZE = "bitmappseudomergesize";
+
+	/**
+	 * The "pack.commitCompression" key
+	 *
+	 * @since 7.3
+	 */
+	public static final String CONFIG_KEY_COMMIT_COMPRESSION = "commitcompression";
+
+	/**
+	 * The "pack.treeCompression" key
+	 *
+	 * @since 7.3
+	 */
+	public static final String CONFIG_KEY_TREE_COMPRESSION = "treecompression";
+
+	/**
+	 * The "pack.blobCompression" key
+	 *
+	 * @since 7.3
+	 */
+	public static final String CONFIG_KEY_BLOB_COMPRESSION = "blobcompression";
+
+	/**
+	 * The "pack.tagCompression" key
+	 *
+	 * @since 7.3
+	 */
+	public static final String CONFIG_KEY_TAG_COMPRESSION = "tagcompression";
+
+	/**
+	 * The "pack.bigFileCompression" key
+	 *
+	 * @since 7.3
+	 */
+	public static final String CONFIG_KEY_BIG_FILE_COMPRESSION = "bigfilecompression";
+
+	/**
+	 * The "pack.adaptiveCompression" key
+	 *
+	 * @since 7.3
+	 */
+	public static final String CONFIG_KEY_ADAPTIVE_COMPRESSION = "adaptivecompression";
+
+	/**
+	 * The "pack.island" key
+	 *
+	 * @since 7.3
+	 */
+	public static final String CONFIG_KEY_ISLAND = "island";
+
 	/**
 	 * The "pack.bitmapInactiveBranchAgeInDays" key
 	 * @since 5.8
@@ -866,6 +922,27 @@ public final class ConfigConstants {
 	 */
 	public static final String CONFIG_KEY_DELTA_COMPRESSION = "deltacompression";
 
+	/**
+	 * The "pack.deltaSearchCache" key
+	 *
+	 * @since 7.3
+	 */
+	public static final String CONFIG_KEY_DELTA_SEARCH_CACHE = "deltasearchcache";
+
+	/**
+	 * The "pack.deltaSearchCacheLimit" key
+	 *
+	 * @since 7.3
+	 */
+	public static final String CONFIG_KEY_DELTA_SEARCH_CACHE_LIMIT = "deltasearchcachelimit";
+
+	/**
+	 * The "pack.deflateBufferLimit" key
+	 *
+	 * @since 7.3
+	 */
+	public static final String CONFIG_KEY_DEFLATE_BUFFER_LIMIT = "deflatebufferlimit";
+
 	/**
 	 * The "pack.depth" key
 	 * @since 5.8
@@ -920,6 +997,13 @@ public final class ConfigConstants {
 	 */
 	public static final String CONFIG_KEY_WINDOW_MEMORY = "windowmemory";
 
+	/**
+	 * The "pack.nameHashVersion" key
+	 *
+	 * @since 7.3
+	 */
+	public static final String CONFIG_KEY_NAME_HASH_VERSION = "namehashversion";
+
 	/**
 	 * the "pack.minBytesForObjSizeIndex" key
 	 *
@@ -1115,4 +1199,11 @@ public final class ConfigConstants {
 	 * @since 7.2
 	 */
 	public static final String CONFIG_KEY_AUTOREFRESH = "autorefresh";
+
+	/**
+	 * The "fetch.bundleCreationToken" key
+	 *
+	 * @since 7.3
+	 */
+	public static final String CONFIG_KEY_BUNDLE_CREATION_TOKEN = "bundlecreationtoken";
 }
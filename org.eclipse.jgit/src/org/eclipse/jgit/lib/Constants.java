@@ -289,6 +289,12 @@ public final class Constants {
 	 */
 	public static final String INFO_COMMIT_GRAPH = "info/commit-graph";
 
+	/**
+	 * info delta-search-cache file (goes under OBJECTS)
+	 * @since 7.3
+	 */
+	public static final String INFO_DELTA_SEARCH_CACHE = "info/delta-search-cache";
+
 	/** Packed refs file */
 	public static final String PACKED_REFS = "packed-refs";
 
@@ -337,6 +337,28 @@ public long getObjectSize(AnyObjectId objectId, int typeHint)
 		return open(objectId, typeHint).getSize();
 	}
 
+	/**
+	 * Get only the type of an object.
+	 * <p>
+	 * The default implementation of this method opens an ObjectLoader.
+	 * Databases are encouraged to override this if a faster access method is
+	 * available to them.
+	 *
+	 * @param objectId
+	 *            identity of the object to open.
+	 * @return type of the object, e.g.
+	 *         {@link org.eclipse.jgit.lib.Constants#OBJ_BLOB}.
+	 * @throws org.eclipse.jgit.errors.MissingObjectException
+	 *             the object does not exist.
+	 * @throws java.io.IOException
+	 *             the object store cannot be accessed.
+	 * @since 7.3
+	 */
+	public int getObjectType(AnyObjectId objectId)
+			throws MissingObjectException, IOException {
+		return open(objectId, OBJ_ANY).getType();
+	}
+
 	/**
 	 * Check if the object size is less or equal than certain value
 	 *
@@ -660,6 +682,12 @@ public <T extends ObjectId> AsyncObjectSizeQueue<T> getObjectSize(
 			return delegate().getObjectSize(objectIds, reportMissing);
 		}
 
+		@Override
+		public int getObjectType(AnyObjectId objectId)
+				throws MissingObjectException, IOException {
+			return delegate().getObjectType(objectId);
+		}
+
 		@Override
 		public void setAvoidUnreachableObjects(boolean avoid) {
 			delegate().setAvoidUnreachableObjects(avoid);
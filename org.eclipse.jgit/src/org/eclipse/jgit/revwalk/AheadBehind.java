@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package org.eclipse.jgit.revwalk;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jgit.errors.IncorrectObjectTypeException;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+
+/**
+ * Number of commits a tip is ahead of and behind a common base.
+ * <p>
+ * {@link #of(RevWalk, RevCommit, List)} computes the counts of many tips
+ * against the same base in one walk, instead of one two-sided walk per tip.
+ *
+ * @since 7.3
+ */
+public final class AheadBehind {
+	/**
+	 * Applications are assured 24 flags per walk, one of them marks the
+	 * base.
+	 */
+	private static final int TIPS_PER_WALK = 23;
+
+	/**
+	 * Compute ahead and behind counts for each of <code>tips</code> relative
+	 * to <code>base</code>.
+	 * <p>
+	 * Each tip gets its own {@link RevFlag}, carried onto the parents during
+	 * the walk. A commit that carries the flags of the base and of all tips
+	 * is reachable from all of them, so it and its ancestors are excluded and
+	 * the walk stops there. Up to 23 tips are handled per walk; larger
+	 * collections are processed in batches of that size.
+	 * <p>
+	 * Note that this method calls {@link RevWalk#reset()} at the beginning
+	 * and at the end, and restores the rev filter of the walk when done.
+	 *
+	 * @param walk
+	 *            the rev walk to use
+	 * @param base
+	 *            the commit to compare against, e.g. the tip of the main
+	 *            branch
+	 * @param tips
+	 *            the commits to compute the counts for
+	 * @return the counts, in the order of <code>tips</code>
+	 * @throws MissingObjectException
+	 *             if object is missing
+	 * @throws IncorrectObjectTypeException
+	 *             if object has unexpected type
+	 * @throws IOException
+	 *             if an IO error occurred
+	 */
+	public static List<AheadBehind> of(RevWalk walk, RevCommit base,
+			List<RevCommit> tips) throws MissingObjectException,
+			IncorrectObjectTypeException, IOException {
+		List<AheadBehind> result = new ArrayList<>(tips.size());
+		RevFilter oldFilter = walk.getRevFilter();
+		try {
+			for (int i = 0; i < tips.size(); i += TIPS_PER_WALK) {
+				List<RevCommit> batch = tips.subList(i,
+						Math.min(i + TIPS_PER_WALK, tips.size()));
+				count(walk, base, batch, result);
+			}
+		} finally {
+			walk.reset();
+			walk.setRevFilter(oldFilter);
+		}
+		return result;
+	}
+
+	private static void count(RevWalk walk, RevCommit base,
+			List<RevCommit> tips, List<AheadBehind> result)
+			throws MissingObjectException, IncorrectObjectTypeException,
+			IOException {
+		walk.reset();
+		RevFlagSet all = new RevFlagSet();
+		RevFlag baseFlag = walk.newFlag("base"); //$NON-NLS-1$
+		all.add(baseFlag);
+		RevFlag[] tipFlags = new RevFlag[tips.size()];
+		for (int i = 0; i < tipFlags.length; i++) {
+			tipFlags[i] = walk.newFlag("tip" + i); //$NON-NLS-1$
+			all.add(tipFlags[i]);
+		}
+		try {
+			walk.carry(all);
+			walk.setRevFilter(new CommonHistoryFilter(all));
+
+			base.add(baseFlag);
+			walk.markStart(base);
+			for (int i = 0; i < tipFlags.length; i++) {
+				RevCommit tip = tips.get(i);
+				tip.add(tipFlags[i]);
+				walk.markStart(tip);
+			}
+
+			// Flags may still reach a commit after it was returned, so only
+			// count once the walk is done.
+			List<RevCommit> walked = new ArrayList<>();
+			for (RevCommit c; (c = walk.next()) != null;) {
+				walked.add(c);
+			}
+
+			int[] ahead = new int[tipFlags.length];
+			int[] behind = new int[tipFlags.length];
+			for (RevCommit c : walked) {
+				boolean inBase = c.has(baseFlag);
+				for (int i = 0; i < tipFlags.length; i++) {
+					boolean inTip = c.has(tipFlags[i]);
+					if (inTip && !inBase) {
+						ahead[i]++;
+					} else if (inBase && !inTip) {
+						behind[i]++;
+					}
+				}
+			}
+			for (int i = 0; i < tipFlags.length; i++) {
+				result.add(new AheadBehind(tips.get(i), ahead[i], behind[i]));
+			}
+		} finally {
+			walk.reset();
+			walk.disposeFlag(baseFlag);
+			for (RevFlag f : tipFlags) {
+				walk.disposeFlag(f);
+			}
+		}
+	}
+
+	/**
+	 * Marks commits reachable from the base and all tips as uninteresting,
+	 * which the walk carries onto their ancestors.
+	 */
+	private static class CommonHistoryFilter extends RevFilter {
+		private final RevFlagSet all;
+
+		CommonHistoryFilter(RevFlagSet all) {
+			this.all = all;
+		}
+
+		@Override
+		public boolean include(RevWalk walker, RevCommit c) {
+			if (c.hasAll(all)) {
+				c.add(RevFlag.UNINTERESTING);
+			}
+			return true;
+		}
+
+		@Override
+		public RevFilter clone() {
+			return new CommonHistoryFilter(all);
+		}
+
+		@Override
+		public boolean requiresCommitBody() {
+			return false;
+		}
+	}
+
+	private final RevCommit tip;
+
+	private final int ahead;
+
+	private final int behind;
+
+	private AheadBehind(RevCommit tip, int ahead, int behind) {
+		this.tip = tip;
+		this.ahead = ahead;
+		this.behind = behind;
+	}
+
+	/**
+	 * Get the tip these counts belong to
+	 *
+	 * @return the tip these counts belong to
+	 */
+	public RevCommit getTip() {
+		return tip;
+	}
+
+	/**
+	 * Get number of commits reachable from the tip but not from the base
+	 *
+	 * @return number of commits reachable from the tip but not from the base
+	 */
+	public int getAhead() {
+		return ahead;
+	}
+
+	/**
+	 * Get number of commits reachable from the base but not from the tip
+	 *
+	 * @return number of commits reachable from the base but not from the tip
+	 */
+	public int getBehind() {
+		return behind;
+	}
+}
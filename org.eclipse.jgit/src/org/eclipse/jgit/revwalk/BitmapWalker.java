@@ -185,6 +185,7 @@ private BitmapBuilder findObjectsWalk(Iterable<? extends ObjectId> start, Bitmap
 				bitmapResult.or(bitmap);
 			}
 		}
+		bitmapIndex.addPseudoMerges(start, bitmapResult);
 
 		boolean marked = false;
 		for (ObjectId obj : start) {
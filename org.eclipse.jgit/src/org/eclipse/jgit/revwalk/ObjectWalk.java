@@ -681,6 +681,42 @@ public int getPathHashCode() {
 		return hash;
 	}
 
+	/**
+	 * Get a hash code of the current object's complete path.
+	 * <p>
+	 * Unlike {@link #getPathHashCode()}, which only considers the last 16
+	 * bytes of the path, every directory of the path contributes to this hash
+	 * code, so files of the same name in different directories are told
+	 * apart. The file name itself still determines the most significant bits,
+	 * keeping files of similar names close when sorting by the hash code.
+	 * This is the same function as version 2 of the name hash of C Git.
+	 *
+	 * @return path hash code; any integer may be returned.
+	 * @since 7.3
+	 */
+	public int getFullPathHashCode() {
+		int len = getPathLength();
+		byte[] buf = pathBuf;
+		int hash = 0;
+		int base = 0;
+		for (int ptr = 0; ptr < len; ptr++) {
+			int c = buf[ptr] & 0xff;
+			if (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+				continue;
+			}
+			if (c == '/') {
+				base = (base >>> 6) ^ hash;
+				hash = 0;
+			} else {
+				// Reverse the bits of c so that the last characters of a
+				// name end up in the most significant bits.
+				c = Integer.reverse(c) >>> 24;
+				hash = (hash >>> 2) + (c << 24);
+			}
+		}
+		return (base >>> 6) ^ hash;
+	}
+
 	/**
 	 * Get the internal buffer holding the current path.
 	 *
@@ -18,9 +18,16 @@
 import org.eclipse.jgit.errors.IncorrectObjectTypeException;
 import org.eclipse.jgit.errors.MissingObjectException;
 import org.eclipse.jgit.internal.JGitText;
+import org.eclipse.jgit.internal.revwalk.AddToBitmapFilter;
+import org.eclipse.jgit.internal.revwalk.AddUnseenToBitmapFilter;
+import org.eclipse.jgit.lib.BitmapIndex;
+import org.eclipse.jgit.lib.BitmapIndex.BitmapBuilder;
+import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.NullProgressMonitor;
 import org.eclipse.jgit.lib.ProgressMonitor;
 import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
 
 /**
  * Utility methods for {@link org.eclipse.jgit.revwalk.RevWalk}.
@@ -104,6 +111,85 @@ public static List<RevCommit> find(final RevWalk walk,
 		return commits;
 	}
 
+	/**
+	 * Count the number of commits that are reachable from any of
+	 * <code>starts</code> but from none of <code>ends</code>, like
+	 * <code>git rev-list --count starts ^ends</code>.
+	 * <p>
+	 * If the repository has a bitmap index, neither a rev filter nor a tree
+	 * filter is set on the walk and the walk does not follow only first
+	 * parents, the answer is the number of commits in the AND-NOT of the
+	 * reachability bitmaps of both sides. Only commits not covered by a bitmap
+	 * are walked. Otherwise every commit is walked and the filters and the
+	 * first-parent mode of the walk apply.
+	 * <p>
+	 * Note that this method calls
+	 * {@link org.eclipse.jgit.revwalk.RevWalk#reset()} at the beginning and
+	 * leaves the rev filter of the walk unchanged.
+	 *
+	 * @param walk
+	 *            the rev walk to use
+	 * @param starts
+	 *            the commits to start counting from
+	 * @param ends
+	 *            the commits whose history is excluded from the count, may be
+	 *            empty
+	 * @return the number of commits
+	 * @throws org.eclipse.jgit.errors.MissingObjectException
+	 *             if object is missing
+	 * @throws org.eclipse.jgit.errors.IncorrectObjectTypeException
+	 *             if object has unexpected type
+	 * @throws java.io.IOException
+	 *             if an IO error occurred
+	 * @since 7.3
+	 */
+	public static int count(RevWalk walk, Collection<RevCommit> starts,
+			Collection<RevCommit> ends) throws MissingObjectException,
+			IncorrectObjectTypeException, IOException {
+		BitmapIndex bitmapIndex = walk.getObjectReader().getBitmapIndex();
+		if (bitmapIndex == null || walk.getRevFilter() != RevFilter.ALL
+				|| walk.getTreeFilter() != TreeFilter.ALL
+				|| walk.isFirstParent()) {
+			walk.reset();
+			walk.markStart(starts);
+			for (RevCommit c : ends) {
+				walk.markUninteresting(c);
+			}
+			int count = 0;
+			while (walk.next() != null) {
+				count++;
+			}
+			return count;
+		}
+
+		BitmapBuilder excluded = bitmapIndex.newBitmapBuilder();
+		BitmapBuilder included = bitmapIndex.newBitmapBuilder();
+		try {
+			walkIntoBitmap(walk, ends, new AddToBitmapFilter(excluded));
+			walkIntoBitmap(walk, starts,
+					new AddUnseenToBitmapFilter(excluded, included));
+		} finally {
+			walk.reset();
+			walk.setRevFilter(RevFilter.ALL);
+		}
+		return included.andNot(excluded).cardinality(Constants.OBJ_COMMIT);
+	}
+
+	private static void walkIntoBitmap(RevWalk walk,
+			Collection<RevCommit> commits, RevFilter filter)
+			throws MissingObjectException, IncorrectObjectTypeException,
+			IOException {
+		walk.reset();
+		if (commits.isEmpty()) {
+			return;
+		}
+		walk.setRevFilter(filter);
+		walk.markStart(commits);
+		while (walk.next() != null) {
+			// The filter adds the walked commits to its bitmap.
+		}
+	}
+
 	/**
 	 * Find the list of branches a given commit is reachable from when following
 	 * parents.
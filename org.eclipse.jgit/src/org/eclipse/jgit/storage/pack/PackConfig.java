@@ -12,6 +12,8 @@
 package org.eclipse.jgit.storage.pack;
 
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_CORE_SECTION;
+import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_ADAPTIVE_COMPRESSION;
+import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_BIG_FILE_COMPRESSION;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_BIGFILE_THRESHOLD;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_BITMAP_CONTIGUOUS_COMMIT_COUNT;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_BITMAP_DISTANT_COMMIT_SPAN;
@@ -19,17 +21,25 @@
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_BITMAP_EXCESSIVE_BRANCH_TIP_COUNT;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_BITMAP_EXCLUDED_REFS_PREFIXES;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_BITMAP_INACTIVE_BRANCH_AGE_INDAYS;
+import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_BITMAP_PSEUDO_MERGE_SIZE;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_BITMAP_RECENT_COMMIT_COUNT;
+import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_BLOB_COMPRESSION;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_BUILD_BITMAPS;
+import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_COMMIT_COMPRESSION;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_COMPRESSION;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_CUT_DELTACHAINS;
+import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_DEFLATE_BUFFER_LIMIT;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_DELTA_CACHE_LIMIT;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_DELTA_CACHE_SIZE;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_DELTA_COMPRESSION;
+import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_DELTA_SEARCH_CACHE;
+import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_DELTA_SEARCH_CACHE_LIMIT;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_DEPTH;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_INDEXVERSION;
+import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_ISLAND;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_MIN_BYTES_OBJ_SIZE_INDEX;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_MIN_SIZE_PREVENT_RACYPACK;
+import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_NAME_HASH_VERSION;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_PACK_KEPT_OBJECTS;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_PRESERVE_OLD_PACKS;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_PRUNE_PRESERVED;
@@ -37,19 +47,28 @@
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_REUSE_OBJECTS;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_SEARCH_FOR_REUSE_TIMEOUT;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_SINGLE_PACK;
+import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_TAG_COMPRESSION;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_THREADS;
+import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_TREE_COMPRESSION;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_WAIT_PREVENT_RACYPACK;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_WINDOW;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_WINDOW_MEMORY;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_WRITE_REVERSE_INDEX;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_PACK_SECTION;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_REPACK_SECTION;
+import static org.eclipse.jgit.lib.Constants.OBJ_BLOB;
+import static org.eclipse.jgit.lib.Constants.OBJ_COMMIT;
+import static org.eclipse.jgit.lib.Constants.OBJ_TAG;
+import static org.eclipse.jgit.lib.Constants.OBJ_TREE;
 
+import java.text.MessageFormat;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.zip.Deflater;
 
+import org.eclipse.jgit.internal.JGitText;
 import org.eclipse.jgit.internal.storage.file.BasePackIndexWriter;
 import org.eclipse.jgit.lib.Config;
 import org.eclipse.jgit.lib.Repository;
@@ -158,6 +177,15 @@ public class PackConfig {
 	 */
 	public static final int DEFAULT_DELTA_CACHE_LIMIT = 100;
 
+	/**
+	 * Default limit of the memory used to deflate objects ahead of the
+	 * writer: {@value}
+	 *
+	 * @see #setDeflateBufferLimit(long)
+	 * @since 7.3
+	 */
+	public static final long DEFAULT_DEFLATE_BUFFER_LIMIT = 64 * MB;
+
 	/**
 	 * Default index version: {@value}
 	 *
@@ -270,6 +298,61 @@ public class PackConfig {
 	 */
 	public static final String[] DEFAULT_BITMAP_EXCLUDED_REFS_PREFIXES = new String[0];
 
+	/**
+	 * Default number of commits grouped into a pseudo-merge bitmap,
+	 * pseudo-merge bitmaps are disabled: {@value}
+	 *
+	 * @see #setBitmapPseudoMergeSize(int)
+	 * @since 7.3
+	 */
+	public static final int DEFAULT_BITMAP_PSEUDO_MERGE_SIZE = 0;
+
+	/**
+	 * Default delta island patterns, delta islands are disabled.
+	 *
+	 * @see #setDeltaIslands(String[])
+	 * @since 7.3
+	 */
+	public static final String[] DEFAULT_DELTA_ISLANDS = new String[0];
+
+	/**
+	 * Default version of the path name hash grouping objects for delta
+	 * search: {@value}
+	 *
+	 * @see #setNameHashVersion(int)
+	 * @since 7.3
+	 */
+	public static final int DEFAULT_NAME_HASH_VERSION = 1;
+
+	/**
+	 * Default setting of whether garbage collection keeps a delta search
+	 * cache: {@value}
+	 *
+	 * @see #setDeltaSearchCache(boolean)
+	 * @since 7.3
+	 */
+	public static final boolean DEFAULT_DELTA_SEARCH_CACHE = false;
+
+	/**
+	 * Default maximum number of pairs kept by the delta search cache: {@value}
+	 *
+	 * @see #setDeltaSearchCacheLimit(int)
+	 * @since 7.3
+	 */
+	public static final int DEFAULT_DELTA_SEARCH_CACHE_LIMIT = 100000;
+
+	/**
+	 * Default setting of whether the compression level is lowered while
+	 * compressing is slower than writing the pack: {@value}
+	 *
+	 * @see #setAdaptiveCompression(boolean)
+	 * @since 7.3
+	 */
+	public static final boolean DEFAULT_ADAPTIVE_COMPRESSION = false;
+
+	/** Marks a compression level which is not set. */
+	private static final int UNSET_LEVEL = Integer.MIN_VALUE;
+
 	/**
 	 * Default minimum size for an object to be included in the size index:
 	 * {@value}
@@ -292,6 +375,14 @@ public class PackConfig {
 
 	private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
 
+	/** Compression levels by object type, UNSET_LEVEL to inherit. */
+	private int[] typeCompressionLevels = { UNSET_LEVEL, UNSET_LEVEL,
+			UNSET_LEVEL, UNSET_LEVEL, UNSET_LEVEL };
+
+	private int bigFileCompressionLevel = UNSET_LEVEL;
+
+	private boolean adaptiveCompression = DEFAULT_ADAPTIVE_COMPRESSION;
+
 	private boolean reuseDeltas = DEFAULT_REUSE_DELTAS;
 
 	private boolean reuseObjects = DEFAULT_REUSE_OBJECTS;
@@ -304,6 +395,10 @@ public class PackConfig {
 
 	private boolean deltaCompress = DEFAULT_DELTA_COMPRESS;
 
+	private boolean deltaSearchCache = DEFAULT_DELTA_SEARCH_CACHE;
+
+	private int deltaSearchCacheLimit = DEFAULT_DELTA_SEARCH_CACHE_LIMIT;
+
 	private int maxDeltaDepth = DEFAULT_MAX_DELTA_DEPTH;
 
 	private int deltaSearchWindowSize = DEFAULT_DELTA_SEARCH_WINDOW_SIZE;
@@ -314,6 +409,8 @@ public class PackConfig {
 
 	private int deltaCacheLimit = DEFAULT_DELTA_CACHE_LIMIT;
 
+	private long deflateBufferLimit = DEFAULT_DEFLATE_BUFFER_LIMIT;
+
 	private int bigFileThreshold = DEFAULT_BIG_FILE_THRESHOLD;
 
 	private boolean waitPreventRacyPack = DEFAULT_WAIT_PREVENT_RACY_PACK;
@@ -348,6 +445,12 @@ public class PackConfig {
 
 	private String[] bitmapExcludedRefsPrefixes = DEFAULT_BITMAP_EXCLUDED_REFS_PREFIXES;
 
+	private int bitmapPseudoMergeSize = DEFAULT_BITMAP_PSEUDO_MERGE_SIZE;
+
+	private String[] deltaIslands = DEFAULT_DELTA_ISLANDS;
+
+	private int nameHashVersion = DEFAULT_NAME_HASH_VERSION;
+
 	private Duration searchForReuseTimeout = DEFAULT_SEARCH_FOR_REUSE_TIMEOUT;
 
 	private boolean cutDeltaChains;
@@ -396,17 +499,23 @@ public PackConfig(Config cfg) {
 	 */
 	public PackConfig(PackConfig cfg) {
 		this.compressionLevel = cfg.compressionLevel;
+		this.typeCompressionLevels = cfg.typeCompressionLevels.clone();
+		this.bigFileCompressionLevel = cfg.bigFileCompressionLevel;
+		this.adaptiveCompression = cfg.adaptiveCompression;
 		this.reuseDeltas = cfg.reuseDeltas;
 		this.reuseObjects = cfg.reuseObjects;
 		this.preserveOldPacks = cfg.preserveOldPacks;
 		this.prunePreserved = cfg.prunePreserved;
 		this.deltaBaseAsOffset = cfg.deltaBaseAsOffset;
 		this.deltaCompress = cfg.deltaCompress;
+		this.deltaSearchCache = cfg.deltaSearchCache;
+		this.deltaSearchCacheLimit = cfg.deltaSearchCacheLimit;
 		this.maxDeltaDepth = cfg.maxDeltaDepth;
 		this.deltaSearchWindowSize = cfg.deltaSearchWindowSize;
 		this.deltaSearchMemoryLimit = cfg.deltaSearchMemoryLimit;
 		this.deltaCacheSize = cfg.deltaCacheSize;
 		this.deltaCacheLimit = cfg.deltaCacheLimit;
+		this.deflateBufferLimit = cfg.deflateBufferLimit;
 		this.bigFileThreshold = cfg.bigFileThreshold;
 		this.waitPreventRacyPack = cfg.waitPreventRacyPack;
 		this.minSizePreventRacyPack = cfg.minSizePreventRacyPack;
@@ -422,6 +531,9 @@ public PackConfig(PackConfig cfg) {
 		this.bitmapDistantCommitSpan = cfg.bitmapDistantCommitSpan;
 		this.bitmapExcessiveBranchCount = cfg.bitmapExcessiveBranchCount;
 		this.bitmapInactiveBranchAgeInDays = cfg.bitmapInactiveBranchAgeInDays;
+		this.bitmapPseudoMergeSize = cfg.bitmapPseudoMergeSize;
+		this.deltaIslands = cfg.deltaIslands;
+		this.nameHashVersion = cfg.nameHashVersion;
 		this.cutDeltaChains = cfg.cutDeltaChains;
 		this.singlePack = cfg.singlePack;
 		this.searchForReuseTimeout = cfg.searchForReuseTimeout;
@@ -605,6 +717,66 @@ public void setDeltaCompress(boolean deltaCompress) {
 		this.deltaCompress = deltaCompress;
 	}
 
+	/**
+	 * Check whether garbage collection keeps a delta search cache.
+	 *
+	 * Default setting: {@value #DEFAULT_DELTA_SEARCH_CACHE}
+	 *
+	 * @return true if repacking remembers the outcome of the delta search
+	 *         for the next repack.
+	 * @since 7.3
+	 */
+	public boolean isDeltaSearchCache() {
+		return deltaSearchCache;
+	}
+
+	/**
+	 * Set whether garbage collection keeps a delta search cache.
+	 * <p>
+	 * When enabled, repacking stores which pairs of large objects were
+	 * compared during the delta search without finding a delta small enough.
+	 * The next repack skips these pairs without loading them, which makes
+	 * repeated repacks without delta reuse much cheaper.
+	 *
+	 * Default setting: {@value #DEFAULT_DELTA_SEARCH_CACHE}
+	 *
+	 * @param cache
+	 *            true to keep a delta search cache.
+	 * @since 7.3
+	 */
+	public void setDeltaSearchCache(boolean cache) {
+		this.deltaSearchCache = cache;
+	}
+
+	/**
+	 * Get the maximum number of pairs kept by the delta search cache.
+	 *
+	 * Default setting: {@value #DEFAULT_DELTA_SEARCH_CACHE_LIMIT}
+	 *
+	 * @return maximum number of pairs kept by the delta search cache.
+	 * @since 7.3
+	 */
+	public int getDeltaSearchCacheLimit() {
+		return deltaSearchCacheLimit;
+	}
+
+	/**
+	 * Set the maximum number of pairs kept by the delta search cache.
+	 *
+	 * Pairs beyond this limit are neither kept in memory nor written to the
+	 * cache file.
+	 *
+	 * Default setting: {@value #DEFAULT_DELTA_SEARCH_CACHE_LIMIT}
+	 *
+	 * @param limit
+	 *            maximum number of pairs.
+	 * @since 7.3
+	 * @see #setDeltaSearchCache(boolean)
+	 */
+	public void setDeltaSearchCacheLimit(int limit) {
+		this.deltaSearchCacheLimit = limit;
+	}
+
 	/**
 	 * Get maximum depth of delta chain set up for the writer.
 	 *
@@ -809,6 +981,41 @@ public void setDeltaCacheLimit(int size) {
 		deltaCacheLimit = size;
 	}
 
+	/**
+	 * Get the memory limit of deflating objects ahead of the writer.
+	 *
+	 * Default setting: {@value #DEFAULT_DEFLATE_BUFFER_LIMIT}
+	 *
+	 * @return maximum number of bytes used by objects deflated ahead of the
+	 *         writer.
+	 * @since 7.3
+	 */
+	public long getDeflateBufferLimit() {
+		return deflateBufferLimit;
+	}
+
+	/**
+	 * Set the memory limit of deflating objects ahead of the writer.
+	 *
+	 * When an executor or more than one thread is set, objects which cannot
+	 * be copied as-is are deflated on worker threads ahead of the writer. With
+	 * the default of 0 threads and no executor they are deflated by the
+	 * writer. Before an object is loaded its expected memory use is reserved
+	 * from this limit, and the reservation is only released once the writer
+	 * has written the deflated object. Objects not fitting are left to the
+	 * writer.
+	 *
+	 * Default setting: {@value #DEFAULT_DEFLATE_BUFFER_LIMIT}
+	 *
+	 * @param limit
+	 *            maximum number of bytes used by objects deflated ahead of
+	 *            the writer. A single object is always allowed.
+	 * @since 7.3
+	 */
+	public void setDeflateBufferLimit(long limit) {
+		deflateBufferLimit = limit;
+	}
+
 	/**
 	 * Get the maximum file size that will be delta compressed.
 	 *
@@ -930,6 +1137,150 @@ public void setCompressionLevel(int level) {
 		compressionLevel = level;
 	}
 
+	/**
+	 * Get the compression level applied to objects of a type.
+	 *
+	 * Default setting: the level of {@link #getCompressionLevel()}
+	 *
+	 * @param type
+	 *            type of the objects, one of
+	 *            {@link org.eclipse.jgit.lib.Constants#OBJ_COMMIT},
+	 *            {@link org.eclipse.jgit.lib.Constants#OBJ_TREE},
+	 *            {@link org.eclipse.jgit.lib.Constants#OBJ_BLOB} or
+	 *            {@link org.eclipse.jgit.lib.Constants#OBJ_TAG}.
+	 * @return compression level of objects of {@code type}, see
+	 *         {@link java.util.zip.Deflater}.
+	 * @since 7.3
+	 */
+	public int getCompressionLevel(int type) {
+		if (type >= OBJ_COMMIT && type <= OBJ_TAG
+				&& typeCompressionLevels[type] != UNSET_LEVEL) {
+			return typeCompressionLevels[type];
+		}
+		return compressionLevel;
+	}
+
+	/**
+	 * Set the compression level applied to objects of a type.
+	 * <p>
+	 * Trees and commits are small and read often, they may be compressed
+	 * harder than the blobs, which usually make up most of the time spent
+	 * compressing a pack.
+	 *
+	 * Default setting: the level of {@link #getCompressionLevel()}
+	 *
+	 * @param type
+	 *            type of the objects, one of
+	 *            {@link org.eclipse.jgit.lib.Constants#OBJ_COMMIT},
+	 *            {@link org.eclipse.jgit.lib.Constants#OBJ_TREE},
+	 *            {@link org.eclipse.jgit.lib.Constants#OBJ_BLOB} or
+	 *            {@link org.eclipse.jgit.lib.Constants#OBJ_TAG}.
+	 * @param level
+	 *            compression level, must be a valid level recognized by the
+	 *            {@link java.util.zip.Deflater} class.
+	 * @since 7.3
+	 */
+	public void setCompressionLevel(int type, int level) {
+		if (type < OBJ_COMMIT || type > OBJ_TAG) {
+			throw new IllegalArgumentException(
+					MessageFormat.format(JGitText.get().badObjectType,
+							Integer.valueOf(type)));
+		}
+		typeCompressionLevels[type] = level;
+	}
+
+	/**
+	 * Get the compression level applied to objects at least as large as the
+	 * {@link #getBigFileThreshold() big file threshold}.
+	 *
+	 * Default setting: the level of {@link #getCompressionLevel(int)} for
+	 * blobs
+	 *
+	 * @return compression level of big objects, see
+	 *         {@link java.util.zip.Deflater}.
+	 * @since 7.3
+	 */
+	public int getBigFileCompressionLevel() {
+		if (bigFileCompressionLevel != UNSET_LEVEL) {
+			return bigFileCompressionLevel;
+		}
+		return getCompressionLevel(OBJ_BLOB);
+	}
+
+	/**
+	 * Set the compression level applied to objects at least as large as the
+	 * {@link #getBigFileThreshold() big file threshold}.
+	 * <p>
+	 * Big objects are streamed through the compressor while the pack is
+	 * written, a fast level keeps them from stalling the writer.
+	 *
+	 * Default setting: the level of {@link #getCompressionLevel(int)} for
+	 * blobs
+	 *
+	 * @param level
+	 *            compression level, must be a valid level recognized by the
+	 *            {@link java.util.zip.Deflater} class.
+	 * @since 7.3
+	 */
+	public void setBigFileCompressionLevel(int level) {
+		bigFileCompressionLevel = level;
+	}
+
+	/**
+	 * Get the compression level applied to an object.
+	 *
+	 * @param type
+	 *            type of the object.
+	 * @param size
+	 *            inflated size of the object, or of its delta.
+	 * @return compression level of the object, see
+	 *         {@link java.util.zip.Deflater}.
+	 * @since 7.3
+	 */
+	public int getCompressionLevel(int type, long size) {
+		if (size >= bigFileThreshold) {
+			return getBigFileCompressionLevel();
+		}
+		return getCompressionLevel(type);
+	}
+
+	/**
+	 * Whether the compression level is lowered while compressing is slower
+	 * than writing the pack.
+	 *
+	 * Default setting: {@value #DEFAULT_ADAPTIVE_COMPRESSION}
+	 *
+	 * @return whether the compression level adapts to the speed of the
+	 *         output.
+	 * @since 7.3
+	 */
+	public boolean isAdaptiveCompression() {
+		return adaptiveCompression;
+	}
+
+	/**
+	 * Set whether the compression level is lowered while compressing is slower
+	 * than writing the pack.
+	 * <p>
+	 * If enabled, the writer measures how long it waits for the output stream.
+	 * While the output keeps up and compressing is the bottleneck the
+	 * configured levels are lowered step by step, down to
+	 * {@link java.util.zip.Deflater#BEST_SPEED}, trading a slightly larger
+	 * pack for less CPU. They are raised again when the writer waits for the
+	 * output. The time waited is reported by
+	 * {@link PackStatistics#getTimeOutputBlocked()}.
+	 *
+	 * Default setting: {@value #DEFAULT_ADAPTIVE_COMPRESSION}
+	 *
+	 * @param adaptive
+	 *            whether the compression level adapts to the speed of the
+	 *            output.
+	 * @since 7.3
+	 */
+	public void setAdaptiveCompression(boolean adaptive) {
+		adaptiveCompression = adaptive;
+	}
+
 	/**
 	 * Get the number of threads used during delta compression.
 	 *
@@ -1339,6 +1690,111 @@ public void setBitmapExcludedRefsPrefixes(String[] excludedRefsPrefixes) {
 		bitmapExcludedRefsPrefixes = excludedRefsPrefixes;
 	}
 
+	/**
+	 * Get the number of commits grouped into a pseudo-merge bitmap.
+	 *
+	 * Default setting: {@value #DEFAULT_BITMAP_PSEUDO_MERGE_SIZE}
+	 *
+	 * @return the number of commits grouped into a pseudo-merge bitmap, or 0
+	 *         if pseudo-merge bitmaps are not written.
+	 * @since 7.3
+	 */
+	public int getBitmapPseudoMergeSize() {
+		return bitmapPseudoMergeSize;
+	}
+
+	/**
+	 * Set the number of commits grouped into a pseudo-merge bitmap.
+	 * <p>
+	 * The wanted commits which get no bitmap of their own, such as the tips of
+	 * refs excluded by {@link #setBitmapExcludedRefsPrefixes(String[])}, are
+	 * grouped by age into pseudo-merges of this many commits. The bitmap index
+	 * stores the objects reachable from each group, so the objects reachable
+	 * from a large number of refs can be found with a few bitmap operations
+	 * instead of a walk from every tip.
+	 *
+	 * Default setting: {@value #DEFAULT_BITMAP_PSEUDO_MERGE_SIZE}
+	 *
+	 * @param size
+	 *            the number of commits grouped into a pseudo-merge bitmap, 0
+	 *            to not write pseudo-merge bitmaps.
+	 * @since 7.3
+	 */
+	public void setBitmapPseudoMergeSize(int size) {
+		bitmapPseudoMergeSize = size;
+	}
+
+	/**
+	 * Get the patterns defining delta islands.
+	 *
+	 * @return the regular expressions matched against ref names to assign
+	 *         refs to delta islands.
+	 * @since 7.3
+	 */
+	public String[] getDeltaIslands() {
+		return deltaIslands;
+	}
+
+	/**
+	 * Set the patterns defining delta islands.
+	 * <p>
+	 * Each pattern is a regular expression searched for in the ref names
+	 * handed to the writer. Refs matched by the same pattern and with the same
+	 * values of its capturing groups (joined by {@code -}) form one island;
+	 * if several patterns match a ref the last one wins. An object may only
+	 * be stored as a delta against a base that is part of every island the
+	 * object itself belongs to. Serving any single island, e.g. one fork of a
+	 * fork network sharing the object store, can then reuse all deltas as-is.
+	 * <p>
+	 * Default setting: no islands, any object may be used as delta base.
+	 *
+	 * @param patterns
+	 *            the regular expressions defining the islands; an empty
+	 *            array disables delta islands.
+	 * @since 7.3
+	 */
+	public void setDeltaIslands(String[] patterns) {
+		deltaIslands = patterns;
+	}
+
+	/**
+	 * Get the version of the path name hash grouping objects for delta
+	 * search.
+	 *
+	 * Default setting: {@value #DEFAULT_NAME_HASH_VERSION}
+	 *
+	 * @return the name hash version, 1 or 2.
+	 * @since 7.3
+	 */
+	public int getNameHashVersion() {
+		return nameHashVersion;
+	}
+
+	/**
+	 * Set the version of the path name hash grouping objects for delta
+	 * search.
+	 * <p>
+	 * Objects are sorted by a hash of their path before searching for deltas,
+	 * so objects of similar paths are compared with each other. Version 1
+	 * hashes the last 16 bytes of the path, which puts all files of a common
+	 * name like {@code pom.xml} into the same group. Version 2 hashes the
+	 * complete path (see
+	 * {@link org.eclipse.jgit.revwalk.ObjectWalk#getFullPathHashCode()}), so
+	 * only the versions of one file are grouped, which usually yields smaller
+	 * deltas and fewer wasted comparisons in repositories with many files of
+	 * the same name.
+	 *
+	 * Default setting: {@value #DEFAULT_NAME_HASH_VERSION}
+	 *
+	 * @param version
+	 *            the name hash version, 1 or 2. Other values select version
+	 *            1.
+	 * @since 7.3
+	 */
+	public void setNameHashVersion(int version) {
+		nameHashVersion = version;
+	}
+
 	/**
 	 * Set the max time to spend during the search for reuse phase.
 	 *
@@ -1411,9 +1867,22 @@ public void fromConfig(Config rc) {
 				CONFIG_KEY_DELTA_CACHE_SIZE, getDeltaCacheSize()));
 		setDeltaCacheLimit(rc.getInt(CONFIG_PACK_SECTION,
 				CONFIG_KEY_DELTA_CACHE_LIMIT, getDeltaCacheLimit()));
+		setDeflateBufferLimit(rc.getLong(CONFIG_PACK_SECTION,
+				CONFIG_KEY_DEFLATE_BUFFER_LIMIT, getDeflateBufferLimit()));
 		setCompressionLevel(rc.getInt(CONFIG_PACK_SECTION,
 				CONFIG_KEY_COMPRESSION, rc.getInt(CONFIG_CORE_SECTION,
 						CONFIG_KEY_COMPRESSION, getCompressionLevel())));
+		setCompressionLevel(OBJ_COMMIT, rc, CONFIG_KEY_COMMIT_COMPRESSION);
+		setCompressionLevel(OBJ_TREE, rc, CONFIG_KEY_TREE_COMPRESSION);
+		setCompressionLevel(OBJ_BLOB, rc, CONFIG_KEY_BLOB_COMPRESSION);
+		setCompressionLevel(OBJ_TAG, rc, CONFIG_KEY_TAG_COMPRESSION);
+		int bigFileLevel = rc.getInt(CONFIG_PACK_SECTION,
+				CONFIG_KEY_BIG_FILE_COMPRESSION, UNSET_LEVEL);
+		if (bigFileLevel != UNSET_LEVEL) {
+			setBigFileCompressionLevel(bigFileLevel);
+		}
+		setAdaptiveCompression(rc.getBoolean(CONFIG_PACK_SECTION,
+				CONFIG_KEY_ADAPTIVE_COMPRESSION, isAdaptiveCompression()));
 		setIndexVersion(rc.getInt(CONFIG_PACK_SECTION,
 				CONFIG_KEY_INDEXVERSION,
 				getIndexVersion()));
@@ -1469,6 +1938,21 @@ public void fromConfig(Config rc) {
 		if(excludedRefsPrefixesArray.length > 0) {
 			setBitmapExcludedRefsPrefixes(excludedRefsPrefixesArray);
 		}
+		setBitmapPseudoMergeSize(rc.getInt(CONFIG_PACK_SECTION,
+				CONFIG_KEY_BITMAP_PSEUDO_MERGE_SIZE,
+				getBitmapPseudoMergeSize()));
+		String[] islands = rc.getStringList(CONFIG_PACK_SECTION, null,
+				CONFIG_KEY_ISLAND);
+		if (islands.length > 0) {
+			setDeltaIslands(islands);
+		}
+		setDeltaSearchCache(rc.getBoolean(CONFIG_PACK_SECTION,
+				CONFIG_KEY_DELTA_SEARCH_CACHE, isDeltaSearchCache()));
+		setDeltaSearchCacheLimit(rc.getInt(CONFIG_PACK_SECTION,
+				CONFIG_KEY_DELTA_SEARCH_CACHE_LIMIT,
+				getDeltaSearchCacheLimit()));
+		setNameHashVersion(rc.getInt(CONFIG_PACK_SECTION,
+				CONFIG_KEY_NAME_HASH_VERSION, getNameHashVersion()));
 		setSearchForReuseTimeout(Duration.ofSeconds(rc.getTimeUnit(
 				CONFIG_PACK_SECTION, null,
 				CONFIG_KEY_SEARCH_FOR_REUSE_TIMEOUT,
@@ -1487,6 +1971,13 @@ public void fromConfig(Config rc) {
 				CONFIG_KEY_PRUNE_PRESERVED, DEFAULT_PRUNE_PRESERVED));
 	}
 
+	private void setCompressionLevel(int type, Config rc, String key) {
+		int level = rc.getInt(CONFIG_PACK_SECTION, key, UNSET_LEVEL);
+		if (level != UNSET_LEVEL) {
+			setCompressionLevel(type, level);
+		}
+	}
+
 	@Override
 	public String toString() {
 		final StringBuilder b = new StringBuilder();
@@ -1496,13 +1987,33 @@ public String toString() {
 				.append(getDeltaSearchMemoryLimit());
 		b.append(", deltaCacheSize=").append(getDeltaCacheSize()); //$NON-NLS-1$
 		b.append(", deltaCacheLimit=").append(getDeltaCacheLimit()); //$NON-NLS-1$
+		b.append(", deltaSearchCache=").append(isDeltaSearchCache()); //$NON-NLS-1$
+		b.append(", deltaSearchCacheLimit=") //$NON-NLS-1$
+				.append(getDeltaSearchCacheLimit());
+		b.append(", deflateBufferLimit=") //$NON-NLS-1$
+				.append(getDeflateBufferLimit());
 		b.append(", compressionLevel=").append(getCompressionLevel()); //$NON-NLS-1$
+		b.append(", commitCompressionLevel=") //$NON-NLS-1$
+				.append(getCompressionLevel(OBJ_COMMIT));
+		b.append(", treeCompressionLevel=") //$NON-NLS-1$
+				.append(getCompressionLevel(OBJ_TREE));
+		b.append(", blobCompressionLevel=") //$NON-NLS-1$
+				.append(getCompressionLevel(OBJ_BLOB));
+		b.append(", tagCompressionLevel=") //$NON-NLS-1$
+				.append(getCompressionLevel(OBJ_TAG));
+		b.append(", bigFileCompressionLevel=") //$NON-NLS-1$
+				.append(getBigFileCompressionLevel());
+		b.append(", adaptiveCompression=") //$NON-NLS-1$
+				.append(isAdaptiveCompression());
 		b.append(", indexVersion=").append(getIndexVersion()); //$NON-NLS-1$
 		b.append(", bigFileThreshold=").append(getBigFileThreshold()); //$NON-NLS-1$
 		b.append(", threads=").append(getThreads()); //$NON-NLS-1$
 		b.append(", reuseDeltas=").append(isReuseDeltas()); //$NON-NLS-1$
 		b.append(", reuseObjects=").append(isReuseObjects()); //$NON-NLS-1$
 		b.append(", deltaCompress=").append(isDeltaCompress()); //$NON-NLS-1$
+		b.append(", deltaIslands=") //$NON-NLS-1$
+				.append(Arrays.toString(getDeltaIslands()));
+		b.append(", nameHashVersion=").append(getNameHashVersion()); //$NON-NLS-1$
 		b.append(", writeReverseIndex=").append(isWriteReverseIndex()); //$NON-NLS-1$
 		b.append(", buildBitmaps=").append(isBuildBitmaps()); //$NON-NLS-1$
 		b.append(", bitmapContiguousCommitCount=") //$NON-NLS-1$
@@ -1517,6 +2028,8 @@ public String toString() {
 				.append(getBitmapExcessiveBranchCount());
 		b.append(", bitmapInactiveBranchAge=") //$NON-NLS-1$
 				.append(getBitmapInactiveBranchAgeInDays());
+		b.append(", bitmapPseudoMergeSize=") //$NON-NLS-1$
+				.append(getBitmapPseudoMergeSize());
 		b.append(", searchForReuseTimeout") //$NON-NLS-1$
 				.append(getSearchForReuseTimeout());
 		b.append(", singlePack=").append(getSinglePack()); //$NON-NLS-1$
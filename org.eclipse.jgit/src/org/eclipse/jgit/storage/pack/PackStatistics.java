@@ -287,6 +287,14 @@ public static class Accumulator {
 		/** Time in ms spent writing the pack. */
 		public long timeWriting;
 
+		/**
+		 * Time in ms the writer was blocked by the output stream, if
+		 * measured.
+		 *
+		 * @since 7.3
+		 */
+		public long timeOutputBlocked;
+
 		/** Time in ms spent checking reachability.
 		 *
 		 * @since 5.10
@@ -642,6 +650,23 @@ public long getTimeWriting() {
 		return statistics.timeWriting;
 	}
 
+	/**
+	 * Get time in milliseconds the writer was blocked writing to the output
+	 * stream.
+	 * <p>
+	 * Only measured if {@link PackConfig#isAdaptiveCompression()} is set, 0
+	 * otherwise.
+	 *
+	 * @return time in milliseconds the writer was blocked writing to the
+	 *         output stream. If this is a small part of
+	 *         {@link #getTimeWriting()}, compressing and not the output limited
+	 *         the speed of writing the pack.
+	 * @since 7.3
+	 */
+	public long getTimeOutputBlocked() {
+		return statistics.timeOutputBlocked;
+	}
+
 	/**
 	 * Get time in milliseconds spent checking if the client has access to the
 	 * commits they are requesting.
@@ -13,6 +13,7 @@
 
 package org.eclipse.jgit.transport;
 
+import static org.eclipse.jgit.transport.GitProtocolConstants.COMMAND_BUNDLE_URI;
 import static org.eclipse.jgit.transport.GitProtocolConstants.COMMAND_LS_REFS;
 import static org.eclipse.jgit.transport.GitProtocolConstants.OPTION_AGENT;
 import static org.eclipse.jgit.transport.GitProtocolConstants.REF_ATTR_PEELED;
@@ -25,6 +26,7 @@
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -32,6 +34,7 @@
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -115,6 +118,9 @@ abstract class BasePackConnection extends BaseConnection {
 	/** Extra objects the remote has, but which aren't offered as refs. */
 	protected final Set<ObjectId> additionalHaves = new HashSet<>();
 
+	/** Bundles listed by the remote, if they were requested. */
+	protected BundleList bundleList;
+
 	private TransferConfig.ProtocolVersion protocol = TransferConfig.ProtocolVersion.V0;
 
 	BasePackConnection(PackTransport packTransport) {
@@ -314,6 +320,51 @@ protected void lsRefs(Collection<RefSpec> refSpecs,
 		}
 	}
 
+	/**
+	 * Whether to request the bundle list of the remote.
+	 * <p>
+	 * Only valid after {@link #readAdvertisedRefs()} returned {@code false}.
+	 *
+	 * @return true if the transport asks for bundles and the remote
+	 *         advertised the protocol V2 bundle-uri command
+	 */
+	protected boolean wantsBundleList() {
+		return transport.isBundleUri() && isCapableOf(COMMAND_BUNDLE_URI);
+	}
+
+	/**
+	 * Issue a protocol V2 bundle-uri command and read its response into
+	 * {@link #bundleList}.
+	 *
+	 * @throws TransportException
+	 *             if the command could not be run or its output not be read
+	 */
+	protected void readBundleList() throws TransportException {
+		try {
+			readBundleListImpl();
+		} catch (TransportException err) {
+			close();
+			throw err;
+		} catch (IOException | RuntimeException err) {
+			close();
+			throw new TransportException(err.getMessage(), err);
+		}
+	}
+
+	private void readBundleListImpl() throws IOException {
+		pckOut.writeString("command=" + COMMAND_BUNDLE_URI); //$NON-NLS-1$
+		String agent = UserAgent.get();
+		if (agent != null && isCapableOf(OPTION_AGENT)) {
+			pckOut.writeString(OPTION_AGENT + '=' + agent);
+		}
+		pckOut.end();
+		List<String> lines = new ArrayList<>();
+		for (String line; (line = readLine()) != null;) {
+			lines.add(line);
+		}
+		bundleList = BundleList.parse(lines);
+	}
+
 	private void lsRefsImpl(Collection<RefSpec> refSpecs,
 			String... additionalPatterns) throws IOException {
 		pckOut.writeString("command=" + COMMAND_LS_REFS); //$NON-NLS-1$
@@ -219,6 +219,10 @@ public abstract class BasePackFetchConnection extends BasePackConnection
 
 	private boolean useNegotiationTip;
 
+	private final NegotiationAlgorithm negotiationAlgorithm;
+
+	private SkippingNegotiator skipping;
+
 	private boolean noDone;
 
 	private boolean noProgress;
@@ -264,10 +268,12 @@ public BasePackFetchConnection(PackTransport packTransport) {
 			allowOfsDelta = cfg.allowOfsDelta;
 			maxHaves = cfg.maxHaves;
 			useNegotiationTip = cfg.useNegotiationTip;
+			negotiationAlgorithm = cfg.negotiationAlgorithm;
 		} else {
 			allowOfsDelta = true;
 			maxHaves = Integer.MAX_VALUE;
 			useNegotiationTip = false;
+			negotiationAlgorithm = NegotiationAlgorithm.CONSECUTIVE;
 		}
 
 		includeTags = transport.getTagOpt() != TagOpt.NO_TAGS;
@@ -298,6 +304,37 @@ public BasePackFetchConnection(PackTransport packTransport) {
 		}
 	}
 
+	/** Config values for {@code fetch.negotiationAlgorithm}. */
+	enum NegotiationAlgorithm implements Config.ConfigEnum {
+		/** Send all commits, newest first. */
+		CONSECUTIVE("consecutive"), //$NON-NLS-1$
+
+		/** Send commits skipping more of them the older they are. */
+		SKIPPING("skipping"), //$NON-NLS-1$
+
+		/** Send no commits at all. */
+		NOOP("noop"); //$NON-NLS-1$
+
+		private final String configValue;
+
+		NegotiationAlgorithm(String configValue) {
+			this.configValue = configValue;
+		}
+
+		@Override
+		public String toConfigValue() {
+			return configValue;
+		}
+
+		@Override
+		public boolean matchConfigValue(String s) {
+			if (this == CONSECUTIVE && "default".equalsIgnoreCase(s)) { //$NON-NLS-1$
+				return true;
+			}
+			return configValue.equalsIgnoreCase(s);
+		}
+	}
+
 	static class FetchConfig {
 		final boolean allowOfsDelta;
 
@@ -305,11 +342,18 @@ static class FetchConfig {
 
 		final boolean useNegotiationTip;
 
+		final NegotiationAlgorithm negotiationAlgorithm;
+
 		FetchConfig(Config c) {
 			allowOfsDelta = c.getBoolean("repack", "usedeltabaseoffset", true); //$NON-NLS-1$ //$NON-NLS-2$
 			maxHaves = c.getInt("fetch", "maxhaves", Integer.MAX_VALUE); //$NON-NLS-1$ //$NON-NLS-2$
 			useNegotiationTip = c.getBoolean("fetch", "usenegotiationtip", //$NON-NLS-1$ //$NON-NLS-2$
 					false);
+			NegotiationAlgorithm algorithm = c.getEnum(
+					NegotiationAlgorithm.values(), "fetch", null, //$NON-NLS-1$
+					"negotiationalgorithm"); //$NON-NLS-1$
+			negotiationAlgorithm = algorithm != null ? algorithm
+					: NegotiationAlgorithm.CONSECUTIVE;
 		}
 
 		FetchConfig(boolean allowOfsDelta, int maxHaves) {
@@ -329,9 +373,29 @@ static class FetchConfig {
 		 */
 		FetchConfig(boolean allowOfsDelta, int maxHaves,
 				boolean useNegotiationTip) {
+			this(allowOfsDelta, maxHaves, useNegotiationTip,
+					NegotiationAlgorithm.CONSECUTIVE);
+		}
+
+		/**
+		 * @param allowOfsDelta
+		 *            when true optimizes the pack size by deltafying base
+		 *            object
+		 * @param maxHaves
+		 *            max haves to be sent per negotiation
+		 * @param useNegotiationTip
+		 *            if true uses the wanted refs instead of all refs as source
+		 *            of the "have" list to send.
+		 * @param negotiationAlgorithm
+		 *            how to choose the "have" lines to send.
+		 */
+		FetchConfig(boolean allowOfsDelta, int maxHaves,
+				boolean useNegotiationTip,
+				NegotiationAlgorithm negotiationAlgorithm) {
 			this.allowOfsDelta = allowOfsDelta;
 			this.maxHaves = maxHaves;
 			this.useNegotiationTip = useNegotiationTip;
+			this.negotiationAlgorithm = negotiationAlgorithm;
 		}
 	}
 
@@ -360,6 +424,11 @@ public boolean didFetchTestConnectivity() {
 		return false;
 	}
 
+	@Override
+	public BundleList getBundleList() {
+		return bundleList;
+	}
+
 	@Override
 	public void setPackLockMessage(String message) {
 		lockMessage = message;
@@ -375,6 +444,7 @@ public Collection<PackLock> getPackLocks() {
 	private void clearState() {
 		walk.dispose();
 		reachableCommits = null;
+		skipping = null;
 		state = null;
 		pckState = null;
 	}
@@ -566,7 +636,7 @@ private boolean sendNextHaveBatch(FetchStateV2 fetchState,
 			throws IOException, CancelledException {
 		long n = 0;
 		while (n < fetchState.havesToSend) {
-			final RevCommit c = walk.next();
+			final RevCommit c = nextHave();
 			if (c == null) {
 				break;
 			}
@@ -906,7 +976,7 @@ private void negotiate(ProgressMonitor monitor, boolean mayHaveShallow, Set<Obje
 
 		negotiateBegin();
 		SEND_HAVES: for (;;) {
-			final RevCommit c = walk.next();
+			final RevCommit c = nextHave();
 			if (c == null) {
 				break SEND_HAVES;
 			}
@@ -1069,6 +1139,11 @@ private void negotiate(ProgressMonitor monitor, boolean mayHaveShallow, Set<Obje
 
 	private void negotiateBegin() throws IOException {
 		walk.resetRetain(REACHABLE, ADVERTISED);
+		if (negotiationAlgorithm == NegotiationAlgorithm.SKIPPING) {
+			skipping = new SkippingNegotiator(walk, COMMON, ADVERTISED,
+					reachableCommits);
+			return;
+		}
 		walk.markStart(reachableCommits);
 		walk.sort(RevSort.COMMIT_TIME_DESC);
 		walk.setRevFilter(new RevFilter() {
@@ -1098,6 +1173,17 @@ public boolean requiresCommitBody() {
 		});
 	}
 
+	private RevCommit nextHave() throws IOException {
+		switch (negotiationAlgorithm) {
+		case SKIPPING:
+			return skipping.next();
+		case NOOP:
+			return null;
+		default:
+			return walk.next();
+		}
+	}
+
 	private void markRefsAdvertised() {
 		for (Ref r : getRefs()) {
 			markAdvertised(r.getObjectId());
@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.eclipse.jgit.errors.PackProtocolException;
+import org.eclipse.jgit.internal.JGitText;
+
+/**
+ * List of bundles a server suggests to fetch before fetching from it.
+ * <p>
+ * The list is sent in response to the protocol V2 bundle-uri command as lines
+ * of the form {@code key=value}:
+ *
+ * <pre>
+ * bundle.version=1
+ * bundle.mode=all
+ * bundle.heuristic=creationToken
+ * bundle.&lt;id&gt;.uri=&lt;uri&gt;
+ * bundle.&lt;id&gt;.creationToken=&lt;number&gt;
+ * </pre>
+ *
+ * Keys are case insensitive, unknown keys are ignored.
+ *
+ * @since 7.3
+ */
+public class BundleList {
+	/** Mode in which all bundles are needed to get the listed history. */
+	public static final String MODE_ALL = "all"; //$NON-NLS-1$
+
+	/** Mode in which any one bundle is enough to get the listed history. */
+	public static final String MODE_ANY = "any"; //$NON-NLS-1$
+
+	/** Heuristic ordering the bundles by their creation token. */
+	public static final String HEURISTIC_CREATION_TOKEN = "creationToken"; //$NON-NLS-1$
+
+	private static final String PREFIX = "bundle."; //$NON-NLS-1$
+
+	private static final String KEY_VERSION = "version"; //$NON-NLS-1$
+
+	private static final String KEY_MODE = "mode"; //$NON-NLS-1$
+
+	private static final String KEY_HEURISTIC = "heuristic"; //$NON-NLS-1$
+
+	private static final String KEY_URI = "uri"; //$NON-NLS-1$
+
+	private static final String KEY_CREATION_TOKEN = "creationtoken"; //$NON-NLS-1$
+
+	/** A bundle of the list. */
+	public static class Bundle {
+		private final String id;
+
+		private final String uri;
+
+		private final long creationToken;
+
+		/**
+		 * Create a bundle.
+		 *
+		 * @param id
+		 *            identifier of the bundle within the list
+		 * @param uri
+		 *            URI to download the bundle from
+		 * @param creationToken
+		 *            token increasing with the creation time of the bundle,
+		 *            or 0 if unknown
+		 */
+		public Bundle(String id, String uri, long creationToken) {
+			this.id = id;
+			this.uri = uri;
+			this.creationToken = creationToken;
+		}
+
+		/**
+		 * Get the identifier of the bundle.
+		 *
+		 * @return identifier of the bundle within the list
+		 */
+		public String getId() {
+			return id;
+		}
+
+		/**
+		 * Get the URI of the bundle.
+		 *
+		 * @return URI to download the bundle from
+		 */
+		public String getUri() {
+			return uri;
+		}
+
+		/**
+		 * Get the creation token of the bundle.
+		 *
+		 * @return token increasing with the creation time of the bundle, or 0
+		 *         if unknown
+		 */
+		public long getCreationToken() {
+			return creationToken;
+		}
+	}
+
+	private final String mode;
+
+	private final List<Bundle> bundles;
+
+	/**
+	 * Create a bundle list.
+	 *
+	 * @param mode
+	 *            {@link #MODE_ALL} or {@link #MODE_ANY}
+	 * @param bundles
+	 *            the bundles, in the order they should be fetched
+	 */
+	public BundleList(String mode, List<Bundle> bundles) {
+		this.mode = mode;
+		this.bundles = Collections.unmodifiableList(new ArrayList<>(bundles));
+	}
+
+	/**
+	 * Get the mode of the list.
+	 *
+	 * @return {@link #MODE_ALL} or {@link #MODE_ANY}
+	 */
+	public String getMode() {
+		return mode;
+	}
+
+	/**
+	 * Get the bundles of the list.
+	 *
+	 * @return the bundles, in the order they should be fetched
+	 */
+	public List<Bundle> getBundles() {
+		return bundles;
+	}
+
+	/**
+	 * Whether the list has no bundles.
+	 *
+	 * @return true if the list has no bundles
+	 */
+	public boolean isEmpty() {
+		return bundles.isEmpty();
+	}
+
+	/**
+	 * Whether the list uses the {@link #HEURISTIC_CREATION_TOKEN} heuristic.
+	 *
+	 * @return true if any bundle has a creation token
+	 */
+	public boolean isCreationTokenHeuristic() {
+		return bundles.stream().anyMatch(b -> b.getCreationToken() != 0);
+	}
+
+	/**
+	 * Format the list as sent by the bundle-uri command.
+	 *
+	 * @return lines of the list, without line terminators
+	 */
+	@SuppressWarnings("nls")
+	public List<String> toLines() {
+		List<String> lines = new ArrayList<>();
+		lines.add(PREFIX + KEY_VERSION + "=1");
+		lines.add(PREFIX + KEY_MODE + '=' + mode);
+		boolean tokens = isCreationTokenHeuristic();
+		if (tokens) {
+			lines.add(PREFIX + KEY_HEURISTIC + '=' + HEURISTIC_CREATION_TOKEN);
+		}
+		for (Bundle b : bundles) {
+			lines.add(PREFIX + b.getId() + '.' + KEY_URI + '=' + b.getUri());
+			if (tokens) {
+				lines.add(PREFIX + b.getId() + ".creationToken="
+						+ b.getCreationToken());
+			}
+		}
+		return lines;
+	}
+
+	/**
+	 * Parse a list sent by the bundle-uri command.
+	 *
+	 * @param lines
+	 *            lines of the list, without line terminators
+	 * @return the list; bundles without URI are dropped, creation tokens
+	 *         are dropped unless the list uses the
+	 *         {@link #HEURISTIC_CREATION_TOKEN} heuristic
+	 * @throws PackProtocolException
+	 *             if a line is not a key/value pair
+	 */
+	public static BundleList parse(List<String> lines)
+			throws PackProtocolException {
+		String mode = MODE_ALL;
+		boolean byToken = false;
+		Map<String, String> uris = new LinkedHashMap<>();
+		Map<String, Long> tokens = new LinkedHashMap<>();
+		for (String line : lines) {
+			int eq = line.indexOf('=');
+			if (eq <= 0) {
+				throw invalidLine(line);
+			}
+			String key = line.substring(0, eq);
+			String value = line.substring(eq + 1);
+			if (!key.toLowerCase(Locale.ROOT).startsWith(PREFIX)) {
+				continue;
+			}
+			key = key.substring(PREFIX.length());
+			int dot = key.lastIndexOf('.');
+			if (dot < 0) {
+				switch (key.toLowerCase(Locale.ROOT)) {
+				case KEY_MODE:
+					mode = value;
+					break;
+				case KEY_HEURISTIC:
+					byToken = HEURISTIC_CREATION_TOKEN.equalsIgnoreCase(value);
+					break;
+				default:
+					break;
+				}
+				continue;
+			}
+			String id = key.substring(0, dot);
+			switch (key.substring(dot + 1).toLowerCase(Locale.ROOT)) {
+			case KEY_URI:
+				uris.put(id, value);
+				break;
+			case KEY_CREATION_TOKEN:
+				try {
+					tokens.put(id, Long.valueOf(value));
+				} catch (NumberFormatException e) {
+					throw invalidLine(line);
+				}
+				break;
+			default:
+				break;
+			}
+		}
+
+		List<Bundle> bundles = new ArrayList<>(uris.size());
+		for (Map.Entry<String, String> e : uris.entrySet()) {
+			Long token = tokens.get(e.getKey());
+			bundles.add(new Bundle(e.getKey(), e.getValue(),
+					byToken && token != null ? token.longValue() : 0));
+		}
+		if (byToken) {
+			bundles.sort(Comparator.comparingLong(Bundle::getCreationToken));
+		}
+		return new BundleList(mode, bundles);
+	}
+
+	private static PackProtocolException invalidLine(String line) {
+		return new PackProtocolException(MessageFormat
+				.format(JGitText.get().invalidBundleListLine, line));
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ProgressMonitor;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.transport.http.HttpConnection;
+
+/**
+ * Fetches the bundles of a {@link BundleList} into a repository.
+ * <p>
+ * The branches of each bundle are stored below {@link #R_BUNDLES}, where a
+ * following fetch from the server finds them and negotiates only the history
+ * the bundles did not provide. Fetching the bundles is best effort: a bundle
+ * that cannot be downloaded, or whose prerequisites are missing, is skipped.
+ * Only {@code file}, {@code http} and {@code https} URIs are supported, and
+ * {@code file} URIs only if the bundles were not advertised by a server on
+ * another machine.
+ *
+ * @since 7.3
+ */
+public class BundleUriFetcher {
+	/** Prefix of the refs holding the branches of fetched bundles. */
+	public static final String R_BUNDLES = "refs/bundles/"; //$NON-NLS-1$
+
+	private static final RefSpec SPEC = new RefSpec(
+			"+" + Constants.R_HEADS + "*:" + R_BUNDLES + "*"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+	private final Repository local;
+
+	private final Transport transport;
+
+	/**
+	 * Create a fetcher of bundles given by the user.
+	 *
+	 * @param local
+	 *            repository to fetch the bundles into
+	 */
+	public BundleUriFetcher(Repository local) {
+		this.local = local;
+		this.transport = null;
+	}
+
+	/**
+	 * Create a fetcher of bundles advertised by the remote of a transport.
+	 * <p>
+	 * The bundles are downloaded with the credentials provider and timeout of
+	 * the transport. {@code file} URIs are skipped unless the remote
+	 * repository is on this machine.
+	 *
+	 * @param transport
+	 *            transport the bundles were advertised on; its local
+	 *            repository is the one the bundles are fetched into
+	 */
+	public BundleUriFetcher(Transport transport) {
+		this.local = transport.local;
+		this.transport = transport;
+	}
+
+	/**
+	 * Fetch the bundles of a list.
+	 * <p>
+	 * In {@link BundleList#MODE_ANY} fetching stops after the first bundle
+	 * fetched. If the list uses the
+	 * {@link BundleList#HEURISTIC_CREATION_TOKEN} heuristic, bundles whose
+	 * creation token is not above the {@code fetch.bundleCreationToken} of the
+	 * repository were fetched before and are skipped, and the highest creation
+	 * token fetched is stored there.
+	 *
+	 * @param list
+	 *            the bundles to fetch
+	 * @param monitor
+	 *            progress monitor for the fetches
+	 * @return number of bundles fetched
+	 */
+	public int fetch(BundleList list, ProgressMonitor monitor) {
+		StoredConfig config = local.getConfig();
+		long fetchedToken = config.getLong(
+				ConfigConstants.CONFIG_FETCH_SECTION, null,
+				ConfigConstants.CONFIG_KEY_BUNDLE_CREATION_TOKEN, 0);
+		long maxToken = fetchedToken;
+		int fetched = 0;
+		for (BundleList.Bundle b : list.getBundles()) {
+			long token = b.getCreationToken();
+			if (list.isCreationTokenHeuristic() && token <= fetchedToken) {
+				continue;
+			}
+			if (fetch(b, monitor)) {
+				fetched++;
+				maxToken = Math.max(maxToken, token);
+				if (BundleList.MODE_ANY.equalsIgnoreCase(list.getMode())) {
+					break;
+				}
+			}
+		}
+		if (maxToken > fetchedToken) {
+			config.setLong(ConfigConstants.CONFIG_FETCH_SECTION, null,
+					ConfigConstants.CONFIG_KEY_BUNDLE_CREATION_TOKEN,
+					maxToken);
+			try {
+				config.save();
+			} catch (IOException e) {
+				// The bundles are fetched again next time.
+			}
+		}
+		return fetched;
+	}
+
+	private boolean fetch(BundleList.Bundle bundle, ProgressMonitor monitor) {
+		try {
+			URI u = new URI(bundle.getUri());
+			String scheme = u.getScheme();
+			if ("file".equalsIgnoreCase(scheme)) { //$NON-NLS-1$
+				if (transport != null && !transport.isLocal()) {
+					return false;
+				}
+				try (InputStream in = Files.newInputStream(Paths.get(u))) {
+					fetch(new URIish(bundle.getUri()), in, monitor);
+				}
+				return true;
+			}
+			if ("http".equalsIgnoreCase(scheme) //$NON-NLS-1$
+					|| "https".equalsIgnoreCase(scheme)) { //$NON-NLS-1$
+				return fetchHttp(new URIish(bundle.getUri()), monitor);
+			}
+			return false;
+		} catch (URISyntaxException | IllegalArgumentException
+				| IOException e) {
+			// Best effort, the fetch from the server gets what is missing.
+			return false;
+		}
+	}
+
+	private boolean fetchHttp(URIish uri, ProgressMonitor monitor)
+			throws IOException {
+		try (Transport tn = Transport.open(local, uri)) {
+			if (!(tn instanceof TransportHttp)) {
+				return false;
+			}
+			if (transport != null) {
+				tn.setCredentialsProvider(transport.getCredentialsProvider());
+				tn.setTimeout(transport.getTimeout());
+			}
+			HttpConnection c = ((TransportHttp) tn).openFile();
+			if (c.getResponseCode() != HttpConnection.HTTP_OK) {
+				return false;
+			}
+			try (InputStream in = c.getInputStream()) {
+				fetch(uri, in, monitor);
+			}
+			return true;
+		}
+	}
+
+	private void fetch(URIish uri, InputStream in, ProgressMonitor monitor)
+			throws IOException {
+		try (Transport tn = new TransportBundleStream(local, uri, in)) {
+			tn.fetch(monitor, Collections.singleton(SPEC));
+		}
+	}
+}
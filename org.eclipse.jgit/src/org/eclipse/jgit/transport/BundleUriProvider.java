@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import java.io.IOException;
+
+import org.eclipse.jgit.annotations.Nullable;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Provider of the bundles listed by the protocol V2 bundle-uri command.
+ *
+ * @see UploadPack#setBundleUriProvider(BundleUriProvider)
+ * @since 7.3
+ */
+public interface BundleUriProvider {
+	/**
+	 * Get the bundles of a repository.
+	 *
+	 * @param repository
+	 *            the repository served
+	 * @return bundles clients may fetch before fetching from the repository;
+	 *         null or an empty list if there are none
+	 * @throws IOException
+	 *             if the bundles could not be listed
+	 */
+	@Nullable
+	BundleList getBundleList(Repository repository) throws IOException;
+}
@@ -19,6 +19,10 @@
 import java.net.Socket;
 import java.net.SocketAddress;
 import java.net.SocketException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.Collection;
 
@@ -53,6 +57,12 @@ public class Daemon {
 
 	private int timeout;
 
+	private int backlog = BACKLOG;
+
+	private int maxConnections;
+
+	private volatile Executor executor;
+
 	private PackConfig packConfig;
 
 	private volatile RepositoryResolver<DaemonClient> repositoryResolver;
@@ -194,6 +204,72 @@ public void setTimeout(int seconds) {
 		timeout = seconds;
 	}
 
+	/**
+	 * Get the maximum number of connections waiting to be accepted.
+	 *
+	 * @return maximum number of connections waiting to be accepted.
+	 * @since 7.3
+	 */
+	public int getBacklog() {
+		return backlog;
+	}
+
+	/**
+	 * Set the maximum number of connections waiting to be accepted.
+	 * <p>
+	 * Takes effect when the daemon is started.
+	 *
+	 * @param backlog
+	 *            maximum number of connections the operating system queues
+	 *            until they are accepted.
+	 * @since 7.3
+	 */
+	public void setBacklog(int backlog) {
+		this.backlog = backlog;
+	}
+
+	/**
+	 * Get the maximum number of concurrent connections.
+	 *
+	 * @return maximum number of concurrent connections; 0 if unlimited.
+	 * @since 7.3
+	 */
+	public int getMaxConnections() {
+		return maxConnections;
+	}
+
+	/**
+	 * Set the maximum number of concurrent connections.
+	 * <p>
+	 * While that many connections are served no more are accepted; further
+	 * clients wait in the backlog of the listening socket. Takes effect when
+	 * the daemon is started.
+	 *
+	 * @param max
+	 *            maximum number of concurrent connections; 0 if unlimited.
+	 * @since 7.3
+	 */
+	public void setMaxConnections(int max) {
+		maxConnections = max;
+	}
+
+	/**
+	 * Set the executor serving the connections.
+	 * <p>
+	 * By default every connection is served by a new thread. On Java 21 and
+	 * later {@code Executors.newVirtualThreadPerTaskExecutor()} allows serving
+	 * many slow clients without as many platform threads. The executor is not
+	 * shut down by the daemon.
+	 *
+	 * @param executor
+	 *            executor serving the connections; if {@code null} each
+	 *            connection is served by a new thread
+	 * @since 7.3
+	 */
+	public void setExecutor(@Nullable Executor executor) {
+		this.executor = executor;
+	}
+
 	/**
 	 * Get configuration controlling packing, may be null.
 	 *
@@ -268,9 +344,15 @@ private class Acceptor extends Thread {
 
 		private final AtomicBoolean running = new AtomicBoolean(true);
 
-		public Acceptor(ThreadGroup group, String name, ServerSocket socket) {
+		private final Semaphore connections;
+
+		public Acceptor(ThreadGroup group, String name, ServerSocket socket,
+				int maxConnections) {
 			super(group, name);
 			this.listenSocket = socket;
+			this.connections = maxConnections > 0
+					? new Semaphore(maxConnections)
+					: null;
 		}
 
 		@Override
@@ -278,10 +360,15 @@ public void run() {
 			setUncaughtExceptionHandler((thread, throwable) -> terminate());
 			while (isRunning()) {
 				try {
-					startClient(listenSocket.accept());
+					if (connections == null) {
+						startClient(listenSocket.accept(), null);
+					} else if (connections.tryAcquire(100,
+							TimeUnit.MILLISECONDS)) {
+						accept();
+					}
 				} catch (SocketException e) {
 					// Test again to see if we should keep accepting.
-				} catch (IOException e) {
+				} catch (IOException | InterruptedException e) {
 					break;
 				}
 			}
@@ -289,6 +376,17 @@ public void run() {
 			terminate();
 		}
 
+		private void accept() throws IOException {
+			Socket s;
+			try {
+				s = listenSocket.accept();
+			} catch (IOException e) {
+				connections.release();
+				throw e;
+			}
+			startClient(s, connections::release);
+		}
+
 		private void terminate() {
 			try {
 				shutDown();
@@ -327,13 +425,14 @@ public synchronized void start() throws IOException {
 		ServerSocket socket = new ServerSocket();
 		socket.setReuseAddress(true);
 		if (myAddress != null) {
-			socket.bind(myAddress, BACKLOG);
+			socket.bind(myAddress, backlog);
 		} else {
-			socket.bind(new InetSocketAddress((InetAddress) null, 0), BACKLOG);
+			socket.bind(new InetSocketAddress((InetAddress) null, 0), backlog);
 		}
 		myAddress = (InetSocketAddress) socket.getLocalSocketAddress();
 
-		acceptThread = new Acceptor(processors, "Git-Daemon-Accept", socket); //$NON-NLS-1$
+		acceptThread = new Acceptor(processors, "Git-Daemon-Accept", socket, //$NON-NLS-1$
+				maxConnections);
 		acceptThread.start();
 	}
 
@@ -377,38 +476,53 @@ public void stopAndWait() throws InterruptedException {
 		}
 	}
 
-	void startClient(Socket s) {
+	void startClient(Socket s, @Nullable Runnable onClose) {
 		final DaemonClient dc = new DaemonClient(this);
 
 		final SocketAddress peer = s.getRemoteSocketAddress();
 		if (peer instanceof InetSocketAddress)
 			dc.setRemoteAddress(((InetSocketAddress) peer).getAddress());
 
-		new Thread(processors, "Git-Daemon-Client " + peer.toString()) { //$NON-NLS-1$
-			@Override
-			public void run() {
-				try {
-					dc.execute(s);
-				} catch (ServiceNotEnabledException e) {
-					// Ignored. Client cannot use this repository.
-				} catch (ServiceNotAuthorizedException e) {
-					// Ignored. Client cannot use this repository.
-				} catch (IOException e) {
-					// Ignore unexpected IO exceptions from clients
-				} finally {
-					try {
-						s.getInputStream().close();
-					} catch (IOException e) {
-						// Ignore close exceptions
-					}
-					try {
-						s.getOutputStream().close();
-					} catch (IOException e) {
-						// Ignore close exceptions
-					}
-				}
+		Runnable session = () -> {
+			try {
+				dc.execute(s);
+			} catch (ServiceNotEnabledException e) {
+				// Ignored. Client cannot use this repository.
+			} catch (ServiceNotAuthorizedException e) {
+				// Ignored. Client cannot use this repository.
+			} catch (IOException e) {
+				// Ignore unexpected IO exceptions from clients
+			} finally {
+				close(s, onClose);
 			}
-		}.start();
+		};
+		Executor e = executor;
+		if (e == null) {
+			new Thread(processors, session,
+					"Git-Daemon-Client " + peer.toString()).start(); //$NON-NLS-1$
+			return;
+		}
+		try {
+			e.execute(session);
+		} catch (RejectedExecutionException err) {
+			close(s, onClose);
+		}
+	}
+
+	private static void close(Socket s, @Nullable Runnable onClose) {
+		try {
+			s.getInputStream().close();
+		} catch (IOException e) {
+			// Ignore close exceptions
+		}
+		try {
+			s.getOutputStream().close();
+		} catch (IOException e) {
+			// Ignore close exceptions
+		}
+		if (onClose != null) {
+			onClose.run();
+		}
 	}
 
 	synchronized DaemonService matchService(String cmd) {
@@ -12,9 +12,12 @@
 package org.eclipse.jgit.transport;
 
 import java.io.IOException;
+import java.text.MessageFormat;
 import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.jgit.annotations.Nullable;
+import org.eclipse.jgit.internal.JGitText;
 import org.eclipse.jgit.lib.Config;
 import org.eclipse.jgit.lib.Config.SectionParser;
 import org.eclipse.jgit.lib.Repository;
@@ -34,6 +37,10 @@ public abstract class DaemonService {
 
 	private boolean overridable;
 
+	private volatile int maxSessions;
+
+	private final AtomicInteger sessions = new AtomicInteger();
+
 	DaemonService(String cmdName, String cfgName) {
 		command = cmdName.startsWith("git-") ? cmdName : "git-" + cmdName; //$NON-NLS-1$ //$NON-NLS-2$
 		configKey = cfg -> new ServiceConfig(DaemonService.this, cfg, cfgName);
@@ -93,6 +100,30 @@ public void setOverridable(boolean on) {
 		overridable = on;
 	}
 
+	/**
+	 * Get the maximum number of concurrent sessions of this service.
+	 *
+	 * @return maximum number of concurrent sessions; 0 if unlimited.
+	 * @since 7.3
+	 */
+	public int getMaxSessions() {
+		return maxSessions;
+	}
+
+	/**
+	 * Set the maximum number of concurrent sessions of this service.
+	 * <p>
+	 * Clients requesting the service while that many sessions are active are
+	 * sent an error and disconnected.
+	 *
+	 * @param max
+	 *            maximum number of concurrent sessions; 0 if unlimited.
+	 * @since 7.3
+	 */
+	public void setMaxSessions(int max) {
+		maxSessions = max;
+	}
+
 	/**
 	 * Get name of the command requested by clients.
 	 *
@@ -120,6 +151,13 @@ void execute(DaemonClient client, String commandLine,
 			throws IOException, ServiceNotEnabledException,
 			ServiceNotAuthorizedException {
 		final String name = commandLine.substring(command.length() + 1);
+		if (!startSession()) {
+			PacketLineOut pktOut = new PacketLineOut(client.getOutputStream());
+			pktOut.writeString("ERR " + MessageFormat.format( //$NON-NLS-1$
+					JGitText.get().daemonServiceBusy, command) + "\n"); //$NON-NLS-1$
+			pktOut.flush();
+			return;
+		}
 		try (Repository db = client.getDaemon().openRepository(client, name)) {
 			if (isEnabledFor(db)) {
 				execute(client, db, extraParameters);
@@ -129,7 +167,18 @@ void execute(DaemonClient client, String commandLine,
 			// advertisement, so use that style of error.
 			PacketLineOut pktOut = new PacketLineOut(client.getOutputStream());
 			pktOut.writeString("ERR " + e.getMessage() + "\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		} finally {
+			sessions.decrementAndGet();
+		}
+	}
+
+	private boolean startSession() {
+		int max = maxSessions;
+		if (sessions.incrementAndGet() <= max || max <= 0) {
+			return true;
 		}
+		sessions.decrementAndGet();
+		return false;
 	}
 
 	private boolean isEnabledFor(Repository db) {
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Lists the bundles found in a local directory.
+ * <p>
+ * Every {@code *.bundle} file of the directory is listed by its {@code file:}
+ * URI, in {@link BundleList#MODE_ALL} mode. The bundles are ordered by their
+ * modification time, which is also used as their creation token. Bundles
+ * should therefore be written oldest first, for example a full bundle followed
+ * by incremental ones created with {@link BundleWriter#assume}. Clients only
+ * fetch {@code file:} URIs from a repository on their own machine.
+ *
+ * @since 7.3
+ */
+public class DirectoryBundleUriProvider implements BundleUriProvider {
+	private static final String SUFFIX = ".bundle"; //$NON-NLS-1$
+
+	private final File directory;
+
+	/**
+	 * Create a provider listing the bundles of a directory.
+	 *
+	 * @param directory
+	 *            the directory holding the bundles
+	 */
+	public DirectoryBundleUriProvider(File directory) {
+		this.directory = directory;
+	}
+
+	@Override
+	public BundleList getBundleList(Repository repository) throws IOException {
+		File[] files = directory
+				.listFiles((dir, name) -> name.endsWith(SUFFIX));
+		if (files == null) {
+			return null;
+		}
+		Arrays.sort(files, Comparator.comparingLong(File::lastModified)
+				.thenComparing(File::getName));
+		List<BundleList.Bundle> bundles = new ArrayList<>(files.length);
+		for (File f : files) {
+			String name = f.getName();
+			String id = name.substring(0, name.length() - SUFFIX.length());
+			bundles.add(new BundleList.Bundle(id, f.toURI().toString(),
+					Math.max(1, f.lastModified())));
+		}
+		return new BundleList(BundleList.MODE_ALL, bundles);
+	}
+}
@@ -185,4 +185,19 @@ void fetch(final ProgressMonitor monitor,
 	 *         order to safely permit garbage collection.
 	 */
 	Collection<PackLock> getPackLocks();
+
+	/**
+	 * Get the bundles the remote suggests to fetch before fetching from it.
+	 * <p>
+	 * Only connections speaking protocol V2 to a server advertising the
+	 * bundle-uri command request the list, and only if
+	 * {@link Transport#isBundleUri()} is set.
+	 *
+	 * @return bundles listed by the remote, or {@code null} if the list was
+	 *         not requested.
+	 * @since 7.3
+	 */
+	default BundleList getBundleList() {
+		return null;
+	}
 }
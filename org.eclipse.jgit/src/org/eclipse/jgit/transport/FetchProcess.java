@@ -152,6 +152,13 @@ private void executeImp(final ProgressMonitor monitor,
 		}
 		conn = transport.openFetch(toFetch, getTags, getHead);
 		try {
+			BundleList bundles = conn.getBundleList();
+			if (bundles != null && !bundles.isEmpty()
+					&& (getHead != null || bundles.isCreationTokenHeuristic())) {
+				// Without creation tokens there is no telling which bundles
+				// were fetched before, so fetch them only when cloning.
+				new BundleUriFetcher(transport).fetch(bundles, monitor);
+			}
 			Map<String, Ref> refsMap = conn.getRefsMap();
 			if (isInitialBranchMissing(refsMap, initialBranch)) {
 				throw new TransportException(MessageFormat.format(
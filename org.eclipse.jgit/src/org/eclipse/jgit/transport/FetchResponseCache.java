@@ -0,0 +1,386 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.eclipse.jgit.transport.GitProtocolConstants.OPTION_OFS_DELTA;
+import static org.eclipse.jgit.transport.GitProtocolConstants.OPTION_THIN_PACK;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jgit.annotations.Nullable;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.util.FileUtils;
+
+/**
+ * Keeps the packs sent by {@link UploadPack} for protocol V2 fetches on disk.
+ * <p>
+ * Clients like continuous integration systems often send the same fetch
+ * request over and over. With a cache set by
+ * {@link UploadPack#setFetchResponseCache(FetchResponseCache)} the pack
+ * generated for such a request is stored in a file, and sent from the file to
+ * later clients sending the same request.
+ * <p>
+ * Packs are keyed by the repository, the wanted objects (including the ones
+ * named by {@code want-ref}), the objects found in common with the client,
+ * the shallow and filter options of the request and the capabilities
+ * changing the pack. If tags are to be included the advertised tags are part
+ * of the key too. Once a wanted ref moves a request thus gets a new key, and
+ * the old pack is dropped when it is the least recently used one and the
+ * cache is full. Requests using {@code packfile-uris} are not cached.
+ * <p>
+ * The pack written depends on the
+ * {@link org.eclipse.jgit.storage.pack.PackConfig} of the {@link UploadPack},
+ * so a cache should only be shared by instances configured alike. The files of
+ * the cache are named {@code fetch-response-*}; such files left in the
+ * directory by a previous cache are deleted when the cache is created.
+ *
+ * @since 7.3
+ */
+public class FetchResponseCache {
+	private static final String PREFIX = "fetch-response-"; //$NON-NLS-1$
+
+	private static final String PACK_SUFFIX = ".pack"; //$NON-NLS-1$
+
+	private static final String TMP_PREFIX = PREFIX + "incoming-"; //$NON-NLS-1$
+
+	private final File directory;
+
+	private final long maxBytes;
+
+	/** Size of the cached packs, in access order. */
+	private final LinkedHashMap<ObjectId, Long> entries = new LinkedHashMap<>(
+			16, 0.75f, true);
+
+	private long bytes;
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	/**
+	 * Create a fetch response cache.
+	 *
+	 * @param directory
+	 *            directory to store the packs in; created if missing. Other
+	 *            files in it are left alone.
+	 * @param maxBytes
+	 *            maximum total size of the stored packs.
+	 * @throws IOException
+	 *             if the directory could not be created or cleaned.
+	 */
+	public FetchResponseCache(File directory, long maxBytes)
+			throws IOException {
+		this.directory = directory;
+		this.maxBytes = maxBytes;
+		FileUtils.mkdirs(directory, true);
+		File[] files = directory.listFiles();
+		if (files != null) {
+			for (File f : files) {
+				if (f.getName().startsWith(PREFIX)) {
+					FileUtils.delete(f, FileUtils.SKIP_MISSING);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Compute the key of a response.
+	 *
+	 * @param repo
+	 *            repository served.
+	 * @param req
+	 *            the request.
+	 * @param wants
+	 *            objects wanted by the client.
+	 * @param common
+	 *            objects found in common with the client.
+	 * @param deepenNots
+	 *            resolved objects the client does not want history beyond.
+	 * @param tags
+	 *            tags to be included in the pack, or null.
+	 * @return the key.
+	 */
+	static ObjectId key(Repository repo, FetchRequest req,
+			Collection<? extends ObjectId> wants,
+			Collection<? extends ObjectId> common,
+			Collection<? extends ObjectId> deepenNots,
+			@Nullable Collection<Ref> tags) {
+		MessageDigest md = Constants.newMessageDigest();
+		update(md, repo.getIdentifier());
+		update(md, wants);
+		update(md, common);
+		update(md, req.getClientShallowCommits());
+		update(md, deepenNots);
+		update(md, req.getDepth() + " " + req.getDeepenSince()); //$NON-NLS-1$
+		update(md, String.valueOf(req.getFilterSpec().filterLine()));
+		Collection<String> caps = req.getClientCapabilities();
+		update(md, caps.contains(OPTION_THIN_PACK) + " " //$NON-NLS-1$
+				+ caps.contains(OPTION_OFS_DELTA));
+		if (tags != null) {
+			List<String> lines = new ArrayList<>(tags.size());
+			for (Ref r : tags) {
+				ObjectId id = r.getObjectId();
+				if (id != null) {
+					lines.add(r.getName() + ' ' + id.name());
+				}
+			}
+			lines.sort(null);
+			for (String line : lines) {
+				update(md, line);
+			}
+		}
+		return ObjectId.fromRaw(md.digest());
+	}
+
+	private static void update(MessageDigest md, String s) {
+		md.update(s.getBytes(UTF_8));
+		md.update((byte) 0);
+	}
+
+	private static void update(MessageDigest md,
+			Collection<? extends ObjectId> ids) {
+		List<ObjectId> sorted = new ArrayList<>(ids);
+		sorted.sort(null);
+		byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+		for (ObjectId id : sorted) {
+			id.copyRawTo(raw, 0);
+			md.update(raw);
+		}
+		md.update((byte) 0);
+	}
+
+	/**
+	 * Open the stored pack of a response.
+	 *
+	 * @param key
+	 *            key of the response.
+	 * @return the pack, or null if not stored.
+	 */
+	@Nullable
+	InputStream open(ObjectId key) {
+		synchronized (entries) {
+			if (entries.get(key) != null) {
+				try {
+					InputStream in = new FileInputStream(file(key));
+					hitCount.incrementAndGet();
+					return in;
+				} catch (FileNotFoundException e) {
+					bytes -= entries.remove(key).longValue();
+				}
+			}
+		}
+		missCount.incrementAndGet();
+		return null;
+	}
+
+	/**
+	 * Start storing the pack of a response.
+	 *
+	 * @param key
+	 *            key of the response.
+	 * @param out
+	 *            stream the pack is sent to.
+	 * @return stream writing to {@code out} and storing what is written; once
+	 *         the pack is completely written it is stored by
+	 *         {@link Writer#commit()}. If it cannot be stored, it is still
+	 *         written to {@code out}.
+	 */
+	Writer newWriter(ObjectId key, OutputStream out) {
+		return new Writer(key, out);
+	}
+
+	private File file(ObjectId key) {
+		return new File(directory, PREFIX + key.name() + PACK_SUFFIX);
+	}
+
+	private void add(ObjectId key, File tmp, long size) throws IOException {
+		FileUtils.rename(tmp, file(key));
+		List<ObjectId> evicted = new ArrayList<>();
+		synchronized (entries) {
+			Long old = entries.put(key, Long.valueOf(size));
+			if (old != null) {
+				bytes -= old.longValue();
+			}
+			bytes += size;
+			Iterator<Map.Entry<ObjectId, Long>> i = entries.entrySet()
+					.iterator();
+			while (bytes > maxBytes && i.hasNext()) {
+				Map.Entry<ObjectId, Long> e = i.next();
+				i.remove();
+				bytes -= e.getValue().longValue();
+				evicted.add(e.getKey());
+			}
+		}
+		// Readers opened the files already and keep reading them. If a pack
+		// is stored again under an evicted key meanwhile, its file may get
+		// deleted; open() then drops the entry.
+		for (ObjectId id : evicted) {
+			FileUtils.delete(file(id), FileUtils.SKIP_MISSING);
+		}
+	}
+
+	/**
+	 * Get the number of stored packs.
+	 *
+	 * @return number of stored packs.
+	 */
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * Get the total size of the stored packs.
+	 *
+	 * @return total size of the stored packs, in bytes.
+	 */
+	public long getCachedBytes() {
+		synchronized (entries) {
+			return bytes;
+		}
+	}
+
+	/**
+	 * Get the number of responses sent from a stored pack.
+	 *
+	 * @return number of responses sent from a stored pack.
+	 */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * Get the number of responses for which the pack was generated.
+	 *
+	 * @return number of responses for which the pack was generated.
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/** Writes a pack to the client, storing a copy. */
+	final class Writer extends OutputStream {
+		private final ObjectId key;
+
+		private final OutputStream out;
+
+		private File tmp;
+
+		private OutputStream copy;
+
+		private long size;
+
+		Writer(ObjectId key, OutputStream out) {
+			this.key = key;
+			this.out = out;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			store(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			store(b, off, len);
+		}
+
+		private void store(byte[] b, int off, int len) {
+			if (size < 0) {
+				return;
+			}
+			size += len;
+			if (size > maxBytes) {
+				abort();
+				return;
+			}
+			try {
+				if (copy == null) {
+					tmp = File.createTempFile(TMP_PREFIX, PACK_SUFFIX,
+							directory);
+					copy = new BufferedOutputStream(
+							new FileOutputStream(tmp));
+				}
+				copy.write(b, off, len);
+			} catch (IOException e) {
+				abort();
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			out.flush();
+		}
+
+		/**
+		 * Store the pack written, if it could be copied.
+		 */
+		void commit() {
+			if (size <= 0) {
+				abort();
+				return;
+			}
+			try {
+				copy.close();
+				copy = null;
+				add(key, tmp, size);
+			} catch (IOException e) {
+				abort();
+			}
+		}
+
+		/**
+		 * Discard the copy of the pack written so far.
+		 */
+		void abort() {
+			size = -1;
+			try {
+				if (copy != null) {
+					copy.close();
+				}
+			} catch (IOException e) {
+				// Deleted below.
+			} finally {
+				copy = null;
+			}
+			if (tmp != null) {
+				try {
+					FileUtils.delete(tmp, FileUtils.SKIP_MISSING);
+				} catch (IOException e) {
+					// Leave it, it is deleted when the cache is created next.
+				}
+				tmp = null;
+			}
+		}
+	}
+}
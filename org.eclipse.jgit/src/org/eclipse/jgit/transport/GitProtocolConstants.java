@@ -275,6 +275,14 @@ public final class GitProtocolConstants {
 	 */
 	public static final String COMMAND_OBJECT_INFO = "object-info"; //$NON-NLS-1$
 
+	/**
+	 * The server supports the bundle-uri command, listing bundles the client
+	 * may download before fetching.
+	 *
+	 * @since 7.3
+	 */
+	public static final String COMMAND_BUNDLE_URI = "bundle-uri"; //$NON-NLS-1$
+
 	/**
 	 * HTTP header to set by clients to request a specific git protocol version
 	 * in the HTTP transport.
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.util.LRUMap;
+import org.eclipse.jgit.util.SystemReader;
+
+/**
+ * Keeps the negotiation state of stateless fetches between rounds.
+ * <p>
+ * Over stateless RPC (smart HTTP, or protocol V2 fetch) every negotiation
+ * round is a new request, and {@link UploadPack} starts each one from scratch:
+ * the common commits found so far and the wants known to be satisfied by them
+ * are computed again from the haves the client repeats. With a cache set by
+ * {@link UploadPack#setNegotiationCache(NegotiationCache)} this state is
+ * restored at the start of a round instead.
+ * <p>
+ * Entries are keyed by the repository, the wanted objects and the session id
+ * the client sent with {@link GitProtocolConstants#OPTION_SESSION_ID}; clients
+ * not sending a session id are not cached. Entries are dropped once a pack is
+ * sent, when they expire, or when the cache is full and they are the least
+ * recently used. The cache only records what was found in common with the
+ * client, so a client presenting another session's id cannot obtain objects it
+ * would not get otherwise. Wants are validated in every round.
+ * <p>
+ * A cache may be shared by all {@link UploadPack} instances of a server.
+ *
+ * @since 7.3
+ */
+public class NegotiationCache {
+	/** Negotiation state after a round. */
+	static final class State {
+		final List<ObjectId> common;
+
+		final List<ObjectId> satisfied;
+
+		final int oldestTime;
+
+		final Instant expires;
+
+		State(List<ObjectId> common, List<ObjectId> satisfied,
+				int oldestTime, Instant expires) {
+			this.common = common;
+			this.satisfied = satisfied;
+			this.oldestTime = oldestTime;
+			this.expires = expires;
+		}
+	}
+
+	private final Duration ttl;
+
+	private final Map<ObjectId, State> entries;
+
+	/**
+	 * Create a negotiation cache.
+	 *
+	 * @param maxEntries
+	 *            maximum number of negotiations to keep.
+	 * @param ttl
+	 *            time after the last round a negotiation is kept.
+	 */
+	public NegotiationCache(int maxEntries, Duration ttl) {
+		this.ttl = ttl;
+		this.entries = new LRUMap<>(Math.min(maxEntries, 16), maxEntries);
+	}
+
+	/**
+	 * Compute the key of a negotiation.
+	 *
+	 * @param repo
+	 *            repository served.
+	 * @param sessionId
+	 *            session id sent by the client.
+	 * @param wants
+	 *            objects wanted by the client.
+	 * @return the key.
+	 */
+	static ObjectId key(Repository repo, String sessionId,
+			Collection<? extends ObjectId> wants) {
+		MessageDigest md = Constants.newMessageDigest();
+		md.update(repo.getIdentifier().getBytes(UTF_8));
+		md.update((byte) 0);
+		md.update(sessionId.getBytes(UTF_8));
+		md.update((byte) 0);
+		List<ObjectId> sorted = new ArrayList<>(wants);
+		sorted.sort(null);
+		byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+		for (ObjectId id : sorted) {
+			id.copyRawTo(raw, 0);
+			md.update(raw);
+		}
+		return ObjectId.fromRaw(md.digest());
+	}
+
+	/**
+	 * Get the state of a negotiation.
+	 *
+	 * @param key
+	 *            key of the negotiation.
+	 * @return the state after the previous round, or null.
+	 */
+	State get(ObjectId key) {
+		synchronized (entries) {
+			State s = entries.get(key);
+			if (s != null && !SystemReader.getInstance().now()
+					.isBefore(s.expires)) {
+				entries.remove(key);
+				return null;
+			}
+			return s;
+		}
+	}
+
+	/**
+	 * Remember the state of a negotiation after a round.
+	 *
+	 * @param key
+	 *            key of the negotiation.
+	 * @param common
+	 *            objects found in common with the client.
+	 * @param satisfied
+	 *            wants reaching one of the common objects.
+	 * @param oldestTime
+	 *            commit time of the oldest commit the client has.
+	 */
+	void put(ObjectId key, List<ObjectId> common, List<ObjectId> satisfied,
+			int oldestTime) {
+		State s = new State(common, satisfied, oldestTime,
+				SystemReader.getInstance().now().plus(ttl));
+		synchronized (entries) {
+			entries.put(key, s);
+		}
+	}
+
+	/**
+	 * Forget a negotiation.
+	 *
+	 * @param key
+	 *            key of the negotiation.
+	 */
+	void remove(ObjectId key) {
+		synchronized (entries) {
+			entries.remove(key);
+		}
+	}
+
+	/**
+	 * Get the number of negotiations kept.
+	 *
+	 * @return number of negotiations kept, including expired ones not yet
+	 *         dropped.
+	 */
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+}
@@ -28,12 +28,42 @@
  * @since 5.13
  */
 public final class ObjectInfoRequest {
+	/**
+	 * Attribute requesting the size of the objects.
+	 *
+	 * @since 7.3
+	 */
+	public static final String ATTRIBUTE_SIZE = "size"; //$NON-NLS-1$
+
+	/**
+	 * Attribute requesting the type of the objects.
+	 *
+	 * @since 7.3
+	 */
+	public static final String ATTRIBUTE_TYPE = "type"; //$NON-NLS-1$
+
+	private final List<String> attributes;
+
 	private final List<ObjectId> objectIDs;
 
-	private ObjectInfoRequest(List<ObjectId> objectIDs) {
+	private ObjectInfoRequest(List<String> attributes,
+			List<ObjectId> objectIDs) {
+		this.attributes = attributes;
 		this.objectIDs = objectIDs;
 	}
 
+	/**
+	 * Get attributes requested by the client
+	 *
+	 * @return attributes the client requested, in the order they are
+	 *         answered; {@link #ATTRIBUTE_SIZE} and/or
+	 *         {@link #ATTRIBUTE_TYPE}.
+	 * @since 7.3
+	 */
+	public List<String> getAttributes() {
+		return this.attributes;
+	}
+
 	/**
 	 * Get object ids requested by the client
 	 *
@@ -54,11 +84,26 @@ public static Builder builder() {
 
 	/** A builder for {@link ObjectInfoRequest}. */
 	public static final class Builder {
+		private List<String> attributes = Collections.emptyList();
+
 		private List<ObjectId> objectIDs = Collections.emptyList();
 
 		private Builder() {
 		}
 
+		/**
+		 * Set attributes
+		 *
+		 * @param value
+		 *            of attributes
+		 * @return the Builder
+		 * @since 7.3
+		 */
+		public Builder setAttributes(List<String> value) {
+			attributes = value;
+			return this;
+		}
+
 		/**
 		 * Set object ids
 		 *
@@ -78,6 +123,7 @@ public Builder setObjectIDs(List<ObjectId> value) {
 		 */
 		public ObjectInfoRequest build() {
 			return new ObjectInfoRequest(
+					Collections.unmodifiableList(attributes),
 					Collections.unmodifiableList(objectIDs));
 		}
 	}
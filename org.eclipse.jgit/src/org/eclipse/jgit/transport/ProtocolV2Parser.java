@@ -286,14 +286,21 @@ ObjectInfoRequest parseObjectInfoRequest(PacketLineIn pckIn)
 					.format(JGitText.get().unexpectedPacketLine, line));
 		}
 
-		line = pckIn.readString();
-		if (!line.equals("size")) { //$NON-NLS-1$
-			throw new PackProtocolException(MessageFormat
-					.format(JGitText.get().unexpectedPacketLine, line));
-		}
-
+		List<String> attributes = new ArrayList<>();
 		for (String line2 : pckIn.readStrings()) {
 			if (!line2.startsWith("oid ")) { //$NON-NLS-1$
+				// Attributes precede the object ids.
+				if (!objectIDs.isEmpty() || attributes.contains(line2)
+						|| !(line2.equals(ObjectInfoRequest.ATTRIBUTE_SIZE)
+								|| line2.equals(
+										ObjectInfoRequest.ATTRIBUTE_TYPE))) {
+					throw new PackProtocolException(MessageFormat.format(
+							JGitText.get().unexpectedPacketLine, line2));
+				}
+				attributes.add(line2);
+				continue;
+			}
+			if (attributes.isEmpty()) {
 				throw new PackProtocolException(MessageFormat
 						.format(JGitText.get().unexpectedPacketLine, line2));
 			}
@@ -308,6 +315,7 @@ ObjectInfoRequest parseObjectInfoRequest(PacketLineIn pckIn)
 			}
 		}
 
-		return builder.setObjectIDs(objectIDs).build();
+		return builder.setAttributes(attributes).setObjectIDs(objectIDs)
+				.build();
 	}
 }
@@ -41,6 +41,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -55,6 +56,7 @@
 import org.eclipse.jgit.internal.submodule.SubmoduleValidator;
 import org.eclipse.jgit.internal.submodule.SubmoduleValidator.SubmoduleValidationException;
 import org.eclipse.jgit.internal.transport.connectivity.FullConnectivityChecker;
+import org.eclipse.jgit.internal.transport.connectivity.ParallelConnectivityChecker;
 import org.eclipse.jgit.internal.transport.parser.FirstCommand;
 import org.eclipse.jgit.lib.AnyObjectId;
 import org.eclipse.jgit.lib.BatchRefUpdate;
@@ -242,6 +244,13 @@ public class ReceivePack {
 	 */
 	protected ConnectivityChecker connectivityChecker = new FullConnectivityChecker();
 
+	private final ConnectivityChecker defaultConnectivityChecker =
+			connectivityChecker;
+
+	private final int connectivityCheckThreads;
+
+	private Executor connectivityCheckExecutor;
+
 	/** Hook to validate the update commands before execution. */
 	private PreReceiveHook preReceive;
 
@@ -290,6 +299,7 @@ public ReceivePack(Repository into) {
 		advertisedHaves = new HashSet<>();
 		clientShallowCommits = new HashSet<>();
 		signedPushConfig = rc.signedPush;
+		connectivityCheckThreads = rc.connectivityCheckThreads;
 		preReceive = PreReceiveHook.NULL;
 		postReceive = PostReceiveHook.NULL;
 	}
@@ -312,6 +322,8 @@ private static class ReceiveConfig {
 
 		final SignedPushConfig signedPush;
 
+		final int connectivityCheckThreads;
+
 		ReceiveConfig(Config config) {
 			allowCreates = true;
 			allowDeletes = !config.getBoolean("receive", "denydeletes", false); //$NON-NLS-1$ //$NON-NLS-2$
@@ -328,6 +340,8 @@ private static class ReceiveConfig {
 					"maxCommandDiscardBytes", //$NON-NLS-1$
 					-1);
 			signedPush = SignedPushConfig.KEY.parse(config);
+			connectivityCheckThreads = config.getInt("receive", //$NON-NLS-1$
+					"connectivitycheckthreads", 0); //$NON-NLS-1$
 		}
 	}
 
@@ -495,6 +509,24 @@ public void setCheckReferencedObjectsAreReachable(boolean b) {
 		this.checkReferencedAreReachable = b;
 	}
 
+	/**
+	 * Set the executor checking the connectivity of received objects.
+	 * <p>
+	 * With an executor the trees of the received commits are walked on up to
+	 * {@code receive.connectivityCheckThreads} of its threads, one per
+	 * processor by default. If that setting is 1, or without an executor, the
+	 * objects are checked on the calling thread. The executor is only used
+	 * while {@link #connectivityChecker} is the default checker; a checker set
+	 * by a subclass is kept.
+	 *
+	 * @param executor
+	 *            executor whose threads may block on I/O, or {@code null}.
+	 * @since 7.3
+	 */
+	public void setConnectivityCheckExecutor(@Nullable Executor executor) {
+		connectivityCheckExecutor = executor;
+	}
+
 	/**
 	 * Whether this class expects a bi-directional pipe opened between the
 	 * client and itself.
@@ -1562,7 +1594,14 @@ private void checkConnectivity() throws IOException {
 			checking = m;
 		}
 
-		connectivityChecker.checkConnectivity(createConnectivityCheckInfo(),
+		ConnectivityChecker checker = connectivityChecker;
+		if (checker == defaultConnectivityChecker
+				&& connectivityCheckExecutor != null
+				&& connectivityCheckThreads != 1) {
+			checker = new ParallelConnectivityChecker(connectivityCheckThreads,
+					connectivityCheckExecutor);
+		}
+		checker.checkConnectivity(createConnectivityCheckInfo(),
 				advertisedHaves, checking);
 	}
 
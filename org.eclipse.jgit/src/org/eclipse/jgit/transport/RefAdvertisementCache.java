@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import static org.eclipse.jgit.util.RefMap.toRefMap;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jgit.events.ListenerHandle;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.RefComparator;
+import org.eclipse.jgit.lib.RefDatabase;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.util.LRUMap;
+
+/**
+ * Keeps the refs advertised by {@link UploadPack} between requests.
+ * <p>
+ * Listing and peeling the refs of a repository with many refs for every
+ * request is expensive. With a cache set by
+ * {@link UploadPack#setRefAdvertisementCache(RefAdvertisementCache)} the refs
+ * are read once into a snapshot, sorted by name, which the advertisement of
+ * protocol V0 and the {@code ls-refs} command of protocol V2 are served from.
+ * Refs requested by prefix are found by binary search in the snapshot.
+ * <p>
+ * The snapshot of a repository is dropped when it fires a
+ * {@link org.eclipse.jgit.events.RefsChangedEvent}, which repositories do for
+ * ref updates made through them. Before serving a snapshot the refs are
+ * listed by the {@link RefDatabase}, which makes the ref database of a
+ * repository on the local file system notice ref updates made by other
+ * processes and fire the event. A snapshot is only served to requests for the
+ * same {@link RefDatabase} instance it was read from. Ref updates made by
+ * other processes to repositories not on the local file system should be
+ * followed by a call to {@link #invalidate(Repository)}.
+ * <p>
+ * The cache is only used when neither an {@link AdvertiseRefsHook} sets the
+ * advertised refs nor a {@link RefFilter} is set. Refs hidden by
+ * {@code uploadpack.hideRefs} are filtered for every request. A cache may be
+ * shared by all {@link UploadPack} instances of a server, and must be closed
+ * once no longer used.
+ *
+ * @since 7.3
+ */
+public class RefAdvertisementCache implements AutoCloseable {
+	/** Refs of a repository at some point in time. */
+	static final class Snapshot {
+		private final Ref[] sorted;
+
+		private final Map<String, Ref> all;
+
+		Snapshot(Ref[] sorted) {
+			this.sorted = sorted;
+			this.all = Collections.unmodifiableMap(
+					Arrays.stream(sorted).collect(toRefMap((a, b) -> b)));
+		}
+
+		/**
+		 * Get all refs.
+		 *
+		 * @return all refs, by name.
+		 */
+		Map<String, Ref> getRefs() {
+			return all;
+		}
+
+		/**
+		 * Get the refs starting with any of the prefixes.
+		 *
+		 * @param prefixes
+		 *            prefixes of the refs to return.
+		 * @return the matching refs, by name.
+		 */
+		Map<String, Ref> getRefsByPrefix(Collection<String> prefixes) {
+			return prefixes.stream().flatMap(p -> {
+				int i = lowerBound(p);
+				int end = i;
+				while (end < sorted.length
+						&& sorted[end].getName().startsWith(p)) {
+					end++;
+				}
+				return Arrays.stream(sorted, i, end);
+			}).collect(toRefMap((a, b) -> b));
+		}
+
+		private int lowerBound(String name) {
+			int low = 0;
+			int high = sorted.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (RefComparator.compareTo(sorted[mid], name) < 0) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+	}
+
+	/** Snapshot of a repository, guarded by the map of snapshots. */
+	private static final class Entry {
+		/** Incremented when the refs of the repository change. */
+		long generation;
+
+		RefDatabase refDb;
+
+		Snapshot snapshot;
+	}
+
+	private final Map<String, Entry> snapshots;
+
+	private final ListenerHandle listener;
+
+	/**
+	 * Create a cache of advertised refs.
+	 *
+	 * @param maxRepositories
+	 *            maximum number of repositories to keep the refs of.
+	 */
+	public RefAdvertisementCache(int maxRepositories) {
+		snapshots = new LRUMap<>(Math.min(maxRepositories, 16),
+				maxRepositories);
+		listener = Repository.getGlobalListenerList()
+				.addRefsChangedListener(e -> invalidate(e.getRepository()));
+	}
+
+	/**
+	 * Get the refs of a repository, reading them if not cached.
+	 *
+	 * @param repo
+	 *            the repository.
+	 * @return the refs of the repository.
+	 * @throws IOException
+	 *             if the refs could not be read.
+	 */
+	Snapshot get(Repository repo) throws IOException {
+		String key = repo.getIdentifier();
+		RefDatabase refDb = repo.getRefDatabase();
+		Entry e;
+		long gen;
+		synchronized (snapshots) {
+			e = snapshots.computeIfAbsent(key, k -> new Entry());
+			gen = e.generation;
+		}
+		// Listing the refs fires a RefsChangedEvent, dropping the snapshot,
+		// if the ref database notices refs updated by other processes.
+		List<Ref> refs = refDb.getRefs();
+		synchronized (snapshots) {
+			if (e.snapshot != null && e.refDb == refDb
+					&& snapshots.get(key) == e) {
+				return e.snapshot;
+			}
+		}
+		Ref[] sorted = new Ref[refs.size()];
+		for (int i = 0; i < sorted.length; i++) {
+			Ref r = refs.get(i);
+			sorted[i] = r.isPeeled() ? r : refDb.peel(r);
+		}
+		Arrays.sort(sorted, RefComparator.INSTANCE);
+		Snapshot s = new Snapshot(sorted);
+		synchronized (snapshots) {
+			// Only keep the snapshot if no refs changed while reading.
+			if (e.generation == gen && snapshots.get(key) == e) {
+				e.refDb = refDb;
+				e.snapshot = s;
+			}
+		}
+		return s;
+	}
+
+	/**
+	 * Drop the refs kept for a repository.
+	 *
+	 * @param repo
+	 *            the repository whose refs changed.
+	 */
+	public void invalidate(Repository repo) {
+		String key = repo.getIdentifier();
+		synchronized (snapshots) {
+			Entry e = snapshots.get(key);
+			if (e != null) {
+				e.generation++;
+				e.refDb = null;
+				e.snapshot = null;
+			}
+		}
+	}
+
+	/**
+	 * Get the number of repositories whose refs are kept.
+	 *
+	 * @return number of repositories whose refs are kept.
+	 */
+	public int size() {
+		synchronized (snapshots) {
+			return (int) snapshots.values().stream()
+					.filter(e -> e.snapshot != null).count();
+		}
+	}
+
+	/**
+	 * Drop all kept refs and stop listening for ref changes.
+	 */
+	@Override
+	public void close() {
+		listener.remove();
+		synchronized (snapshots) {
+			snapshots.clear();
+		}
+	}
+}
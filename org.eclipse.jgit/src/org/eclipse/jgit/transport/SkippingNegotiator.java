@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2026, Google LLC and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import java.io.IOException;
+import java.util.PriorityQueue;
+
+import org.eclipse.jgit.lib.ObjectIdOwnerMap;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevFlag;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+/**
+ * Chooses the "have" lines of a fetch negotiation by skipping commits.
+ * <p>
+ * Implements the "skipping" algorithm of {@code fetch.negotiationAlgorithm}.
+ * Commits are visited newest first like in the default negotiation, but along
+ * the history of each tip only some are sent: after a commit is sent the
+ * following 1, 2, 4, 7, ... commits are skipped, the gap growing by half each
+ * time. C git computes the next gap as {@code gap ? gap * 3 / 2 : 1}, which
+ * stays at 1 once reached; one is added here instead so the gap does grow
+ * from 1. Histories far apart from the remote's thus need a number of rounds
+ * logarithmic in their length. As a commit older than a common one may be
+ * sent instead of it, the remote may send more objects than strictly needed.
+ * <p>
+ * A commit whose parents were all visited already, or which has no parents,
+ * is always sent. Commits known to be common are never sent, and neither are
+ * their ancestors.
+ */
+final class SkippingNegotiator {
+	private static final class Entry extends ObjectIdOwnerMap.Entry {
+		final RevCommit commit;
+
+		/** Number of commits to skip when leaving this one. */
+		int originalTtl;
+
+		/** Number of commits still to skip; 0 if this one is sent. */
+		int ttl;
+
+		boolean popped;
+
+		Entry(RevCommit commit) {
+			super(commit);
+			this.commit = commit;
+		}
+	}
+
+	private final RevWalk walk;
+
+	private final RevFlag common;
+
+	private final RevFlag advertised;
+
+	private final ObjectIdOwnerMap<Entry> entries = new ObjectIdOwnerMap<>();
+
+	private final PriorityQueue<Entry> queue = new PriorityQueue<>(
+			(a, b) -> Integer.compare(b.commit.getCommitTime(),
+					a.commit.getCommitTime()));
+
+	/**
+	 * Create a negotiator.
+	 *
+	 * @param walk
+	 *            walk parsing the commits.
+	 * @param common
+	 *            flag of commits the remote is known to have.
+	 * @param advertised
+	 *            flag of commits advertised by the remote.
+	 * @param tips
+	 *            commits to start from, already parsed.
+	 */
+	SkippingNegotiator(RevWalk walk, RevFlag common, RevFlag advertised,
+			Iterable<RevCommit> tips) {
+		this.walk = walk;
+		this.common = common;
+		this.advertised = advertised;
+		for (RevCommit c : tips) {
+			if (entries.get(c) == null) {
+				add(c);
+			}
+		}
+	}
+
+	/**
+	 * Get the next commit to send as "have".
+	 *
+	 * @return the next commit to send, or null if there are no more.
+	 * @throws IOException
+	 *             if a commit could not be parsed.
+	 */
+	RevCommit next() throws IOException {
+		for (;;) {
+			Entry e = queue.poll();
+			if (e == null) {
+				return null;
+			}
+			e.popped = true;
+			RevCommit c = e.commit;
+			if (c.has(common)) {
+				continue;
+			}
+			if (c.has(advertised)) {
+				// The remote has it, and thus its history. Sent so the
+				// remote knows we have it too.
+				c.add(common);
+				c.carry(common);
+				return c;
+			}
+			boolean parentPushed = false;
+			for (RevCommit p : c.getParents()) {
+				parentPushed |= push(e, p);
+			}
+			if (e.ttl == 0 || !parentPushed) {
+				return c;
+			}
+		}
+	}
+
+	private boolean push(Entry child, RevCommit parent) throws IOException {
+		Entry e = entries.get(parent);
+		if (e == null) {
+			walk.parseHeaders(parent);
+			e = add(parent);
+		} else if (e.popped) {
+			// Visited already due to clock skew, act as if it was not a
+			// parent.
+			return false;
+		}
+		// C git uses originalTtl ? originalTtl * 3 / 2 : 1, see above.
+		int originalTtl = child.ttl > 0 ? child.originalTtl
+				: child.originalTtl * 3 / 2 + 1;
+		int ttl = child.ttl > 0 ? child.ttl - 1 : originalTtl;
+		if (e.originalTtl < originalTtl) {
+			e.originalTtl = originalTtl;
+			e.ttl = ttl;
+		}
+		return true;
+	}
+
+	private Entry add(RevCommit c) {
+		Entry e = new Entry(c);
+		entries.add(e);
+		queue.add(e);
+		return e;
+	}
+}
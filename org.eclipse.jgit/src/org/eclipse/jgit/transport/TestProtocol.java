@@ -149,6 +149,11 @@ private class TransportInternal extends Transport implements PackTransport {
 			this.handle = handle;
 		}
 
+		@Override
+		boolean isLocal() {
+			return true;
+		}
+
 		@Override
 		public FetchConnection openFetch() throws NotSupportedException,
 				TransportException {
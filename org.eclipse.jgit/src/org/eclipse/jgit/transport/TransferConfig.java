@@ -128,6 +128,10 @@ static ProtocolVersion parse(@Nullable String name) {
 
 	private final boolean allowReceiveClientSID;
 
+	private final boolean bundleUri;
+
+	private final int reachabilityCheckThreads;
+
 	final @Nullable ProtocolVersion protocolVersion;
 	final String[] hideRefs;
 
@@ -221,6 +225,9 @@ public TransferConfig(Config rc) {
 				"advertiseobjectinfo", false);
 		allowReceiveClientSID = rc.getBoolean("transfer", "advertisesid",
 				false);
+		bundleUri = rc.getBoolean("transfer", "bundleuri", false);
+		reachabilityCheckThreads = rc.getInt("uploadpack",
+				"reachabilitycheckthreads", 1);
 	}
 
 	/**
@@ -296,6 +303,23 @@ public boolean isAllowAnySha1InWant() {
 		return allowAnySha1InWant;
 	}
 
+	/**
+	 * Get the number of threads used to check that unadvertised wants are
+	 * reachable from the advertised refs.
+	 *
+	 * The threads are taken from the executor of the
+	 * {@link org.eclipse.jgit.storage.pack.PackConfig} of the
+	 * {@link UploadPack}; without an executor all wants are checked on the
+	 * calling thread.
+	 *
+	 * @return number of threads; 1 checks all wants on the calling thread,
+	 *         &lt;= 0 uses the number of available processors.
+	 * @since 7.3
+	 */
+	public int getReachabilityCheckThreads() {
+		return reachabilityCheckThreads;
+	}
+
 	/**
 	 * Whether clients are allowed to specify "filter" line
 	 *
@@ -367,6 +391,18 @@ public boolean isAllowReceiveClientSID() {
 		return allowReceiveClientSID;
 	}
 
+	/**
+	 * Whether to request a bundle list from servers speaking protocol V2
+	 *
+	 * @return true to request bundles advertised by the server with the
+	 *         bundle-uri command and fetch them before fetching from the
+	 *         server
+	 * @since 7.3
+	 */
+	public boolean isBundleUri() {
+		return bundleUri;
+	}
+
 	/**
 	 * Get {@link org.eclipse.jgit.transport.RefFilter} respecting configured
 	 * hidden refs.
@@ -760,6 +760,9 @@ static String findTrackingRefName(final String remoteName,
 	/** Should fetch request thin-pack if remote repository can produce it. */
 	private boolean fetchThin = DEFAULT_FETCH_THIN;
 
+	/** Should fetch first download the bundles advertised by the server? */
+	private boolean bundleUri;
+
 	/** Name of the receive pack program, if it must be executed. */
 	private String optionReceivePack = RemoteConfig.DEFAULT_RECEIVE_PACK;
 
@@ -829,6 +832,7 @@ protected Transport(Repository local, URIish uri) {
 		this.local = local;
 		this.uri = uri;
 		this.protocol = tc.protocolVersion;
+		this.bundleUri = tc.isBundleUri();
 		this.objectChecker = tc.newObjectChecker();
 		this.credentialsProvider = CredentialsProvider.getDefault();
 	}
@@ -948,6 +952,44 @@ public void setFetchThin(boolean fetchThin) {
 		this.fetchThin = fetchThin;
 	}
 
+	/**
+	 * Whether fetch first downloads the bundles advertised by the server.
+	 * <p>
+	 * Default setting is the value of {@code transfer.bundleURI} in the
+	 * configuration of the local repository.
+	 *
+	 * @return true if fetch requests the bundle list of servers speaking
+	 *         protocol V2 and fetches the listed bundles before fetching from
+	 *         the server
+	 * @since 7.3
+	 */
+	public boolean isBundleUri() {
+		return bundleUri;
+	}
+
+	/**
+	 * Set whether fetch first downloads the bundles advertised by the server.
+	 *
+	 * @param bundleUri
+	 *            true to request the bundle list of servers speaking protocol
+	 *            V2 and fetch the listed bundles before fetching from the
+	 *            server
+	 * @since 7.3
+	 */
+	public void setBundleUri(boolean bundleUri) {
+		this.bundleUri = bundleUri;
+	}
+
+	/**
+	 * Whether the remote repository is on this machine, so that the bundles
+	 * it advertises by {@code file} URI can be fetched.
+	 *
+	 * @return true if the remote repository is not accessed over a network
+	 */
+	boolean isLocal() {
+		return false;
+	}
+
 	/**
 	 * Whether fetch will verify if received objects are formatted correctly.
 	 *
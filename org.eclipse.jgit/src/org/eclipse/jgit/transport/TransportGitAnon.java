@@ -188,6 +188,9 @@ class TcpFetchConnection extends BasePackFetchConnection {
 						JGitText.get().remoteHungUpUnexpectedly, err);
 			}
 			if (!readAdvertisedRefs()) {
+				if (wantsBundleList()) {
+					readBundleList();
+				}
 				lsRefs(refSpecs, additionalPatterns);
 			}
 		}
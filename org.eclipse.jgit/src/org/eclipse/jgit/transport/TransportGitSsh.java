@@ -320,6 +320,9 @@ class SshFetchConnection extends BasePackFetchConnection {
 
 			try {
 				if (!readAdvertisedRefs()) {
+					if (wantsBundleList()) {
+						readBundleList();
+					}
 					lsRefs(refSpecs, additionalPatterns);
 				}
 			} catch (NoRemoteRepositoryException notFound) {
@@ -636,6 +636,75 @@ private HttpConnection connect(String service)
 		return connect(service, null);
 	}
 
+	/**
+	 * Open a GET request for the URI of this transport, which names a file
+	 * rather than a repository.
+	 * <p>
+	 * The request is configured like the other requests of this transport,
+	 * authenticates with its credentials provider if the server asks for it
+	 * and follows redirects as allowed by {@code http.followRedirects}, but
+	 * never from https to http.
+	 *
+	 * @return the connection, its response code is not checked
+	 * @throws IOException
+	 *             if the request failed
+	 */
+	HttpConnection openFile() throws IOException {
+		if (HttpAuthMethod.Type.NONE.equals(authMethod.getType())) {
+			authMethod = authFromUri(currentUri);
+		}
+		URL u = new URL(currentUri.toString());
+		int authAttempts = 1;
+		int redirects = 0;
+		for (;;) {
+			HttpConnection conn = httpOpen(METHOD_GET, u,
+					AcceptEncoding.UNSPECIFIED);
+			int status = HttpSupport.response(conn);
+			processResponseCookies(conn);
+			switch (status) {
+			case HttpConnection.HTTP_UNAUTHORIZED:
+				CredentialsProvider credentialsProvider = getCredentialsProvider();
+				authMethod = HttpAuthMethod.scanResponse(conn, null);
+				if (authMethod.getType() == HttpAuthMethod.Type.NONE
+						|| credentialsProvider == null
+						|| 3 < authAttempts) {
+					return conn;
+				}
+				if (authAttempts > 1) {
+					credentialsProvider.reset(currentUri);
+				}
+				if (!authMethod.authorize(currentUri, credentialsProvider)) {
+					return conn;
+				}
+				authAttempts++;
+				continue;
+
+			case HttpConnection.HTTP_MOVED_PERM:
+			case HttpConnection.HTTP_MOVED_TEMP:
+			case HttpConnection.HTTP_SEE_OTHER:
+			case HttpConnection.HTTP_11_MOVED_PERM:
+			case HttpConnection.HTTP_11_MOVED_TEMP:
+				String location = conn.getHeaderField(HDR_LOCATION);
+				if (http.getFollowRedirects() == HttpRedirectMode.FALSE
+						|| location == null
+						|| redirects++ >= http.getMaxRedirects()) {
+					return conn;
+				}
+				URL next = new URL(u, location);
+				if (!"https".equals(next.getProtocol()) //$NON-NLS-1$
+						&& !("http".equals(next.getProtocol()) //$NON-NLS-1$
+								&& "http".equals(u.getProtocol()))) { //$NON-NLS-1$
+					return conn;
+				}
+				u = next;
+				continue;
+
+			default:
+				return conn;
+			}
+		}
+	}
+
 	private HttpConnection connect(String service,
 			TransferConfig.ProtocolVersion protocolVersion)
 			throws TransportException, NotSupportedException {
@@ -1545,6 +1614,13 @@ class SmartHttpFetchConnection extends BasePackFetchConnection {
 			outNeedsEnd = false;
 			if (!readAdvertisedRefs()) {
 				// Must be protocol V2
+				if (wantsBundleList()) {
+					// Each stateless request carries a single command.
+					LongPollService service = new LongPollService(
+							SVC_UPLOAD_PACK, getProtocolVersion());
+					init(service.getInputStream(), service.getOutputStream());
+					readBundleList();
+				}
 				LongPollService service = new LongPollService(SVC_UPLOAD_PACK,
 						getProtocolVersion());
 				init(service.getInputStream(), service.getOutputStream());
@@ -151,6 +151,11 @@ private Repository openRepo() throws TransportException {
 		}
 	}
 
+	@Override
+	boolean isLocal() {
+		return true;
+	}
+
 	@Override
 	public FetchConnection openFetch() throws TransportException {
 		return openFetch(Collections.emptyList());
@@ -274,6 +279,9 @@ class ForkLocalFetchConnection extends BasePackFetchConnection {
 
 			init(upIn, upOut);
 			if (!readAdvertisedRefs()) {
+				if (wantsBundleList()) {
+					readBundleList();
+				}
 				lsRefs(refSpecs, additionalPatterns);
 			}
 		}
@@ -16,6 +16,7 @@
 import static org.eclipse.jgit.lib.Constants.R_TAGS;
 import static org.eclipse.jgit.transport.GitProtocolConstants.CAPABILITY_REF_IN_WANT;
 import static org.eclipse.jgit.transport.GitProtocolConstants.CAPABILITY_SERVER_OPTION;
+import static org.eclipse.jgit.transport.GitProtocolConstants.COMMAND_BUNDLE_URI;
 import static org.eclipse.jgit.transport.GitProtocolConstants.COMMAND_FETCH;
 import static org.eclipse.jgit.transport.GitProtocolConstants.COMMAND_LS_REFS;
 import static org.eclipse.jgit.transport.GitProtocolConstants.COMMAND_OBJECT_INFO;
@@ -59,6 +60,7 @@
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -66,6 +68,7 @@
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -78,8 +81,11 @@
 import org.eclipse.jgit.errors.MissingObjectException;
 import org.eclipse.jgit.errors.PackProtocolException;
 import org.eclipse.jgit.internal.JGitText;
+import org.eclipse.jgit.internal.revwalk.ParallelReachabilityChecker;
 import org.eclipse.jgit.internal.storage.pack.CachedPackUriProvider;
 import org.eclipse.jgit.internal.storage.pack.PackWriter;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.AsyncObjectSizeQueue;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.NullProgressMonitor;
 import org.eclipse.jgit.lib.ObjectId;
@@ -105,6 +111,8 @@
 import org.eclipse.jgit.transport.GitProtocolConstants.MultiAck;
 import org.eclipse.jgit.transport.RefAdvertiser.PacketLineOutRefAdvertiser;
 import org.eclipse.jgit.transport.TransferConfig.ProtocolVersion;
+import org.eclipse.jgit.util.IO;
+import org.eclipse.jgit.util.NB;
 import org.eclipse.jgit.util.io.InterruptTimer;
 import org.eclipse.jgit.util.io.NullOutputStream;
 import org.eclipse.jgit.util.io.TimeoutInputStream;
@@ -325,6 +333,17 @@ void checkWants(UploadPack up, List<ObjectId> wants)
 
 	private CachedPackUriProvider cachedPackUriProvider;
 
+	private BundleUriProvider bundleUriProvider;
+
+	private NegotiationCache negotiationCache;
+
+	private RefAdvertisementCache refAdvertisementCache;
+
+	private FetchResponseCache fetchResponseCache;
+
+	/** Key of this negotiation in {@link #negotiationCache}, if cached. */
+	private ObjectId negotiationKey;
+
 	/**
 	 * Create a new pack upload for an open repository.
 	 *
@@ -722,6 +741,62 @@ public void setCachedPackUriProvider(@Nullable CachedPackUriProvider p) {
 		cachedPackUriProvider = p;
 	}
 
+	/**
+	 * Set provider of the bundles clients may fetch before fetching from this
+	 * repository
+	 *
+	 * @param p
+	 *            provider of the bundle list returned by the protocol V2
+	 *            bundle-uri command; if {@code null} the command is not
+	 *            advertised
+	 * @since 7.3
+	 */
+	public void setBundleUriProvider(@Nullable BundleUriProvider p) {
+		bundleUriProvider = p;
+	}
+
+	/**
+	 * Set the cache of negotiations over stateless RPC
+	 *
+	 * @param cache
+	 *            cache keeping the negotiation state between the rounds of
+	 *            stateless fetches of clients sending a session id; if
+	 *            {@code null} every round starts from scratch
+	 * @since 7.3
+	 */
+	public void setNegotiationCache(@Nullable NegotiationCache cache) {
+		negotiationCache = cache;
+	}
+
+	/**
+	 * Set the cache of advertised refs
+	 *
+	 * @param cache
+	 *            cache the refs advertised to clients are read from, unless
+	 *            the advertised refs are set by the
+	 *            {@link #getAdvertiseRefsHook()} or filtered by a
+	 *            {@link #getRefFilter()}; if {@code null} the refs are read
+	 *            from the repository for every request
+	 * @since 7.3
+	 */
+	public void setRefAdvertisementCache(
+			@Nullable RefAdvertisementCache cache) {
+		refAdvertisementCache = cache;
+	}
+
+	/**
+	 * Set the cache of packs sent for protocol V2 fetches
+	 *
+	 * @param cache
+	 *            cache the pack of a fetch is sent from if it was generated
+	 *            for an identical request before; if {@code null} the pack is
+	 *            generated for every request
+	 * @since 7.3
+	 */
+	public void setFetchResponseCache(@Nullable FetchResponseCache cache) {
+		fetchResponseCache = cache;
+	}
+
 	private boolean useProtocolV2() {
 		return (transferConfig.protocolVersion == null
 			|| ProtocolVersion.V2.equals(transferConfig.protocolVersion))
@@ -901,13 +976,22 @@ private Map<String, Ref> getAdvertisedOrDefaultRefs() throws IOException {
 		}
 		if (refs == null) {
 			// Fall back to all refs.
-			setAdvertisedRefs(
-					db.getRefDatabase().getRefs().stream()
+			RefAdvertisementCache.Snapshot cached = cachedRefs();
+			setAdvertisedRefs(cached != null ? cached.getRefs()
+					: db.getRefDatabase().getRefs().stream()
 							.collect(toRefMap((a, b) -> b)));
 		}
 		return refs;
 	}
 
+	@Nullable
+	private RefAdvertisementCache.Snapshot cachedRefs() throws IOException {
+		if (refAdvertisementCache == null || refFilter != RefFilter.DEFAULT) {
+			return null;
+		}
+		return refAdvertisementCache.get(db);
+	}
+
 	private Map<String, Ref> getFilteredRefs(Collection<String> refPrefixes)
 					throws IOException {
 		if (refPrefixes.isEmpty()) {
@@ -919,6 +1003,11 @@ private Map<String, Ref> getFilteredRefs(Collection<String> refPrefixes)
 		}
 		if (refs == null) {
 			// Fast path: the advertised refs hook did not set advertised refs.
+			RefAdvertisementCache.Snapshot cached = cachedRefs();
+			if (cached != null) {
+				Map<String, Ref> rs = cached.getRefsByPrefix(refPrefixes);
+				return transferConfig.getRefFilter().filter(rs);
+			}
 			String[] prefixes = refPrefixes.toArray(new String[0]);
 			Map<String, Ref> rs =
 					db.getRefDatabase().getRefsByPrefix(prefixes).stream()
@@ -1303,6 +1392,9 @@ private void fetchV2(PacketLineOut pckOut) throws IOException {
 			// sendPack invokes pckOut.end() for us, so we do not
 			// need to invoke it here.
 		} else {
+			if (!biDirectionalPipe) {
+				saveNegotiation();
+			}
 			// Invoke pckOut.end() by ourselves.
 			pckOut.end();
 		}
@@ -1314,23 +1406,118 @@ private void objectInfo(PacketLineOut pckOut) throws IOException {
 
 		protocolV2Hook.onObjectInfo(req);
 
-		ObjectReader or = getRepository().newObjectReader();
+		List<String> attributes = req.getAttributes();
+		if (!attributes.isEmpty()) {
+			pckOut.writeString(String.join(" ", attributes)); //$NON-NLS-1$
+		}
 
-		// Size is the only attribute currently supported.
-		pckOut.writeString("size"); //$NON-NLS-1$
+		// Each object is looked up once, duplicates repeat its answer.
+		List<ObjectId> oids = req.getObjectIDs();
+		List<RequestedObject> objects = new ArrayList<>(oids.size());
+		int[] first = new int[oids.size()];
+		Map<ObjectId, Integer> seen = new HashMap<>();
+		for (int i = 0; i < first.length; i++) {
+			Integer prior = seen.putIfAbsent(oids.get(i), Integer.valueOf(i));
+			if (prior != null) {
+				first[i] = prior.intValue();
+			} else {
+				first[i] = i;
+				objects.add(new RequestedObject(oids.get(i), i));
+			}
+		}
 
-		for (ObjectId oid : req.getObjectIDs()) {
-			long size;
+		String[] answers = new String[first.length];
+		int sent = 0;
+		try (ObjectReader or = getRepository().newObjectReader()) {
+			if (!attributes.contains(ObjectInfoRequest.ATTRIBUTE_SIZE)) {
+				for (RequestedObject obj : objects) {
+					answers[obj.index] = objectInfo(or, attributes, obj, -1);
+					sent = sendObjectInfo(pckOut, answers, first, sent);
+				}
+			} else {
+				// Sizes are looked up in one batch, in the order the
+				// database finds best. Answers are sent in the order of the
+				// request as soon as all earlier ones are known.
+				AsyncObjectSizeQueue<RequestedObject> sizes = or
+						.getObjectSize(objects, true);
+				try {
+					for (;;) {
+						try {
+							if (!sizes.next()) {
+								break;
+							}
+						} catch (MissingObjectException e) {
+							throw new PackProtocolException(MessageFormat.format(
+									JGitText.get().missingObject,
+									e.getObjectId().name()), e);
+						}
+						RequestedObject obj = sizes.getCurrent();
+						answers[obj.index] = objectInfo(or, attributes, obj,
+								sizes.getSize());
+						sent = sendObjectInfo(pckOut, answers, first, sent);
+					}
+				} finally {
+					sizes.release();
+				}
+			}
+		}
+		if (sent < first.length) {
+			throw new PackProtocolException(MessageFormat.format(
+					JGitText.get().missingObject, oids.get(sent).name()));
+		}
+		pckOut.end();
+	}
+
+	private static int sendObjectInfo(PacketLineOut pckOut, String[] answers,
+			int[] first, int sent) throws IOException {
+		for (; sent < first.length && answers[first[sent]] != null; sent++) {
+			pckOut.writeString(answers[first[sent]]);
+		}
+		return sent;
+	}
+
+	private static String objectInfo(ObjectReader or, List<String> attributes,
+			RequestedObject obj, long size) throws IOException {
+		StringBuilder b = new StringBuilder(obj.getName());
+		for (String attribute : attributes) {
+			b.append(' ');
+			if (attribute.equals(ObjectInfoRequest.ATTRIBUTE_SIZE)) {
+				b.append(size);
+				continue;
+			}
 			try {
-				size = or.getObjectSize(oid, ObjectReader.OBJ_ANY);
+				b.append(Constants.typeString(or.getObjectType(obj)));
 			} catch (MissingObjectException e) {
-				throw new PackProtocolException(MessageFormat
-						.format(JGitText.get().missingObject, oid.name()), e);
+				throw new PackProtocolException(MessageFormat.format(
+						JGitText.get().missingObject, obj.name()), e);
 			}
+		}
+		return b.toString();
+	}
+
+	/** Object of an object-info request, remembering its position. */
+	private static class RequestedObject extends ObjectId {
+		final int index;
 
-			pckOut.writeString(oid.getName() + ' ' + size);
+		RequestedObject(AnyObjectId id, int index) {
+			super(id);
+			this.index = index;
 		}
+	}
 
+	private void bundleUri(PacketLineOut pckOut) throws IOException {
+		// The command takes no arguments yet, skip whatever was sent.
+		String line;
+		do {
+			line = pckIn.readString();
+		} while (!PacketLineIn.isEnd(line));
+
+		BundleList list = bundleUriProvider.getBundleList(db);
+		if (list != null) {
+			for (String s : list.toLines()) {
+				pckOut.writeString(s + '\n');
+			}
+		}
 		pckOut.end();
 	}
 
@@ -1364,6 +1551,11 @@ private boolean serveOneCommandV2(PacketLineOut pckOut) throws IOException {
 			objectInfo(pckOut);
 			return false;
 		}
+		if (bundleUriProvider != null
+				&& command.equals("command=" + COMMAND_BUNDLE_URI)) { //$NON-NLS-1$
+			bundleUri(pckOut);
+			return false;
+		}
 		throw new PackProtocolException(MessageFormat
 				.format(JGitText.get().unknownTransportCommand, command));
 	}
@@ -1394,6 +1586,9 @@ private List<String> getV2CapabilityAdvertisement() {
 		if (transferConfig.isAdvertiseObjectInfo()) {
 			caps.add(COMMAND_OBJECT_INFO);
 		}
+		if (bundleUriProvider != null) {
+			caps.add(COMMAND_BUNDLE_URI);
+		}
 		caps.add(OPTION_AGENT + "=" + UserAgent.get());
 
 		return caps;
@@ -1744,8 +1939,10 @@ private boolean negotiate(FetchRequest req,
 					pckOut.writeString(PACKET_ACK + last.name() + '\n');
 					return true;
 				}
-				if (!biDirectionalPipe)
+				if (!biDirectionalPipe) {
+					saveNegotiation();
 					return false;
+				}
 				pckOut.flush();
 
 			} else if (line.startsWith(PACKET_HAVE)
@@ -1779,8 +1976,13 @@ private ObjectId processHaveLines(List<ObjectId> peerHas, ObjectId last,
 			Option option)
 			throws IOException {
 		preUploadHook.onBeginNegotiateRound(this, wantIds, peerHas.size());
-		if (wantAll.isEmpty() && !wantIds.isEmpty())
+		if (wantAll.isEmpty() && !wantIds.isEmpty()) {
+			NegotiationCache.State cached = findNegotiation();
 			parseWants(accumulator);
+			if (cached != null) {
+				restoreNegotiation(cached);
+			}
+		}
 		if (peerHas.isEmpty())
 			return last;
 		accumulator.haves += peerHas.size();
@@ -1853,6 +2055,66 @@ private ObjectId processHaveLines(List<ObjectId> peerHas, ObjectId last,
 		return last;
 	}
 
+	@Nullable
+	private NegotiationCache.State findNegotiation() {
+		String sid = currentRequest != null ? currentRequest.getClientSID()
+				: null;
+		if (negotiationCache == null || biDirectionalPipe || sid == null) {
+			return null;
+		}
+		negotiationKey = NegotiationCache.key(db, sid, wantIds);
+		return negotiationCache.get(negotiationKey);
+	}
+
+	private void restoreNegotiation(NegotiationCache.State state)
+			throws IOException {
+		if (state.oldestTime != 0
+				&& (oldestTime == 0 || state.oldestTime < oldestTime)) {
+			oldestTime = state.oldestTime;
+		}
+		for (ObjectId id : state.satisfied) {
+			RevObject want = walk.lookupOrNull(id);
+			if (want != null && want.has(WANT)) {
+				want.add(SATISFIED);
+			}
+		}
+		// The client may not repeat all of them, but it still has them.
+		AsyncRevObjectQueue q = walk.parseAny(state.common, false);
+		try {
+			for (;;) {
+				RevObject obj;
+				try {
+					obj = q.next();
+				} catch (MissingObjectException notFound) {
+					continue;
+				}
+				if (obj == null) {
+					break;
+				}
+				addCommonBase(obj);
+			}
+		} finally {
+			q.release();
+		}
+	}
+
+	private void saveNegotiation() {
+		if (negotiationKey == null) {
+			return;
+		}
+		List<ObjectId> common = new ArrayList<>(commonBase.size());
+		for (RevObject o : commonBase) {
+			common.add(o.copy());
+		}
+		List<ObjectId> satisfied = new ArrayList<>();
+		for (RevObject o : wantAll) {
+			if (o.has(SATISFIED)) {
+				satisfied.add(o.copy());
+			}
+		}
+		negotiationCache.put(negotiationKey, common, satisfied, oldestTime);
+	}
+
 	private boolean shouldGiveUp(List<ObjectId> peerHas, PacketLineOut out, int missCnt)
 			throws IOException {
 		boolean readySent = false;
@@ -2083,8 +2345,17 @@ private static void checkNotAdvertisedWants(UploadPack up,
 			}
 
 			// All wants are commits, we can use ReachabilityChecker
-			ReachabilityChecker reachabilityChecker = reader
-					.createReachabilityChecker(walk);
+			int threads = up.transferConfig.getReachabilityCheckThreads();
+			ReachabilityChecker reachabilityChecker;
+			Executor executor = up.packConfig != null
+					? up.packConfig.getExecutor()
+					: null;
+			if (threads != 1 && executor != null) {
+				reachabilityChecker = new ParallelReachabilityChecker(walk,
+						threads, executor);
+			} else {
+				reachabilityChecker = reader.createReachabilityChecker(walk);
+			}
 
 			Stream<RevCommit> reachableCommits = importantRefsFirst(visibleRefs)
 					.map(UploadPack::refToObjectId)
@@ -2325,6 +2596,9 @@ private void sendPack(ProgressMonitor pm, PacketLineOut pckOut,
 			PackStatistics.Accumulator accumulator,
 			@Nullable Collection<Ref> allTags, List<ObjectId> unshallowCommits,
 			List<ObjectId> deepenNots) throws IOException {
+		if (negotiationKey != null) {
+			negotiationCache.remove(negotiationKey);
+		}
 		if (wantAll.isEmpty()) {
 			preUploadHook.onSendPack(this, wantIds, commonBase);
 		} else {
@@ -2332,6 +2606,25 @@ private void sendPack(ProgressMonitor pm, PacketLineOut pckOut,
 		}
 		msgOut.flush();
 
+		FetchResponseCache.Writer responseWriter = null;
+		if (fetchResponseCache != null && req instanceof FetchV2Request
+				&& (cachedPackUriProvider == null || ((FetchV2Request) req)
+						.getPackfileUriProtocols().isEmpty())) {
+			ObjectId key = FetchResponseCache.key(db, req, wantIds,
+					commonBase, deepenNots,
+					req.getClientCapabilities().contains(OPTION_INCLUDE_TAG)
+							? allTags
+							: null);
+			try (InputStream in = fetchResponseCache.open(key)) {
+				if (in != null) {
+					sendCachedPack(in, pckOut, packOut, accumulator);
+					return;
+				}
+			}
+			responseWriter = fetchResponseCache.newWriter(key, packOut);
+			packOut = responseWriter;
+		}
+
 		PackConfig cfg = packConfig;
 		if (cfg == null)
 			cfg = new PackConfig(db);
@@ -2461,6 +2754,10 @@ else if (ref.getName().startsWith(Constants.R_HEADS))
 			}
 			pw.enableSearchForReuseTimeout();
 			pw.writePack(pm, NullProgressMonitor.INSTANCE, packOut);
+			if (responseWriter != null) {
+				responseWriter.commit();
+				responseWriter = null;
+			}
 
 			if (msgOut != NullOutputStream.INSTANCE) {
 				String msg = pw.getStatistics().getMessage() + '\n';
@@ -2469,6 +2766,9 @@ else if (ref.getName().startsWith(Constants.R_HEADS))
 			}
 
 		} finally {
+			if (responseWriter != null) {
+				responseWriter.abort();
+			}
 			statistics = pw.getStatistics();
 			if (statistics != null) {
 				postUploadHook.onPostUpload(statistics);
@@ -2477,6 +2777,28 @@ else if (ref.getName().startsWith(Constants.R_HEADS))
 		}
 	}
 
+	private void sendCachedPack(InputStream in, PacketLineOut pckOut,
+			OutputStream packOut, PackStatistics.Accumulator accumulator)
+			throws IOException {
+		if (pckOut.isUsingSideband()) {
+			pckOut.writeString(GitProtocolConstants.SECTION_PACKFILE + '\n');
+		}
+		byte[] buf = new byte[SideBandOutputStream.MAX_BUF];
+		IO.readFully(in, buf, 0, 12);
+		accumulator.totalObjects = NB.decodeUInt32(buf, 8);
+		packOut.write(buf, 0, 12);
+		long size = 12;
+		int n;
+		while ((n = in.read(buf)) > 0) {
+			packOut.write(buf, 0, n);
+			size += n;
+		}
+		packOut.flush();
+		accumulator.totalBytes = size;
+		statistics = new PackStatistics(accumulator);
+		postUploadHook.onPostUpload(statistics);
+	}
+
 	private static void findSymrefs(
 			final RefAdvertiser adv, final Map<String, Ref> refs) {
 		Ref head = refs.get(Constants.HEAD);